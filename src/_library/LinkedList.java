@@ -340,9 +340,8 @@ public class LinkedList < E > implements Iterable < E > {
 	
 	/**
 	 * checks if this list equals another list.
-	 * the given object to compare should implement <code>equals(...)</code>
-	 * <p>
-	 * <u>you cannot compare a linkedlist to itself. that will screw the iterators up</u>
+	 * the given object to compare should implement <code>equals(...)</code>.
+	 * this does not move the current element pointer of either list.
 	 */
 	@Override
 	public boolean equals( Object anObject ) {
@@ -358,8 +357,8 @@ public class LinkedList < E > implements Iterable < E > {
 			
 			//if the sizes of this list and the list to compare are the same,
 			//go through and make sure the elements are equal
-			Iterator < ? > compareListIterator = toCompare.iterator();
-			for ( E elementInThisList : this ) {
+			Iterator < ? > compareListIterator = toCompare.readOnlyView().iterator();
+			for ( E elementInThisList : this.readOnlyView() ) {
 				
 				//compare the elements of each list
 				Object elementToCompare = compareListIterator.next();
@@ -385,43 +384,49 @@ public class LinkedList < E > implements Iterable < E > {
 		}
 	}
 	
+	/**
+	 * hash code consistent with <code>equals(...)</code>: lists with equal elements
+	 * in the same order have the same hash code. this does not move the current
+	 * element pointer.
+	 */
 	@Override
 	public int hashCode() {
-		// do not deal with this
-		return super.hashCode();
+		int rtn = 1;
+		for ( Link aLink = this.m_first ; aLink != null ; aLink = aLink.next() ) {
+			E element = aLink.value();
+			rtn = 31 * rtn + ( element == null ? 0 : element.hashCode() );
+		}
+		return rtn;
 	}
 	
 	/**
 	 * returns a copy of the linked list. the links in the list are deep copies
-	 * but the elements to which the links point are shallow.
+	 * but the elements to which the links point are shallow. this does not
+	 * move the current element pointer.
 	 */
 	@Override
 	public LinkedList < E > clone() {
 		LinkedList < E > rtn = new LinkedList < E > ();
-		for ( E element : this ) {
+		for ( E element : this.readOnlyView() ) {
 			rtn.add( element );
 		}
 		return rtn;
 	}
 	
+	/**
+	 * this does not move the current element pointer
+	 */
 	@Override
 	public String toString() {
-		moveToStart();
-		String rtn = "[";
-		
-		//add the first element to the representation
-		if ( hasCurrent() ) {
-			rtn += this.m_current.toString();
-			advance();
-			
-			while ( hasCurrent() ) {
-				E nextValue = get();
-				rtn += ", " + nextValue.toString();
-				advance();
+		StringBuilder rtn = new StringBuilder( "[" );
+		for ( Link aLink = this.m_first ; aLink != null ; aLink = aLink.next() ) {
+			if ( aLink != this.m_first ) {
+				rtn.append( ", " );
 			}
+			rtn.append( aLink.value() );
 		}
-		rtn += "]";
-		return rtn;
+		rtn.append( "]" );
+		return rtn.toString();
 	}
 	
 	
@@ -430,6 +435,21 @@ public class LinkedList < E > implements Iterable < E > {
 		moveToHead();
 		return this.m_iterator;
 	}
+	
+	/**
+	 * @return			a read-only view of this list that does not copy it. iterating
+	 * 					through the view does not move the current element pointer, so
+	 * 					any number of iterations through the view may be in progress at once
+	 */
+	public Iterable < E > readOnlyView() {
+		return new Iterable < E > () {
+			
+			@Override
+			public Iterator < E > iterator() {
+				return new ReadOnlyIterator();
+			}
+		};
+	}
 
 
 	/**
@@ -461,6 +481,37 @@ public class LinkedList < E > implements Iterable < E > {
 		
 	}
 	
+	/**
+	 * iterates through the links of this list without using the current element pointer
+	 */
+	private class ReadOnlyIterator implements Iterator < E > {
+		
+		/**
+		 * the link with the next value to return
+		 */
+		private Link m_nextLink = LinkedList.this.m_first;
+		
+		@Override
+		public boolean hasNext() {
+			return this.m_nextLink != null;
+		}
+		
+		@Override
+		public E next() {
+			if ( this.m_nextLink == null ) {
+				throw new NoSuchElementException();
+			}
+			E rtn = this.m_nextLink.value();
+			this.m_nextLink = this.m_nextLink.next();
+			return rtn;
+		}
+		
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException( "cannot modify a read-only view" );
+		}
+	}
+	
 	/**
 	 * a link in this linked list 
 	 * 
@@ -0,0 +1,15 @@
+package calculate;
+
+/**
+ * receives the results of a batch of evaluations as they complete
+ */
+public interface BatchListener {
+
+	/**
+	 * called on the thread that started the batch, once for every input, in
+	 * the order in which the evaluations complete
+	 * 
+	 * @param result			the outcome of evaluating one input
+	 */
+	public void evaluated( BatchResult result );
+}
@@ -0,0 +1,69 @@
+package calculate;
+
+import calculate.structures.Expression;
+
+/**
+ * the outcome of evaluating one input of a batch: either the evaluated
+ * expression or the exception that stopped its evaluation
+ */
+final public class BatchResult {
+
+	/**
+	 * position of the input in the batch, starting at 0
+	 */
+	final private int m_index;
+	final private String m_input;
+	final private Expression m_expression;
+	final private RuntimeException m_error;
+
+	BatchResult( int index , String input , Expression expression , RuntimeException error ) {
+		this.m_index = index;
+		this.m_input = input;
+		this.m_expression = expression;
+		this.m_error = error;
+	}
+
+	/**
+	 * @return			position of the input in the batch, starting at 0
+	 */
+	public int getIndex() {
+		return this.m_index;
+	}
+
+	public String getInput() {
+		return this.m_input;
+	}
+
+	/**
+	 * @return			if the input was evaluated without errors
+	 */
+	public boolean isSuccessful() {
+		return this.m_error == null;
+	}
+
+	/**
+	 * @return			the evaluated expression, or <code>null</code> if the evaluation failed
+	 */
+	public Expression getExpression() {
+		return this.m_expression;
+	}
+
+	/**
+	 * @return			the exception that stopped the evaluation, or <code>null</code> if
+	 * 					the evaluation succeeded. a <code>ParseException</code> means part of
+	 * 					the input was not recognized, a <code>SyntaxException</code> means the
+	 * 					input is not a valid expression or cannot be evaluated, and a
+	 * 					<code>BudgetExceededException</code> means the evaluation exceeded its budget
+	 */
+	public RuntimeException getError() {
+		return this.m_error;
+	}
+
+	@Override
+	public String toString() {
+		if ( this.m_error == null ) {
+			return this.m_index + ": " + this.m_expression.getResult();
+		}
+		return this.m_index + ": " + this.m_error.getMessage();
+	}
+}
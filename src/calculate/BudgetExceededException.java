@@ -0,0 +1,49 @@
+package calculate;
+
+/**
+ * thrown when an evaluation is stopped because it ran out of its
+ * <code>EvaluationBudget</code> or was cancelled
+ */
+public class BudgetExceededException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the evaluation ran past its deadline
+	 */
+	final public static int TIME_LIMIT = 0;
+
+	/**
+	 * an intermediate result had more terms than allowed
+	 */
+	final public static int TERM_LIMIT = 1;
+
+	/**
+	 * an intermediate result had a coefficient with more bits than allowed
+	 */
+	final public static int COEFFICIENT_LIMIT = 2;
+
+	/**
+	 * the evaluation was cancelled
+	 */
+	final public static int CANCELLED = 3;
+
+	final private int m_reason;
+
+	public BudgetExceededException( String errorMessage , int reason ) {
+		super( errorMessage );
+		this.m_reason = reason;
+	}
+
+	/**
+	 * @return			why the evaluation was stopped: <code>TIME_LIMIT</code>,
+	 * 					<code>TERM_LIMIT</code>, <code>COEFFICIENT_LIMIT</code> or
+	 * 					<code>CANCELLED</code>
+	 */
+	public int getReason() {
+		return this.m_reason;
+	}
+}
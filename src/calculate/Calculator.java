@@ -1,11 +1,26 @@
 package calculate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import calculate.constants.Pi;
 import calculate.functions.CosineFunction;
 import calculate.functions.SineFunction;
+import calculate.misc.CloseParenthesis;
+import calculate.misc.Comma;
+import calculate.misc.OpenParenthesis;
 import calculate.operators.AddOperator;
 import calculate.operators.DivideOperator;
 import calculate.operators.ExponentiateOperator;
@@ -13,32 +28,91 @@ import calculate.operators.MultiplyOperator;
 import calculate.operators.SubtractOperator;
 import calculate.structures.Combinable;
 import calculate.structures.Expression;
+import calculate.structures.KeywordTrie;
 import calculate.structures.Operator;
 import calculate.structures.Token;
 import calculate.structures.functional.Function;
 import calculate.structures.polynomial.Constant;
+import calculate.structures.polynomial.MonomialOrder;
 import calculate.structures.polynomial.Numerical;
 import calculate.structures.polynomial.Variable;
 
 /**
- * environment in which calculations may occur
+ * environment in which calculations may occur.
+ * <p>
+ * one environment may be shared by many threads. evaluations only read the
+ * environment: the definitions and settings are kept in an immutable
+ * <code>Snapshot</code> that is replaced, not modified, whenever something
+ * changes, and all the other state of an evaluation belongs to its <code>Expression</code>.
+ * definitions and settings made while evaluations are running take effect for
+ * evaluations that start afterwards.
+ * <p>
+ * the operators, functions and built-in constants are shared by all environments,
+ * so a new environment takes constant time and little memory to create. an
+ * environment can also be forked into a new session in constant time. the session
+ * starts with the definitions and settings of the environment but changes to either
+ * one do not affect the other. any earlier snapshot of a session can be restored,
+ * and a session can keep a limited history of its changes so they can be undone.
+ * <p>
+ * batches of independent inputs can be evaluated in parallel with <code>evaluateAll</code>.
  */
 public class Calculator {
 
 	/**
-	 * map by name to all defined operators
+	 * map by name to all operators, which are the same in every environment
 	 */
-	private HashMap< String, Operator > m_operators = new HashMap< String, Operator >();
+	final private static HashMap< String, Operator > OPERATORS = createOperators();
 	
 	/**
-	 * map by name to all defined variables
+	 * names of all operators, commas and parentheses, which are the
+	 * same in every environment
 	 */
-	private HashMap< String, Variable > m_variables = new HashMap< String, Variable >();
+	final private static KeywordTrie BUILT_IN_KEYWORDS = createBuiltInKeywords();
 	
 	/**
-	 * map by name to all defined functions
+	 * map by name to all pre-defined functions, which are the same in every environment
 	 */
-	private HashMap< String, Function > m_functions = new HashMap< String, Function >();
+	final private static Map< String, Function > FUNCTIONS = createFunctions();
+	
+	/**
+	 * the definitions and settings every environment starts with. its functions and
+	 * constants have no environment of their own, so the tokenizer gives each copy
+	 * of them the environment that reads it
+	 */
+	final private static Snapshot BASE_SNAPSHOT = createBaseSnapshot();
+	
+	/**
+	 * maximum number of inputs of a batch that may be waiting to be evaluated or
+	 * have their results reported at once, so that batches read from large files
+	 * do not have to be kept in memory
+	 */
+	final private static int MAX_PENDING_EVALUATIONS = 1024;
+	
+	/**
+	 * threads on which parts of evaluations are computed in parallel, one per
+	 * processor, used by every environment that is not given its own pool
+	 */
+	final private static ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+	
+	/**
+	 * all definitions and settings, including the names of all defined operators,
+	 * functions and variables, which the tokenizer matches against the input.
+	 * the snapshot is replaced whenever something is defined or changed
+	 */
+	private volatile Snapshot m_state;
+	
+	/**
+	 * map by variable name to the integer id used to pack
+	 * the exponents of monomials. shared with forked sessions so that
+	 * they can use each other's variables
+	 */
+	final private ConcurrentHashMap< String, Integer > m_variableIds;
+	
+	/**
+	 * held while defining variables or changing settings, so that concurrent
+	 * changes do not overwrite each other
+	 */
+	final private Object m_writeLock = new Object();
 	
 	/**
 	 * specifies outputs to be approximate (in decimal form)
@@ -49,7 +123,6 @@ public class Calculator {
 	 * specifies outputs to be exact (in fraction form)
 	 */
 	public static int OUTPUT_EXACT = 1;
-	private int m_outputMode = OUTPUT_APPROXIMATE;
 	
 	public static int DEFAULT_SCALE = 12;
 	private int m_scale = DEFAULT_SCALE;
@@ -57,24 +130,353 @@ public class Calculator {
 	public static int DEFAULT_DIVISION_ITERATIONS = 25;
 	private int m_maxDivisionIterations = DEFAULT_DIVISION_ITERATIONS;
 	
+	/**
+	 * incremented whenever something that affects the results of evaluations
+	 * changes, e.g. a variable is defined or the output mode is changed. it is
+	 * incremented before the change is made, so an evaluation that sees the
+	 * change also sees the new version
+	 */
+	private volatile long m_version = 0;
+	
+	/**
+	 * recently evaluated expressions, or <code>null</code> if evaluations are not cached
+	 */
+	private volatile EvaluationCache m_cache = null;
+	
+	/**
+	 * threads on which expensive subtrees are simplified and large products are
+	 * multiplied in parallel. both use the same pool, so a product inside a subtree
+	 * is split among the threads that simplify the subtrees instead of competing
+	 * with them. shared with forked sessions
+	 */
+	private volatile ForkJoinPool m_pool = DEFAULT_POOL;
+	
+	/**
+	 * most changes that can be undone. no undo history is kept by default, so that
+	 * a long session does not keep every one of its earlier snapshots
+	 */
+	private volatile int m_undoLimit = 0;
+	
 	public Calculator() {
+		this.m_variableIds = new ConcurrentHashMap< String, Integer >();
+		this.m_state = BASE_SNAPSHOT;
+	}
+	
+	/**
+	 * creates a session that starts with the definitions and settings of the given
+	 * environment and shares its functions and variable ids
+	 * 
+	 * @param environment		the environment to fork
+	 */
+	private Calculator( Calculator environment ) {
+		this.m_variableIds = environment.m_variableIds;
+		this.m_state = environment.m_state;
+		this.m_undoLimit = environment.m_undoLimit;
+		this.m_scale = environment.m_scale;
+		this.m_maxDivisionIterations = environment.m_maxDivisionIterations;
+		this.m_pool = environment.m_pool;
+		EvaluationCache cache = environment.m_cache;
+		if ( cache != null ) {
+			this.m_cache = new EvaluationCache( cache.getCapacity() );
+		}
+	}
+	
+	private static HashMap< String, Operator > createOperators() {
 		
 		//add the operators +, -, *, /, ^
-		this.m_operators.put( AddOperator.REPRESENTATION , new AddOperator() );
-		this.m_operators.put( SubtractOperator.REPRESENTATION , new SubtractOperator() );
-		this.m_operators.put( MultiplyOperator.REPRESENTATION , new MultiplyOperator() );
-		this.m_operators.put( DivideOperator.REPRESENTATION , new DivideOperator() );
-		this.m_operators.put( ExponentiateOperator.REPRESENTATION , new ExponentiateOperator() );
+		HashMap< String, Operator > rtn = new HashMap< String, Operator >();
+		rtn.put( AddOperator.REPRESENTATION , new AddOperator() );
+		rtn.put( SubtractOperator.REPRESENTATION , new SubtractOperator() );
+		rtn.put( MultiplyOperator.REPRESENTATION , new MultiplyOperator() );
+		rtn.put( DivideOperator.REPRESENTATION , new DivideOperator() );
+		rtn.put( ExponentiateOperator.REPRESENTATION , new ExponentiateOperator() );
+		return rtn;
+	}
+	
+	private static KeywordTrie createBuiltInKeywords() {
+		KeywordTrie rtn = new KeywordTrie();
+		for ( Operator anOperator : OPERATORS.values() ) {
+			rtn = rtn.put( anOperator );
+		}
 		
-		//add all pre-defined functions
-		this.m_functions.put( SineFunction.REPRESENTATION , new SineFunction( this ) );
-		this.m_functions.put( CosineFunction.REPRESENTATION , new CosineFunction( this ) );
+		//commas and parentheses are also read in by the tokenizer
+		rtn = rtn.put( new Comma() );
+		rtn = rtn.put( new OpenParenthesis() );
+		rtn = rtn.put( new CloseParenthesis() );
+		return rtn;
+	}
+	
+	private static Map< String, Function > createFunctions() {
+		HashMap< String, Function > rtn = new HashMap< String, Function >();
+		rtn.put( SineFunction.REPRESENTATION , new SineFunction( null ) );
+		rtn.put( CosineFunction.REPRESENTATION , new CosineFunction( null ) );
+		return Collections.unmodifiableMap( rtn );
+	}
+	
+	private static Snapshot createBaseSnapshot() {
+		KeywordTrie keywords = BUILT_IN_KEYWORDS;
+		for ( Function aFunction : FUNCTIONS.values() ) {
+			keywords = keywords.putFunction( aFunction );
+		}
 		
 		//add all pre-defined constants
-		this.m_variables.put( Pi.REPRESENTATION , new Pi( this ) );
+		keywords = keywords.put( new Pi( null ) );
+		return new Snapshot( keywords , OUTPUT_APPROXIMATE , MonomialOrder.DISPLAY , null , null );
+	}
+	
+	/**
+	 * creates a new session that starts with the definitions and settings of this
+	 * environment. this takes constant time, since the definitions are shared until
+	 * one of the environments changes them. values from either environment may be
+	 * used in the other
+	 * 
+	 * @return					the new session
+	 */
+	public Calculator fork() {
+		return new Calculator( this );
 	}
 	
+	/**
+	 * @return					the current definitions and settings of this environment
+	 */
+	public Snapshot getSnapshot() {
+		return this.m_state;
+	}
+	
+	/**
+	 * restores definitions and settings that this environment, or an environment forked
+	 * from the same environment, had earlier. snapshots without any variables may be
+	 * restored in any environment
+	 * 
+	 * @param snapshot			the snapshot to restore
+	 * @throws IllegalArgumentException		if the snapshot is from an unrelated environment
+	 */
+	public void restore( Snapshot snapshot ) {
+		if ( snapshot.getVariableIds() != null && snapshot.getVariableIds() != this.m_variableIds ) {
+			throw new IllegalArgumentException( "snapshot is from an unrelated environment" );
+		}
+		synchronized ( this.m_writeLock ) {
+			this.m_version++;
+			this.m_state = snapshot;
+		}
+	}
+	
+	/**
+	 * undoes the last definition or change of settings. only changes made while
+	 * an undo limit is set can be undone
+	 * 
+	 * @return					if there was anything to undo
+	 */
+	public boolean undo() {
+		synchronized ( this.m_writeLock ) {
+			Snapshot previous = this.m_state.getPrevious();
+			if ( previous == null ) {
+				return false;
+			}
+			this.m_version++;
+			this.m_state = previous;
+			return true;
+		}
+	}
+	
+	/**
+	 * @param environment		another environment
+	 * @return					if values from the other environment may be combined with
+	 * 							values from this one, because it was forked from this one, or
+	 * 							they were forked from the same environment
+	 */
+	public boolean sharesVariablesWith( Calculator environment ) {
+		return environment != null && this.m_variableIds == environment.m_variableIds;
+	}
+	
+	/**
+	 * evaluates the given input. if caching is enabled and the same input was
+	 * evaluated since the environment last changed, the cached expression is returned
+	 * 
+	 * @param userInput			the input to evaluate
+	 * @return					the evaluated expression. cached expressions are shared,
+	 * 							so they must not be modified
+	 * @throws ParseException				if part of the input is not recognized
+	 * @throws SyntaxException				if the input is not a valid expression, or
+	 * 										cannot be evaluated
+	 */
 	public Expression evaluate( String userInput ) {
+		return evaluate( userInput , null );
+	}
+	
+	/**
+	 * evaluates the given input within a budget. the evaluation stops as soon as it
+	 * runs past the deadline of the budget, produces an intermediate result with too
+	 * many terms or too large a coefficient, or is cancelled from another thread.
+	 * if caching is enabled and the same input was evaluated since the environment
+	 * last changed, the cached expression is returned
+	 * 
+	 * @param userInput			the input to evaluate
+	 * @param budget			limits on the evaluation, or <code>null</code> if it is not limited
+	 * @return					the evaluated expression. cached expressions are shared,
+	 * 							so they must not be modified
+	 * @throws ParseException				if part of the input is not recognized
+	 * @throws SyntaxException				if the input is not a valid expression, or
+	 * 										cannot be evaluated
+	 * @throws BudgetExceededException		if the evaluation exceeded its budget
+	 */
+	public Expression evaluate( String userInput , EvaluationBudget budget ) {
+		
+		//a budget that is already spent or cancelled fails even if the result is cached
+		if ( budget != null ) {
+			budget.check();
+		}
+		EvaluationCache cache = this.m_cache;
+		if ( cache == null ) {
+			return evaluateInput( userInput , budget );
+		}
+		String key = EvaluationCache.normalize( userInput );
+		long version = this.m_version;
+		Expression rtn = cache.get( key , version );
+		if ( rtn == null ) {
+			rtn = evaluateInput( userInput , budget );
+			
+			//if the environment changed during the evaluation, the
+			//result may not match either version
+			if ( this.m_version == version ) {
+				cache.put( key , version , rtn );
+			}
+		}
+		return rtn;
+	}
+	
+	/**
+	 * evaluates one input of a batch, catching any errors so that they
+	 * are reported with the input instead of stopping the batch
+	 */
+	final private static class BatchEvaluation implements Callable< BatchResult > {
+		
+		final private Calculator m_environment;
+		final private int m_index;
+		final private String m_input;
+		
+		BatchEvaluation( Calculator environment , int index , String input ) {
+			this.m_environment = environment;
+			this.m_index = index;
+			this.m_input = input;
+		}
+		
+		@Override
+		public BatchResult call() {
+			try {
+				return new BatchResult( this.m_index , this.m_input , this.m_environment.evaluate( this.m_input ) , null );
+			} catch ( RuntimeException e ) {
+				return new BatchResult( this.m_index , this.m_input , null , e );
+			}
+		}
+	}
+	
+	/**
+	 * evaluates independent inputs in parallel on the pool of this environment, which
+	 * also computes the parts of each evaluation that are done in parallel
+	 * 
+	 * @param inputs			the inputs to evaluate
+	 * @return					the result of each input, in the same order as the inputs
+	 * @see #evaluateAll(Iterable, ExecutorService)
+	 * @see #setPool(ForkJoinPool)
+	 */
+	public List< BatchResult > evaluateAll( Iterable< String > inputs ) {
+		return evaluateAll( inputs , getPool() );
+	}
+	
+	/**
+	 * evaluates independent inputs in parallel on the given executor. an input
+	 * that cannot be evaluated does not stop the others: its result holds the
+	 * exception instead, as described by <code>BatchResult.getError</code>
+	 * 
+	 * @param inputs			the inputs to evaluate
+	 * @param executor			the threads on which to evaluate the inputs
+	 * @return					the result of each input, in the same order as the inputs
+	 */
+	public List< BatchResult > evaluateAll( Iterable< String > inputs , ExecutorService executor ) {
+		final ArrayList< BatchResult > rtn = new ArrayList< BatchResult >();
+		evaluateAll( inputs.iterator() , executor , new BatchListener() {
+			
+			@Override
+			public void evaluated( BatchResult result ) {
+				
+				//make room for results that complete before those of earlier inputs
+				while ( rtn.size() <= result.getIndex() ) {
+					rtn.add( null );
+				}
+				rtn.set( result.getIndex() , result );
+			}
+		});
+		return rtn;
+	}
+	
+	/**
+	 * evaluates independent inputs in parallel on the given executor and reports each
+	 * result as soon as it completes. inputs are only read as fast as they are evaluated,
+	 * so they can be streamed, e.g. from a file. an input that cannot be evaluated does
+	 * not stop the others: its result holds the exception instead, as described by
+	 * <code>BatchResult.getError</code>. definitions made while the batch is running
+	 * take effect for inputs that have not started evaluating yet
+	 * 
+	 * @param inputs			the inputs to evaluate
+	 * @param executor			the threads on which to evaluate the inputs
+	 * @param listener			receives the result of each input, on the calling thread
+	 */
+	public void evaluateAll( Iterator< String > inputs , ExecutorService executor , BatchListener listener ) {
+		CompletionService< BatchResult > completed = new ExecutorCompletionService< BatchResult >( executor );
+		int numPending = 0;
+		int index = 0;
+		while ( inputs.hasNext() ) {
+			
+			//wait for an evaluation to complete before reading in more inputs
+			if ( numPending == MAX_PENDING_EVALUATIONS ) {
+				listener.evaluated( takeBatchResult( completed ) );
+				numPending--;
+			}
+			completed.submit( new BatchEvaluation( this , index , inputs.next() ) );
+			numPending++;
+			index++;
+		}
+		while ( numPending > 0 ) {
+			listener.evaluated( takeBatchResult( completed ) );
+			numPending--;
+		}
+	}
+	
+	/**
+	 * waits for the next evaluation of a batch to complete
+	 * 
+	 * @return					the result of the evaluation
+	 */
+	private static BatchResult takeBatchResult( CompletionService< BatchResult > completed ) {
+		try {
+			return completed.take().get();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException( "interrupted while evaluating a batch" , e );
+		} catch ( ExecutionException e ) {
+			
+			//only errors get past the evaluation, which catches all exceptions
+			if ( e.getCause() instanceof Error ) {
+				throw ( Error ) e.getCause();
+			}
+			throw new IllegalStateException( e.getCause() );
+		}
+	}
+	
+	private Expression evaluateInput( String userInput , EvaluationBudget budget ) {
+		EvaluationBudget previousBudget = EvaluationBudget.setCurrent( budget );
+		try {
+			if ( budget != null ) {
+				budget.check();
+			}
+			return evaluateInput( userInput );
+		} finally {
+			EvaluationBudget.setCurrent( previousBudget );
+		}
+	}
+	
+	private Expression evaluateInput( String userInput ) {
 		Expression input = new Expression( userInput, this );
 		
 		//tokenize input
@@ -82,13 +484,8 @@ public class Calculator {
 		input.tokenize();
 		//input.printTokens();
 		
-		//apply implicit operations to input
-		//System.out.println("implicit");
-		input.applyImplicitMultiplication();
-		
-		//convert input to postfix
-		//System.out.println("postfix");
-		input.convertToPostfix();
+		//parse input, applying implicit operations
+		input.parse();
 		
 		//System.out.println("simplifying");
 		//simplify the input
@@ -107,7 +504,7 @@ public class Calculator {
 	 * @return							if the specified token is a defined operator
 	 */
 	public boolean containsOperator( String aRepresentation ) {
-		return this.m_operators.containsKey( aRepresentation );
+		return OPERATORS.containsKey( aRepresentation );
 	}
 	
 	/**
@@ -116,15 +513,15 @@ public class Calculator {
 	 * @return					the operator with the given name
 	 */
 	public Operator getOperator( String representation ) {
-		return this.m_operators.get( representation );
+		return OPERATORS.get( representation );
 	}
 	
 	/**
 	 * @return		an array of all defined operators in this environment
 	 */
 	public Operator[] getAllOperators() {
-		Collection<Operator> listOfOperators = this.m_operators.values();
-		return listOfOperators.toArray( new Operator[ this.m_operators.size() ] );
+		Collection<Operator> listOfOperators = OPERATORS.values();
+		return listOfOperators.toArray( new Operator[ OPERATORS.size() ] );
 	}
 	
 	/**
@@ -133,7 +530,7 @@ public class Calculator {
 	 * @return						if the specified token is a defined constant
 	 */
 	public boolean containsConstant( String aRepresentation ) {
-		return this.m_variables.containsKey( aRepresentation ) && ( this.m_variables.get( aRepresentation ) instanceof Constant );
+		return getVariable( aRepresentation ) instanceof Constant;
 	}
 	
 	/**
@@ -142,7 +539,7 @@ public class Calculator {
 	 * @return						the constant with the given textual representation
 	 */
 	public Constant getConstant( String representation ) {
-		return (Constant) this.m_variables.get( representation );
+		return (Constant) getVariable( representation );
 	}
 	
 	public void defineConstant( String name, Numerical value ) {
@@ -151,7 +548,7 @@ public class Calculator {
 		Constant constantToAdd = new Constant( this, name , value );
 		
 		//store the constant
-		this.m_variables.put( name , constantToAdd );
+		storeVariable( constantToAdd );
 	}
 	
 	/**
@@ -160,7 +557,7 @@ public class Calculator {
 	 * @return							if the specified token is a defined variable
 	 */
 	public boolean containsVariable( String aRepresentation ) {
-		return this.m_variables.containsKey( aRepresentation ); 
+		return getVariable( aRepresentation ) != null;
 	}
 	
 	/**
@@ -169,18 +566,78 @@ public class Calculator {
 	 * @return			the variable with the given name
 	 */
 	public Variable getVariable( String name ) {
-		return this.m_variables.get( name );
+		Token keyword = this.m_state.getKeywords().get( name );
+		return keyword instanceof Variable ? bind( ( Variable ) keyword ) : null;
+	}
+	
+	/**
+	 * @param variable		a defined variable or constant
+	 * @return				the variable, or a copy of it in this environment if it is a
+	 * 						built-in constant, which has no environment of its own
+	 */
+	private Variable bind( Variable variable ) {
+		if ( variable.getEnvironment() == null ) {
+			return ( Variable ) variable.copy( this , variable.getIndexInInput() );
+		}
+		return variable;
+	}
+	
+	/**
+	 * gives every variable name a unique integer id in this environment.
+	 * ids are assigned in the order names are first requested
+	 * 
+	 * @param name		name of a variable
+	 * @return			the id of the variable with the given name
+	 */
+	public int getVariableId( String name ) {
+		Integer id = this.m_variableIds.get( name );
+		if ( id == null ) {
+			
+			//ids are assigned one at a time so that no two names get the same id
+			synchronized ( this.m_variableIds ) {
+				id = this.m_variableIds.get( name );
+				if ( id == null ) {
+					id = Integer.valueOf( this.m_variableIds.size() );
+					this.m_variableIds.put( name , id );
+				}
+			}
+		}
+		return id.intValue();
 	}
 	
 	/**
 	 * @return			an array of all defined variables in this environment
 	 */
 	public Variable[] getAllVariables() {
-		Collection<Variable> listOfVariables = this.m_variables.values();
-		Variable[] allVariables = listOfVariables.toArray( new Variable[ this.m_variables.size() ] );
-		return allVariables;
+		ArrayList< Variable > allVariables = new ArrayList< Variable >();
+		for ( Token aKeyword : this.m_state.getKeywords().getTokens() ) {
+			if ( aKeyword instanceof Variable ) {
+				allVariables.add( bind( ( Variable ) aKeyword ) );
+			}
+		}
+		return allVariables.toArray( new Variable[ allVariables.size() ] );
+	}
+	
+	
+	/**
+	 * @return			names of all operators, functions and variables defined in
+	 * 					this environment, for tokenizing input
+	 */
+	public KeywordTrie getKeywords() {
+		return this.m_state.getKeywords();
 	}
 	
+	/**
+	 * stores a variable or constant, replacing any variable with the same name
+	 * 
+	 * @param variable		the variable to store
+	 */
+	private void storeVariable( Variable variable ) {
+		synchronized ( this.m_writeLock ) {
+			this.m_version++;
+			this.m_state = this.m_state.withKeywords( this.m_state.getKeywords().put( variable ) , this.m_variableIds , this.m_undoLimit );
+		}
+	}
 	
 	/**
 	 * defines a variable with a given name and unknown value
@@ -193,7 +650,7 @@ public class Calculator {
 		Variable variableToCreate = new Variable( this , name );
 		
 		//store the variable
-		this.m_variables.put( name , variableToCreate );
+		storeVariable( variableToCreate );
 	}
 	
 	/**
@@ -222,13 +679,13 @@ public class Calculator {
 			//if a value was calculated for the variable,
 			//assign that value to the variable
 			Variable variableToCreate = new Variable( this , name , (Combinable) variableValue );
-			this.m_variables.put( name , variableToCreate );
+			storeVariable( variableToCreate );
 		} else if (variableValue == null ) {
 			
 			//if no value was calculated for the variable,
 			//treat the variable as if it has an unknown value
 			Variable variableToCreate = new Variable( this , name );
-			this.m_variables.put( name, variableToCreate );
+			storeVariable( variableToCreate );
 		} else {
 			
 			//if an invalid value, such as an operator,
@@ -243,7 +700,7 @@ public class Calculator {
 	 * @return							if the specified token is a defined function
 	 */
 	public boolean containsFunction( String aRepresentation ) {
-		return this.m_functions.containsKey( aRepresentation );
+		return FUNCTIONS.containsKey( aRepresentation );
 	}
 	
 	/**
@@ -252,22 +709,40 @@ public class Calculator {
 	 * @return					function with the given representation
 	 */
 	public Function getFunction( String representation ) {
-		return this.m_functions.get( representation );
+		Function function = FUNCTIONS.get( representation );
+		return function == null ? null : function.copy( this , function.getIndexInInput() );
 	}
 	
 	/**
 	 * @return				an array of all defined functions in this environment
 	 */
 	public Function[] getAllFunctions() {
-		Collection<Function> listOfFunctions = this.m_functions.values();
-		return listOfFunctions.toArray( new Function[ this.m_functions.size() ] );
+		ArrayList< Function > listOfFunctions = new ArrayList< Function >();
+		for ( Function aFunction : FUNCTIONS.values() ) {
+			listOfFunctions.add( aFunction.copy( this , aFunction.getIndexInInput() ) );
+		}
+		return listOfFunctions.toArray( new Function[ listOfFunctions.size() ] );
 	}
 	
 	/**
 	 * @return			the type of output to be produced in this calculations environment
 	 */
 	public int getOutputMode() {
-		return this.m_outputMode;
+		return this.m_state.getOutputMode();
+	}
+	
+	/**
+	 * @param outputMode	the type of output to be produced in this calculations environment,
+	 * 						either <code>OUTPUT_APPROXIMATE</code> or <code>OUTPUT_EXACT</code>
+	 */
+	public void setOutputMode( int outputMode ) {
+		if ( outputMode != OUTPUT_APPROXIMATE && outputMode != OUTPUT_EXACT ) {
+			throw new IllegalArgumentException( "unknown output mode: " + outputMode );
+		}
+		synchronized ( this.m_writeLock ) {
+			this.m_version++;
+			this.m_state = this.m_state.withOutputMode( outputMode , this.m_undoLimit );
+		}
 	}
 	
 	/**
@@ -283,4 +758,94 @@ public class Calculator {
 	public int getMaxDivisionIterations() {
 		return this.m_maxDivisionIterations;
 	}
+	
+	/**
+	 * @return			order used to pick the leading terms of polynomials when dividing them
+	 */
+	public MonomialOrder getMonomialOrder() {
+		return this.m_state.getMonomialOrder();
+	}
+	
+	/**
+	 * @param order		order used to pick the leading terms of polynomials when dividing
+	 * 					them, e.g. <code>MonomialOrder.GREVLEX</code> for Groebner basis
+	 * 					computations
+	 */
+	public void setMonomialOrder( MonomialOrder order ) {
+		if ( order == null ) {
+			throw new IllegalArgumentException( "monomial order cannot be null" );
+		}
+		synchronized ( this.m_writeLock ) {
+			this.m_version++;
+			this.m_state = this.m_state.withMonomialOrder( order , this.m_undoLimit );
+		}
+	}
+	
+	/**
+	 * @return			most changes that can be undone
+	 */
+	public int getUndoLimit() {
+		return this.m_undoLimit;
+	}
+	
+	/**
+	 * keeps a history of the last changes so they can be undone. lowering the limit
+	 * forgets older changes at the next change
+	 * 
+	 * @param limit		most changes that can be undone, or 0 to keep no undo history
+	 */
+	public void setUndoLimit( int limit ) {
+		if ( limit < 0 ) {
+			throw new IllegalArgumentException( "undo limit cannot be negative: " + limit );
+		}
+		this.m_undoLimit = limit;
+	}
+	
+	/**
+	 * @return			number of times variables, constants or settings that affect the
+	 * 					results of evaluations have been changed in this environment
+	 */
+	public long getVersion() {
+		return this.m_version;
+	}
+	
+	/**
+	 * enables or disables caching of evaluated expressions. any expressions
+	 * already cached are discarded
+	 * 
+	 * @param capacity	maximum number of expressions to cache, or 0 to disable caching
+	 */
+	public void setCacheCapacity( int capacity ) {
+		if ( capacity < 0 ) {
+			throw new IllegalArgumentException( "cache capacity cannot be negative: " + capacity );
+		}
+		this.m_cache = capacity == 0 ? null : new EvaluationCache( capacity );
+	}
+	
+	/**
+	 * @return			the cache of evaluated expressions, with its hit, miss and eviction
+	 * 					counts, or <code>null</code> if caching is disabled
+	 */
+	public EvaluationCache getCache() {
+		return this.m_cache;
+	}
+	
+	/**
+	 * sets the threads on which parts of evaluations are computed in parallel. a pool
+	 * with a parallelism of 1 turns parallel evaluation off. the environment never shuts
+	 * the pool down, so a pool created by the caller must be shut down by the caller
+	 * once no evaluations use it. sessions forked afterwards use the same pool
+	 * 
+	 * @param pool		the pool, or <code>null</code> to use the pool shared by all environments
+	 */
+	public void setPool( ForkJoinPool pool ) {
+		this.m_pool = pool == null ? DEFAULT_POOL : pool;
+	}
+	
+	/**
+	 * @return			the threads on which parts of evaluations are computed in parallel
+	 */
+	public ForkJoinPool getPool() {
+		return this.m_pool;
+	}
 }
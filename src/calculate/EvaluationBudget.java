@@ -0,0 +1,177 @@
+package calculate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * limits on the resources that one evaluation may use: a deadline, the largest
+ * number of terms of any intermediate result, and the largest number of bits in
+ * any coefficient. the evaluation checks its budget as it goes: the size of every
+ * rational result, and the loops that multiply, exponentiate, divide, find greatest
+ * common divisors and factor. it throws a <code>BudgetExceededException</code> as
+ * soon as a limit is exceeded. an evaluation may also be cancelled from another
+ * thread, in which case it stops at its next check.
+ * <p>
+ * the budget of the evaluation running on a thread is kept in a thread-local
+ * variable, so that arithmetic deep inside the polynomial classes can check it
+ * without every method passing it along. tasks that simplify part of an evaluation
+ * on other threads take the budget with them.
+ */
+final public class EvaluationBudget {
+
+	/**
+	 * value of a limit that is not enforced
+	 */
+	final public static int NO_LIMIT = 0;
+
+	/**
+	 * budget of the evaluation running on each thread, if any
+	 */
+	final private static ThreadLocal < EvaluationBudget > CURRENT = new ThreadLocal < EvaluationBudget > ();
+
+	/**
+	 * <code>System.nanoTime</code> at which the budget was created
+	 */
+	final private long m_start;
+
+	/**
+	 * nanoseconds after <code>m_start</code> by which the evaluation must finish, saturated
+	 * at <code>Long.MAX_VALUE</code> so that very long time limits cannot overflow
+	 */
+	final private long m_timeLimit;
+	final private boolean m_hasDeadline;
+	final private int m_maxTerms;
+	final private int m_maxCoefficientBits;
+	private volatile boolean m_cancelled = false;
+
+	/**
+	 * creates a budget that is only limited by cancellation
+	 */
+	public EvaluationBudget() {
+		this( NO_LIMIT , NO_LIMIT , NO_LIMIT );
+	}
+
+	/**
+	 * @param timeLimit				milliseconds from now by which the evaluation must finish,
+	 * 								or <code>NO_LIMIT</code>
+	 * @param maxTerms				most terms any intermediate result may have, or <code>NO_LIMIT</code>
+	 * @param maxCoefficientBits	most bits in the numerator or denominator of any coefficient,
+	 * 								or <code>NO_LIMIT</code>
+	 */
+	public EvaluationBudget( long timeLimit , int maxTerms , int maxCoefficientBits ) {
+		if ( timeLimit < 0 || maxTerms < 0 || maxCoefficientBits < 0 ) {
+			throw new IllegalArgumentException( "limits cannot be negative" );
+		}
+		this.m_hasDeadline = timeLimit != NO_LIMIT;
+		this.m_start = System.nanoTime();
+		this.m_timeLimit = TimeUnit.MILLISECONDS.toNanos( timeLimit );
+		this.m_maxTerms = maxTerms;
+		this.m_maxCoefficientBits = maxCoefficientBits;
+	}
+
+	/**
+	 * stops the evaluation at its next check. may be called from any thread
+	 */
+	public void cancel() {
+		this.m_cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return this.m_cancelled;
+	}
+
+	/**
+	 * @throws BudgetExceededException		if the evaluation was cancelled or is past its deadline
+	 */
+	public void check() {
+		if ( this.m_cancelled ) {
+			throw new BudgetExceededException( "Evaluation cancelled" , BudgetExceededException.CANCELLED );
+		}
+		if ( this.m_hasDeadline && System.nanoTime() - this.m_start > this.m_timeLimit ) {
+			throw new BudgetExceededException( "Evaluation took too long" , BudgetExceededException.TIME_LIMIT );
+		}
+	}
+
+	/**
+	 * @param numTerms						number of terms in an intermediate result
+	 * @throws BudgetExceededException		if there are too many terms, or the evaluation
+	 * 										was cancelled or is past its deadline
+	 */
+	public void checkTerms( int numTerms ) {
+		check();
+		if ( this.m_maxTerms != NO_LIMIT && numTerms > this.m_maxTerms ) {
+			throw new BudgetExceededException( "Too many terms: " + numTerms + " is more than " + this.m_maxTerms , BudgetExceededException.TERM_LIMIT );
+		}
+	}
+
+	/**
+	 * @param bitLength						number of bits in the numerator or denominator of
+	 * 										a coefficient, which need not be calculated yet
+	 * @throws BudgetExceededException		if the coefficient has too many bits
+	 */
+	public void checkCoefficient( long bitLength ) {
+		if ( this.m_maxCoefficientBits != NO_LIMIT && bitLength > this.m_maxCoefficientBits ) {
+			throw new BudgetExceededException( "Coefficient too large: " + bitLength + " bits is more than " + this.m_maxCoefficientBits , BudgetExceededException.COEFFICIENT_LIMIT );
+		}
+	}
+
+	/**
+	 * @return					the budget of the evaluation running on this thread, or
+	 * 							<code>null</code> if it is not limited
+	 */
+	public static EvaluationBudget getCurrent() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * sets the budget of the evaluation running on this thread. the previous budget
+	 * should be restored when the evaluation is done
+	 * 
+	 * @param budget			the budget, or <code>null</code> if the evaluation is not limited
+	 * @return					the previous budget of this thread
+	 */
+	public static EvaluationBudget setCurrent( EvaluationBudget budget ) {
+		EvaluationBudget rtn = CURRENT.get();
+		if ( budget == null ) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set( budget );
+		}
+		return rtn;
+	}
+
+	/**
+	 * checks the budget of the evaluation running on this thread, if any
+	 * 
+	 * @see #check()
+	 */
+	public static void checkCurrent() {
+		EvaluationBudget budget = CURRENT.get();
+		if ( budget != null ) {
+			budget.check();
+		}
+	}
+
+	/**
+	 * checks the budget of the evaluation running on this thread, if any
+	 * 
+	 * @see #checkTerms(int)
+	 */
+	public static void checkCurrentTerms( int numTerms ) {
+		EvaluationBudget budget = CURRENT.get();
+		if ( budget != null ) {
+			budget.checkTerms( numTerms );
+		}
+	}
+
+	/**
+	 * checks the budget of the evaluation running on this thread, if any
+	 * 
+	 * @see #checkCoefficient(long)
+	 */
+	public static void checkCurrentCoefficient( long bitLength ) {
+		EvaluationBudget budget = CURRENT.get();
+		if ( budget != null ) {
+			budget.checkCoefficient( bitLength );
+		}
+	}
+}
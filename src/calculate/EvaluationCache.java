@@ -0,0 +1,156 @@
+package calculate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import calculate.structures.Expression;
+
+/**
+ * bounded cache of evaluated expressions, from which the least recently used
+ * expression is evicted when the cache is full. expressions are looked up by
+ * their input with spaces removed, and only count as a hit if the environment
+ * has not changed since they were evaluated, i.e. no variables, constants or
+ * settings that affect the result have been defined or changed.
+ * <p>
+ * the cache may be used by multiple threads at once.
+ */
+final public class EvaluationCache {
+
+	/**
+	 * an evaluated expression and the version of the environment it was evaluated in
+	 */
+	final private static class CachedExpression {
+
+		final private long m_version;
+		final private Expression m_expression;
+
+		CachedExpression( long version , Expression expression ) {
+			this.m_version = version;
+			this.m_expression = expression;
+		}
+	}
+
+	final private int m_capacity;
+
+	/**
+	 * map by normalized input to the expression evaluated from it, in order
+	 * of least recently used to most recently used
+	 */
+	final private LinkedHashMap < String , CachedExpression > m_entries;
+
+	private long m_hits = 0;
+	private long m_misses = 0;
+	private long m_evictions = 0;
+
+	/**
+	 * @param capacity			maximum number of expressions to keep
+	 */
+	EvaluationCache( int capacity ) {
+		if ( capacity <= 0 ) {
+			throw new IllegalArgumentException( "cache capacity must be positive: " + capacity );
+		}
+		this.m_capacity = capacity;
+		this.m_entries = new LinkedHashMap < String , CachedExpression > ( 16 , 0.75f , true ) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry( Map.Entry < String , CachedExpression > eldest ) {
+				if ( size() > EvaluationCache.this.m_capacity ) {
+					EvaluationCache.this.m_evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @param input				input to an environment
+	 * @return					the input with spaces removed, so that inputs that
+	 * 							tokenize the same way share an entry
+	 */
+	static String normalize( String input ) {
+		return input.replace( Expression.SPACE , "" );
+	}
+
+	/**
+	 * @param key				normalized input
+	 * @param version			current version of the environment
+	 * @return					the expression evaluated from the input in the current version of
+	 * 							the environment, or <code>null</code> if there is none
+	 */
+	synchronized Expression get( String key , long version ) {
+		CachedExpression entry = this.m_entries.get( key );
+		if ( entry == null ) {
+			this.m_misses++;
+			return null;
+		}
+
+		//entries from older versions of the environment are out of date
+		if ( entry.m_version != version ) {
+			this.m_entries.remove( key );
+			this.m_misses++;
+			return null;
+		}
+		this.m_hits++;
+		return entry.m_expression;
+	}
+
+	/**
+	 * @param key				normalized input
+	 * @param version			version of the environment in which the input was evaluated
+	 * @param expression		the evaluated expression
+	 */
+	synchronized void put( String key , long version , Expression expression ) {
+		this.m_entries.put( key , new CachedExpression( version , expression ) );
+	}
+
+	/**
+	 * removes every expression from the cache. the statistics are kept
+	 */
+	public synchronized void clear() {
+		this.m_entries.clear();
+	}
+
+	/**
+	 * @return			maximum number of expressions kept in the cache
+	 */
+	public int getCapacity() {
+		return this.m_capacity;
+	}
+
+	/**
+	 * @return			number of expressions in the cache
+	 */
+	public synchronized int size() {
+		return this.m_entries.size();
+	}
+
+	/**
+	 * @return			number of evaluations answered from the cache
+	 */
+	public synchronized long getHits() {
+		return this.m_hits;
+	}
+
+	/**
+	 * @return			number of evaluations that were not in the cache, including
+	 * 					those evaluated in an older version of the environment
+	 */
+	public synchronized long getMisses() {
+		return this.m_misses;
+	}
+
+	/**
+	 * @return			number of expressions removed to make room for others
+	 */
+	public synchronized long getEvictions() {
+		return this.m_evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "hits: " + this.m_hits + ", misses: " + this.m_misses + ", evictions: " + this.m_evictions + ", size: " + size() + "/" + this.m_capacity;
+	}
+}
@@ -0,0 +1,131 @@
+package calculate;
+
+import java.util.Map;
+
+import calculate.structures.KeywordTrie;
+import calculate.structures.polynomial.MonomialOrder;
+
+/**
+ * the definitions and settings of a <code>Calculator</code> at one point in time.
+ * snapshots are immutable, so taking one, and restoring it later, takes constant
+ * time. every change to a <code>Calculator</code> creates a new snapshot. if the
+ * <code>Calculator</code> keeps an undo history, the new snapshot also remembers
+ * a limited number of the ones before it, so the changes can be undone one at a time.
+ * <p>
+ * the built-in functions and constants are in one snapshot that is shared by
+ * every <code>Calculator</code>, so creating a new <code>Calculator</code> does not
+ * create them again.
+ * <p>
+ * the variables and constants of a snapshot are stored in a persistent
+ * <code>KeywordTrie</code>. a new snapshot shares everything but the path of the
+ * changed name with the one before it, so a long history takes little memory.
+ */
+final public class Snapshot {
+
+	/**
+	 * names of all defined operators, functions, variables and constants
+	 */
+	final private KeywordTrie m_keywords;
+
+	final private int m_outputMode;
+	final private MonomialOrder m_monomialOrder;
+
+	/**
+	 * the snapshot before the change that created this one, or <code>null</code>
+	 * if this is the first snapshot of its environment or no undo history is kept
+	 */
+	final private Snapshot m_previous;
+
+	/**
+	 * number of snapshots remembered before this one
+	 */
+	final private int m_depth;
+
+	/**
+	 * variable ids of the environments that may use this snapshot. the variables in
+	 * a snapshot may only be used by environments that give them the same ids.
+	 * <code>null</code> if the snapshot has no variables of its own and may be
+	 * used by any environment
+	 */
+	final private Map < String , Integer > m_variableIds;
+
+	Snapshot( KeywordTrie keywords , int outputMode , MonomialOrder monomialOrder , Snapshot previous , Map < String , Integer > variableIds ) {
+		this.m_keywords = keywords;
+		this.m_outputMode = outputMode;
+		this.m_monomialOrder = monomialOrder;
+		this.m_previous = previous;
+		this.m_depth = previous == null ? 0 : previous.m_depth + 1;
+		this.m_variableIds = variableIds;
+	}
+
+	/**
+	 * @param keywords		the keywords including the new variable or constant
+	 * @param variableIds	variable ids of the environment that defined it
+	 * @param undoLimit		most snapshots to remember before the new one
+	 * @return				a snapshot after a variable or constant has been defined
+	 */
+	Snapshot withKeywords( KeywordTrie keywords , Map < String , Integer > variableIds , int undoLimit ) {
+		return new Snapshot( keywords , this.m_outputMode , this.m_monomialOrder , trim( undoLimit ) , variableIds );
+	}
+
+	/**
+	 * @param outputMode	the new output mode
+	 * @param undoLimit		most snapshots to remember before the new one
+	 * @return				a snapshot after the output mode has been changed
+	 */
+	Snapshot withOutputMode( int outputMode , int undoLimit ) {
+		return new Snapshot( this.m_keywords , outputMode , this.m_monomialOrder , trim( undoLimit ) , this.m_variableIds );
+	}
+
+	/**
+	 * @param monomialOrder	the new monomial order
+	 * @param undoLimit		most snapshots to remember before the new one
+	 * @return				a snapshot after the monomial order has been changed
+	 */
+	Snapshot withMonomialOrder( MonomialOrder monomialOrder , int undoLimit ) {
+		return new Snapshot( this.m_keywords , this.m_outputMode , monomialOrder , trim( undoLimit ) , this.m_variableIds );
+	}
+
+	/**
+	 * the snapshots are immutable, so forgetting old ones copies the ones that are
+	 * kept. this takes time proportional to the limit, not to the whole history
+	 * 
+	 * @param count			most snapshots to keep, including this one
+	 * @return				this snapshot, or a copy of it that remembers fewer snapshots
+	 * 						before it, or <code>null</code> if no snapshots are kept
+	 */
+	private Snapshot trim( int count ) {
+		if ( count <= 0 ) {
+			return null;
+		}
+		if ( this.m_depth < count ) {
+			return this;
+		}
+		Snapshot previous = this.m_previous == null ? null : this.m_previous.trim( count - 1 );
+		return new Snapshot( this.m_keywords , this.m_outputMode , this.m_monomialOrder , previous , this.m_variableIds );
+	}
+
+	KeywordTrie getKeywords() {
+		return this.m_keywords;
+	}
+
+	int getOutputMode() {
+		return this.m_outputMode;
+	}
+
+	MonomialOrder getMonomialOrder() {
+		return this.m_monomialOrder;
+	}
+
+	Map < String , Integer > getVariableIds() {
+		return this.m_variableIds;
+	}
+
+	/**
+	 * @return			the snapshot before the change that created this one, or
+	 * 					<code>null</code> if there were no changes before it
+	 */
+	public Snapshot getPrevious() {
+		return this.m_previous;
+	}
+}
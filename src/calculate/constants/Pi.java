@@ -15,7 +15,12 @@ public class Pi extends Constant {
 	
 	@Override
 	public Pi copy( int indexInInput ) {
-		Pi rtn = new Pi( getEnvironment() );
+		return copy( getEnvironment() , indexInInput );
+	}
+	
+	@Override
+	public Pi copy( Calculator environment , int indexInInput ) {
+		Pi rtn = new Pi( environment );
 		rtn.setIndexInInput( indexInInput );
 		return rtn;
 	}
@@ -14,7 +14,12 @@ public class CosineFunction extends Function {
 	
 	@Override
 	public CosineFunction copy( int indexInInput ) {
-		CosineFunction rtn = new CosineFunction( getEnvironment() );
+		return copy( getEnvironment() , indexInInput );
+	}
+	
+	@Override
+	public CosineFunction copy( Calculator environment , int indexInInput ) {
+		CosineFunction rtn = new CosineFunction( environment );
 		rtn.setIndexInInput( indexInInput );
 		return rtn;
 	}
@@ -14,7 +14,12 @@ public class SineFunction extends Function {
 	
 	@Override
 	public SineFunction copy( int indexInInput ) {
-		SineFunction rtn = new SineFunction( getEnvironment() );
+		return copy( getEnvironment() , indexInInput );
+	}
+	
+	@Override
+	public SineFunction copy( Calculator environment , int indexInInput ) {
+		SineFunction rtn = new SineFunction( environment );
 		rtn.setIndexInInput( indexInInput );
 		return rtn;
 	}
@@ -349,9 +349,17 @@ public class Combinable extends Token implements Comparable < Combinable > {
 		return copy( getIndexInInput() );
 	}
 
+	/**
+	 * hash code consistent with <code>equals(...)</code>, calculated from the
+	 * polynomial and function parts
+	 */
 	@Override
 	public int hashCode() {
-		return super.hashCode();
+		int rtn = this.m_polynomialPart == null ? 0 : this.m_polynomialPart.hashCode();
+		if ( this.m_functionPart != null ) {
+			rtn += 31 * this.m_functionPart.hashCode();
+		}
+		return rtn;
 	}
 	
 	@Override
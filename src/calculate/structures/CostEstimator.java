@@ -0,0 +1,148 @@
+package calculate.structures;
+
+import java.math.BigDecimal;
+import java.util.IdentityHashMap;
+
+import calculate.operators.DivideOperator;
+import calculate.operators.ExponentiateOperator;
+import calculate.operators.MultiplyOperator;
+import calculate.structures.polynomial.Fraction;
+import calculate.structures.tree.ExpressionNode;
+import calculate.structures.tree.ExpressionVisitor;
+import calculate.structures.tree.FunctionNode;
+import calculate.structures.tree.NegationNode;
+import calculate.structures.tree.OperationNode;
+import calculate.structures.tree.SumNode;
+import calculate.structures.tree.ValueNode;
+
+/**
+ * estimates how much work it takes to simplify each subtree of an expression, so
+ * that expensive subtrees can be simplified in parallel. a subtree is estimated by
+ * the number of terms its value may have, e.g. the product of a sum of m terms and
+ * a sum of n terms may have m*n terms, and its cost is the number of products and
+ * additions of terms needed to calculate that value, plus the cost of its operands.
+ */
+final class CostEstimator implements ExpressionVisitor < long[] > {
+
+	/**
+	 * largest estimate, beyond which all subtrees count as equally expensive
+	 */
+	final private static long MAX_ESTIMATE = 1L << 40;
+
+	/**
+	 * largest exponent for which powers are estimated by their number of terms
+	 */
+	final private static int MAX_ESTIMATED_EXPONENT = 64;
+
+	final private static int SIZE = 0;
+	final private static int COST = 1;
+
+	/**
+	 * map by subtree to its estimated cost
+	 */
+	final private IdentityHashMap < ExpressionNode , Long > m_costs = new IdentityHashMap < ExpressionNode , Long > ();
+
+	private CostEstimator() {
+
+	}
+
+	/**
+	 * @param tree				root of an expression tree
+	 * @return					map by subtree to the estimated cost of simplifying it
+	 */
+	static IdentityHashMap < ExpressionNode , Long > estimate( ExpressionNode tree ) {
+		CostEstimator estimator = new CostEstimator();
+		tree.accept( estimator );
+		return estimator.m_costs;
+	}
+
+	private long[] record( ExpressionNode node , long size , long cost ) {
+		long[] rtn = { Math.min( size , MAX_ESTIMATE ) , Math.min( cost , MAX_ESTIMATE ) };
+		this.m_costs.put( node , Long.valueOf( rtn[ COST ] ) );
+		return rtn;
+	}
+
+	/**
+	 * @return					the product of two estimates, or the largest estimate if it
+	 * 							is greater
+	 */
+	private static long multiply( long estimate1 , long estimate2 ) {
+		if ( estimate1 != 0 && estimate2 > MAX_ESTIMATE / estimate1 ) {
+			return MAX_ESTIMATE;
+		}
+		return estimate1 * estimate2;
+	}
+
+	@Override
+	public long[] visitValue( ValueNode node ) {
+		return record( node , 1 , 1 );
+	}
+
+	@Override
+	public long[] visitSum( SumNode node ) {
+		long size = 0;
+		long cost = 0;
+		for ( int idx = 0 ; idx < node.getNumTerms() ; idx++ ) {
+			long[] term = node.getTerm( idx ).accept( this );
+			size += term[ SIZE ];
+			cost += term[ COST ];
+		}
+		return record( node , size , cost + size );
+	}
+
+	@Override
+	public long[] visitOperation( OperationNode node ) {
+		long[] left = node.getLeftOperand().accept( this );
+		long[] right = node.getRightOperand().accept( this );
+		long operandCost = left[ COST ] + right[ COST ];
+		Operator operator = node.getOperator();
+		if ( operator instanceof MultiplyOperator ) {
+			long size = multiply( left[ SIZE ] , right[ SIZE ] );
+			return record( node , size , operandCost + size );
+		} else if ( operator instanceof DivideOperator ) {
+			return record( node , left[ SIZE ] , operandCost + multiply( left[ SIZE ] , right[ SIZE ] ) );
+		} else if ( operator instanceof ExponentiateOperator ) {
+
+			//a power of a sum is calculated by multiplying the sum by itself
+			int exponent = getExponent( node.getRightOperand() );
+			long size = left[ SIZE ];
+			long cost = operandCost;
+			for ( int power = 1 ; power < exponent && size < MAX_ESTIMATE ; power++ ) {
+				size = multiply( size , left[ SIZE ] );
+				cost += size;
+			}
+			return record( node , size , cost );
+		}
+		return record( node , left[ SIZE ] , operandCost + 1 );
+	}
+
+	/**
+	 * @return					the exponent if it is a small positive integer, or 1 if it
+	 * 							cannot be estimated
+	 */
+	private static int getExponent( ExpressionNode exponent ) {
+		if ( exponent instanceof ValueNode && ( ( ValueNode ) exponent ).getValue() instanceof Fraction ) {
+			Fraction value = ( Fraction ) ( ( ValueNode ) exponent ).getValue();
+			if ( value.isInteger() && value.getNumericalValue().compareTo( BigDecimal.ONE ) >= 0 &&
+					value.getNumericalValue().compareTo( BigDecimal.valueOf( MAX_ESTIMATED_EXPONENT ) ) <= 0 ) {
+				return value.getNumericalValue().intValue();
+			}
+		}
+		return 1;
+	}
+
+	@Override
+	public long[] visitNegation( NegationNode node ) {
+		long[] operand = node.getOperand().accept( this );
+		return record( node , operand[ SIZE ] , operand[ COST ] + operand[ SIZE ] );
+	}
+
+	@Override
+	public long[] visitFunction( FunctionNode node ) {
+		long cost = 1;
+		for ( int idx = 0 ; idx < node.getNumArguments() ; idx++ ) {
+			cost += node.getArgument( idx ).accept( this )[ COST ];
+		}
+		return record( node , 1 , cost );
+	}
+}
@@ -0,0 +1,110 @@
+package calculate.structures;
+
+import java.util.ArrayList;
+
+import calculate.structures.polynomial.Numerical;
+
+/**
+ * accumulates a long chain of additions and subtractions. adding to a sum copies
+ * the sum, so adding n terms one at a time costs O(n^2). instead, a geobucket
+ * keeps partial sums in buckets whose capacities grow geometrically: bucket i
+ * holds at most 4^(i+1) terms. an addend goes into the bucket that fits its size,
+ * and a bucket that overflows is emptied into the next one. every term is
+ * therefore only copied O(log n) times. the buckets are added together only once
+ * the sum is needed.
+ */
+final class Geobucket {
+
+	/**
+	 * ratio between the capacities of neighbouring buckets
+	 */
+	final private static int BUCKET_RATIO = 4;
+
+	/**
+	 * the partial sums. <code>null</code> entries are empty buckets
+	 */
+	final private ArrayList < Combinable > m_buckets = new ArrayList < Combinable > ();
+
+	/**
+	 * @param firstTerm			the first term of the sum
+	 */
+	Geobucket( Combinable firstTerm ) {
+		this.m_buckets.add( null );
+		add( firstTerm );
+	}
+
+	/**
+	 * @param augend			value to add to the sum
+	 * @return					if the value could be added
+	 */
+	boolean add( Combinable augend ) {
+		return insert( augend , false );
+	}
+
+	/**
+	 * @param subtrahend		value to subtract from the sum
+	 * @return					if the value could be subtracted
+	 */
+	boolean subtract( Combinable subtrahend ) {
+		return insert( subtrahend , true );
+	}
+
+	private boolean insert( Combinable value , boolean negate ) {
+
+		//find the smallest bucket that can hold the value
+		int bucketIdx = 0;
+		long capacity = BUCKET_RATIO;
+		while ( value.countNumTerms() > capacity ) {
+			bucketIdx++;
+			capacity *= BUCKET_RATIO;
+		}
+
+		//merge it into the bucket, moving the bucket up while it overflows
+		while ( true ) {
+			while ( this.m_buckets.size() <= bucketIdx ) {
+				this.m_buckets.add( null );
+			}
+			Combinable bucket = this.m_buckets.get( bucketIdx );
+			Combinable merged;
+			if ( bucket == null ) {
+				merged = negate ? Numerical.NEGATIVE_ONE.multiply( value ) : value;
+			} else {
+				merged = negate ? bucket.subtract( value ) : bucket.add( value );
+			}
+			if ( merged == null ) {
+				return false;
+			}
+			if ( merged.countNumTerms() <= capacity ) {
+				this.m_buckets.set( bucketIdx , merged );
+				return true;
+			}
+			this.m_buckets.set( bucketIdx , null );
+			value = merged;
+			negate = false;
+			bucketIdx++;
+			capacity *= BUCKET_RATIO;
+		}
+	}
+
+	/**
+	 * @return					the sum of everything in the buckets, or <code>null</code>
+	 * 							if the buckets could not be added together
+	 */
+	Combinable getSum() {
+		Combinable rtn = null;
+		for ( Combinable bucket : this.m_buckets ) {
+			if ( bucket == null ) {
+				continue;
+			}
+			if ( rtn == null ) {
+				rtn = bucket;
+			} else {
+				rtn = rtn.add( bucket );
+				if ( rtn == null ) {
+					return null;
+				}
+			}
+		}
+		return rtn;
+	}
+}
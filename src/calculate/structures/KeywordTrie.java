@@ -0,0 +1,257 @@
+package calculate.structures;
+
+import java.util.ArrayList;
+
+import calculate.misc.OpenParenthesis;
+import calculate.structures.functional.Function;
+
+/**
+ * trie of the names of the operators, functions, variables, etc. defined in a
+ * calculations environment. the tokenizer walks the trie one character at a time
+ * from each position in the input, so finding the keyword at a position takes time
+ * proportional to the length of the keyword, no matter how many keywords are defined,
+ * and does not create any strings.
+ * <p>
+ * keywords are matched greedily: if the environment has variables "p", "i" and "pi",
+ * the input "pi" is read as the single keyword "pi".
+ * <p>
+ * tries are immutable. adding a keyword creates a new trie that shares all the
+ * nodes off the keyword's path with the old one, so a trie may be read by any
+ * number of threads while a new one is built.
+ */
+final public class KeywordTrie {
+
+	/**
+	 * a node for every prefix of a keyword. nodes are never modified, so
+	 * adding a keyword copies the nodes on its path and shares the rest
+	 */
+	final private static class Node {
+
+		final private static Node EMPTY = new Node( new char[ 0 ] , new Node[ 0 ] , null , null );
+
+		/**
+		 * characters that extend this prefix, in increasing order
+		 */
+		final private char[] m_characters;
+
+		/**
+		 * child node for each character in <code>m_characters</code>
+		 */
+		final private Node[] m_children;
+
+		/**
+		 * operator, variable, etc. whose name ends at this node, if any
+		 */
+		final private Token m_token;
+
+		/**
+		 * function whose name ends at this node, if any. functions are only
+		 * recognized when an opening parenthesis follows their name
+		 */
+		final private Function m_function;
+
+		Node( char[] characters , Node[] children , Token token , Function function ) {
+			this.m_characters = characters;
+			this.m_children = children;
+			this.m_token = token;
+			this.m_function = function;
+		}
+
+		/**
+		 * @return					the child for the given character, or <code>null</code> if
+		 * 							no keyword continues with that character
+		 */
+		Node getChild( char character ) {
+			int position = indexOf( character );
+			return position >= 0 ? this.m_children[ position ] : null;
+		}
+
+		/**
+		 * @return					a copy of this node with the child for the given character
+		 * 							replaced, or added if there is none
+		 */
+		Node withChild( char character , Node child ) {
+			int position = indexOf( character );
+			if ( position >= 0 ) {
+				Node[] children = this.m_children.clone();
+				children[ position ] = child;
+				return new Node( this.m_characters , children , this.m_token , this.m_function );
+			}
+
+			//insert the new character so that the characters stay sorted
+			int insertionPoint = -( position + 1 );
+			int count = this.m_characters.length;
+			char[] characters = new char[ count + 1 ];
+			Node[] children = new Node[ count + 1 ];
+			System.arraycopy( this.m_characters , 0 , characters , 0 , insertionPoint );
+			System.arraycopy( this.m_children , 0 , children , 0 , insertionPoint );
+			System.arraycopy( this.m_characters , insertionPoint , characters , insertionPoint + 1 , count - insertionPoint );
+			System.arraycopy( this.m_children , insertionPoint , children , insertionPoint + 1 , count - insertionPoint );
+			characters[ insertionPoint ] = character;
+			children[ insertionPoint ] = child;
+			return new Node( characters , children , this.m_token , this.m_function );
+		}
+
+		/**
+		 * binary search of the characters that extend this prefix
+		 *
+		 * @return					position of the character, or -(insertion point + 1)
+		 * 							if it is not there
+		 */
+		private int indexOf( char character ) {
+			int low = 0;
+			int high = this.m_characters.length - 1;
+			while ( low <= high ) {
+				int middle = ( low + high ) >>> 1;
+				char aCharacter = this.m_characters[ middle ];
+				if ( aCharacter < character ) {
+					low = middle + 1;
+				} else if ( aCharacter > character ) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+			return -( low + 1 );
+		}
+	}
+
+	final private Node m_root;
+
+	/**
+	 * creates a trie without any keywords
+	 */
+	public KeywordTrie() {
+		this( Node.EMPTY );
+	}
+
+	private KeywordTrie( Node root ) {
+		this.m_root = root;
+	}
+
+	/**
+	 * copies the nodes on the path of a keyword, replacing the node at its end
+	 *
+	 * @param node				node for the first <code>depth</code> characters of the name,
+	 * 							or <code>null</code> if there is none yet
+	 * @param name				name of the keyword
+	 * @param depth				number of characters of the name already matched
+	 * @param token				operator, variable, etc. to store, or <code>null</code>
+	 * @param function			function to store, or <code>null</code>
+	 * @return					the copied node
+	 */
+	private static Node put( Node node , String name , int depth , Token token , Function function ) {
+		if ( node == null ) {
+			node = Node.EMPTY;
+		}
+		if ( depth == name.length() ) {
+			if ( function != null ) {
+				return new Node( node.m_characters , node.m_children , node.m_token , function );
+			}
+			if ( node.m_token instanceof Operator && !( token instanceof Operator ) ) {
+				return node;
+			}
+			return new Node( node.m_characters , node.m_children , token , node.m_function );
+		}
+		char character = name.charAt( depth );
+		Node child = node.getChild( character );
+		Node newChild = put( child , name , depth + 1 , token , function );
+		return newChild == child ? node : node.withChild( character , newChild );
+	}
+
+	private static void checkName( String name ) {
+		if ( name.length() == 0 ) {
+			throw new IllegalArgumentException( "keywords cannot be empty" );
+		}
+	}
+
+	/**
+	 * adds an operator, variable, etc. to a copy of this trie. if a keyword with the
+	 * same name is already in the trie, it is replaced, except that an operator is
+	 * never replaced by something that is not an operator
+	 *
+	 * @param keyword			the token to recognize by its representation
+	 * @return					the new trie. this trie is not modified
+	 */
+	public KeywordTrie put( Token keyword ) {
+		checkName( keyword.getRepresentation() );
+		return new KeywordTrie( put( this.m_root , keyword.getRepresentation() , 0 , keyword , null ) );
+	}
+
+	/**
+	 * adds a function to a copy of this trie. if a function with the same name is
+	 * already in the trie, it is replaced
+	 *
+	 * @param function			the function to recognize by its representation
+	 * @return					the new trie. this trie is not modified
+	 */
+	public KeywordTrie putFunction( Function function ) {
+		checkName( function.getRepresentation() );
+		return new KeywordTrie( put( this.m_root , function.getRepresentation() , 0 , null , function ) );
+	}
+
+	/**
+	 * finds the longest keyword that starts at the given position in the input.
+	 * if an operator, a function and another keyword all have that name, the operator
+	 * is chosen first and then the function
+	 *
+	 * @param input				the input being tokenized
+	 * @param start				position in the input at which to look for a keyword
+	 * @return					the keyword as it was added to the trie, or <code>null</code>
+	 * 							if no keyword starts at the given position. the returned token
+	 * 							is shared, so callers should copy it before using it
+	 */
+	public Token match( CharSequence input , int start ) {
+		Token rtn = null;
+		Node node = this.m_root;
+		int length = input.length();
+		for ( int idx = start ; idx < length ; idx++ ) {
+			node = node.getChild( input.charAt( idx ) );
+			if ( node == null ) {
+				break;
+			}
+
+			//a longer keyword always replaces a shorter one
+			if ( node.m_token instanceof Operator ) {
+				rtn = node.m_token;
+			} else if ( node.m_function != null && idx + 1 < length && input.charAt( idx + 1 ) == OpenParenthesis.REPRESENTATION.charAt( 0 ) ) {
+				rtn = node.m_function;
+			} else if ( node.m_token != null ) {
+				rtn = node.m_token;
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @param name				name of a keyword
+	 * @return					the operator, variable, etc. with exactly the given name, or
+	 * 							<code>null</code> if there is none. functions are not returned
+	 */
+	public Token get( CharSequence name ) {
+		Node node = this.m_root;
+		for ( int idx = 0 ; idx < name.length() && node != null ; idx++ ) {
+			node = node.getChild( name.charAt( idx ) );
+		}
+		return node == null ? null : node.m_token;
+	}
+
+	/**
+	 * @return					every operator, variable, etc. in this trie, in alphabetical
+	 * 							order of their names. functions are not included
+	 */
+	public ArrayList < Token > getTokens() {
+		ArrayList < Token > rtn = new ArrayList < Token > ();
+		addTokens( this.m_root , rtn );
+		return rtn;
+	}
+
+	private static void addTokens( Node node , ArrayList < Token > tokens ) {
+		if ( node.m_token != null ) {
+			tokens.add( node.m_token );
+		}
+		for ( Node aChild : node.m_children ) {
+			addTokens( aChild , tokens );
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package calculate.structures;
+
+import java.util.ArrayList;
+
+import util.Text;
+import _library.LinkedList;
+import calculate.Calculator;
+import calculate.SyntaxException;
+import calculate.misc.CloseParenthesis;
+import calculate.misc.Comma;
+import calculate.misc.OpenParenthesis;
+import calculate.operators.AddOperator;
+import calculate.operators.MultiplyOperator;
+import calculate.operators.NegateOperator;
+import calculate.operators.SubtractOperator;
+import calculate.structures.functional.Function;
+import calculate.structures.tree.ExpressionNode;
+import calculate.structures.tree.FunctionNode;
+import calculate.structures.tree.NegationNode;
+import calculate.structures.tree.OperationNode;
+import calculate.structures.tree.SumNode;
+import calculate.structures.tree.ValueNode;
+
+/**
+ * precedence climbing (Pratt) parser that builds an expression tree from the
+ * tokens of an input expression in a single pass. negative signs and implicit
+ * multiplication, e.g. -x and 2x, are recognized as the tokens are read, so
+ * the tokens never have to be rewritten or converted to postfix.
+ * <p>
+ * a negative sign binds more tightly than multiplication but less tightly
+ * than exponentiation, so -x^2 is -(x^2) and x^-2 is x^(-2).
+ */
+final class Parser {
+
+	/**
+	 * precedence below that of every operator
+	 */
+	final private static int LOWEST_PRECEDENCE = 0;
+
+	final private Token[] m_tokens;
+
+	/**
+	 * position of the next token to read
+	 */
+	private int m_position = 0;
+
+	/**
+	 * operator applied when two operands are written next to each other
+	 */
+	final private Operator m_implicitMultiply;
+
+	private Parser( LinkedList < Token > tokens , Calculator environment ) {
+		this.m_tokens = new Token[ tokens.size() ];
+		int idx = 0;
+		for ( Token aToken : tokens ) {
+			this.m_tokens[ idx++ ] = aToken;
+		}
+		this.m_implicitMultiply = environment.getOperator( MultiplyOperator.REPRESENTATION );
+	}
+
+	/**
+	 * @param tokens			the tokens of an input expression, in the order in which
+	 * 							they appeared
+	 * @param environment		environment in which the expression is parsed
+	 * @return					the root of the expression tree, or <code>null</code> if
+	 * 							there are no tokens
+	 * @throws SyntaxException	if the tokens do not form a valid expression
+	 */
+	static ExpressionNode parse( LinkedList < Token > tokens , Calculator environment ) {
+		Parser parser = new Parser( tokens , environment );
+		if ( parser.m_tokens.length == 0 ) {
+			return null;
+		}
+		ExpressionNode rtn = parser.parseExpression( LOWEST_PRECEDENCE , null );
+
+		//the expression stops early at a closing parenthesis or
+		//comma that does not belong to anything
+		if ( parser.hasNext() ) {
+			throw new SyntaxException( Text.Calculate.ErrorMessages.MISSING_OPEN_PARENTHESIS , parser.peek().getIndexInInput() );
+		}
+		return rtn;
+	}
+
+	private boolean hasNext() {
+		return this.m_position < this.m_tokens.length;
+	}
+
+	private Token peek() {
+		return this.m_tokens[ this.m_position ];
+	}
+
+	/**
+	 * reads an expression whose operators all have at least the given precedence
+	 *
+	 * @param minimumPrecedence		lowest precedence of an operator that may be read
+	 * @param previous				token before the expression, for error messages
+	 * @return						the expression
+	 */
+	private ExpressionNode parseExpression( int minimumPrecedence , Token previous ) {
+		ExpressionNode left = parseOperand( previous );
+
+		//chains of additions and subtractions are collected into one node
+		ArrayList < ExpressionNode > terms = null;
+		ArrayList < Boolean > subtracted = null;
+		while ( hasNext() ) {
+			Token nextToken = peek();
+
+			//two operands next to each other are multiplied
+			Operator operator;
+			boolean isImplicit = false;
+			if ( nextToken instanceof Operator ) {
+				operator = ( Operator ) nextToken;
+			} else if ( nextToken instanceof Combinable || nextToken instanceof OpenParenthesis ) {
+				operator = this.m_implicitMultiply;
+				isImplicit = true;
+			} else {
+				break;
+			}
+			if ( operator.getPrecedence() < minimumPrecedence ) {
+				break;
+			}
+			if ( !isImplicit ) {
+				this.m_position++;
+			}
+
+			//the right operand of a left associative operator cannot contain
+			//another operator of the same precedence
+			int rightPrecedence = operator.getPrecedence();
+			if ( operator.getAssociativity() == Operator.LEFT_ASSOCIATIVE ) {
+				rightPrecedence++;
+			}
+			ExpressionNode right = parseExpression( rightPrecedence , operator );
+
+			if ( operator instanceof AddOperator || operator instanceof SubtractOperator ) {
+				if ( terms == null ) {
+					terms = new ArrayList < ExpressionNode > ();
+					subtracted = new ArrayList < Boolean > ();
+					terms.add( left );
+					subtracted.add( Boolean.FALSE );
+				}
+				terms.add( right );
+				subtracted.add( Boolean.valueOf( operator instanceof SubtractOperator ) );
+			} else {
+				if ( terms != null ) {
+					left = createSum( terms , subtracted );
+					terms = null;
+					subtracted = null;
+				}
+				if ( isImplicit ) {
+					operator = operator.copy( right.getIndexInInput() );
+				}
+				left = new OperationNode( operator , left , right );
+			}
+		}
+		if ( terms != null ) {
+			left = createSum( terms , subtracted );
+		}
+		return left;
+	}
+
+	private static SumNode createSum( ArrayList < ExpressionNode > terms , ArrayList < Boolean > subtracted ) {
+		boolean[] isSubtracted = new boolean[ subtracted.size() ];
+		for ( int idx = 0 ; idx < isSubtracted.length ; idx++ ) {
+			isSubtracted[ idx ] = subtracted.get( idx ).booleanValue();
+		}
+		return new SumNode( terms.toArray( new ExpressionNode[ terms.size() ] ) , isSubtracted );
+	}
+
+	/**
+	 * reads a number, variable, parenthesized expression, function call or
+	 * negated operand
+	 *
+	 * @param previous				token before the operand, for error messages
+	 * @return						the operand
+	 */
+	private ExpressionNode parseOperand( Token previous ) {
+		if ( !hasNext() ) {
+			throw missingOperand( previous , previous.getIndexInInput() );
+		}
+		Token token = peek();
+		this.m_position++;
+
+		if ( token instanceof Function ) {
+			return parseFunction( ( Function ) token );
+		} else if ( token instanceof Combinable ) {
+			return new ValueNode( ( Combinable ) token );
+		} else if ( token instanceof OpenParenthesis ) {
+			ExpressionNode rtn = parseExpression( LOWEST_PRECEDENCE , token );
+			if ( !hasNext() || !( peek() instanceof CloseParenthesis ) ) {
+				throw new SyntaxException( Text.Calculate.ErrorMessages.MISSING_CLOSE_PARENTHESIS , token.getIndexInInput() );
+			}
+			this.m_position++;
+			return rtn;
+		} else if ( token instanceof SubtractOperator ) {
+
+			//a subtraction sign that does not follow an operand is a negative sign
+			return new NegationNode( token.getIndexInInput() , parseExpression( NegateOperator.PRECEDENCE , token ) );
+		} else if ( token instanceof Operator ) {
+			throw missingOperand( token , token.getIndexInInput() );
+		}
+		throw missingOperand( previous , token.getIndexInInput() );
+	}
+
+	/**
+	 * reads the parenthesized, comma separated arguments of a function
+	 *
+	 * @param function				the function, which has already been read
+	 * @return						the function applied to its arguments
+	 */
+	private FunctionNode parseFunction( Function function ) {
+		if ( !hasNext() || !( peek() instanceof OpenParenthesis ) ) {
+			throw new SyntaxException( Text.Calculate.ErrorMessages.MISSING_OPEN_PARENTHESIS , function.getIndexInInput() );
+		}
+		Token openParenthesis = peek();
+		this.m_position++;
+
+		ArrayList < ExpressionNode > arguments = new ArrayList < ExpressionNode > ();
+		if ( hasNext() && !( peek() instanceof CloseParenthesis ) ) {
+			arguments.add( parseExpression( LOWEST_PRECEDENCE , openParenthesis ) );
+			while ( hasNext() && peek() instanceof Comma ) {
+				Token comma = peek();
+				this.m_position++;
+				arguments.add( parseExpression( LOWEST_PRECEDENCE , comma ) );
+			}
+		}
+		if ( !hasNext() || !( peek() instanceof CloseParenthesis ) ) {
+			throw new SyntaxException( Text.Calculate.ErrorMessages.MISSING_CLOSE_PARENTHESIS , openParenthesis.getIndexInInput() );
+		}
+		this.m_position++;
+
+		if ( arguments.size() < function.getNumArguments() ) {
+			throw new SyntaxException( Text.Calculate.ErrorMessages.getInsufficientArgumentsMessage( function.getRepresentation() ) , function.getIndexInInput() );
+		} else if ( arguments.size() > function.getNumArguments() ) {
+			ExpressionNode extraArgument = arguments.get( function.getNumArguments() );
+			throw new SyntaxException( Text.Calculate.ErrorMessages.getTooManyOperandsMessage( extraArgument.toString() ) , extraArgument.getIndexInInput() );
+		}
+		return new FunctionNode( function , arguments.toArray( new ExpressionNode[ arguments.size() ] ) );
+	}
+
+	/**
+	 * @param previous				token that needed an operand
+	 * @param index					location in input of the missing operand
+	 * @return						exception for an operand that is missing
+	 */
+	private static SyntaxException missingOperand( Token previous , int index ) {
+		if ( previous instanceof Operator ) {
+			return new SyntaxException( Text.Calculate.ErrorMessages.getInsufficientOperandsMessage( previous.getRepresentation() ) , index );
+		}
+		return new SyntaxException( Text.Calculate.ErrorMessages.MISSING_OPERAND , index );
+	}
+}
@@ -0,0 +1,284 @@
+package calculate.structures;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import util.Text;
+import calculate.EvaluationBudget;
+import calculate.SyntaxException;
+import calculate.operators.AddOperator;
+import calculate.operators.DivideOperator;
+import calculate.operators.ExponentiateOperator;
+import calculate.operators.MultiplyOperator;
+import calculate.operators.SubtractOperator;
+import calculate.structures.polynomial.Numerical;
+import calculate.structures.tree.ExpressionNode;
+import calculate.structures.tree.ExpressionVisitor;
+import calculate.structures.tree.FunctionNode;
+import calculate.structures.tree.NegationNode;
+import calculate.structures.tree.OperationNode;
+import calculate.structures.tree.SumNode;
+import calculate.structures.tree.ValueNode;
+
+/**
+ * calculates the simplified value of an expression tree.
+ * <p>
+ * the operands of a node do not depend on each other, so expensive operands, such
+ * as the factors of (a+b+c)^9*(x+y+z)^9, are simplified in parallel on a fork/join
+ * pool, which is the pool of the environment and is shared with the parallel
+ * multiplication of large sums. the node is then simplified from its operands once they are all done. how
+ * expensive a subtree is, is estimated from the number of terms its value may have
+ * by the <code>CostEstimator</code>.
+ */
+final class Simplifier implements ExpressionVisitor < Combinable > {
+
+	/**
+	 * smallest estimated cost of a subtree for it to be simplified in
+	 * parallel with its siblings
+	 */
+	final private static long PARALLEL_THRESHOLD = 4096;
+
+	/**
+	 * threads that simplify subtrees in parallel
+	 */
+	final private ForkJoinPool m_pool;
+
+	/**
+	 * map by subtree to the estimated cost of simplifying it, or <code>null</code>
+	 * if the tree is simplified on one thread
+	 */
+	private IdentityHashMap < ExpressionNode , Long > m_costs = null;
+
+	/**
+	 * @param pool				threads that simplify subtrees in parallel
+	 */
+	Simplifier( ForkJoinPool pool ) {
+		this.m_pool = pool;
+	}
+
+	/**
+	 * simplifies one subtree on the fork/join pool. exceptions are kept and
+	 * rethrown as they are by <code>getResult</code>
+	 */
+	final private static class SubtreeTask extends RecursiveTask < Combinable > {
+
+		private static final long serialVersionUID = 1L;
+
+		final private Simplifier m_simplifier;
+		final private ExpressionNode m_subtree;
+
+		/**
+		 * budget of the evaluation to which the subtree belongs, which the
+		 * thread that runs this task must check
+		 */
+		final private EvaluationBudget m_budget;
+		private RuntimeException m_error = null;
+
+		SubtreeTask( Simplifier simplifier , ExpressionNode subtree ) {
+			this.m_simplifier = simplifier;
+			this.m_subtree = subtree;
+			this.m_budget = EvaluationBudget.getCurrent();
+		}
+
+		@Override
+		protected Combinable compute() {
+			EvaluationBudget previousBudget = EvaluationBudget.setCurrent( this.m_budget );
+			try {
+				return this.m_subtree.accept( this.m_simplifier );
+			} catch ( RuntimeException e ) {
+				this.m_error = e;
+				return null;
+			} finally {
+				EvaluationBudget.setCurrent( previousBudget );
+			}
+		}
+
+		/**
+		 * waits for the subtree to be simplified
+		 *
+		 * @return				the simplified value of the subtree
+		 */
+		Combinable getResult() {
+			Combinable rtn = join();
+			if ( this.m_error != null ) {
+				throw this.m_error;
+			}
+			return rtn;
+		}
+	}
+
+	@Override
+	public Combinable visitValue( ValueNode node ) {
+		return node.getValue();
+	}
+
+	/**
+	 * the terms of a chain of additions and subtractions are accumulated
+	 * in a geobucket and added up once the whole chain has been read
+	 */
+	@Override
+	public Combinable visitSum( SumNode node ) {
+		ExpressionNode[] termNodes = new ExpressionNode[ node.getNumTerms() ];
+		for ( int idx = 0 ; idx < termNodes.length ; idx++ ) {
+			termNodes[ idx ] = node.getTerm( idx );
+		}
+		Combinable[] terms = simplifyAll( termNodes );
+		Geobucket sum = new Geobucket( terms[ 0 ] );
+		for ( int idx = 1 ; idx < terms.length ; idx++ ) {
+			Combinable term = terms[ idx ];
+			EvaluationBudget.checkCurrent();
+			boolean accumulated = node.isSubtracted( idx ) ? sum.subtract( term ) : sum.add( term );
+			if ( !accumulated ) {
+				checkResult( null , node.isSubtracted( idx ) ? SubtractOperator.REPRESENTATION : AddOperator.REPRESENTATION , node.getTerm( idx ).getIndexInInput() );
+			}
+		}
+		return checkResult( sum.getSum() , AddOperator.REPRESENTATION , node.getIndexInInput() );
+	}
+
+	@Override
+	public Combinable visitOperation( OperationNode node ) {
+		Operator operator = node.getOperator();
+		ExpressionNode[] operandNodes = { node.getLeftOperand() , node.getRightOperand() };
+		Combinable[] operands = simplifyAll( operandNodes );
+		Combinable leftOperand = operands[ 0 ];
+		Combinable rightOperand = operands[ 1 ];
+
+		//determine the operation and apply it
+		EvaluationBudget.checkCurrent();
+		Combinable operationResult = null;
+		if ( operator instanceof MultiplyOperator ) {
+			operationResult = leftOperand.multiply( rightOperand );
+		} else if ( operator instanceof DivideOperator ) {
+			operationResult = leftOperand.divide( rightOperand );
+		} else if ( operator instanceof ExponentiateOperator ) {
+			operationResult = leftOperand.exponentiate( rightOperand );
+		}
+		return checkResult( operationResult , operator.getRepresentation() , node.getIndexInInput() );
+	}
+
+	@Override
+	public Combinable visitNegation( NegationNode node ) {
+		Combinable operand = node.getOperand().accept( this );
+		return checkResult( Numerical.NEGATIVE_ONE.multiply( operand ) , MultiplyOperator.REPRESENTATION , node.getIndexInInput() );
+	}
+
+	/**
+	 * functions are parsed so that their arguments are checked, but none of
+	 * them can be evaluated yet
+	 * 
+	 * @throws SyntaxException	always, at the position of the function
+	 */
+	@Override
+	public Combinable visitFunction( FunctionNode node ) {
+		throw new SyntaxException( Text.Calculate.ErrorMessages.getUnsupportedFunctionMessage( node.getFunction().getRepresentation() ) , node.getIndexInInput() );
+	}
+
+	/**
+	 * @param tree				root of an expression tree
+	 * @return					the simplified value of the expression
+	 */
+	Combinable simplify( ExpressionNode tree ) {
+		if ( this.m_pool.getParallelism() > 1 ) {
+			IdentityHashMap < ExpressionNode , Long > costs = CostEstimator.estimate( tree );
+			if ( costs.get( tree ).longValue() >= PARALLEL_THRESHOLD ) {
+				this.m_costs = costs;
+				SubtreeTask task = new SubtreeTask( this , tree );
+
+				//a thread of the pool runs the task itself, so that it works on
+				//the forked subtrees while it waits instead of blocking
+				if ( ForkJoinTask.getPool() == this.m_pool ) {
+					task.invoke();
+				} else {
+					this.m_pool.invoke( task );
+				}
+				return task.getResult();
+			}
+		}
+		return tree.accept( this );
+	}
+
+	/**
+	 * simplifies the operands of a node. expensive operands are simplified in
+	 * parallel, except for the last one, which is simplified on this thread along
+	 * with the cheap ones
+	 *
+	 * @param nodes				the operands
+	 * @return					the simplified value of each operand
+	 */
+	private Combinable[] simplifyAll( ExpressionNode[] nodes ) {
+		Combinable[] rtn = new Combinable[ nodes.length ];
+		ArrayList < SubtreeTask > tasks = null;
+		int[] taskIndices = new int[ nodes.length ];
+		boolean completed = false;
+		try {
+			if ( this.m_costs != null ) {
+				int lastExpensive = -1;
+				for ( int idx = 0 ; idx < nodes.length ; idx++ ) {
+					if ( isExpensive( nodes[ idx ] ) ) {
+						if ( lastExpensive >= 0 ) {
+							if ( tasks == null ) {
+								tasks = new ArrayList < SubtreeTask > ();
+							}
+							SubtreeTask task = new SubtreeTask( this , nodes[ lastExpensive ] );
+							task.fork();
+							taskIndices[ tasks.size() ] = lastExpensive;
+							tasks.add( task );
+						}
+						lastExpensive = idx;
+					}
+				}
+			}
+
+			//simplify everything that was not forked on this thread
+			int nextTask = 0;
+			for ( int idx = 0 ; idx < nodes.length ; idx++ ) {
+				if ( tasks != null && nextTask < tasks.size() && taskIndices[ nextTask ] == idx ) {
+					nextTask++;
+				} else {
+					rtn[ idx ] = nodes[ idx ].accept( this );
+				}
+			}
+
+			//and wait for the forked subtrees
+			if ( tasks != null ) {
+				for ( int taskIdx = 0 ; taskIdx < tasks.size() ; taskIdx++ ) {
+					rtn[ taskIndices[ taskIdx ] ] = tasks.get( taskIdx ).getResult();
+				}
+			}
+			completed = true;
+			return rtn;
+		} finally {
+
+			//if any operand failed, the whole evaluation fails, so the forked
+			//subtrees that have not been simplified yet are not needed
+			if ( !completed && tasks != null ) {
+				for ( SubtreeTask aTask : tasks ) {
+					aTask.cancel( false );
+				}
+			}
+		}
+	}
+
+	private boolean isExpensive( ExpressionNode node ) {
+		Long cost = this.m_costs.get( node );
+		return cost != null && cost.longValue() >= PARALLEL_THRESHOLD;
+	}
+
+	/**
+	 * @param operationResult		result of applying an operator, or <code>null</code>
+	 * 								if it could not be applied
+	 * @param operator				representation of the operator
+	 * @param index					position of the operation in the input
+	 * @throws SyntaxException		if an operation could not be applied, which means that
+	 * 								operation has not been implemented for its operands yet
+	 */
+	private static Combinable checkResult( Combinable operationResult , String operator , int index ) {
+		if ( operationResult == null ) {
+			throw new SyntaxException( Text.Calculate.ErrorMessages.getUnsupportedOperationMessage( operator ) , index );
+		}
+		return operationResult;
+	}
+}
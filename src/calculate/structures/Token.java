@@ -83,6 +83,9 @@ abstract public class Token {
 	 * @return		textual representation of this token
 	 */
 	public String getRepresentation() {
+		if ( this.m_representation == null ) {
+			this.m_representation = determineRepresentation();
+		}
 		return this.m_representation;
 	}
 	
@@ -95,6 +98,45 @@ abstract public class Token {
 		this.m_representation = newRepresentation;
 	}
 	
+	/**
+	 * discards the representation of this token. it is determined again the next
+	 * time it is needed, so a token that is never displayed never has to build
+	 * its representation
+	 */
+	final protected void invalidateRepresentation() {
+		this.m_representation = null;
+	}
+	
+	/**
+	 * @return		if the representation of this token is known, i.e. it does not
+	 * 				have to be built when it is needed
+	 */
+	final protected boolean isRepresentationDetermined() {
+		return this.m_representation != null;
+	}
+	
+	/**
+	 * builds the representation of this token after it has been invalidated.
+	 * tokens that invalidate their representation must override this
+	 * 
+	 * @return		textual representation of this token
+	 */
+	protected String determineRepresentation() {
+		return "";
+	}
+	
+	/**
+	 * appends the representation of this token to a larger representation that
+	 * is being built. tokens whose representation is made up of other tokens
+	 * may override this to write their representation straight into the
+	 * larger one
+	 * 
+	 * @param representation		the representation being built
+	 */
+	protected void appendRepresentation( StringBuilder representation ) {
+		representation.append( getRepresentation() );
+	}
+	
 	/**
 	 * sets the location in input at which this token appeared
 	 * 
@@ -119,6 +161,18 @@ abstract public class Token {
 	 */
 	abstract public Token copy( int indexInInput );
 	
+	/**
+	 * creates a copy of the token for the given environment. the built-in functions
+	 * and constants are shared by all environments, so they override this to give
+	 * the copy the environment that reads it
+	 * 
+	 * @param environment			environment in which the copy is to be processed
+	 * @param indexInInput			location in input at which this token occurred
+	 */
+	public Token copy( Calculator environment , int indexInInput ) {
+		return copy( indexInInput );
+	}
+	
 	@Override
 	public String toString() {
 		return getRepresentation();
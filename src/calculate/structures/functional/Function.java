@@ -33,4 +33,9 @@ abstract public class Function extends FunctionExpression {
 	
 	@Override
 	abstract public Function copy( int indexInInput );
+	
+	@Override
+	public Function copy( Calculator environment , int indexInInput ) {
+		return copy( indexInInput );
+	}
 }
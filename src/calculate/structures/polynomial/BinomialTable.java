@@ -0,0 +1,73 @@
+package calculate.structures.polynomial;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+/**
+ * table of binomial coefficients. rows of Pascal's triangle are built once and
+ * shared, so expanding many powers of sums does not recompute them. multinomial
+ * coefficients are products of these, e.g. 6!/(1!2!3!) = C(6,1)*C(5,2)*C(3,3).
+ * <p>
+ * the table may be used from multiple threads at once.
+ */
+final class BinomialTable {
+
+	/**
+	 * largest row of Pascal's triangle that is kept. larger rows are computed
+	 * every time they are needed
+	 */
+	final private static int MAX_CACHED_ROW = 512;
+
+	/**
+	 * the rows of Pascal's triangle built so far. row n holds C(n,0) to C(n,n)
+	 */
+	final private static ArrayList < BigInteger[] > ROWS = new ArrayList < BigInteger[] > ();
+
+	static {
+		ROWS.add( new BigInteger[] { BigInteger.ONE } );
+	}
+
+	private BinomialTable() {
+
+	}
+
+	/**
+	 * @param n					a non-negative integer
+	 * @return					C(n,0) to C(n,n). the row is shared and must not be modified
+	 */
+	static BigInteger[] getRow( int n ) {
+		if ( n > MAX_CACHED_ROW ) {
+			return computeRow( n );
+		}
+		synchronized ( ROWS ) {
+
+			//each row is the sums of neighbouring entries in the previous one
+			while ( ROWS.size() <= n ) {
+				BigInteger[] previous = ROWS.get( ROWS.size() - 1 );
+				BigInteger[] row = new BigInteger[ previous.length + 1 ];
+				row[ 0 ] = BigInteger.ONE;
+				row[ row.length - 1 ] = BigInteger.ONE;
+				for ( int k = 1 ; k < row.length - 1 ; k++ ) {
+					row[ k ] = previous[ k - 1 ].add( previous[ k ] );
+				}
+				ROWS.add( row );
+			}
+			return ROWS.get( n );
+		}
+	}
+
+	/**
+	 * @return					C(n,0) to C(n,n), using C(n,k+1) = C(n,k)*(n-k)/(k+1)
+	 */
+	private static BigInteger[] computeRow( int n ) {
+		BigInteger[] rtn = new BigInteger[ n + 1 ];
+		rtn[ 0 ] = BigInteger.ONE;
+		for ( int k = 0 ; k < n / 2 ; k++ ) {
+			rtn[ k + 1 ] = rtn[ k ].multiply( BigInteger.valueOf( n - k ) ).divide( BigInteger.valueOf( k + 1 ) );
+		}
+		for ( int k = n / 2 + 1 ; k <= n ; k++ ) {
+			rtn[ k ] = rtn[ n - k ];
+		}
+		return rtn;
+	}
+}
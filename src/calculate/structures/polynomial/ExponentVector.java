@@ -0,0 +1,399 @@
+package calculate.structures.polynomial;
+
+import java.util.Arrays;
+
+import _library.LinkedList;
+import calculate.Calculator;
+import calculate.structures.Combinable;
+
+/**
+ * packed form of the variable part of a <code>Monomial</code>. each variable
+ * is identified by the integer id its <code>Calculator</code> assigned to it, and
+ * its exponent is stored as a primitive <code>int</code>. for example, the variable
+ * part of 5x^2y^3 is stored as the ids of x and y and the exponents {2, 3}.
+ * <p>
+ * only <code>Monomial</code> objects whose exponents are all small integers can be
+ * packed. <code>Monomial</code> objects with symbolic exponents, such as x^y, continue
+ * to use their list of <code>MonomialTerm</code> objects.
+ * <p>
+ * <code>ExponentVector</code> objects are immutable.
+ */
+final class ExponentVector {
+
+	/**
+	 * the vector of a <code>Monomial</code> without any variables, e.g. a number
+	 */
+	final public static ExponentVector EMPTY = new ExponentVector( null , new int[ 0 ] , new int[ 0 ] , new Variable[ 0 ] );
+
+	/**
+	 * environment that assigned the variable ids. <code>null</code> if there are no variables
+	 */
+	final private Calculator m_environment;
+
+	/**
+	 * ids of the variables in this vector, in increasing order
+	 */
+	final private int[] m_variableIds;
+
+	/**
+	 * exponent of each variable. no exponent is ever zero
+	 */
+	final private int[] m_exponents;
+
+	/**
+	 * the variable with each id, used to rebuild <code>MonomialTerm</code> objects
+	 */
+	final private Variable[] m_bases;
+
+	/**
+	 * sum of the exponents of all variables that are not constants
+	 */
+	final private long m_totalDegree;
+
+	/**
+	 * positions of the variables in alphabetical order, as they are displayed.
+	 * <code>null</code> until it is first needed
+	 */
+	private volatile int[] m_displayOrder = null;
+
+	final private int m_hashCode;
+
+	private ExponentVector( Calculator environment , int[] variableIds , int[] exponents , Variable[] bases ) {
+		this.m_environment = environment;
+		this.m_variableIds = variableIds;
+		this.m_exponents = exponents;
+		this.m_bases = bases;
+
+		long totalDegree = 0;
+		for ( int idx = 0 ; idx < bases.length ; idx++ ) {
+			if ( !( bases[ idx ] instanceof Constant ) ) {
+				totalDegree += exponents[ idx ];
+			}
+		}
+		this.m_totalDegree = totalDegree;
+
+		this.m_hashCode = 31 * Arrays.hashCode( variableIds ) + Arrays.hashCode( exponents );
+	}
+
+	/**
+	 * packs a list of multiplied terms
+	 *
+	 * @param terms				the terms of a <code>Monomial</code>
+	 * @return					the packed terms, or <code>null</code> if any term has a base
+	 * 							or exponent that cannot be packed
+	 */
+	static ExponentVector pack( LinkedList < MonomialTerm > terms ) {
+		int numTerms = terms.size();
+		if ( numTerms == 0 ) {
+			return EMPTY;
+		}
+
+		Calculator environment = null;
+		int[] variableIds = new int[ numTerms ];
+		int[] exponents = new int[ numTerms ];
+		Variable[] bases = new Variable[ numTerms ];
+		int size = 0;
+
+		for ( MonomialTerm aTerm : terms.readOnlyView() ) {
+			Variable base = aTerm.getRawBase();
+			Combinable exponent = aTerm.getRawExponent();
+
+			//only variables with an environment have ids. numbers
+			//used as bases, as in 8^x, cannot be packed
+			if ( base == null || base instanceof Numerical || base.getEnvironment() == null ) {
+				return null;
+			}
+
+			//all variables must come from the same environment
+			if ( environment == null ) {
+				environment = base.getEnvironment();
+			} else if ( environment != base.getEnvironment() ) {
+				return null;
+			}
+
+			//only small integer exponents can be packed
+			if ( !( exponent instanceof Fraction ) || !( ( Fraction ) exponent ).isSmallInteger() ) {
+				return null;
+			}
+			int exponentValue = ( ( Fraction ) exponent ).intValue();
+
+			//insert the variable so that the ids stay in increasing order,
+			//combining repeated variables
+			int id = base.getVariableId();
+			int position = Arrays.binarySearch( variableIds , 0 , size , id );
+			if ( position >= 0 ) {
+				long combined = ( long ) exponents[ position ] + exponentValue;
+				if ( combined != ( int ) combined ) {
+					return null;
+				}
+				exponents[ position ] = ( int ) combined;
+			} else {
+				position = -position - 1;
+				System.arraycopy( variableIds , position , variableIds , position + 1 , size - position );
+				System.arraycopy( exponents , position , exponents , position + 1 , size - position );
+				System.arraycopy( bases , position , bases , position + 1 , size - position );
+				variableIds[ position ] = id;
+				exponents[ position ] = exponentValue;
+				bases[ position ] = base;
+				size++;
+			}
+		}
+		return create( environment , variableIds , exponents , bases , size );
+	}
+
+	/**
+	 * @param environment		environment that assigned the variable ids
+	 * @param variableIds		ids of the variables, in increasing order
+	 * @param exponents			exponent of each variable
+	 * @param bases				the variable with each id
+	 * @return					the vector of the given variables, dropping any variables
+	 * 							with zero exponent
+	 */
+	static ExponentVector of( Calculator environment , int[] variableIds , int[] exponents , Variable[] bases ) {
+		return create( environment , variableIds , exponents , bases , variableIds.length );
+	}
+
+	/**
+	 * creates a vector from the first <code>size</code> entries of the given arrays,
+	 * dropping any variables with zero exponent
+	 */
+	private static ExponentVector create( Calculator environment , int[] variableIds , int[] exponents , Variable[] bases , int size ) {
+		int nonzero = 0;
+		for ( int idx = 0 ; idx < size ; idx++ ) {
+			if ( exponents[ idx ] != 0 ) {
+				nonzero++;
+			}
+		}
+		if ( nonzero == 0 ) {
+			return EMPTY;
+		}
+		if ( nonzero != variableIds.length ) {
+			int[] trimmedIds = new int[ nonzero ];
+			int[] trimmedExponents = new int[ nonzero ];
+			Variable[] trimmedBases = new Variable[ nonzero ];
+			int next = 0;
+			for ( int idx = 0 ; idx < size ; idx++ ) {
+				if ( exponents[ idx ] != 0 ) {
+					trimmedIds[ next ] = variableIds[ idx ];
+					trimmedExponents[ next ] = exponents[ idx ];
+					trimmedBases[ next ] = bases[ idx ];
+					next++;
+				}
+			}
+			variableIds = trimmedIds;
+			exponents = trimmedExponents;
+			bases = trimmedBases;
+		}
+		return new ExponentVector( environment , variableIds , exponents , bases );
+	}
+
+	/**
+	 * @param other				another vector
+	 * @return					if the variable ids of both vectors come from the same environment
+	 */
+	boolean isCompatibleWith( ExponentVector other ) {
+		return this.m_environment == null || other.m_environment == null || this.m_environment == other.m_environment ||
+				this.m_environment.sharesVariablesWith( other.m_environment );
+	}
+
+	/**
+	 * @param multiplicand		vector to multiply by
+	 * @return					the vector with the exponents of both vectors added together, or
+	 * 							<code>null</code> if the vectors are incompatible or an exponent overflows
+	 */
+	ExponentVector multiply( ExponentVector multiplicand ) {
+		return combine( multiplicand , 1 );
+	}
+
+	/**
+	 * @param dividend			vector to divide by
+	 * @return					the vector with the exponents of the dividend subtracted, or
+	 * 							<code>null</code> if the vectors are incompatible or an exponent overflows
+	 */
+	ExponentVector divide( ExponentVector dividend ) {
+		return combine( dividend , -1 );
+	}
+
+	/**
+	 * merges the two sorted id arrays, adding <code>sign</code> times the other exponents
+	 */
+	private ExponentVector combine( ExponentVector other , int sign ) {
+		if ( !isCompatibleWith( other ) ) {
+			return null;
+		}
+		if ( other.m_variableIds.length == 0 ) {
+			return this;
+		}
+		if ( this.m_variableIds.length == 0 && sign == 1 ) {
+			return other;
+		}
+
+		int maxSize = this.m_variableIds.length + other.m_variableIds.length;
+		int[] variableIds = new int[ maxSize ];
+		int[] exponents = new int[ maxSize ];
+		Variable[] bases = new Variable[ maxSize ];
+
+		int thisIdx = 0;
+		int otherIdx = 0;
+		int size = 0;
+		while ( thisIdx < this.m_variableIds.length || otherIdx < other.m_variableIds.length ) {
+			int thisId = thisIdx < this.m_variableIds.length ? this.m_variableIds[ thisIdx ] : Integer.MAX_VALUE;
+			int otherId = otherIdx < other.m_variableIds.length ? other.m_variableIds[ otherIdx ] : Integer.MAX_VALUE;
+			long exponent;
+			if ( thisId < otherId || otherIdx == other.m_variableIds.length ) {
+				variableIds[ size ] = thisId;
+				bases[ size ] = this.m_bases[ thisIdx ];
+				exponent = this.m_exponents[ thisIdx ];
+				thisIdx++;
+			} else if ( otherId < thisId || thisIdx == this.m_variableIds.length ) {
+				variableIds[ size ] = otherId;
+				bases[ size ] = other.m_bases[ otherIdx ];
+				exponent = ( long ) sign * other.m_exponents[ otherIdx ];
+				otherIdx++;
+			} else {
+				variableIds[ size ] = thisId;
+				bases[ size ] = this.m_bases[ thisIdx ];
+				exponent = this.m_exponents[ thisIdx ] + ( long ) sign * other.m_exponents[ otherIdx ];
+				thisIdx++;
+				otherIdx++;
+			}
+
+			//give up on the packed form if the exponent overflows
+			if ( exponent != ( int ) exponent ) {
+				return null;
+			}
+			exponents[ size ] = ( int ) exponent;
+			size++;
+		}
+
+		Calculator environment = this.m_environment == null ? other.m_environment : this.m_environment;
+		return create( environment , variableIds , exponents , bases , size );
+	}
+
+	/**
+	 * @param power				an integer power
+	 * @return					the vector with every exponent multiplied by the power, or
+	 * 							<code>null</code> if an exponent overflows
+	 */
+	ExponentVector power( int power ) {
+		if ( power == 1 ) {
+			return this;
+		}
+		int[] exponents = new int[ this.m_exponents.length ];
+		for ( int idx = 0 ; idx < exponents.length ; idx++ ) {
+			long exponent = ( long ) this.m_exponents[ idx ] * power;
+			if ( exponent != ( int ) exponent ) {
+				return null;
+			}
+			exponents[ idx ] = ( int ) exponent;
+		}
+		return create( this.m_environment , this.m_variableIds.clone() , exponents , this.m_bases.clone() , exponents.length );
+	}
+
+	/**
+	 * @return				the number of variables in this vector
+	 */
+	int size() {
+		return this.m_variableIds.length;
+	}
+
+	/**
+	 * @param idx			position of a variable in this vector
+	 * @return				the id of the variable at the given position
+	 */
+	int getVariableId( int idx ) {
+		return this.m_variableIds[ idx ];
+	}
+
+	/**
+	 * @param idx			position of a variable in this vector
+	 * @return				the exponent of the variable at the given position
+	 */
+	int getExponent( int idx ) {
+		return this.m_exponents[ idx ];
+	}
+
+	/**
+	 * @param idx			position of a variable in this vector
+	 * @return				the variable at the given position
+	 */
+	Variable getBase( int idx ) {
+		return this.m_bases[ idx ];
+	}
+
+	/**
+	 * @param idx			position of a variable in alphabetical order
+	 * @return				the position of that variable in this vector
+	 */
+	int getDisplayPosition( int idx ) {
+		int[] displayOrder = this.m_displayOrder;
+		if ( displayOrder == null ) {
+
+			//insertion sort of the positions, since there are only ever a few variables
+			displayOrder = new int[ this.m_bases.length ];
+			for ( int position = 0 ; position < displayOrder.length ; position++ ) {
+				int insertAt = position;
+				while ( insertAt > 0 && this.m_bases[ displayOrder[ insertAt - 1 ] ].compareTo( this.m_bases[ position ] ) > 0 ) {
+					displayOrder[ insertAt ] = displayOrder[ insertAt - 1 ];
+					insertAt--;
+				}
+				displayOrder[ insertAt ] = position;
+			}
+			this.m_displayOrder = displayOrder;
+		}
+		return displayOrder[ idx ];
+	}
+
+	/**
+	 * @return				the sum of the exponents of all variables that are not constants
+	 */
+	long getTotalDegree() {
+		return this.m_totalDegree;
+	}
+
+	/**
+	 * @return				the sum of the hash codes of the terms this vector represents,
+	 * 						as they contribute to the hash code of a <code>Monomial</code>
+	 */
+	int getTermHashCode() {
+		int rtn = 0;
+		for ( int idx = 0 ; idx < this.m_bases.length ; idx++ ) {
+			rtn += Monomial.hashCode( this.m_bases[ idx ] , Fraction.hashCode( this.m_exponents[ idx ] , 1 ) );
+		}
+		return rtn;
+	}
+	
+	/**
+	 * rebuilds the <code>MonomialTerm</code> objects this vector represents
+	 *
+	 * @return				list of terms in the same form as would be given to a <code>Monomial</code>
+	 */
+	LinkedList < MonomialTerm > toTerms() {
+		LinkedList < MonomialTerm > terms = new LinkedList < MonomialTerm > ();
+		for ( int idx = 0 ; idx < this.m_bases.length ; idx++ ) {
+			Fraction exponent = new Fraction( this.m_environment , this.m_exponents[ idx ] , 1 );
+			Monomial.insertMultipliedTerm( terms , new MonomialTerm( this.m_environment , this.m_bases[ idx ] , exponent ) );
+		}
+		return terms;
+	}
+
+	@Override
+	public boolean equals( Object toCompare ) {
+		if ( this == toCompare ) {
+			return true;
+		}
+		if ( toCompare instanceof ExponentVector ) {
+			ExponentVector vectorToCompare = ( ExponentVector ) toCompare;
+			return this.m_hashCode == vectorToCompare.m_hashCode &&
+					isCompatibleWith( vectorToCompare ) &&
+					Arrays.equals( this.m_variableIds , vectorToCompare.m_variableIds ) &&
+					Arrays.equals( this.m_exponents , vectorToCompare.m_exponents );
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.m_hashCode;
+	}
+}
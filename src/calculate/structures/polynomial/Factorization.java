@@ -0,0 +1,803 @@
+package calculate.structures.polynomial;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Random;
+
+import _library.LinkedList;
+import calculate.Calculator;
+import calculate.EvaluationBudget;
+
+/**
+ * factors polynomials in one variable over the rationals. the polynomial is
+ * split into its content, a number, and a primitive part with integer
+ * coefficients. Yun's algorithm breaks the primitive part into square-free
+ * polynomials, each of which is factored separately:
+ * <ol>
+ * <li>a small prime p is chosen for which the polynomial stays square-free modulo p
+ * <li>the polynomial is factored modulo p by the algorithm of Cantor and Zassenhaus:
+ * first into products of factors of equal degree, then into the factors themselves
+ * <li>the factors modulo p are lifted with Hensel's lemma to factors modulo a power
+ * of p that is larger than any coefficient of a true factor could be
+ * <li>products of the lifted factors are tried as true factors, smallest first
+ * </ol>
+ * <p>
+ * only numerators whose terms are all packed, with non-negative exponents and
+ * numerical coefficients, in at most one variable can be factored.
+ * <p>
+ * polynomials are stored as arrays of coefficients with the coefficient of x^i
+ * at index i, and no leading zeros. the zero polynomial is an empty array.
+ */
+final class Factorization {
+
+	/**
+	 * number of primes that are tried when factoring modulo a prime. the prime
+	 * that gives the fewest factors is used, since every factor multiplies the
+	 * number of products that must be tried
+	 */
+	final private static int PRIMES_TO_TRY = 5;
+
+	/**
+	 * most factors modulo a prime whose products are tried. above this, the
+	 * square-free polynomial is left unfactored
+	 */
+	final private static int MAX_MODULAR_FACTORS = 20;
+
+	final private static BigInteger[] ONE = { BigInteger.ONE };
+
+	private Factorization() {
+
+	}
+
+	/**
+	 * @param polynomial		a polynomial
+	 * @return					the number in front of the factors, followed by each
+	 * 							irreducible factor raised to its multiplicity, or
+	 * 							<code>null</code> if the polynomial cannot be factored
+	 */
+	static LinkedList < PolynomialTerm > factor( PolynomialTerm polynomial ) {
+		if ( !polynomial.getPolynomialTermExponent().equals( Numerical.ONE ) || !polynomial.getDenominatorSum().getLeadingTerm().equals( Numerical.ONE ) ) {
+			return null;
+		}
+		Calculator environment = polynomial.getEnvironment();
+
+		//find the variable and clear the denominators of the coefficients
+		Variable variable = null;
+		int degree = 0;
+		BigInteger denominatorLcm = BigInteger.ONE;
+		for ( Monomial aTerm : polynomial.getNumeratorSum() ) {
+			ExponentVector vector = aTerm.getExponentVector();
+			if ( vector == null || vector.size() > 1 || !( aTerm.getCoefficient() instanceof Fraction ) ) {
+				return null;
+			}
+			if ( vector.size() == 1 ) {
+				if ( vector.getExponent( 0 ) < 0 ) {
+					return null;
+				}
+				if ( variable == null ) {
+					variable = vector.getBase( 0 );
+				} else if ( vector.getBase( 0 ).getEnvironment() != variable.getEnvironment() || vector.getVariableId( 0 ) != variable.getVariableId() ) {
+					return null;
+				}
+				degree = Math.max( degree , vector.getExponent( 0 ) );
+			}
+			BigInteger denominator = ( ( Fraction ) aTerm.getCoefficient() ).getFractionDenominator();
+			denominatorLcm = denominatorLcm.divide( denominatorLcm.gcd( denominator ) ).multiply( denominator );
+		}
+		BigInteger[] coefficients = new BigInteger[ degree + 1 ];
+		for ( int power = 0 ; power <= degree ; power++ ) {
+			coefficients[ power ] = BigInteger.ZERO;
+		}
+		for ( Monomial aTerm : polynomial.getNumeratorSum() ) {
+			ExponentVector vector = aTerm.getExponentVector();
+			int power = vector.size() == 0 ? 0 : vector.getExponent( 0 );
+			Fraction coefficient = ( Fraction ) aTerm.getCoefficient();
+			coefficients[ power ] = coefficient.getFractionNumerator().multiply( denominatorLcm.divide( coefficient.getFractionDenominator() ) );
+		}
+		coefficients = trim( coefficients );
+
+		LinkedList < PolynomialTerm > rtn = new LinkedList < PolynomialTerm > ();
+		if ( coefficients.length <= 1 ) {
+			rtn.add( polynomial );
+			return rtn;
+		}
+
+		//the content is a number that goes in front of the factors
+		BigInteger content = content( coefficients );
+		Fraction number = new Fraction( environment , content , denominatorLcm );
+		if ( !number.equals( Numerical.ONE ) ) {
+			rtn.add( number );
+		}
+
+		//factor each square-free part and give its factors the multiplicity of the part
+		ArrayList < BigInteger[] > squareFreeParts = squareFreeDecomposition( divideByNumber( coefficients , content ) );
+		for ( int multiplicity = 1 ; multiplicity <= squareFreeParts.size() ; multiplicity++ ) {
+			BigInteger[] part = squareFreeParts.get( multiplicity - 1 );
+			if ( part.length <= 1 ) {
+				continue;
+			}
+			for ( BigInteger[] aFactor : factorSquareFree( part ) ) {
+				rtn.add( toPolynomialTerm( environment , variable , aFactor , multiplicity ) );
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the factor raised to its multiplicity as a <code>PolynomialTerm</code>
+	 */
+	private static PolynomialTerm toPolynomialTerm( Calculator environment , Variable variable , BigInteger[] factor , int multiplicity ) {
+		int[] variableIds = { variable.getVariableId() };
+		Variable[] bases = { variable };
+		MonomialSum sum = new MonomialSum();
+		for ( int power = 0 ; power < factor.length ; power++ ) {
+			if ( factor[ power ].signum() == 0 ) {
+				continue;
+			}
+			Fraction coefficient = new Fraction( environment , factor[ power ] , BigInteger.ONE );
+			if ( power == 0 ) {
+				sum.add( coefficient );
+			} else {
+				int[] exponents = { power };
+				ExponentVector vector = ExponentVector.of( variable.getEnvironment() , variableIds , exponents , bases );
+				sum.add( new Monomial( environment , vector , coefficient ) );
+			}
+		}
+		Fraction exponent = new Fraction( environment , multiplicity , 1 );
+		if ( sum.size() == 1 ) {
+			Monomial term = sum.getLeadingTerm();
+			return multiplicity == 1 ? term : ( PolynomialTerm ) term.exponentiate( exponent );
+		}
+		return new PolynomialTerm( environment , sum , null , exponent );
+	}
+
+	/**
+	 * Yun's algorithm. if f = a1 * a2^2 * ... * ak^k with each ai square-free and
+	 * coprime to the others, then gcd(f, f') = a2 * a3^2 * ... * ak^(k-1), and each
+	 * ai is found as the gcd of what is left of f and a combination of derivatives.
+	 *
+	 * @param f					a primitive polynomial with positive leading coefficient
+	 * @return					the square-free parts of f. index i holds the product of the
+	 * 							irreducible factors with multiplicity i+1, which may be 1
+	 */
+	private static ArrayList < BigInteger[] > squareFreeDecomposition( BigInteger[] f ) {
+		ArrayList < BigInteger[] > rtn = new ArrayList < BigInteger[] > ();
+		BigInteger[] derivative = derivative( f );
+		BigInteger[] repeated = gcd( f , derivative );
+		BigInteger[] remaining = divideExactly( f , repeated );
+		BigInteger[] combination = subtract( divideExactly( derivative , repeated ) , derivative( remaining ) );
+		while ( remaining.length > 1 ) {
+			EvaluationBudget.checkCurrent();
+			BigInteger[] part = gcd( remaining , combination );
+			rtn.add( part );
+			remaining = divideExactly( remaining , part );
+			combination = subtract( divideExactly( combination , part ) , derivative( remaining ) );
+		}
+		return rtn;
+	}
+
+	/**
+	 * @param f					a square-free primitive polynomial of positive degree
+	 * 							with positive leading coefficient
+	 * @return					the irreducible factors of f
+	 */
+	private static ArrayList < BigInteger[] > factorSquareFree( BigInteger[] f ) {
+		ArrayList < BigInteger[] > rtn = new ArrayList < BigInteger[] > ();
+		if ( f.length == 2 ) {
+			rtn.add( f );
+			return rtn;
+		}
+
+		//factor modulo several primes for which f stays square-free,
+		//keeping the one that gives the fewest factors
+		BigInteger leadingCoefficient = f[ f.length - 1 ];
+		long p = 0;
+		ArrayList < long[] > modularFactors = null;
+		BigInteger prime = BigInteger.valueOf( 2 );
+		int primesTried = 0;
+		while ( primesTried < PRIMES_TO_TRY ) {
+			EvaluationBudget.checkCurrent();
+			prime = prime.nextProbablePrime();
+			if ( leadingCoefficient.mod( prime ).signum() == 0 ) {
+				continue;
+			}
+			long candidate = prime.longValue();
+			long[] reduced = reduce( f , candidate );
+			if ( gcdMod( reduced , derivativeMod( reduced , candidate ) , candidate ).length > 1 ) {
+				continue;
+			}
+			primesTried++;
+			ArrayList < long[] > factors = factorMod( monicMod( reduced , candidate ) , candidate );
+			if ( modularFactors == null || factors.size() < modularFactors.size() ) {
+				p = candidate;
+				modularFactors = factors;
+			}
+			if ( factors.size() == 1 ) {
+				break;
+			}
+		}
+		if ( modularFactors.size() == 1 || modularFactors.size() > MAX_MODULAR_FACTORS ) {
+			rtn.add( f );
+			return rtn;
+		}
+
+		//the coefficients of any factor of f are at most 2^n * |f| * |lc(f)|,
+		//so lift until the modulus is more than twice that
+		BigInteger bound = BigInteger.ZERO;
+		for ( BigInteger aCoefficient : f ) {
+			bound = bound.add( aCoefficient.abs() );
+		}
+		bound = bound.multiply( leadingCoefficient ).shiftLeft( f.length ).shiftLeft( 1 );
+		BigInteger bigP = BigInteger.valueOf( p );
+		int exponent = 1;
+		BigInteger modulus = bigP;
+		while ( modulus.compareTo( bound ) <= 0 ) {
+			modulus = modulus.multiply( bigP );
+			exponent++;
+		}
+		ArrayList < BigInteger[] > lifted = henselLift( f , modularFactors , p , exponent );
+
+		//try products of the lifted factors, fewest factors first
+		BigInteger[] remaining = f;
+		int subsetSize = 1;
+		while ( 2 * subsetSize <= lifted.size() ) {
+			BigInteger[] found = null;
+			int[] subset = new int[ subsetSize ];
+			for ( int idx = 0 ; idx < subsetSize ; idx++ ) {
+				subset[ idx ] = idx;
+			}
+			do {
+				EvaluationBudget.checkCurrent();
+				BigInteger[] candidate = new BigInteger[] { remaining[ remaining.length - 1 ] };
+				for ( int idx : subset ) {
+					candidate = symmetricMod( multiply( candidate , lifted.get( idx ) ) , modulus );
+				}
+				candidate = primitivePart( candidate );
+				BigInteger[] quotient = divideExactly( remaining , candidate );
+				if ( quotient != null ) {
+					rtn.add( candidate );
+					remaining = quotient;
+					found = candidate;
+					for ( int idx = subsetSize - 1 ; idx >= 0 ; idx-- ) {
+						lifted.remove( subset[ idx ] );
+					}
+					break;
+				}
+			} while ( nextSubset( subset , lifted.size() ) );
+			if ( found == null ) {
+				subsetSize++;
+			}
+		}
+		if ( remaining.length > 1 ) {
+			rtn.add( remaining );
+		}
+		return rtn;
+	}
+
+	/**
+	 * moves to the next subset of the given size in lexicographic order
+	 *
+	 * @return					if there was a next subset
+	 */
+	private static boolean nextSubset( int[] subset , int setSize ) {
+		int idx = subset.length - 1;
+		while ( idx >= 0 && subset[ idx ] == setSize - subset.length + idx ) {
+			idx--;
+		}
+		if ( idx < 0 ) {
+			return false;
+		}
+		subset[ idx ]++;
+		for ( int next = idx + 1 ; next < subset.length ; next++ ) {
+			subset[ next ] = subset[ next - 1 ] + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * lifts a factorization modulo p to one modulo p^exponent, one factor at a time.
+	 * each step splits what is left into the next factor and the product of the rest
+	 *
+	 * @param f					a polynomial
+	 * @param factors			monic polynomials whose product is f modulo p, up to its
+	 * 							leading coefficient, and that are coprime modulo p
+	 * @return					the lifted monic factors, modulo p^exponent
+	 */
+	private static ArrayList < BigInteger[] > henselLift( BigInteger[] f , ArrayList < long[] > factors , long p , int exponent ) {
+		ArrayList < BigInteger[] > rtn = new ArrayList < BigInteger[] > ();
+		BigInteger modulus = BigInteger.valueOf( p ).pow( exponent );
+		BigInteger[] remaining = f;
+		for ( int factorIdx = 0 ; factorIdx < factors.size() - 1 ; factorIdx++ ) {
+			long[] rest = { remaining[ remaining.length - 1 ].mod( BigInteger.valueOf( p ) ).longValue() };
+			for ( int idx = factorIdx + 1 ; idx < factors.size() ; idx++ ) {
+				rest = multiplyMod( rest , factors.get( idx ) , p );
+			}
+			BigInteger[][] split = henselLift( remaining , factors.get( factorIdx ) , rest , p , exponent );
+			rtn.add( split[ 0 ] );
+			remaining = split[ 1 ];
+		}
+
+		//the last factor is what is left, made monic
+		BigInteger inverse = remaining[ remaining.length - 1 ].modInverse( modulus );
+		BigInteger[] last = new BigInteger[ remaining.length ];
+		for ( int power = 0 ; power < last.length ; power++ ) {
+			last[ power ] = remaining[ power ].multiply( inverse ).mod( modulus );
+		}
+		rtn.add( last );
+		return rtn;
+	}
+
+	/**
+	 * Hensel's lemma: if f = g * h modulo p^k, with g and h coprime modulo p, then
+	 * there are unique corrections such that f = (g + p^k * dg) * (h + p^k * dh)
+	 * modulo p^(k+1), where dg has lower degree than g. with s * g + t * h = 1
+	 * modulo p and e = (f - g * h) / p^k, the corrections are dg = t * e mod g and
+	 * dh = s * e + (t * e quo g) * h.
+	 *
+	 * @param f					a polynomial
+	 * @param g					a monic polynomial modulo p
+	 * @param h					a polynomial modulo p such that f = g * h modulo p
+	 * @return					g and h lifted to modulo p^exponent
+	 */
+	private static BigInteger[][] henselLift( BigInteger[] f , long[] g , long[] h , long p , int exponent ) {
+		long[][] bezout = extendedGcdMod( g , h , p );
+		long[] s = bezout[ 0 ];
+		long[] t = bezout[ 1 ];
+		BigInteger bigP = BigInteger.valueOf( p );
+		BigInteger modulus = bigP;
+		BigInteger[] liftedG = toBigInteger( g );
+		BigInteger[] liftedH = toBigInteger( h );
+		for ( int step = 1 ; step < exponent ; step++ ) {
+			EvaluationBudget.checkCurrent();
+			BigInteger[] error = subtract( f , multiply( liftedG , liftedH ) );
+			for ( int power = 0 ; power < error.length ; power++ ) {
+				error[ power ] = error[ power ].divide( modulus );
+			}
+			long[] reducedError = reduce( error , p );
+			long[][] division = divideMod( multiplyMod( t , reducedError , p ) , g , p );
+			long[] correctionG = division[ 1 ];
+			long[] correctionH = addMod( multiplyMod( s , reducedError , p ) , multiplyMod( division[ 0 ] , h , p ) , p );
+			liftedG = add( liftedG , multiplyByNumber( toBigInteger( correctionG ) , modulus ) );
+			liftedH = add( liftedH , multiplyByNumber( toBigInteger( correctionH ) , modulus ) );
+			modulus = modulus.multiply( bigP );
+			liftedG = symmetricMod( liftedG , modulus );
+			liftedH = symmetricMod( liftedH , modulus );
+		}
+		BigInteger[][] rtn = { liftedG , liftedH };
+		return rtn;
+	}
+
+	/**
+	 * Cantor-Zassenhaus factorization modulo an odd prime
+	 *
+	 * @param f					a monic square-free polynomial modulo p
+	 * @return					the monic irreducible factors of f modulo p
+	 */
+	private static ArrayList < long[] > factorMod( long[] f , long p ) {
+		ArrayList < long[] > rtn = new ArrayList < long[] > ();
+		Random random = new Random( p * 31 + f.length );
+		long[] x = { 0 , 1 };
+
+		//distinct-degree factorization: the product of all monic irreducible
+		//polynomials of degree d modulo p is x^(p^d) - x
+		long[] remaining = f;
+		long[] power = x;
+		int degree = 1;
+		while ( remaining.length - 1 >= 2 * degree ) {
+			EvaluationBudget.checkCurrent();
+			power = powerMod( power , BigInteger.valueOf( p ) , remaining , p );
+			long[] product = gcdMod( remaining , subtractMod( power , x , p ) , p );
+			if ( product.length > 1 ) {
+				splitEqualDegree( product , degree , p , random , rtn );
+				remaining = divideMod( remaining , product , p )[ 0 ];
+				power = divideMod( power , remaining , p )[ 1 ];
+			}
+			degree++;
+		}
+		if ( remaining.length > 1 ) {
+			rtn.add( remaining );
+		}
+		return rtn;
+	}
+
+	/**
+	 * equal-degree factorization. for a random r, r^((p^d-1)/2) is 1 modulo about
+	 * half of the factors of f and -1 modulo the rest, so its gcd with f usually
+	 * splits f
+	 *
+	 * @param f					a monic product of distinct irreducible polynomials of degree d
+	 */
+	private static void splitEqualDegree( long[] f , int degree , long p , Random random , ArrayList < long[] > factors ) {
+		if ( f.length - 1 == degree ) {
+			factors.add( f );
+			return;
+		}
+		BigInteger exponent = BigInteger.valueOf( p ).pow( degree ).subtract( BigInteger.ONE ).shiftRight( 1 );
+		while ( true ) {
+			EvaluationBudget.checkCurrent();
+			long[] r = new long[ f.length - 1 ];
+			for ( int power = 0 ; power < r.length ; power++ ) {
+				r[ power ] = ( long ) ( random.nextDouble() * p );
+			}
+			r = trimMod( r );
+			if ( r.length <= 1 ) {
+				continue;
+			}
+			long[] one = { 1 };
+			long[] split = gcdMod( f , subtractMod( powerMod( r , exponent , f , p ) , one , p ) , p );
+			if ( split.length > 1 && split.length < f.length ) {
+				splitEqualDegree( split , degree , p , random , factors );
+				splitEqualDegree( divideMod( f , split , p )[ 0 ] , degree , p , random , factors );
+				return;
+			}
+		}
+	}
+
+	//polynomials with integer coefficients
+
+	private static BigInteger[] trim( BigInteger[] a ) {
+		int length = a.length;
+		while ( length > 0 && a[ length - 1 ].signum() == 0 ) {
+			length--;
+		}
+		if ( length == a.length ) {
+			return a;
+		}
+		BigInteger[] rtn = new BigInteger[ length ];
+		System.arraycopy( a , 0 , rtn , 0 , length );
+		return rtn;
+	}
+
+	/**
+	 * @return					the gcd of the coefficients, with the sign of the leading coefficient
+	 */
+	private static BigInteger content( BigInteger[] a ) {
+		BigInteger rtn = BigInteger.ZERO;
+		for ( BigInteger aCoefficient : a ) {
+			rtn = rtn.gcd( aCoefficient );
+		}
+		return a[ a.length - 1 ].signum() < 0 ? rtn.negate() : rtn;
+	}
+
+	/**
+	 * @return					the polynomial divided by its content, so that its
+	 * 							leading coefficient is positive
+	 */
+	private static BigInteger[] primitivePart( BigInteger[] a ) {
+		a = trim( a );
+		if ( a.length == 0 ) {
+			return a;
+		}
+		return divideByNumber( a , content( a ) );
+	}
+
+	private static BigInteger[] divideByNumber( BigInteger[] a , BigInteger number ) {
+		BigInteger[] rtn = new BigInteger[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			rtn[ power ] = a[ power ].divide( number );
+		}
+		return rtn;
+	}
+
+	private static BigInteger[] multiplyByNumber( BigInteger[] a , BigInteger number ) {
+		BigInteger[] rtn = new BigInteger[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			rtn[ power ] = a[ power ].multiply( number );
+		}
+		return rtn;
+	}
+
+	private static BigInteger[] derivative( BigInteger[] a ) {
+		if ( a.length <= 1 ) {
+			return new BigInteger[ 0 ];
+		}
+		BigInteger[] rtn = new BigInteger[ a.length - 1 ];
+		for ( int power = 1 ; power < a.length ; power++ ) {
+			rtn[ power - 1 ] = a[ power ].multiply( BigInteger.valueOf( power ) );
+		}
+		return rtn;
+	}
+
+	private static BigInteger[] add( BigInteger[] a , BigInteger[] b ) {
+		BigInteger[] rtn = new BigInteger[ Math.max( a.length , b.length ) ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			BigInteger coefficient = power < a.length ? a[ power ] : BigInteger.ZERO;
+			rtn[ power ] = power < b.length ? coefficient.add( b[ power ] ) : coefficient;
+		}
+		return trim( rtn );
+	}
+
+	private static BigInteger[] subtract( BigInteger[] a , BigInteger[] b ) {
+		BigInteger[] rtn = new BigInteger[ Math.max( a.length , b.length ) ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			BigInteger coefficient = power < a.length ? a[ power ] : BigInteger.ZERO;
+			rtn[ power ] = power < b.length ? coefficient.subtract( b[ power ] ) : coefficient;
+		}
+		return trim( rtn );
+	}
+
+	private static BigInteger[] multiply( BigInteger[] a , BigInteger[] b ) {
+		if ( a.length == 0 || b.length == 0 ) {
+			return new BigInteger[ 0 ];
+		}
+		BigInteger[] rtn = new BigInteger[ a.length + b.length - 1 ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			rtn[ power ] = BigInteger.ZERO;
+		}
+		for ( int power1 = 0 ; power1 < a.length ; power1++ ) {
+			if ( a[ power1 ].signum() == 0 ) {
+				continue;
+			}
+			for ( int power2 = 0 ; power2 < b.length ; power2++ ) {
+				rtn[ power1 + power2 ] = rtn[ power1 + power2 ].add( a[ power1 ].multiply( b[ power2 ] ) );
+			}
+		}
+		return trim( rtn );
+	}
+
+	/**
+	 * @return					a / b if it has integer coefficients, or <code>null</code>
+	 * 							if b does not divide a
+	 */
+	private static BigInteger[] divideExactly( BigInteger[] a , BigInteger[] b ) {
+		if ( a.length < b.length ) {
+			return a.length == 0 ? a : null;
+		}
+		BigInteger[] remainder = a.clone();
+		BigInteger[] quotient = new BigInteger[ a.length - b.length + 1 ];
+		BigInteger leadingCoefficient = b[ b.length - 1 ];
+		for ( int power = quotient.length - 1 ; power >= 0 ; power-- ) {
+			BigInteger[] division = remainder[ power + b.length - 1 ].divideAndRemainder( leadingCoefficient );
+			if ( division[ 1 ].signum() != 0 ) {
+				return null;
+			}
+			quotient[ power ] = division[ 0 ];
+			if ( division[ 0 ].signum() != 0 ) {
+				for ( int idx = 0 ; idx < b.length ; idx++ ) {
+					remainder[ power + idx ] = remainder[ power + idx ].subtract( division[ 0 ].multiply( b[ idx ] ) );
+				}
+			}
+		}
+		for ( int power = 0 ; power < b.length - 1 ; power++ ) {
+			if ( remainder[ power ].signum() != 0 ) {
+				return null;
+			}
+		}
+		return trim( quotient );
+	}
+
+	/**
+	 * @return					the remainder of lc(b)^(deg a - deg b + 1) * a divided by b
+	 */
+	private static BigInteger[] pseudoRemainder( BigInteger[] a , BigInteger[] b ) {
+		BigInteger[] remainder = a.clone();
+		BigInteger leadingCoefficient = b[ b.length - 1 ];
+		for ( int top = remainder.length - 1 ; top >= b.length - 1 ; top-- ) {
+			BigInteger coefficient = remainder[ top ];
+			for ( int power = 0 ; power <= top ; power++ ) {
+				remainder[ power ] = remainder[ power ].multiply( leadingCoefficient );
+			}
+			if ( coefficient.signum() != 0 ) {
+				for ( int idx = 0 ; idx < b.length ; idx++ ) {
+					int power = top - b.length + 1 + idx;
+					remainder[ power ] = remainder[ power ].subtract( coefficient.multiply( b[ idx ] ) );
+				}
+			}
+		}
+		BigInteger[] rtn = new BigInteger[ b.length - 1 ];
+		System.arraycopy( remainder , 0 , rtn , 0 , rtn.length );
+		return trim( rtn );
+	}
+
+	/**
+	 * primitive polynomial remainder sequence
+	 *
+	 * @return					the primitive gcd of the polynomials, with positive leading coefficient
+	 */
+	private static BigInteger[] gcd( BigInteger[] a , BigInteger[] b ) {
+		a = primitivePart( a );
+		b = primitivePart( b );
+		if ( a.length < b.length ) {
+			BigInteger[] temp = a;
+			a = b;
+			b = temp;
+		}
+		while ( b.length > 0 ) {
+			EvaluationBudget.checkCurrent();
+			if ( b.length == 1 ) {
+				return ONE;
+			}
+			BigInteger[] remainder = primitivePart( pseudoRemainder( a , b ) );
+			a = b;
+			b = remainder;
+		}
+		return a.length == 0 ? ONE : a;
+	}
+
+	/**
+	 * @return					the polynomial with coefficients between -modulus/2 and modulus/2
+	 */
+	private static BigInteger[] symmetricMod( BigInteger[] a , BigInteger modulus ) {
+		BigInteger half = modulus.shiftRight( 1 );
+		BigInteger[] rtn = new BigInteger[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			BigInteger coefficient = a[ power ].mod( modulus );
+			rtn[ power ] = coefficient.compareTo( half ) > 0 ? coefficient.subtract( modulus ) : coefficient;
+		}
+		return trim( rtn );
+	}
+
+	private static BigInteger[] toBigInteger( long[] a ) {
+		BigInteger[] rtn = new BigInteger[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			rtn[ power ] = BigInteger.valueOf( a[ power ] );
+		}
+		return rtn;
+	}
+
+	//polynomials modulo a prime that fits in 31 bits
+
+	private static long[] reduce( BigInteger[] a , long p ) {
+		BigInteger bigP = BigInteger.valueOf( p );
+		long[] rtn = new long[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			rtn[ power ] = a[ power ].mod( bigP ).longValue();
+		}
+		return trimMod( rtn );
+	}
+
+	private static long[] trimMod( long[] a ) {
+		int length = a.length;
+		while ( length > 0 && a[ length - 1 ] == 0 ) {
+			length--;
+		}
+		if ( length == a.length ) {
+			return a;
+		}
+		long[] rtn = new long[ length ];
+		System.arraycopy( a , 0 , rtn , 0 , length );
+		return rtn;
+	}
+
+	private static long inverseMod( long a , long p ) {
+		return BigInteger.valueOf( a ).modInverse( BigInteger.valueOf( p ) ).longValue();
+	}
+
+	private static long[] monicMod( long[] a , long p ) {
+		long inverse = inverseMod( a[ a.length - 1 ] , p );
+		long[] rtn = new long[ a.length ];
+		for ( int power = 0 ; power < a.length ; power++ ) {
+			rtn[ power ] = a[ power ] * inverse % p;
+		}
+		return rtn;
+	}
+
+	private static long[] derivativeMod( long[] a , long p ) {
+		if ( a.length <= 1 ) {
+			return new long[ 0 ];
+		}
+		long[] rtn = new long[ a.length - 1 ];
+		for ( int power = 1 ; power < a.length ; power++ ) {
+			rtn[ power - 1 ] = a[ power ] * ( power % p ) % p;
+		}
+		return trimMod( rtn );
+	}
+
+	private static long[] addMod( long[] a , long[] b , long p ) {
+		long[] rtn = new long[ Math.max( a.length , b.length ) ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			long coefficient = power < a.length ? a[ power ] : 0;
+			rtn[ power ] = power < b.length ? ( coefficient + b[ power ] ) % p : coefficient;
+		}
+		return trimMod( rtn );
+	}
+
+	private static long[] subtractMod( long[] a , long[] b , long p ) {
+		long[] rtn = new long[ Math.max( a.length , b.length ) ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			long coefficient = power < a.length ? a[ power ] : 0;
+			rtn[ power ] = power < b.length ? ( coefficient - b[ power ] + p ) % p : coefficient;
+		}
+		return trimMod( rtn );
+	}
+
+	private static long[] multiplyMod( long[] a , long[] b , long p ) {
+		if ( a.length == 0 || b.length == 0 ) {
+			return new long[ 0 ];
+		}
+		long[] rtn = new long[ a.length + b.length - 1 ];
+		for ( int power1 = 0 ; power1 < a.length ; power1++ ) {
+			if ( a[ power1 ] == 0 ) {
+				continue;
+			}
+			for ( int power2 = 0 ; power2 < b.length ; power2++ ) {
+				rtn[ power1 + power2 ] = ( rtn[ power1 + power2 ] + a[ power1 ] * b[ power2 ] ) % p;
+			}
+		}
+		return trimMod( rtn );
+	}
+
+	/**
+	 * @return					the quotient in index 0 and the remainder in index 1
+	 */
+	private static long[][] divideMod( long[] a , long[] b , long p ) {
+		if ( a.length < b.length ) {
+			long[][] rtn = { new long[ 0 ] , a };
+			return rtn;
+		}
+		long[] remainder = a.clone();
+		long[] quotient = new long[ a.length - b.length + 1 ];
+		long inverse = inverseMod( b[ b.length - 1 ] , p );
+		for ( int power = quotient.length - 1 ; power >= 0 ; power-- ) {
+			long coefficient = remainder[ power + b.length - 1 ] * inverse % p;
+			quotient[ power ] = coefficient;
+			if ( coefficient != 0 ) {
+				for ( int idx = 0 ; idx < b.length ; idx++ ) {
+					remainder[ power + idx ] = ( remainder[ power + idx ] - coefficient * b[ idx ] % p + p ) % p;
+				}
+			}
+		}
+		long[] trimmedRemainder = new long[ b.length - 1 ];
+		System.arraycopy( remainder , 0 , trimmedRemainder , 0 , trimmedRemainder.length );
+		long[][] rtn = { trimMod( quotient ) , trimMod( trimmedRemainder ) };
+		return rtn;
+	}
+
+	/**
+	 * @return					the monic gcd of the polynomials
+	 */
+	private static long[] gcdMod( long[] a , long[] b , long p ) {
+		while ( b.length > 0 ) {
+			long[] remainder = divideMod( a , b , p )[ 1 ];
+			a = b;
+			b = remainder;
+		}
+		return a.length == 0 ? a : monicMod( a , p );
+	}
+
+	/**
+	 * @param a					a polynomial
+	 * @param b					a polynomial coprime to a
+	 * @return					s in index 0 and t in index 1 such that s * a + t * b = 1
+	 */
+	private static long[][] extendedGcdMod( long[] a , long[] b , long p ) {
+		long[] oldR = a;
+		long[] r = b;
+		long[] oldS = { 1 };
+		long[] s = new long[ 0 ];
+		long[] oldT = new long[ 0 ];
+		long[] t = { 1 };
+		while ( r.length > 0 ) {
+			long[][] division = divideMod( oldR , r , p );
+			long[] nextR = division[ 1 ];
+			long[] nextS = subtractMod( oldS , multiplyMod( division[ 0 ] , s , p ) , p );
+			long[] nextT = subtractMod( oldT , multiplyMod( division[ 0 ] , t , p ) , p );
+			oldR = r;
+			r = nextR;
+			oldS = s;
+			s = nextS;
+			oldT = t;
+			t = nextT;
+		}
+
+		//oldR is a nonzero constant, since a and b are coprime
+		long inverse = inverseMod( oldR[ 0 ] , p );
+		long[][] rtn = { multiplyMod( oldS , new long[] { inverse } , p ) , multiplyMod( oldT , new long[] { inverse } , p ) };
+		return rtn;
+	}
+
+	/**
+	 * @return					base^exponent modulo the polynomial m, by repeated squaring
+	 */
+	private static long[] powerMod( long[] base , BigInteger exponent , long[] m , long p ) {
+		long[] rtn = { 1 };
+		base = divideMod( base , m , p )[ 1 ];
+		for ( int bit = exponent.bitLength() - 1 ; bit >= 0 ; bit-- ) {
+			rtn = divideMod( multiplyMod( rtn , rtn , p ) , m , p )[ 1 ];
+			if ( exponent.testBit( bit ) ) {
+				rtn = divideMod( multiplyMod( rtn , base , p ) , m , p )[ 1 ];
+			}
+		}
+		return rtn;
+	}
+}
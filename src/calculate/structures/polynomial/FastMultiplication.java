@@ -0,0 +1,534 @@
+package calculate.structures.polynomial;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import calculate.Calculator;
+import calculate.EvaluationBudget;
+
+/**
+ * multiplication of large, dense sums of <code>Monomial</code> objects. the
+ * variables are packed into a single one by Kronecker substitution: if every
+ * exponent of x in the product is less than D, then x^a*y^b is stored as the
+ * power a + D*b of a single variable. the resulting univariate polynomials are
+ * multiplied with Karatsuba's algorithm at medium sizes and with number-theoretic
+ * transforms modulo several primes, combined by the chinese remainder theorem,
+ * at large sizes.
+ * <p>
+ * sums with few terms, sparse sums, or sums with terms that cannot be packed are
+ * left to the caller to multiply term by term.
+ */
+final class FastMultiplication {
+
+	/**
+	 * smallest number of terms in both factors for which the products are
+	 * not simply computed term by term
+	 */
+	final private static int KARATSUBA_THRESHOLD = 16;
+
+	/**
+	 * smallest number of terms in both factors for which number-theoretic
+	 * transforms are used instead of Karatsuba's algorithm
+	 */
+	final private static int TRANSFORM_THRESHOLD = 256;
+
+	/**
+	 * length below which Karatsuba's algorithm multiplies directly
+	 */
+	final private static int KARATSUBA_CUTOFF = 24;
+
+	/**
+	 * largest number of coefficients that the packed product may have
+	 */
+	final private static int MAX_PACKED_LENGTH = 1 << 22;
+
+	/**
+	 * largest number of packed coefficients allowed per term of a factor. sparser
+	 * factors are multiplied faster term by term
+	 */
+	final private static int MAX_SPARSITY = 4;
+
+	/**
+	 * power of two that divides p-1 for every transform prime, which limits the
+	 * length of a transform
+	 */
+	final private static int TRANSFORM_LOG_LENGTH = 23;
+
+	/**
+	 * primes of the form c*2^23+1 that fit in 31 bits, largest first
+	 */
+	final private static long[] TRANSFORM_PRIMES;
+
+	/**
+	 * a primitive root modulo each of the transform primes
+	 */
+	final private static long[] PRIMITIVE_ROOTS;
+
+	static {
+		ArrayList < Long > primes = new ArrayList < Long > ();
+		for ( long multiplier = ( Integer.MAX_VALUE >> TRANSFORM_LOG_LENGTH ) ; multiplier > 0 ; multiplier-- ) {
+			long candidate = ( multiplier << TRANSFORM_LOG_LENGTH ) + 1;
+			if ( BigInteger.valueOf( candidate ).isProbablePrime( 40 ) ) {
+				primes.add( candidate );
+			}
+		}
+		TRANSFORM_PRIMES = new long[ primes.size() ];
+		PRIMITIVE_ROOTS = new long[ primes.size() ];
+		for ( int idx = 0 ; idx < TRANSFORM_PRIMES.length ; idx++ ) {
+			TRANSFORM_PRIMES[ idx ] = primes.get( idx );
+			PRIMITIVE_ROOTS[ idx ] = primitiveRoot( TRANSFORM_PRIMES[ idx ] );
+		}
+	}
+
+	private FastMultiplication() {
+
+	}
+
+	/**
+	 * @param sum1					a sum of <code>Monomial</code> objects
+	 * @param sum2					another sum of <code>Monomial</code> objects
+	 * @param environment			environment in which calculations occur
+	 * @return						the product of both sums, or <code>null</code> if the sums
+	 * 								should be multiplied term by term instead
+	 */
+	static MonomialSum multiply( MonomialSum sum1 , MonomialSum sum2 , Calculator environment ) {
+		int minTerms = Math.min( sum1.size() , sum2.size() );
+		if ( minTerms < KARATSUBA_THRESHOLD ) {
+			return null;
+		}
+
+		//find every variable and its largest exponent in each factor
+		TreeMap < Integer , Variable > variables = new TreeMap < Integer , Variable > ();
+		TreeMap < Integer , int[] > degrees = new TreeMap < Integer , int[] > ();
+		MonomialSum[] sums = { sum1 , sum2 };
+		for ( int sumIdx = 0 ; sumIdx < sums.length ; sumIdx++ ) {
+			for ( Monomial aTerm : sums[ sumIdx ] ) {
+				ExponentVector vector = aTerm.getExponentVector();
+				if ( vector == null || !( aTerm.getCoefficient() instanceof Fraction ) ) {
+					return null;
+				}
+				for ( int idx = 0 ; idx < vector.size() ; idx++ ) {
+					if ( vector.getExponent( idx ) < 0 ) {
+						return null;
+					}
+					Variable previous = variables.put( vector.getVariableId( idx ) , vector.getBase( idx ) );
+					if ( previous != null && previous.getEnvironment() != vector.getBase( idx ).getEnvironment() ) {
+						return null;
+					}
+					int[] variableDegrees = degrees.get( vector.getVariableId( idx ) );
+					if ( variableDegrees == null ) {
+						variableDegrees = new int[ 2 ];
+						degrees.put( vector.getVariableId( idx ) , variableDegrees );
+					}
+					variableDegrees[ sumIdx ] = Math.max( variableDegrees[ sumIdx ] , vector.getExponent( idx ) );
+				}
+			}
+		}
+
+		//each variable gets a stride large enough that no exponent in
+		//the product spills over into the next variable
+		int numVariables = variables.size();
+		int[] variableIds = new int[ numVariables ];
+		Variable[] bases = new Variable[ numVariables ];
+		long[] strides = new long[ numVariables + 1 ];
+		long[] packedLengths = { 1 , 1 };
+		strides[ 0 ] = 1;
+		int next = 0;
+		for ( Map.Entry < Integer , Variable > entry : variables.entrySet() ) {
+			int[] variableDegrees = degrees.get( entry.getKey() );
+			variableIds[ next ] = entry.getKey();
+			bases[ next ] = entry.getValue();
+			packedLengths[ 0 ] += variableDegrees[ 0 ] * strides[ next ];
+			packedLengths[ 1 ] += variableDegrees[ 1 ] * strides[ next ];
+			strides[ next + 1 ] = strides[ next ] * ( ( long ) variableDegrees[ 0 ] + variableDegrees[ 1 ] + 1 );
+			if ( strides[ next + 1 ] > MAX_PACKED_LENGTH ) {
+				return null;
+			}
+			next++;
+		}
+		if ( packedLengths[ 0 ] > ( long ) MAX_SPARSITY * sum1.size() || packedLengths[ 1 ] > ( long ) MAX_SPARSITY * sum2.size() ) {
+			return null;
+		}
+
+		//pack both factors, clearing their denominators
+		BigInteger[] denominators = new BigInteger[ 2 ];
+		BigInteger[][] packed = new BigInteger[ 2 ][];
+		for ( int sumIdx = 0 ; sumIdx < sums.length ; sumIdx++ ) {
+			BigInteger denominatorLcm = BigInteger.ONE;
+			for ( Monomial aTerm : sums[ sumIdx ] ) {
+				BigInteger denominator = ( ( Fraction ) aTerm.getCoefficient() ).getFractionDenominator();
+				denominatorLcm = denominatorLcm.divide( denominatorLcm.gcd( denominator ) ).multiply( denominator );
+			}
+			BigInteger[] coefficients = new BigInteger[ ( int ) packedLengths[ sumIdx ] ];
+			for ( Monomial aTerm : sums[ sumIdx ] ) {
+				Fraction coefficient = ( Fraction ) aTerm.getCoefficient();
+				ExponentVector vector = aTerm.getExponentVector();
+				int power = 0;
+				for ( int idx = 0 ; idx < vector.size() ; idx++ ) {
+					power += vector.getExponent( idx ) * strides[ indexOf( variableIds , vector.getVariableId( idx ) ) ];
+				}
+				coefficients[ power ] = coefficient.getFractionNumerator().multiply( denominatorLcm.divide( coefficient.getFractionDenominator() ) );
+			}
+			for ( int power = 0 ; power < coefficients.length ; power++ ) {
+				if ( coefficients[ power ] == null ) {
+					coefficients[ power ] = BigInteger.ZERO;
+				}
+			}
+			denominators[ sumIdx ] = denominatorLcm;
+			packed[ sumIdx ] = coefficients;
+		}
+
+		//the leading coefficient of the product is the product of the leading
+		//coefficients, so a product that is too large is caught before it is calculated
+		EvaluationBudget budget = EvaluationBudget.getCurrent();
+		BigInteger productDenominator = denominators[ 0 ].multiply( denominators[ 1 ] );
+		if ( budget != null ) {
+			BigInteger leadingProduct = leadingCoefficient( packed[ 0 ] ).multiply( leadingCoefficient( packed[ 1 ] ) );
+			budget.checkCoefficient( new Fraction( environment , leadingProduct , productDenominator ).getBitLength() );
+		}
+
+		BigInteger[] product;
+		if ( minTerms < TRANSFORM_THRESHOLD ) {
+			product = karatsuba( packed[ 0 ] , 0 , packed[ 0 ].length , packed[ 1 ] , 0 , packed[ 1 ].length );
+		} else {
+			product = transformMultiply( packed[ 0 ] , packed[ 1 ] );
+			if ( product == null ) {
+				product = karatsuba( packed[ 0 ] , 0 , packed[ 0 ].length , packed[ 1 ] , 0 , packed[ 1 ].length );
+			}
+		}
+
+		//unpack the product
+		MonomialSum rtn = new MonomialSum();
+		for ( int power = 0 ; power < product.length ; power++ ) {
+			if ( product[ power ].signum() == 0 ) {
+				continue;
+			}
+			Fraction coefficient = new Fraction( environment , product[ power ] , productDenominator );
+			if ( budget != null ) {
+				budget.checkTerms( rtn.size() + 1 );
+				budget.checkCoefficient( coefficient.getBitLength() );
+			}
+			if ( power == 0 ) {
+				rtn.add( coefficient );
+			} else {
+				int[] exponents = new int[ numVariables ];
+				for ( int idx = 0 ; idx < numVariables ; idx++ ) {
+					exponents[ idx ] = ( int ) ( power % strides[ idx + 1 ] / strides[ idx ] );
+				}
+				ExponentVector vector = ExponentVector.of( bases[ 0 ].getEnvironment() , variableIds , exponents , bases );
+				rtn.add( new Monomial( environment , vector , coefficient ) );
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return				the last nonzero coefficient of a packed factor
+	 */
+	private static BigInteger leadingCoefficient( BigInteger[] factor ) {
+		int power = factor.length - 1;
+		while ( factor[ power ].signum() == 0 ) {
+			power--;
+		}
+		return factor[ power ];
+	}
+
+	private static int indexOf( int[] variableIds , int variableId ) {
+		int rtn = 0;
+		while ( variableIds[ rtn ] != variableId ) {
+			rtn++;
+		}
+		return rtn;
+	}
+
+	/**
+	 * Karatsuba's algorithm, which multiplies two halves of each factor in three
+	 * products instead of four
+	 *
+	 * @return				the product of the <code>length1</code> coefficients of
+	 * 						<code>factor1</code> starting at <code>start1</code> with those
+	 * 						of <code>factor2</code>
+	 */
+	private static BigInteger[] karatsuba( BigInteger[] factor1 , int start1 , int length1 , BigInteger[] factor2 , int start2 , int length2 ) {
+		BigInteger[] rtn = new BigInteger[ length1 + length2 - 1 ];
+
+		//multiply directly if either factor is short
+		if ( Math.min( length1 , length2 ) < KARATSUBA_CUTOFF ) {
+			for ( int idx = 0 ; idx < rtn.length ; idx++ ) {
+				rtn[ idx ] = BigInteger.ZERO;
+			}
+			for ( int idx1 = 0 ; idx1 < length1 ; idx1++ ) {
+				BigInteger coefficient1 = factor1[ start1 + idx1 ];
+				if ( coefficient1.signum() == 0 ) {
+					continue;
+				}
+				EvaluationBudget.checkCurrent();
+				for ( int idx2 = 0 ; idx2 < length2 ; idx2++ ) {
+					rtn[ idx1 + idx2 ] = rtn[ idx1 + idx2 ].add( coefficient1.multiply( factor2[ start2 + idx2 ] ) );
+				}
+			}
+			return rtn;
+		}
+
+		EvaluationBudget.checkCurrent();
+		int half = Math.max( length1 , length2 ) / 2;
+
+		//if one factor is much shorter, only split the longer one
+		if ( length2 <= half ) {
+			BigInteger[] low = karatsuba( factor1 , start1 , half , factor2 , start2 , length2 );
+			BigInteger[] high = karatsuba( factor1 , start1 + half , length1 - half , factor2 , start2 , length2 );
+			addInto( rtn , 0 , low , BigInteger.ONE );
+			addInto( rtn , half , high , BigInteger.ONE );
+			return rtn;
+		} else if ( length1 <= half ) {
+			return karatsuba( factor2 , start2 , length2 , factor1 , start1 , length1 );
+		}
+
+		//(a0 + a1*x^h)(b0 + b1*x^h) = a0*b0 + ((a0+a1)(b0+b1) - a0*b0 - a1*b1)*x^h + a1*b1*x^2h
+		BigInteger[] low = karatsuba( factor1 , start1 , half , factor2 , start2 , half );
+		BigInteger[] high = karatsuba( factor1 , start1 + half , length1 - half , factor2 , start2 + half , length2 - half );
+		BigInteger[] sum1 = addHalves( factor1 , start1 , length1 , half );
+		BigInteger[] sum2 = addHalves( factor2 , start2 , length2 , half );
+		BigInteger[] middle = karatsuba( sum1 , 0 , sum1.length , sum2 , 0 , sum2.length );
+		addInto( middle , 0 , low , BigInteger.ONE.negate() );
+		addInto( middle , 0 , high , BigInteger.ONE.negate() );
+
+		addInto( rtn , 0 , low , BigInteger.ONE );
+		addInto( rtn , half , middle , BigInteger.ONE );
+		addInto( rtn , 2 * half , high , BigInteger.ONE );
+		return rtn;
+	}
+
+	/**
+	 * @return				the sum of the low <code>half</code> coefficients of a factor
+	 * 						and the remaining high coefficients
+	 */
+	private static BigInteger[] addHalves( BigInteger[] factor , int start , int length , int half ) {
+		BigInteger[] rtn = new BigInteger[ Math.max( half , length - half ) ];
+		for ( int idx = 0 ; idx < rtn.length ; idx++ ) {
+			BigInteger low = idx < half ? factor[ start + idx ] : BigInteger.ZERO;
+			BigInteger high = idx < length - half ? factor[ start + half + idx ] : BigInteger.ZERO;
+			rtn[ idx ] = low.add( high );
+		}
+		return rtn;
+	}
+
+	/**
+	 * adds <code>sign</code> times the given coefficients to the target, starting at
+	 * the given offset. coefficients past the end of the target must be zero
+	 */
+	private static void addInto( BigInteger[] target , int offset , BigInteger[] coefficients , BigInteger sign ) {
+		int length = Math.min( coefficients.length , target.length - offset );
+		for ( int idx = 0 ; idx < length ; idx++ ) {
+			BigInteger value = sign.signum() < 0 ? coefficients[ idx ].negate() : coefficients[ idx ];
+			target[ offset + idx ] = target[ offset + idx ] == null ? value : target[ offset + idx ].add( value );
+		}
+	}
+
+	/**
+	 * multiplies two factors with number-theoretic transforms modulo enough primes
+	 * to recover every coefficient of the product
+	 *
+	 * @return				the product, or <code>null</code> if the coefficients are
+	 * 						too large for the available primes
+	 */
+	private static BigInteger[] transformMultiply( BigInteger[] factor1 , BigInteger[] factor2 ) {
+		int productLength = factor1.length + factor2.length - 1;
+		int transformLength = Integer.highestOneBit( productLength );
+		if ( transformLength < productLength ) {
+			transformLength <<= 1;
+		}
+		if ( transformLength > 1 << TRANSFORM_LOG_LENGTH ) {
+			return null;
+		}
+
+		//every coefficient of the product is less than this many bits in absolute
+		//value, and the product of the primes must be at least twice as large
+		int bound = maxBitLength( factor1 ) + maxBitLength( factor2 ) + 32 - Integer.numberOfLeadingZeros( Math.min( factor1.length , factor2.length ) ) + 1;
+		int numPrimes = 0;
+		int primeBits = 0;
+		while ( primeBits <= bound ) {
+			if ( numPrimes == TRANSFORM_PRIMES.length ) {
+				return null;
+			}
+			primeBits += 63 - Long.numberOfLeadingZeros( TRANSFORM_PRIMES[ numPrimes ] );
+			numPrimes++;
+		}
+
+		//multiply modulo each prime
+		long[][] residues = new long[ numPrimes ][];
+		for ( int primeIdx = 0 ; primeIdx < numPrimes ; primeIdx++ ) {
+			EvaluationBudget.checkCurrent();
+			long p = TRANSFORM_PRIMES[ primeIdx ];
+			long[] transformed1 = reduce( factor1 , transformLength , p );
+			long[] transformed2 = reduce( factor2 , transformLength , p );
+			long root = power( PRIMITIVE_ROOTS[ primeIdx ] , ( p - 1 ) / transformLength , p );
+			transform( transformed1 , root , p );
+			transform( transformed2 , root , p );
+			for ( int idx = 0 ; idx < transformLength ; idx++ ) {
+				transformed1[ idx ] = transformed1[ idx ] * transformed2[ idx ] % p;
+			}
+			transform( transformed1 , inverse( root , p ) , p );
+			long lengthInverse = inverse( transformLength , p );
+			for ( int idx = 0 ; idx < productLength ; idx++ ) {
+				transformed1[ idx ] = transformed1[ idx ] * lengthInverse % p;
+			}
+			residues[ primeIdx ] = transformed1;
+		}
+
+		//Garner's algorithm finds the digits of each coefficient in the mixed
+		//radix p0, p0*p1, ..., which are then added up
+		long[][] inverses = new long[ numPrimes ][ numPrimes ];
+		BigInteger[] radices = new BigInteger[ numPrimes ];
+		BigInteger modulus = BigInteger.ONE;
+		for ( int primeIdx = 0 ; primeIdx < numPrimes ; primeIdx++ ) {
+			radices[ primeIdx ] = modulus;
+			modulus = modulus.multiply( BigInteger.valueOf( TRANSFORM_PRIMES[ primeIdx ] ) );
+			for ( int previousIdx = 0 ; previousIdx < primeIdx ; previousIdx++ ) {
+				inverses[ primeIdx ][ previousIdx ] = inverse( TRANSFORM_PRIMES[ previousIdx ] % TRANSFORM_PRIMES[ primeIdx ] , TRANSFORM_PRIMES[ primeIdx ] );
+			}
+		}
+		BigInteger halfModulus = modulus.shiftRight( 1 );
+		BigInteger[] rtn = new BigInteger[ productLength ];
+		long[] digits = new long[ numPrimes ];
+		for ( int idx = 0 ; idx < productLength ; idx++ ) {
+			BigInteger value = BigInteger.ZERO;
+			for ( int primeIdx = 0 ; primeIdx < numPrimes ; primeIdx++ ) {
+				long p = TRANSFORM_PRIMES[ primeIdx ];
+				long digit = residues[ primeIdx ][ idx ];
+				for ( int previousIdx = 0 ; previousIdx < primeIdx ; previousIdx++ ) {
+					digit = ( digit - digits[ previousIdx ] % p + p ) % p * inverses[ primeIdx ][ previousIdx ] % p;
+				}
+				digits[ primeIdx ] = digit;
+				if ( digit != 0 ) {
+					value = value.add( radices[ primeIdx ].multiply( BigInteger.valueOf( digit ) ) );
+				}
+			}
+			rtn[ idx ] = value.compareTo( halfModulus ) > 0 ? value.subtract( modulus ) : value;
+		}
+		return rtn;
+	}
+
+	private static int maxBitLength( BigInteger[] coefficients ) {
+		int rtn = 0;
+		for ( BigInteger coefficient : coefficients ) {
+			rtn = Math.max( rtn , coefficient.bitLength() );
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return				the coefficients modulo p, padded with zeros to the given length
+	 */
+	private static long[] reduce( BigInteger[] coefficients , int length , long p ) {
+		BigInteger prime = BigInteger.valueOf( p );
+		long[] rtn = new long[ length ];
+		for ( int idx = 0 ; idx < coefficients.length ; idx++ ) {
+			if ( coefficients[ idx ].bitLength() < Long.SIZE ) {
+				rtn[ idx ] = ( coefficients[ idx ].longValue() % p + p ) % p;
+			} else {
+				rtn[ idx ] = coefficients[ idx ].mod( prime ).longValue();
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * iterative in-place number-theoretic transform
+	 *
+	 * @param values		values whose length is a power of two
+	 * @param root			a primitive root of unity of that order modulo p
+	 * @param p				the prime
+	 */
+	private static void transform( long[] values , long root , long p ) {
+		int length = values.length;
+
+		//bit-reversal permutation
+		for ( int idx = 1 , reversed = 0 ; idx < length ; idx++ ) {
+			int bit = length >> 1;
+			while ( ( reversed & bit ) != 0 ) {
+				reversed ^= bit;
+				bit >>= 1;
+			}
+			reversed ^= bit;
+			if ( idx < reversed ) {
+				long temp = values[ idx ];
+				values[ idx ] = values[ reversed ];
+				values[ reversed ] = temp;
+			}
+		}
+
+		//butterflies
+		for ( int size = 2 ; size <= length ; size <<= 1 ) {
+			long step = power( root , length / size , p );
+			int halfSize = size >> 1;
+			long[] twiddles = new long[ halfSize ];
+			twiddles[ 0 ] = 1;
+			for ( int idx = 1 ; idx < halfSize ; idx++ ) {
+				twiddles[ idx ] = twiddles[ idx - 1 ] * step % p;
+			}
+			for ( int start = 0 ; start < length ; start += size ) {
+				for ( int idx = 0 ; idx < halfSize ; idx++ ) {
+					long even = values[ start + idx ];
+					long odd = values[ start + idx + halfSize ] * twiddles[ idx ] % p;
+					values[ start + idx ] = even + odd >= p ? even + odd - p : even + odd;
+					values[ start + idx + halfSize ] = even - odd < 0 ? even - odd + p : even - odd;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return				the smallest primitive root modulo the prime
+	 */
+	private static long primitiveRoot( long p ) {
+
+		//find the prime factors of p-1
+		ArrayList < Long > factors = new ArrayList < Long > ();
+		long remaining = p - 1;
+		for ( long factor = 2 ; factor * factor <= remaining ; factor++ ) {
+			if ( remaining % factor == 0 ) {
+				factors.add( factor );
+				while ( remaining % factor == 0 ) {
+					remaining /= factor;
+				}
+			}
+		}
+		if ( remaining > 1 ) {
+			factors.add( remaining );
+		}
+
+		//a generator has no power (p-1)/q equal to 1
+		for ( long candidate = 2 ; ; candidate++ ) {
+			boolean isGenerator = true;
+			for ( long factor : factors ) {
+				if ( power( candidate , ( p - 1 ) / factor , p ) == 1 ) {
+					isGenerator = false;
+					break;
+				}
+			}
+			if ( isGenerator ) {
+				return candidate;
+			}
+		}
+	}
+
+	private static long power( long base , long exponent , long p ) {
+		long rtn = 1;
+		long square = base % p;
+		while ( exponent > 0 ) {
+			if ( ( exponent & 1 ) != 0 ) {
+				rtn = rtn * square % p;
+			}
+			square = square * square % p;
+			exponent >>= 1;
+		}
+		return rtn;
+	}
+
+	private static long inverse( long value , long p ) {
+		return power( value , p - 2 , p );
+	}
+}
@@ -2,40 +2,102 @@ package calculate.structures.polynomial;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.MathContext;
 
+import _library.LinkedList;
 import calculate.Calculator;
+import calculate.EvaluationBudget;
 import calculate.operators.DivideOperator;
 import calculate.operators.SubtractOperator;
 import calculate.structures.Combinable;
 
 /**
  * immutable <code>Numerical</code> that represents any decimal exactly
+ * <p>
+ * a <code>Fraction</code> whose numerator and denominator both fit in a <code>long</code>
+ * is stored in two <code>long</code> fields, and arithmetic between two such
+ * <code>Fraction</code> objects is done with overflow-checked <code>long</code> math.
+ * only if the result overflows is it recalculated with <code>BigInteger</code> objects.
+ * the decimal value used by <code>Numerical</code> is calculated only when it is needed.
  */
 public class Fraction extends Numerical {
 
+	/**
+	 * largest number of bits in the numerator or denominator of an exact power.
+	 * larger powers are only displayed
+	 */
+	final private static long MAX_POWER_BITS = 1 << 24;
+	
+	/**
+	 * largest magnitude below which every <code>long</code> is exactly a <code>double</code>
+	 */
+	final private static long MAX_EXACT_DOUBLE = 1L << 53;
+	
+	/**
+	 * bits of quotient found when converting a large <code>Fraction</code> to a
+	 * <code>double</code>: the 53 bits of a <code>double</code>, a rounding bit and
+	 * a bit marking a nonzero remainder
+	 */
+	final private static int DOUBLE_QUOTIENT_BITS = 55;
+	
+	/**
+	 * numerator of this <code>Fraction</code> if it fits in a <code>long</code>
+	 */
+	private long m_smallNumerator;
+	
+	/**
+	 * denominator of this <code>Fraction</code> if it fits in a <code>long</code>.
+	 * it is always positive
+	 */
+	private long m_smallDenominator;
+	
+	/**
+	 * numerator of this <code>Fraction</code>, or <code>null</code> if both the
+	 * numerator and denominator fit in a <code>long</code>
+	 */
 	private BigInteger m_numerator;
+	
+	/**
+	 * denominator of this <code>Fraction</code>, or <code>null</code> if both the
+	 * numerator and denominator fit in a <code>long</code>. it is always positive
+	 */
 	private BigInteger m_denominator;
 	
 	public Fraction( Calculator environment , BigInteger numerator , BigInteger denominator ) {
-		super( environment , new BigDecimal( numerator.doubleValue() / denominator.doubleValue() ));
-		this.m_numerator = numerator;
-		this.m_denominator = denominator;
-		simplify();
-		determineRepresentation();
+		super( environment );
+		setFraction( numerator , denominator );
+		invalidateRepresentation();
+	}
+	
+	/**
+	 * creates a <code>Fraction</code> from a numerator and denominator that fit in
+	 * a <code>long</code>
+	 * 
+	 * @param environment
+	 * @param numerator
+	 * @param denominator			a nonzero denominator
+	 */
+	Fraction( Calculator environment , long numerator , long denominator ) {
+		super( environment );
+		setFraction( numerator , denominator );
+		invalidateRepresentation();
 	}
 	
 	public Fraction( Calculator environment , BigDecimal numerator , BigDecimal denominator ) {
-		super ( environment , new BigDecimal( numerator.doubleValue() / denominator.doubleValue() ) );
-		BigDecimal integerNumerator = numerator;
-		BigDecimal integerDenominator = denominator;
-		while ( integerNumerator.toString().contains( "." ) || integerDenominator.toString().contains( ".") ) {
-			integerNumerator = integerNumerator.multiply( BigDecimal.TEN ).stripTrailingZeros();
-			integerDenominator = integerDenominator.multiply( BigDecimal.TEN ).stripTrailingZeros();
+		super( environment );
+		
+		//numerator/denominator = (a * 10^-numeratorScale)/(b * 10^-denominatorScale),
+		//so move the powers of ten to whichever side keeps everything an integer
+		BigInteger integerNumerator = numerator.unscaledValue();
+		BigInteger integerDenominator = denominator.unscaledValue();
+		int scaleDifference = denominator.scale() - numerator.scale();
+		if ( scaleDifference > 0 ) {
+			integerNumerator = integerNumerator.multiply( BigInteger.TEN.pow( scaleDifference ) );
+		} else if ( scaleDifference < 0 ) {
+			integerDenominator = integerDenominator.multiply( BigInteger.TEN.pow( -scaleDifference ) );
 		}
-		this.m_numerator = integerNumerator.toBigInteger();
-		this.m_denominator = integerDenominator.toBigInteger();
-		simplify();
-		determineRepresentation();
+		setFraction( integerNumerator , integerDenominator );
+		invalidateRepresentation();
 	}
 	
 	
@@ -44,12 +106,113 @@ public class Fraction extends Numerical {
 	}
 	
 	public Fraction( Calculator environment , BigDecimal value ) {
-		this( environment , value.toString() );
+		this( environment , value , BigDecimal.ONE );
 	}
 	
 	public Fraction( Calculator environment , Numerical value ) {
 		this ( environment , value.getNumericalValue() , BigDecimal.ONE );
 	}
+	
+	/**
+	 * sets this <code>Fraction</code> to the given value in lowest terms, using the
+	 * <code>long</code> fields if possible
+	 * 
+	 * @param numerator
+	 * @param denominator			a nonzero denominator
+	 */
+	private void setFraction( long numerator , long denominator ) {
+		if ( denominator == 0 ) {
+			throw new ArithmeticException( "division by zero" );
+		}
+		
+		//negating Long.MIN_VALUE overflows, so leave it to BigInteger
+		if ( numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE ) {
+			setFraction( BigInteger.valueOf( numerator ) , BigInteger.valueOf( denominator ) );
+			return;
+		}
+		
+		//keep the sign in the numerator
+		if ( denominator < 0 ) {
+			numerator = -numerator;
+			denominator = -denominator;
+		}
+		long gcd = binaryGcd( Math.abs( numerator ) , denominator );
+		this.m_smallNumerator = numerator / gcd;
+		this.m_smallDenominator = denominator / gcd;
+		this.m_numerator = null;
+		this.m_denominator = null;
+	}
+	
+	/**
+	 * sets this <code>Fraction</code> to the given value in lowest terms, using the
+	 * <code>long</code> fields if possible
+	 * 
+	 * @param numerator
+	 * @param denominator			a nonzero denominator
+	 */
+	private void setFraction( BigInteger numerator , BigInteger denominator ) {
+		if ( denominator.signum() == 0 ) {
+			throw new ArithmeticException( "division by zero" );
+		}
+		
+		//keep the sign in the numerator
+		if ( denominator.signum() < 0 ) {
+			numerator = numerator.negate();
+			denominator = denominator.negate();
+		}
+		BigInteger gcd = numerator.gcd( denominator );
+		if ( !gcd.equals( BigInteger.ONE ) ) {
+			numerator = numerator.divide( gcd );
+			denominator = denominator.divide( gcd );
+		}
+		
+		//go back to the long fields if the reduced fraction fits
+		if ( fitsInLong( numerator ) && fitsInLong( denominator ) ) {
+			this.m_smallNumerator = numerator.longValue();
+			this.m_smallDenominator = denominator.longValue();
+			this.m_numerator = null;
+			this.m_denominator = null;
+		} else {
+			this.m_numerator = numerator;
+			this.m_denominator = denominator;
+		}
+	}
+	
+	/**
+	 * @param value			an integer
+	 * @return				if the integer fits in a <code>long</code> and can be negated
+	 * 						without overflowing
+	 */
+	private static boolean fitsInLong( BigInteger value ) {
+		return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+	}
+	
+	/**
+	 * @return				if the numerator and denominator are stored in the <code>long</code> fields
+	 */
+	private boolean isSmall() {
+		return this.m_numerator == null;
+	}
+
+	/**
+	 * @return				number of bits in the larger of the numerator and denominator
+	 */
+	int getBitLength() {
+		if ( isSmall() ) {
+			return Long.SIZE - Long.numberOfLeadingZeros( Math.max( Math.abs( this.m_smallNumerator ) , this.m_smallDenominator ) );
+		}
+		return Math.max( this.m_numerator.bitLength() , this.m_denominator.bitLength() );
+	}
+
+	/**
+	 * @param result			the result of an arithmetic operation
+	 * @return					the result, once the size of its numerator and denominator
+	 * 							has been checked against the budget of the current evaluation
+	 */
+	private static Fraction checkSize( Fraction result ) {
+		EvaluationBudget.checkCurrentCoefficient( result.getBitLength() );
+		return result;
+	}
 
 	/**
 	 * @param representation			textual representation of a token to be created
@@ -70,10 +233,11 @@ public class Fraction extends Numerical {
 		
 		//make sure we are dealing with integers, because
 		//we cannot get a gcd if one of the arguments is a fraction
-		BigInteger a = arg1.getFractionNumerator();
-		BigInteger b = arg2.getFractionNumerator();
 		if ( arg1.isInteger() && arg2.isInteger() ) {
-			return new Fraction( arg1.getEnvironment() , gcd( a , b ) , BigInteger.ONE );
+			if ( arg1.isSmall() && arg2.isSmall() ) {
+				return new Fraction( arg1.getEnvironment() , binaryGcd( Math.abs( arg1.m_smallNumerator ) , Math.abs( arg2.m_smallNumerator ) ) , 1 );
+			}
+			return new Fraction( arg1.getEnvironment() , gcd( arg1.getFractionNumerator() , arg2.getFractionNumerator() ) , BigInteger.ONE );
 		} else {
 			return Numerical.ONE;
 		}
@@ -88,57 +252,231 @@ public class Fraction extends Numerical {
 	 */
 	final private static BigInteger gcd( BigInteger a , BigInteger b )
 	{
-		if ( b.compareTo( BigInteger.ZERO ) == 0 ) {
-			return a;
-		} else {
-			return gcd( b , a.mod( b.abs() ) );
+		if ( fitsInLong( a ) && fitsInLong( b ) ) {
+			return BigInteger.valueOf( binaryGcd( Math.abs( a.longValue() ) , Math.abs( b.longValue() ) ) );
 		}
+		return a.gcd( b );
 	}
 	
 	/**
-	 * finds the lowest common multiple of two numbers a and b
+	 * finds the greatest common divisor of two non-negative numbers a and b
+	 * using only shifts and subtraction
 	 * 
-	 * @param a			an integer
-	 * @param b			another integer
-	 * @return			the lowest common multiple of a and b
+	 * @param a			a non-negative integer
+	 * @param b			another non-negative integer
+	 * @return			the greatest common divisor of a and b
+	 */
+	final private static long binaryGcd( long a , long b )
+	{
+		if ( a == 0 ) {
+			return b;
+		}
+		if ( b == 0 ) {
+			return a;
+		}
+		
+		//factor out the powers of two that a and b have in common
+		int commonTwos = Long.numberOfTrailingZeros( a | b );
+		a >>= Long.numberOfTrailingZeros( a );
+		
+		//a is always odd, so any remaining powers of two in b are not in the gcd
+		do {
+			b >>= Long.numberOfTrailingZeros( b );
+			if ( a > b ) {
+				long temp = a;
+				a = b;
+				b = temp;
+			}
+			b -= a;
+		} while ( b != 0 );
+		return a << commonTwos;
+	}
+	
+	/**
+	 * @return			a * b
+	 * @throws ArithmeticException			if the product overflows a <code>long</code>
 	 */
-	final private static BigInteger lcm( BigInteger a , BigInteger b )
+	final private static long multiplyExact( long a , long b )
 	{
-		BigInteger gcd = gcd( a , b);
-		return a.multiply( b ).divide( gcd );
+		long product = a * b;
+		
+		//only bother dividing if the product might have overflowed
+		if ( ( ( Math.abs( a ) | Math.abs( b ) ) >>> 31 ) != 0 ) {
+			if ( ( b != 0 && product / b != a ) || ( a == Long.MIN_VALUE && b == -1 ) ) {
+				throw new ArithmeticException( "long overflow" );
+			}
+		}
+		return product;
+	}
+	
+	/**
+	 * @return			a + b
+	 * @throws ArithmeticException			if the sum overflows a <code>long</code>
+	 */
+	final private static long addExact( long a , long b )
+	{
+		long sum = a + b;
+		
+		//overflow if both operands have the opposite sign of the result
+		if ( ( ( a ^ sum ) & ( b ^ sum ) ) < 0 ) {
+			throw new ArithmeticException( "long overflow" );
+		}
+		return sum;
 	}
 	
-	private void determineRepresentation() {
-		if ( this.m_denominator.equals( BigInteger.ONE ) ) {
-			setRepresentation( this.m_numerator.toString() );
+	@Override
+	protected String determineRepresentation() {
+		if ( isSmall() ) {
+			if ( this.m_smallDenominator == 1 ) {
+				return Long.toString( this.m_smallNumerator );
+			} else {
+				return this.m_smallNumerator + DivideOperator.REPRESENTATION + this.m_smallDenominator;
+			}
+		} else if ( this.m_denominator.equals( BigInteger.ONE ) ) {
+			return this.m_numerator.toString();
 		} else {
-			setRepresentation( this.m_numerator.toString() + DivideOperator.REPRESENTATION + this.m_denominator.toString() );
+			return this.m_numerator.toString() + DivideOperator.REPRESENTATION + this.m_denominator.toString();
 		}
 	}
 	
-	private BigInteger getFractionNumerator() {
+	BigInteger getFractionNumerator() {
+		if ( isSmall() ) {
+			return BigInteger.valueOf( this.m_smallNumerator );
+		}
 		return this.m_numerator;
 	}
 	
 	public Fraction getDenominatorAsFraction() {
+		if ( isSmall() ) {
+			return new Fraction( getEnvironment() , this.m_smallDenominator , 1 );
+		}
 		return new Fraction( getEnvironment() , this.m_denominator , BigInteger.ONE );
 	}
 	
-	private BigInteger getFractionDenominator() {
+	BigInteger getFractionDenominator() {
+		if ( isSmall() ) {
+			return BigInteger.valueOf( this.m_smallDenominator );
+		}
 		return this.m_denominator;
 	}
 	
+	/**
+	 * @return			the exact decimal value of this <code>Fraction</code>, rounded
+	 * 					to 34 significant digits if the decimal does not terminate
+	 */
+	@Override
+	public BigDecimal getNumericalValue() {
+		if ( this.m_value == null ) {
+			if ( isInteger() ) {
+				this.m_value = new BigDecimal( getFractionNumerator() );
+			} else {
+				BigDecimal numerator = new BigDecimal( getFractionNumerator() );
+				BigDecimal denominator = new BigDecimal( getFractionDenominator() );
+				try {
+					this.m_value = numerator.divide( denominator );
+				} catch ( ArithmeticException nonTerminating ) {
+					this.m_value = numerator.divide( denominator , MathContext.DECIMAL128 );
+				}
+			}
+		}
+		return this.m_value;
+	}
+	
 	@Override
 	public boolean isInteger() {
+		if ( isSmall() ) {
+			return this.m_smallDenominator == 1;
+		}
 		return this.m_denominator.equals( BigInteger.ONE );
 	}
 	
-	final public void simplify()
-	{
-		BigInteger gcd = gcd(this.m_numerator, this.m_denominator);
-		this.m_numerator = this.m_numerator.divide(gcd);
-		this.m_denominator = this.m_denominator.divide(gcd);
-		determineRepresentation();
+	/**
+	 * @return			if this <code>Fraction</code> is an integer small enough to fit
+	 * 					in an <code>int</code>
+	 */
+	boolean isSmallInteger() {
+		return isSmall() && this.m_smallDenominator == 1 && this.m_smallNumerator == ( int ) this.m_smallNumerator;
+	}
+	
+	/**
+	 * @return			the numerator of this <code>Fraction</code> as an <code>int</code>.
+	 * 					only meaningful if {@link #isSmallInteger()}
+	 */
+	int intValue() {
+		return ( int ) this.m_smallNumerator;
+	}
+	
+	/**
+	 * @return			the <code>double</code> nearest to this <code>Fraction</code>
+	 */
+	double doubleValue() {
+		if ( isSmall() && Math.abs( this.m_smallNumerator ) <= MAX_EXACT_DOUBLE && this.m_smallDenominator <= MAX_EXACT_DOUBLE ) {
+			
+			//both are exact doubles, so dividing them rounds only once
+			return ( double ) this.m_smallNumerator / this.m_smallDenominator;
+		}
+		
+		//find enough bits of the quotient that rounding them to a double rounds the
+		//whole fraction the same way, and mark a nonzero remainder in the last bit
+		BigInteger numerator = getFractionNumerator().abs();
+		BigInteger denominator = getFractionDenominator();
+		int shift = Math.max( 0 , DOUBLE_QUOTIENT_BITS - numerator.bitLength() + denominator.bitLength() );
+		BigInteger[] quotient = numerator.shiftLeft( shift ).divideAndRemainder( denominator );
+		BigInteger bits = quotient[ 0 ].shiftLeft( 1 );
+		if ( quotient[ 1 ].signum() != 0 ) {
+			bits = bits.setBit( 0 );
+		}
+		double rtn = Math.scalb( bits.doubleValue() , -shift - 1 );
+		return getFractionNumerator().signum() < 0 ? -rtn : rtn;
+	}
+	
+	/**
+	 * every <code>Fraction</code> is reduced when it is created, so this only copies it
+	 * 
+	 * @return			a <code>Fraction</code> with the same value, in lowest terms
+	 */
+	final public Fraction simplify() {
+		if ( isSmall() ) {
+			return new Fraction( getEnvironment() , this.m_smallNumerator , this.m_smallDenominator );
+		}
+		return new Fraction( getEnvironment() , this.m_numerator , this.m_denominator );
+	}
+	
+	/**
+	 * @param numerator1		numerator of the first fraction
+	 * @param denominator1		positive denominator of the first fraction
+	 * @param numerator2		numerator of the second fraction
+	 * @param denominator2		positive denominator of the second fraction
+	 * @return					the sum of the two fractions as {numerator, denominator}
+	 * @throws ArithmeticException			if the sum does not fit in a <code>long</code>
+	 */
+	final private static long[] addSmall( long numerator1 , long denominator1 , long numerator2 , long denominator2 ) {
+		
+		//use the lowest common denominator to keep the numbers small
+		long gcd = binaryGcd( denominator1 , denominator2 );
+		long newDenominator = multiplyExact( denominator1 / gcd , denominator2 );
+		long newNumerator = addExact( multiplyExact( numerator1 , denominator2 / gcd ) , multiplyExact( numerator2 , denominator1 / gcd ) );
+		long[] rtn = { newNumerator , newDenominator };
+		return rtn;
+	}
+	
+	/**
+	 * @param numerator1		numerator of the first fraction
+	 * @param denominator1		positive denominator of the first fraction
+	 * @param numerator2		numerator of the second fraction
+	 * @param denominator2		positive denominator of the second fraction
+	 * @return					the product of the two fractions as {numerator, denominator}
+	 * @throws ArithmeticException			if the product does not fit in a <code>long</code>
+	 */
+	final private static long[] multiplySmall( long numerator1 , long denominator1 , long numerator2 , long denominator2 ) {
+		
+		//cancel common factors before multiplying to keep the numbers small
+		long gcd1 = binaryGcd( Math.abs( numerator1 ) , denominator2 );
+		long gcd2 = binaryGcd( Math.abs( numerator2 ) , denominator1 );
+		long newNumerator = multiplyExact( numerator1 / gcd1 , numerator2 / gcd2 );
+		long newDenominator = multiplyExact( denominator1 / gcd2 , denominator2 / gcd1 );
+		long[] rtn = { newNumerator , newDenominator };
+		return rtn;
 	}
 	
 	@Override
@@ -154,17 +492,28 @@ public class Fraction extends Numerical {
 				fractionAugend = new Fraction( getEnvironment() , numericalAugend );
 			}
 			
+			//try adding without BigIntegers first
+			if ( this.isSmall() && fractionAugend.isSmall() ) {
+				try {
+					long[] sum = addSmall( this.m_smallNumerator , this.m_smallDenominator , fractionAugend.m_smallNumerator , fractionAugend.m_smallDenominator );
+					return checkSize( new Fraction( getEnvironment() , sum[ 0 ] , sum[ 1 ] ) );
+				} catch ( ArithmeticException overflow ) {
+					//the sum is too large for a long
+				}
+			}
+			
 			//calculate a new denominator
-			BigInteger newDenominator = lcm( this.getFractionDenominator() , fractionAugend.getFractionDenominator() );
+			BigInteger thisDenominator = this.getFractionDenominator();
+			BigInteger augendDenominator = fractionAugend.getFractionDenominator();
+			BigInteger denominatorGcd = gcd( thisDenominator , augendDenominator );
+			BigInteger newDenominator = thisDenominator.divide( denominatorGcd ).multiply( augendDenominator );
 			
 			//calculate a new numerator
-			BigInteger thisMultiplier = newDenominator.divide( this.getFractionDenominator() );
-			BigInteger thisNewNumerator = this.getFractionNumerator().multiply( thisMultiplier );
-			BigInteger augendMultiplier = newDenominator.divide( fractionAugend.getFractionDenominator() );
-			BigInteger augendNewNumerator = fractionAugend.getFractionNumerator().multiply( augendMultiplier );
+			BigInteger thisNewNumerator = this.getFractionNumerator().multiply( augendDenominator.divide( denominatorGcd ) );
+			BigInteger augendNewNumerator = fractionAugend.getFractionNumerator().multiply( thisDenominator.divide( denominatorGcd ) );
 			BigInteger newNumerator = thisNewNumerator.add( augendNewNumerator );
 			
-			return new Fraction( getEnvironment() , newNumerator , newDenominator );
+			return checkSize( new Fraction( getEnvironment() , newNumerator , newDenominator ) );
 			
 		} else {
 			return super.add( augend );
@@ -184,17 +533,8 @@ public class Fraction extends Numerical {
 				fractionSubtrahend = new Fraction( getEnvironment() , numericalSubtrahend );
 			}
 			
-			//calculate a new denominator
-			BigInteger newDenominator = lcm( this.getFractionDenominator() , fractionSubtrahend.getFractionDenominator() );
-			
-			//calculate a new numerator
-			BigInteger thisMultiplier = newDenominator.divide( this.getFractionDenominator() );
-			BigInteger thisNewNumerator = this.getFractionNumerator().multiply( thisMultiplier );
-			BigInteger subtrahendMultiplier = newDenominator.divide( fractionSubtrahend.getFractionDenominator() );
-			BigInteger subtrahendNewNumerator = fractionSubtrahend.getFractionNumerator().multiply( subtrahendMultiplier );
-			BigInteger newNumerator = thisNewNumerator.subtract( subtrahendNewNumerator );
-			
-			return new Fraction( getEnvironment() , newNumerator , newDenominator );
+			//subtracting is the same as adding the opposite
+			return this.add( fractionSubtrahend.multiplyByNegativeOne() );
 		} else {
 			return super.subtract( subtrahend );
 		}
@@ -213,13 +553,23 @@ public class Fraction extends Numerical {
 				fractionMultiplicand = new Fraction( getEnvironment() , numericalMultiplicand );
 			}
 			
+			//try multiplying without BigIntegers first
+			if ( this.isSmall() && fractionMultiplicand.isSmall() ) {
+				try {
+					long[] product = multiplySmall( this.m_smallNumerator , this.m_smallDenominator , fractionMultiplicand.m_smallNumerator , fractionMultiplicand.m_smallDenominator );
+					return checkSize( new Fraction( getEnvironment() , product[ 0 ] , product[ 1 ] ) );
+				} catch ( ArithmeticException overflow ) {
+					//the product is too large for a long
+				}
+			}
+			
 			//calculate a new denominator
 			BigInteger newDenominator = this.getFractionDenominator().multiply( fractionMultiplicand.getFractionDenominator() );
 			
 			//calculate a new numerator
 			BigInteger newNumerator = this.getFractionNumerator().multiply( fractionMultiplicand.getFractionNumerator() );
 			
-			return new Fraction( getEnvironment() , newNumerator , newDenominator );
+			return checkSize( new Fraction( getEnvironment() , newNumerator , newDenominator ) );
 		} else {
 			return super.multiply( multiplicand );
 		}
@@ -227,7 +577,10 @@ public class Fraction extends Numerical {
 	
 	@Override
 	public Fraction multiplyByNegativeOne() {
-		return ( Fraction ) this.multiply( Numerical.NEGATIVE_ONE );
+		if ( isSmall() ) {
+			return new Fraction( getEnvironment() , -this.m_smallNumerator , this.m_smallDenominator );
+		}
+		return new Fraction( getEnvironment() , this.m_numerator.negate() , this.m_denominator );
 	}
 	
 	@Override
@@ -243,13 +596,34 @@ public class Fraction extends Numerical {
 				fractionDividend = new Fraction( getEnvironment() , numericalDividend );
 			}
 			
+			//try dividing without BigIntegers first by multiplying by the reciprocal
+			if ( this.isSmall() && fractionDividend.isSmall() ) {
+				if ( fractionDividend.m_smallNumerator == 0 ) {
+					throw new ArithmeticException( "division by zero" );
+				}
+				
+				//keep the denominator of the reciprocal positive
+				long reciprocalNumerator = fractionDividend.m_smallDenominator;
+				long reciprocalDenominator = fractionDividend.m_smallNumerator;
+				if ( reciprocalDenominator < 0 ) {
+					reciprocalNumerator = -reciprocalNumerator;
+					reciprocalDenominator = -reciprocalDenominator;
+				}
+				try {
+					long[] quotient = multiplySmall( this.m_smallNumerator , this.m_smallDenominator , reciprocalNumerator , reciprocalDenominator );
+					return checkSize( new Fraction( getEnvironment() , quotient[ 0 ] , quotient[ 1 ] ) );
+				} catch ( ArithmeticException overflow ) {
+					//the quotient is too large for a long
+				}
+			}
+			
 			//calculate a new denominator
 			BigInteger newDenominator = this.getFractionDenominator().multiply( fractionDividend.getFractionNumerator() );
 			
 			//calculate a new numerator
 			BigInteger newNumerator = this.getFractionNumerator().multiply( fractionDividend.getFractionDenominator() );
 			
-			return new Fraction( getEnvironment() , newNumerator , newDenominator );
+			return checkSize( new Fraction( getEnvironment() , newNumerator , newDenominator ) );
 		} else {
 			return super.divide( dividend );
 		}
@@ -260,26 +634,207 @@ public class Fraction extends Numerical {
 		
 		//only deal with exponentiating numericals
 		if ( exponent instanceof Numerical ) {
-			Numerical numericalExponent = ( Numerical ) exponent;
-			double newNumerator = Math.pow( this.m_numerator.intValue() , numericalExponent.getNumericalValue().doubleValue() );
-			double newDenominator = Math.pow( this.m_denominator.intValue() , numericalExponent.getNumericalValue().doubleValue() );
-			return new Fraction( getEnvironment() , new BigDecimal( newNumerator ) , new BigDecimal( newDenominator ) );
+			Fraction fractionExponent;
+			if ( exponent instanceof Fraction ) {
+				fractionExponent = ( Fraction ) exponent;
+			} else {
+				fractionExponent = new Fraction( getEnvironment() , ( ( Numerical ) exponent ).getNumericalValue() , BigDecimal.ONE );
+			}
+			
+			//calculate the power exactly if it is rational
+			Fraction power = exactPower( fractionExponent );
+			if ( power != null ) {
+				return power;
+			}
+			
+			//otherwise, the power can only be displayed
+			LinkedList < MonomialTerm > powerTerms = new LinkedList < MonomialTerm > ();
+			Monomial.insertMultipliedTerm( powerTerms , new MonomialTerm( getEnvironment() , this , fractionExponent ) );
+			return new Monomial( getEnvironment() , powerTerms , Numerical.ONE );
 		} else {
 			return super.exponentiate( exponent );
 		}
 	}
 	
+	/**
+	 * @param exponent			a rational exponent
+	 * @return					this <code>Fraction</code> raised to the exponent, or
+	 * 							<code>null</code> if the power is irrational, not real, or too large
+	 */
+	private Fraction exactPower( Fraction exponent ) {
+		BigInteger numerator = this.getFractionNumerator();
+		BigInteger denominator = this.getFractionDenominator();
+		BigInteger exponentNumerator = exponent.getFractionNumerator();
+		BigInteger exponentDenominator = exponent.getFractionDenominator();
+		
+		//0, 1 and -1 to an integer power do not grow
+		if ( numerator.signum() == 0 ) {
+			if ( exponentNumerator.signum() < 0 ) {
+				throw new ArithmeticException( "division by zero" );
+			}
+			return exponentNumerator.signum() == 0 ? Numerical.ONE : Numerical.ZERO;
+		}
+		if ( exponentNumerator.signum() == 0 ) {
+			return Numerical.ONE;
+		}
+		if ( exponentDenominator.bitLength() >= Integer.SIZE ) {
+			return null;
+		}
+		
+		//a rational power is a root followed by an integer power, and the
+		//root is only rational if the numerator and denominator are perfect powers
+		int root = exponentDenominator.intValue();
+		if ( root != 1 ) {
+			if ( numerator.signum() < 0 && root % 2 == 0 ) {
+				return null;
+			}
+			numerator = exactRoot( numerator , root );
+			denominator = exactRoot( denominator , root );
+			if ( numerator == null || denominator == null ) {
+				return null;
+			}
+		}
+		
+		//|numerator|, |denominator| <= 1 only for 1 and -1, whose powers do not grow
+		if ( denominator.equals( BigInteger.ONE ) && numerator.abs().equals( BigInteger.ONE ) ) {
+			return new Fraction( getEnvironment() , exponentNumerator.testBit( 0 ) ? numerator : BigInteger.ONE , BigInteger.ONE );
+		}
+		if ( exponentNumerator.abs().bitLength() >= Integer.SIZE ) {
+			return null;
+		}
+		int power = exponentNumerator.intValue();
+		long resultBits = ( long ) Math.max( numerator.bitLength() , denominator.bitLength() ) * Math.abs( ( long ) power );
+		if ( resultBits > MAX_POWER_BITS ) {
+			return null;
+		}
+		EvaluationBudget.checkCurrentCoefficient( resultBits );
+		
+		//BigInteger.pow uses binary exponentiation
+		BigInteger numeratorPower = numerator.pow( Math.abs( power ) );
+		BigInteger denominatorPower = denominator.pow( Math.abs( power ) );
+		if ( power < 0 ) {
+			return new Fraction( getEnvironment() , denominatorPower , numeratorPower );
+		}
+		return new Fraction( getEnvironment() , numeratorPower , denominatorPower );
+	}
+	
+	/**
+	 * @param value				an integer
+	 * @param root				a positive integer. if the value is negative, it must be odd
+	 * @return					the integer whose <code>root</code>-th power is the value, or
+	 * 							<code>null</code> if the value is not a perfect power
+	 */
+	private static BigInteger exactRoot( BigInteger value , int root ) {
+		BigInteger magnitude = value.abs();
+		if ( magnitude.compareTo( BigInteger.ONE ) <= 0 ) {
+			return value;
+		}
+		
+		//a root of at least 2 needs at least 2^root
+		if ( root >= magnitude.bitLength() ) {
+			return null;
+		}
+		
+		//newton's method from above: x = ((root-1)x + magnitude/x^(root-1))/root
+		//decreases until it reaches the floor of the root
+		BigInteger bigRoot = BigInteger.valueOf( root );
+		BigInteger rootMinusOne = BigInteger.valueOf( root - 1 );
+		BigInteger estimate = BigInteger.ONE.shiftLeft( ( magnitude.bitLength() + root - 1 ) / root );
+		while ( true ) {
+			BigInteger next = rootMinusOne.multiply( estimate ).add( magnitude.divide( estimate.pow( root - 1 ) ) ).divide( bigRoot );
+			if ( next.compareTo( estimate ) >= 0 ) {
+				break;
+			}
+			estimate = next;
+		}
+		if ( !estimate.pow( root ).equals( magnitude ) ) {
+			return null;
+		}
+		return value.signum() < 0 ? estimate.negate() : estimate;
+	}
+	
+	@Override
+	public boolean equals( Object toCompare ) {
+		
+		//compare fractions exactly. both are in lowest terms with positive denominators
+		if ( toCompare instanceof Fraction ) {
+			Fraction fractionToCompare = ( Fraction ) toCompare;
+			if ( this.isSmall() && fractionToCompare.isSmall() ) {
+				return this.m_smallNumerator == fractionToCompare.m_smallNumerator && this.m_smallDenominator == fractionToCompare.m_smallDenominator;
+			}
+			return this.getFractionNumerator().equals( fractionToCompare.getFractionNumerator() ) && this.getFractionDenominator().equals( fractionToCompare.getFractionDenominator() );
+		} else {
+			return super.equals( toCompare );
+		}
+	}
+	
+	@Override
+	public int compareTo( Combinable toCompare ) {
+		
+		//compare fractions exactly by cross multiplying. the denominators are positive
+		if ( toCompare instanceof Fraction ) {
+			Fraction fractionToCompare = ( Fraction ) toCompare;
+			if ( this.isSmall() && fractionToCompare.isSmall() ) {
+				try {
+					long thisCrossProduct = multiplyExact( this.m_smallNumerator , fractionToCompare.m_smallDenominator );
+					long toCompareCrossProduct = multiplyExact( fractionToCompare.m_smallNumerator , this.m_smallDenominator );
+					return thisCrossProduct < toCompareCrossProduct ? -1 : ( thisCrossProduct == toCompareCrossProduct ? 0 : 1 );
+				} catch ( ArithmeticException overflow ) {
+					//the cross products are too large for a long
+				}
+			}
+			BigInteger thisCrossProduct = this.getFractionNumerator().multiply( fractionToCompare.getFractionDenominator() );
+			BigInteger toCompareCrossProduct = fractionToCompare.getFractionNumerator().multiply( this.getFractionDenominator() );
+			return thisCrossProduct.compareTo( toCompareCrossProduct );
+		} else {
+			return super.compareTo( toCompare );
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		
+		//equal fractions are both small or both large because they are stored in lowest terms
+		if ( isSmall() ) {
+			return hashCode( this.m_smallNumerator , this.m_smallDenominator );
+		}
+		return 31 * this.m_numerator.hashCode() + this.m_denominator.hashCode();
+	}
+	
+	/**
+	 * @param numerator			numerator of a fraction in lowest terms
+	 * @param denominator		positive denominator of a fraction in lowest terms
+	 * @return					the hash code of a small <code>Fraction</code> with the given
+	 * 							numerator and denominator, without having to create it
+	 */
+	static int hashCode( long numerator , long denominator ) {
+		return 31 * ( int ) ( numerator ^ ( numerator >>> 32 ) ) + ( int ) ( denominator ^ ( denominator >>> 32 ) );
+	}
+	
+	/**
+	 * @param numerator			numerator of a fraction in lowest terms
+	 * @param denominator		positive denominator of a fraction in lowest terms
+	 * @return					the hash code of a <code>Fraction</code> with the given
+	 * 							numerator and denominator, without having to create it
+	 */
+	static int hashCode( BigInteger numerator , BigInteger denominator ) {
+		if ( fitsInLong( numerator ) && fitsInLong( denominator ) ) {
+			return hashCode( numerator.longValue() , denominator.longValue() );
+		}
+		return 31 * numerator.hashCode() + denominator.hashCode();
+	}
+	
 	@Override
 	public String toLatexString() {
-		if ( this.m_denominator.equals( BigInteger.ONE ) ) {
-			return this.m_numerator.toString(); 
+		if ( this.isInteger() ) {
+			return this.getFractionNumerator().toString(); 
 		} else {
 			
 			//add the negative sign in front if this fraction is negative
 			if ( this.compareTo( Numerical.ZERO ) < 0 ) {
-				return SubtractOperator.LATEX_REPRESENTATION + "\\frac{" + this.m_numerator.abs() + "}{" + this.m_denominator.abs() + "}";
+				return SubtractOperator.LATEX_REPRESENTATION + "\\frac{" + this.getFractionNumerator().abs() + "}{" + this.getFractionDenominator() + "}";
 			} else {
-				return "\\frac{" + this.m_numerator.toString() + "}{" + this.m_denominator.toString() + "}";
+				return "\\frac{" + this.getFractionNumerator().toString() + "}{" + this.getFractionDenominator().toString() + "}";
 			}
 		}
 	}
@@ -293,6 +848,9 @@ public class Fraction extends Numerical {
 	
 	@Override
 	public Fraction clone() {
+		if ( isSmall() ) {
+			return new Fraction( getEnvironment() , this.m_smallNumerator , this.m_smallDenominator );
+		}
 		return new Fraction( getEnvironment() , this.m_numerator , this.m_denominator );
 	}
 }
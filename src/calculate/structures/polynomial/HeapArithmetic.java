@@ -0,0 +1,530 @@
+package calculate.structures.polynomial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import calculate.Calculator;
+import calculate.EvaluationBudget;
+
+/**
+ * multiplication and division of sparse sums of <code>Monomial</code> objects
+ * that merge the products of their terms with a heap. a heap of the next product
+ * from each term of one operand produces the terms of the result in order, so like
+ * terms come out one after another and are combined straight away, without ever
+ * building the partial results. the heap holds one entry per term of the smaller
+ * operand, or per term of the quotient when dividing.
+ * <p>
+ * multiplication is Johnson's algorithm. division is the algorithm of Monagan and
+ * Pearce, which produces the terms of the quotient and remainder in order while
+ * the products of the quotient and divisor are still being merged.
+ * <p>
+ * products of large sums are computed in parallel: the terms of the smaller sum
+ * are split into chunks, each chunk is multiplied by the other sum with its own
+ * heap, and the sorted partial products are merged pairwise. the chunks run on
+ * the fork/join pool of the environment.
+ * <p>
+ * only sums of packed <code>Monomial</code> objects with <code>Fraction</code>
+ * coefficients from one environment are supported.
+ */
+final class HeapArithmetic {
+
+	/**
+	 * fewest terms the smaller factor of a product must have for the heap to be
+	 * used. multiplying by a single term is just as fast one product at a time
+	 */
+	final private static int MULTIPLICATION_THRESHOLD = 2;
+
+	/**
+	 * fewest terms the smaller factor of a product must have for the product to
+	 * be computed in parallel
+	 */
+	final private static int PARALLEL_THRESHOLD = 128;
+
+	/**
+	 * fewest terms of the smaller factor multiplied by each parallel task
+	 */
+	final private static int MIN_ROWS_PER_TASK = 16;
+
+	/**
+	 * number of tasks per processor into which a parallel product is split,
+	 * so that processors that finish early can take over some of the work
+	 */
+	final private static int TASKS_PER_PROCESSOR = 4;
+
+	private HeapArithmetic() {
+
+	}
+
+	/**
+	 * the terms of a sum in order, as parallel arrays
+	 */
+	private static class Operand {
+
+		final ExponentVector[] m_vectors;
+		final Fraction[] m_coefficients;
+
+		/**
+		 * a vector with variables, with which every other vector is compatible.
+		 * <code>null</code> if no term has variables
+		 */
+		final ExponentVector m_reference;
+
+		Operand( ExponentVector[] vectors , Fraction[] coefficients , ExponentVector reference ) {
+			this.m_vectors = vectors;
+			this.m_coefficients = coefficients;
+			this.m_reference = reference;
+		}
+
+		/**
+		 * @param sum				a sum of <code>Monomial</code> objects
+		 * @param order				order in which to put the terms, largest first
+		 * @return					the terms of the sum, or <code>null</code> if any term is
+		 * 							not packed, does not have a <code>Fraction</code> coefficient
+		 * 							or comes from another environment
+		 */
+		static Operand of( MonomialSum sum , MonomialOrder order ) {
+			Monomial[] terms = sum.getSortedArray( order );
+			ExponentVector[] vectors = new ExponentVector[ terms.length ];
+			Fraction[] coefficients = new Fraction[ terms.length ];
+			ExponentVector reference = null;
+			for ( int idx = 0 ; idx < terms.length ; idx++ ) {
+				ExponentVector vector = terms[ idx ].getExponentVector();
+				if ( vector == null || !( terms[ idx ].getCoefficient() instanceof Fraction ) ) {
+					return null;
+				}
+				if ( reference == null ) {
+					reference = vector.size() == 0 ? null : vector;
+				} else if ( !reference.isCompatibleWith( vector ) ) {
+					return null;
+				}
+				vectors[ idx ] = vector;
+				coefficients[ idx ] = ( Fraction ) terms[ idx ].getCoefficient();
+			}
+			return new Operand( vectors , coefficients , reference );
+		}
+
+		/**
+		 * @return					if the terms of both operands can be multiplied together
+		 */
+		boolean isCompatibleWith( Operand other ) {
+			return this.m_reference == null || other.m_reference == null || this.m_reference.isCompatibleWith( other.m_reference );
+		}
+
+		int size() {
+			return this.m_vectors.length;
+		}
+	}
+
+	/**
+	 * binary max-heap of products of a term of one operand with a term of another.
+	 * an entry (row, column) is the product of term <code>row</code> of the first
+	 * operand and term <code>column</code> of the second
+	 */
+	private static class ProductHeap {
+
+		final private MonomialOrder m_order;
+		private int[] m_rows = new int[ 16 ];
+		private int[] m_columns = new int[ 16 ];
+		private ExponentVector[] m_vectors = new ExponentVector[ 16 ];
+		private int m_size = 0;
+
+		ProductHeap( MonomialOrder order ) {
+			this.m_order = order;
+		}
+
+		boolean isEmpty() {
+			return this.m_size == 0;
+		}
+
+		ExponentVector peekVector() {
+			return this.m_vectors[ 0 ];
+		}
+
+		int peekRow() {
+			return this.m_rows[ 0 ];
+		}
+
+		int peekColumn() {
+			return this.m_columns[ 0 ];
+		}
+
+		/**
+		 * @return					if the product could be added, i.e. no exponent overflowed
+		 */
+		boolean push( int row , int column , ExponentVector vector1 , ExponentVector vector2 ) {
+			ExponentVector product = vector1.multiply( vector2 );
+			if ( product == null ) {
+				return false;
+			}
+			if ( this.m_size == this.m_rows.length ) {
+				int capacity = this.m_size * 2;
+				this.m_rows = Arrays.copyOf( this.m_rows , capacity );
+				this.m_columns = Arrays.copyOf( this.m_columns , capacity );
+				this.m_vectors = Arrays.copyOf( this.m_vectors , capacity );
+			}
+
+			//sift the new entry up to its place
+			int position = this.m_size++;
+			while ( position > 0 ) {
+				int parent = ( position - 1 ) >>> 1;
+				if ( this.m_order.compareVectors( this.m_vectors[ parent ] , product ) >= 0 ) {
+					break;
+				}
+				move( parent , position );
+				position = parent;
+			}
+			set( position , row , column , product );
+			return true;
+		}
+
+		/**
+		 * removes the largest product
+		 */
+		void pop() {
+			this.m_size--;
+			int lastRow = this.m_rows[ this.m_size ];
+			int lastColumn = this.m_columns[ this.m_size ];
+			ExponentVector lastVector = this.m_vectors[ this.m_size ];
+			this.m_vectors[ this.m_size ] = null;
+			if ( this.m_size == 0 ) {
+				return;
+			}
+
+			//sift the last entry down from the top
+			int position = 0;
+			while ( true ) {
+				int child = 2 * position + 1;
+				if ( child >= this.m_size ) {
+					break;
+				}
+				if ( child + 1 < this.m_size && this.m_order.compareVectors( this.m_vectors[ child + 1 ] , this.m_vectors[ child ] ) > 0 ) {
+					child++;
+				}
+				if ( this.m_order.compareVectors( lastVector , this.m_vectors[ child ] ) >= 0 ) {
+					break;
+				}
+				move( child , position );
+				position = child;
+			}
+			set( position , lastRow , lastColumn , lastVector );
+		}
+
+		private void move( int from , int to ) {
+			set( to , this.m_rows[ from ] , this.m_columns[ from ] , this.m_vectors[ from ] );
+		}
+
+		private void set( int position , int row , int column , ExponentVector vector ) {
+			this.m_rows[ position ] = row;
+			this.m_columns[ position ] = column;
+			this.m_vectors[ position ] = vector;
+		}
+	}
+
+	/**
+	 * @param sum1				a sum
+	 * @param sum2				another sum
+	 * @param environment		environment in which calculations occur
+	 * @return					the product of the sums, or <code>null</code> if they should be
+	 * 							multiplied one product of terms at a time
+	 */
+	static MonomialSum multiply( MonomialSum sum1 , MonomialSum sum2 , Calculator environment ) {
+		if ( Math.min( sum1.size() , sum2.size() ) < MULTIPLICATION_THRESHOLD ) {
+			return null;
+		}
+
+		//the heap holds one entry for each term of the smaller sum
+		if ( sum1.size() > sum2.size() ) {
+			MonomialSum temp = sum1;
+			sum1 = sum2;
+			sum2 = temp;
+		}
+		MonomialOrder order = MonomialOrder.GRLEX;
+		Operand rows = Operand.of( sum1 , order );
+		Operand columns = Operand.of( sum2 , order );
+		if ( rows == null || columns == null || !rows.isCompatibleWith( columns ) ) {
+			return null;
+		}
+
+		ForkJoinPool pool = environment == null ? null : environment.getPool();
+		Operand product;
+		if ( rows.size() >= PARALLEL_THRESHOLD && pool != null && pool.getParallelism() > 1 ) {
+			int rowsPerTask = Math.max( MIN_ROWS_PER_TASK , rows.size() / ( TASKS_PER_PROCESSOR * pool.getParallelism() ) + 1 );
+			PartialProduct task = new PartialProduct( rows , columns , 0 , rows.size() , rowsPerTask , order );
+
+			//a product inside a subtree that is simplified on the same pool is
+			//split among its threads rather than waiting for one of them
+			product = ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke( task );
+		} else {
+			product = multiplyRows( rows , columns , 0 , rows.size() , order );
+		}
+		if ( product == null ) {
+			return null;
+		}
+		MonomialSum rtn = new MonomialSum();
+		for ( int idx = 0 ; idx < product.size() ; idx++ ) {
+			rtn.add( toMonomial( environment , product.m_vectors[ idx ] , product.m_coefficients[ idx ] ) );
+		}
+		return rtn;
+	}
+
+	/**
+	 * multiplies some of the terms of one operand by every term of another
+	 *
+	 * @param rows				the first operand
+	 * @param columns			the second operand
+	 * @param start				first term of the first operand to multiply
+	 * @param end				index after the last term of the first operand to multiply
+	 * @param order				order of the terms in both operands
+	 * @return					the nonzero terms of the product in order, or <code>null</code>
+	 * 							if an exponent overflowed
+	 */
+	private static Operand multiplyRows( Operand rows , Operand columns , int start , int end , MonomialOrder order ) {
+		EvaluationBudget budget = EvaluationBudget.getCurrent();
+		ProductHeap heap = new ProductHeap( order );
+		for ( int row = start ; row < end ; row++ ) {
+			if ( !heap.push( row , 0 , rows.m_vectors[ row ] , columns.m_vectors[ 0 ] ) ) {
+				return null;
+			}
+		}
+
+		//take the products from largest to smallest, combining equal ones
+		ArrayList < ExponentVector > vectors = new ArrayList < ExponentVector > ();
+		ArrayList < Fraction > coefficients = new ArrayList < Fraction > ();
+		while ( !heap.isEmpty() ) {
+			ExponentVector vector = heap.peekVector();
+			Fraction coefficient = null;
+			while ( !heap.isEmpty() && heap.peekVector().equals( vector ) ) {
+				int row = heap.peekRow();
+				int column = heap.peekColumn();
+				heap.pop();
+				Fraction product = ( Fraction ) rows.m_coefficients[ row ].multiply( columns.m_coefficients[ column ] );
+				coefficient = coefficient == null ? product : ( Fraction ) coefficient.add( product );
+				if ( column + 1 < columns.size() && !heap.push( row , column + 1 , rows.m_vectors[ row ] , columns.m_vectors[ column + 1 ] ) ) {
+					return null;
+				}
+			}
+			if ( !coefficient.equals( Numerical.ZERO ) ) {
+				vectors.add( vector );
+				coefficients.add( coefficient );
+				if ( budget != null ) {
+					budget.checkTerms( vectors.size() );
+					budget.checkCoefficient( coefficient.getBitLength() );
+				}
+			} else if ( budget != null ) {
+
+				//products that cancel out still take time
+				budget.check();
+			}
+		}
+		ExponentVector reference = rows.m_reference == null ? columns.m_reference : rows.m_reference;
+		return new Operand( vectors.toArray( new ExponentVector[ vectors.size() ] ) , coefficients.toArray( new Fraction[ coefficients.size() ] ) , reference );
+	}
+
+	/**
+	 * merges two sums whose terms are in order, combining like terms
+	 *
+	 * @return					the nonzero terms of the sum in order
+	 */
+	private static Operand add( Operand sum1 , Operand sum2 , MonomialOrder order ) {
+		ExponentVector[] vectors = new ExponentVector[ sum1.size() + sum2.size() ];
+		Fraction[] coefficients = new Fraction[ vectors.length ];
+		int idx1 = 0;
+		int idx2 = 0;
+		int size = 0;
+		while ( idx1 < sum1.size() || idx2 < sum2.size() ) {
+			int comparison;
+			if ( idx1 == sum1.size() ) {
+				comparison = -1;
+			} else if ( idx2 == sum2.size() ) {
+				comparison = 1;
+			} else {
+				comparison = order.compareVectors( sum1.m_vectors[ idx1 ] , sum2.m_vectors[ idx2 ] );
+			}
+			if ( comparison > 0 ) {
+				vectors[ size ] = sum1.m_vectors[ idx1 ];
+				coefficients[ size++ ] = sum1.m_coefficients[ idx1++ ];
+			} else if ( comparison < 0 ) {
+				vectors[ size ] = sum2.m_vectors[ idx2 ];
+				coefficients[ size++ ] = sum2.m_coefficients[ idx2++ ];
+			} else {
+				Fraction coefficient = ( Fraction ) sum1.m_coefficients[ idx1 ].add( sum2.m_coefficients[ idx2 ] );
+				if ( !coefficient.equals( Numerical.ZERO ) ) {
+					vectors[ size ] = sum1.m_vectors[ idx1 ];
+					coefficients[ size++ ] = coefficient;
+				}
+				idx1++;
+				idx2++;
+			}
+		}
+		ExponentVector reference = sum1.m_reference == null ? sum2.m_reference : sum1.m_reference;
+		return new Operand( Arrays.copyOf( vectors , size ) , Arrays.copyOf( coefficients , size ) , reference );
+	}
+
+	/**
+	 * multiplies a range of the terms of one operand by every term of another. large
+	 * ranges are split in half, and the halves are multiplied in parallel and then added
+	 */
+	private static class PartialProduct extends RecursiveTask < Operand > {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * budget of the evaluation that needs the product, which the
+		 * thread that runs this task must check
+		 */
+		final private EvaluationBudget m_budget;
+
+		final private Operand m_rows;
+		final private Operand m_columns;
+		final private int m_start;
+		final private int m_end;
+		final private int m_rowsPerTask;
+		final private MonomialOrder m_order;
+
+		PartialProduct( Operand rows , Operand columns , int start , int end , int rowsPerTask , MonomialOrder order ) {
+			this.m_rows = rows;
+			this.m_columns = columns;
+			this.m_start = start;
+			this.m_end = end;
+			this.m_rowsPerTask = rowsPerTask;
+			this.m_order = order;
+			this.m_budget = EvaluationBudget.getCurrent();
+		}
+
+		@Override
+		protected Operand compute() {
+			EvaluationBudget previousBudget = EvaluationBudget.setCurrent( this.m_budget );
+			try {
+				return multiplyRange();
+			} finally {
+				EvaluationBudget.setCurrent( previousBudget );
+			}
+		}
+
+		private Operand multiplyRange() {
+			if ( this.m_end - this.m_start <= this.m_rowsPerTask ) {
+				return multiplyRows( this.m_rows , this.m_columns , this.m_start , this.m_end , this.m_order );
+			}
+			int middle = ( this.m_start + this.m_end ) >>> 1;
+			PartialProduct high = new PartialProduct( this.m_rows , this.m_columns , middle , this.m_end , this.m_rowsPerTask , this.m_order );
+			high.fork();
+			Operand lowProduct = new PartialProduct( this.m_rows , this.m_columns , this.m_start , middle , this.m_rowsPerTask , this.m_order ).multiplyRange();
+			Operand highProduct = high.join();
+			if ( lowProduct == null || highProduct == null ) {
+				return null;
+			}
+			return add( lowProduct , highProduct , this.m_order );
+		}
+	}
+
+	/**
+	 * divides one sum by another. terms of the remainder are divided by the leading
+	 * term of the divisor as long as they have at least the total degree of that
+	 * leading term, so the order must be graded
+	 *
+	 * @param sum				the sum to divide
+	 * @param divisor			a nonzero sum by which to divide
+	 * @param order				a graded order that respects multiplication
+	 * @param maxQuotientTerms	most terms the quotient may have
+	 * @param environment		environment in which calculations occur
+	 * @return					the quotient in index 0 and the remainder in index 1. if the
+	 * 							quotient would have too many terms, the quotient is empty and
+	 * 							the remainder is the sum itself. <code>null</code> if the
+	 * 							sums cannot be divided with a heap
+	 */
+	static MonomialSum[] divide( MonomialSum sum , MonomialSum divisor , MonomialOrder order , int maxQuotientTerms , Calculator environment ) {
+		Operand dividend = Operand.of( divisor , order );
+		Operand terms = Operand.of( sum , order );
+		if ( dividend == null || terms == null || !terms.isCompatibleWith( dividend ) ) {
+			return null;
+		}
+		ExponentVector leadingVector = dividend.m_vectors[ 0 ];
+		Fraction leadingCoefficient = dividend.m_coefficients[ 0 ];
+
+		ArrayList < ExponentVector > quotientVectors = new ArrayList < ExponentVector > ();
+		ArrayList < Fraction > quotientCoefficients = new ArrayList < Fraction > ();
+		MonomialSum remainder = new MonomialSum();
+
+		//the heap holds the next product of each quotient term with
+		//the terms of the divisor after its leading term
+		EvaluationBudget budget = EvaluationBudget.getCurrent();
+		ProductHeap heap = new ProductHeap( order );
+		int termIdx = 0;
+		while ( termIdx < terms.size() || !heap.isEmpty() ) {
+
+			//the largest term left comes from the sum or the heap
+			ExponentVector vector;
+			if ( heap.isEmpty() ) {
+				vector = terms.m_vectors[ termIdx ];
+			} else if ( termIdx == terms.size() || order.compareVectors( heap.peekVector() , terms.m_vectors[ termIdx ] ) > 0 ) {
+				vector = heap.peekVector();
+			} else {
+				vector = terms.m_vectors[ termIdx ];
+			}
+			Fraction coefficient = null;
+			if ( termIdx < terms.size() && terms.m_vectors[ termIdx ].equals( vector ) ) {
+				coefficient = terms.m_coefficients[ termIdx ];
+				termIdx++;
+			}
+			while ( !heap.isEmpty() && heap.peekVector().equals( vector ) ) {
+				int row = heap.peekRow();
+				int column = heap.peekColumn();
+				heap.pop();
+				Fraction product = ( Fraction ) quotientCoefficients.get( row ).multiply( dividend.m_coefficients[ column ] );
+				coefficient = coefficient == null ? product.multiplyByNegativeOne() : ( Fraction ) coefficient.subtract( product );
+				if ( column + 1 < dividend.size() && !heap.push( row , column + 1 , quotientVectors.get( row ) , dividend.m_vectors[ column + 1 ] ) ) {
+					return null;
+				}
+			}
+			if ( coefficient.equals( Numerical.ZERO ) ) {
+				if ( budget != null ) {
+					budget.check();
+				}
+				continue;
+			}
+			if ( budget != null ) {
+				budget.checkTerms( quotientVectors.size() + remainder.size() + 1 );
+				budget.checkCoefficient( coefficient.getBitLength() );
+			}
+
+			//terms of lower degree than the divisor are left in the remainder
+			if ( vector.getTotalDegree() < leadingVector.getTotalDegree() ) {
+				remainder.add( toMonomial( environment , vector , coefficient ) );
+				continue;
+			}
+			if ( quotientVectors.size() == maxQuotientTerms ) {
+				MonomialSum[] rtn = { new MonomialSum() , sum };
+				return rtn;
+			}
+			ExponentVector quotientVector = vector.divide( leadingVector );
+			if ( quotientVector == null ) {
+				return null;
+			}
+			quotientVectors.add( quotientVector );
+			quotientCoefficients.add( ( Fraction ) coefficient.divide( leadingCoefficient ) );
+			if ( dividend.size() > 1 && !heap.push( quotientVectors.size() - 1 , 1 , quotientVector , dividend.m_vectors[ 1 ] ) ) {
+				return null;
+			}
+		}
+
+		MonomialSum quotient = new MonomialSum();
+		for ( int idx = 0 ; idx < quotientVectors.size() ; idx++ ) {
+			quotient.add( toMonomial( environment , quotientVectors.get( idx ) , quotientCoefficients.get( idx ) ) );
+		}
+		MonomialSum[] rtn = { quotient , remainder };
+		return rtn;
+	}
+
+	/**
+	 * @return					the term with the given variables and coefficient
+	 */
+	private static Monomial toMonomial( Calculator environment , ExponentVector vector , Fraction coefficient ) {
+		if ( vector.size() == 0 ) {
+			return coefficient;
+		}
+		return new Monomial( environment , vector , coefficient );
+	}
+}
@@ -0,0 +1,92 @@
+package calculate.structures.polynomial;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * table of canonical <code>Monomial</code> objects. interning a <code>Monomial</code>
+ * returns the one shared instance that is structurally equal to it, so repeated
+ * terms take up memory only once and comparing two interned terms usually
+ * stops at a reference comparison.
+ * <p>
+ * entries are only weakly referenced, so terms that are no longer used anywhere
+ * else are discarded. the table may be used from multiple threads at once. it is
+ * split into stripes by hash code, each with its own lock, so that threads
+ * interning different terms rarely wait for each other.
+ * <p>
+ * interned terms are shared, which is safe because <code>Monomial</code> objects
+ * are never modified after they are created.
+ */
+final class InternTable {
+
+	/**
+	 * number of stripes. must be a power of 2
+	 */
+	final private static int NUM_STRIPES = 32;
+
+	/**
+	 * maps from each canonical term to itself. a term is kept in the
+	 * stripe selected by its hash code
+	 */
+	final private static WeakHashMap < Monomial , WeakReference < Monomial > >[] CANONICAL_TERMS = createStripes();
+
+	private InternTable() {
+
+	}
+
+	@SuppressWarnings( { "unchecked" , "rawtypes" } )
+	private static WeakHashMap < Monomial , WeakReference < Monomial > >[] createStripes() {
+		WeakHashMap < Monomial , WeakReference < Monomial > >[] rtn = new WeakHashMap[ NUM_STRIPES ];
+		for ( int idx = 0 ; idx < NUM_STRIPES ; idx++ ) {
+			rtn[ idx ] = new WeakHashMap < Monomial , WeakReference < Monomial > > ();
+		}
+		return rtn;
+	}
+
+	/**
+	 * @param term				a <code>Monomial</code>
+	 * @return					the stripe in which the term belongs
+	 */
+	private static WeakHashMap < Monomial , WeakReference < Monomial > > getStripe( Monomial term ) {
+		int hash = term.hashCode();
+		hash ^= ( hash >>> 16 );
+		return CANONICAL_TERMS[ hash & ( NUM_STRIPES - 1 ) ];
+	}
+
+	/**
+	 * @param term				a <code>Monomial</code> that will not be modified anymore
+	 * @return					the canonical <code>Monomial</code> equal to the given term. if
+	 * 							there is none yet, the given term becomes the canonical one
+	 */
+	static Monomial intern( Monomial term ) {
+
+		//only terms of the same class are interchangeable, e.g. a Fraction
+		//cannot stand in for an equal Monomial
+		WeakHashMap < Monomial , WeakReference < Monomial > > stripe = getStripe( term );
+		synchronized ( stripe ) {
+			WeakReference < Monomial > reference = stripe.get( term );
+			Monomial canonical = reference == null ? null : reference.get();
+			if ( canonical == null ) {
+				stripe.put( term , new WeakReference < Monomial > ( term ) );
+				return term;
+			}
+			if ( canonical.getClass() == term.getClass() && canonical.getEnvironment() == term.getEnvironment() ) {
+				return canonical;
+			}
+			return term;
+		}
+	}
+
+	/**
+	 * @return					the number of canonical terms currently in the table
+	 */
+	static int size() {
+		int rtn = 0;
+		for ( WeakHashMap < Monomial , WeakReference < Monomial > > aStripe : CANONICAL_TERMS ) {
+			synchronized ( aStripe ) {
+				rtn += aStripe.size();
+			}
+		}
+		return rtn;
+	}
+}
@@ -0,0 +1,1031 @@
+package calculate.structures.polynomial;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import calculate.Calculator;
+import calculate.EvaluationBudget;
+
+/**
+ * greatest common divisors and exact quotients of <code>PolynomialTerm</code>
+ * numerators by the modular method. both polynomials are cleared of denominators
+ * and reduced modulo primes that fit in 31 bits. the greatest common divisor of
+ * each reduced pair is found with Brown's dense algorithm, which removes one
+ * variable at a time by evaluating it at several points and interpolates the
+ * results back together. the images for different primes are then combined with
+ * the chinese remainder theorem until the combined candidate divides both
+ * polynomials exactly.
+ * <p>
+ * only polynomials whose terms are all packed, with non-negative exponents and
+ * numerical coefficients, can be handled. for anything else, the methods return
+ * <code>null</code> and the caller should fall back to euclidean division.
+ * <p>
+ * variables are numbered in increasing order of their ids. polynomials are
+ * stored as maps from exponent arrays to coefficients and are compared in
+ * lexicographic order, with variable 0 the most significant.
+ */
+final class ModularGcd {
+
+	/**
+	 * the largest prime that fits in 31 bits, so that the product of two
+	 * residues always fits in a <code>long</code>
+	 */
+	final private static long LARGEST_PRIME = 2147483647L;
+
+	/**
+	 * certainty used to test if a candidate modulus is prime
+	 */
+	final private static int PRIME_CERTAINTY = 40;
+
+	/**
+	 * orders exponent arrays from the lexicographically largest to smallest
+	 */
+	final private static Comparator < Exponents > DESCENDING = new Comparator < Exponents > () {
+
+		@Override
+		public int compare( Exponents exponents1 , Exponents exponents2 ) {
+			return exponents2.compareTo( exponents1 );
+		}
+	};
+
+	private ModularGcd() {
+
+	}
+
+	/**
+	 * the exponents of one term of a polynomial, one for each variable
+	 */
+	final private static class Exponents implements Comparable < Exponents > {
+
+		final private int[] m_values;
+
+		final private int m_hashCode;
+
+		Exponents( int[] values ) {
+			this.m_values = values;
+			this.m_hashCode = Arrays.hashCode( values );
+		}
+
+		/**
+		 * @param idx				a variable
+		 * @param exponent			new exponent of the variable
+		 * @return					these exponents with the exponent of the given variable replaced
+		 */
+		Exponents with( int idx , int exponent ) {
+			if ( this.m_values[ idx ] == exponent ) {
+				return this;
+			}
+			int[] values = this.m_values.clone();
+			values[ idx ] = exponent;
+			return new Exponents( values );
+		}
+
+		/**
+		 * @param divisor			exponents to subtract
+		 * @return					the exponents of the quotient, or <code>null</code> if
+		 * 							any exponent would be negative
+		 */
+		Exponents divide( Exponents divisor ) {
+			int[] values = new int[ this.m_values.length ];
+			for ( int idx = 0 ; idx < values.length ; idx++ ) {
+				values[ idx ] = this.m_values[ idx ] - divisor.m_values[ idx ];
+				if ( values[ idx ] < 0 ) {
+					return null;
+				}
+			}
+			return new Exponents( values );
+		}
+
+		Exponents multiply( Exponents multiplicand ) {
+			int[] values = new int[ this.m_values.length ];
+			for ( int idx = 0 ; idx < values.length ; idx++ ) {
+				values[ idx ] = this.m_values[ idx ] + multiplicand.m_values[ idx ];
+			}
+			return new Exponents( values );
+		}
+
+		/**
+		 * @param bound				largest allowed exponent of each variable
+		 * @return					if any exponent is larger than allowed
+		 */
+		boolean exceeds( int[] bound ) {
+			for ( int idx = 0 ; idx < this.m_values.length ; idx++ ) {
+				if ( this.m_values[ idx ] > bound[ idx ] ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		boolean isZero() {
+			for ( int value : this.m_values ) {
+				if ( value != 0 ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int compareTo( Exponents toCompare ) {
+			for ( int idx = 0 ; idx < this.m_values.length ; idx++ ) {
+				if ( this.m_values[ idx ] != toCompare.m_values[ idx ] ) {
+					return this.m_values[ idx ] < toCompare.m_values[ idx ] ? -1 : 1;
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public boolean equals( Object toCompare ) {
+			if ( toCompare instanceof Exponents ) {
+				Exponents exponentsToCompare = ( Exponents ) toCompare;
+				return this.m_hashCode == exponentsToCompare.m_hashCode && Arrays.equals( this.m_values , exponentsToCompare.m_values );
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.m_hashCode;
+		}
+	}
+
+	/**
+	 * the variables that appear in a pair of <code>PolynomialTerm</code> objects
+	 * and the integer polynomials that their numerators represent
+	 */
+	final private static class Conversion {
+
+		final private Calculator m_environment;
+
+		/**
+		 * ids of the variables, in increasing order
+		 */
+		final private int[] m_variableIds;
+
+		final private Variable[] m_bases;
+
+		/**
+		 * primitive integer polynomials for each of the given numerators
+		 */
+		final private Map < Exponents , BigInteger >[] m_polynomials;
+
+		/**
+		 * for each of the given numerators, the number by which its primitive
+		 * polynomial must be multiplied to get the numerator back
+		 */
+		final private Fraction[] m_contents;
+
+		@SuppressWarnings( { "unchecked" , "rawtypes" } )
+		private Conversion( Calculator environment , int[] variableIds , Variable[] bases , int numPolynomials ) {
+			this.m_environment = environment;
+			this.m_variableIds = variableIds;
+			this.m_bases = bases;
+			this.m_polynomials = new Map[ numPolynomials ];
+			this.m_contents = new Fraction[ numPolynomials ];
+		}
+
+		int getNumVariables() {
+			return this.m_variableIds.length;
+		}
+
+		/**
+		 * @param polynomial		an integer polynomial in the variables of this conversion
+		 * @param factor			number by which to multiply every coefficient
+		 * @return					the polynomial as a <code>PolynomialTerm</code>
+		 */
+		PolynomialTerm toPolynomialTerm( Map < Exponents , BigInteger > polynomial , Fraction factor ) {
+			MonomialSum sum = new MonomialSum();
+			for ( Map.Entry < Exponents , BigInteger > entry : polynomial.entrySet() ) {
+				Fraction coefficient = new Fraction( this.m_environment , entry.getValue() , BigInteger.ONE );
+				if ( factor != null ) {
+					coefficient = ( Fraction ) coefficient.multiply( factor );
+				}
+				if ( entry.getKey().isZero() ) {
+					sum.add( coefficient );
+				} else {
+					ExponentVector vector = ExponentVector.of( this.m_bases[ 0 ].getEnvironment() , this.m_variableIds , entry.getKey().m_values.clone() , this.m_bases );
+					sum.add( new Monomial( this.m_environment , vector , coefficient ) );
+				}
+			}
+			if ( sum.isEmpty() ) {
+				return Numerical.ZERO;
+			} else if ( sum.size() == 1 ) {
+				return sum.getLeadingTerm();
+			}
+			return new PolynomialTerm( this.m_environment , sum , null , Numerical.ONE );
+		}
+
+		/**
+		 * converts the numerators of the given <code>PolynomialTerm</code> objects
+		 *
+		 * @param terms				terms whose numerators to convert
+		 * @return					the conversion, or <code>null</code> if any numerator
+		 * 							cannot be handled by the modular method
+		 */
+		static Conversion of( PolynomialTerm... terms ) {
+
+			//collect the variables of every term, in increasing order of id
+			TreeMap < Integer , Variable > variables = new TreeMap < Integer , Variable > ();
+			for ( PolynomialTerm aTerm : terms ) {
+				if ( !aTerm.getPolynomialTermExponent().equals( Numerical.ONE ) ) {
+					return null;
+				}
+				for ( Monomial aMonomial : aTerm.getNumeratorSum() ) {
+					ExponentVector vector = aMonomial.getExponentVector();
+					if ( vector == null || !( aMonomial.getCoefficient() instanceof Fraction ) ) {
+						return null;
+					}
+					for ( int idx = 0 ; idx < vector.size() ; idx++ ) {
+						if ( vector.getExponent( idx ) < 0 ) {
+							return null;
+						}
+						Variable previous = variables.put( vector.getVariableId( idx ) , vector.getBase( idx ) );
+						if ( previous != null && previous.getEnvironment() != vector.getBase( idx ).getEnvironment() ) {
+							return null;
+						}
+					}
+				}
+			}
+
+			int[] variableIds = new int[ variables.size() ];
+			Variable[] bases = new Variable[ variables.size() ];
+			int next = 0;
+			for ( Map.Entry < Integer , Variable > entry : variables.entrySet() ) {
+				variableIds[ next ] = entry.getKey();
+				bases[ next ] = entry.getValue();
+				next++;
+			}
+
+			Conversion rtn = new Conversion( terms[ 0 ].getEnvironment() , variableIds , bases , terms.length );
+			for ( int termIdx = 0 ; termIdx < terms.length ; termIdx++ ) {
+
+				//the least common multiple of the denominators clears all fractions
+				BigInteger denominatorLcm = BigInteger.ONE;
+				for ( Monomial aMonomial : terms[ termIdx ].getNumeratorSum() ) {
+					BigInteger denominator = ( ( Fraction ) aMonomial.getCoefficient() ).getFractionDenominator();
+					denominatorLcm = denominatorLcm.divide( denominatorLcm.gcd( denominator ) ).multiply( denominator );
+				}
+
+				Map < Exponents , BigInteger > polynomial = new HashMap < Exponents , BigInteger > ();
+				for ( Monomial aMonomial : terms[ termIdx ].getNumeratorSum() ) {
+					Fraction coefficient = ( Fraction ) aMonomial.getCoefficient();
+					BigInteger value = coefficient.getFractionNumerator().multiply( denominatorLcm.divide( coefficient.getFractionDenominator() ) );
+					ExponentVector vector = aMonomial.getExponentVector();
+					int[] exponents = new int[ variableIds.length ];
+					for ( int idx = 0 ; idx < vector.size() ; idx++ ) {
+						exponents[ Arrays.binarySearch( variableIds , vector.getVariableId( idx ) ) ] = vector.getExponent( idx );
+					}
+					addTo( polynomial , new Exponents( exponents ) , value );
+				}
+
+				//store the primitive part and remember what was taken out
+				BigInteger content = integerContent( polynomial );
+				if ( !content.equals( BigInteger.ONE ) ) {
+					polynomial = divideCoefficients( polynomial , content );
+				}
+				rtn.m_polynomials[ termIdx ] = polynomial;
+				rtn.m_contents[ termIdx ] = new Fraction( rtn.m_environment , content , denominatorLcm );
+			}
+			return rtn;
+		}
+	}
+
+	/**
+	 * @param term1				a nonzero <code>PolynomialTerm</code>
+	 * @param term2				another nonzero <code>PolynomialTerm</code>
+	 * @return					the greatest common divisor of the numerators of both terms,
+	 * 							including the greatest common divisor of their numerical
+	 * 							contents, or <code>null</code> if the modular method cannot be
+	 * 							used on them. if the divisor could not be found within the
+	 * 							environment's maximum number of division iterations, only
+	 * 							the divisor of the contents is returned
+	 * @throws IllegalArgumentException		if either term is zero
+	 */
+	static PolynomialTerm gcd( PolynomialTerm term1 , PolynomialTerm term2 ) {
+		Conversion conversion = Conversion.of( term1 , term2 );
+		if ( conversion == null ) {
+			return null;
+		}
+		Map < Exponents , BigInteger > polynomial1 = conversion.m_polynomials[ 0 ];
+		Map < Exponents , BigInteger > polynomial2 = conversion.m_polynomials[ 1 ];
+
+		//divisions cancel the greatest common divisor out of both terms, which
+		//would cancel a whole numerator if the other term were zero
+		if ( polynomial1.isEmpty() || polynomial2.isEmpty() ) {
+			throw new IllegalArgumentException( "the greatest common divisor is only found for nonzero terms" );
+		}
+
+		//the primitive parts were divided by their contents, so the
+		//divisor of the contents has to be multiplied back in
+		Fraction contentGcd = contentGcd( conversion.m_contents[ 0 ] , conversion.m_contents[ 1 ] , conversion.m_environment );
+
+		Map < Exponents , BigInteger > rtn;
+		if ( polynomial1.size() == 1 || polynomial2.size() == 1 ) {
+			rtn = monomialGcd( polynomial1 , polynomial2 , conversion.getNumVariables() );
+		} else {
+			Calculator environment = term1.getEnvironment() == null ? term2.getEnvironment() : term1.getEnvironment();
+			int maxIterations = environment == null ? Calculator.DEFAULT_DIVISION_ITERATIONS : environment.getMaxDivisionIterations();
+			rtn = integerGcd( polynomial1 , polynomial2 , conversion.getNumVariables() , maxIterations );
+			if ( rtn == null ) {
+				return contentGcd;
+			}
+		}
+		return conversion.toPolynomialTerm( rtn , contentGcd );
+	}
+
+	/**
+	 * @param content1			a positive rational number
+	 * @param content2			another positive rational number
+	 * @param environment		environment in which calculations occur
+	 * @return					the largest rational number of which both are integer multiples,
+	 * 							i.e. the gcd of the numerators over the lcm of the denominators
+	 */
+	private static Fraction contentGcd( Fraction content1 , Fraction content2 , Calculator environment ) {
+		BigInteger numeratorGcd = content1.getFractionNumerator().gcd( content2.getFractionNumerator() );
+		BigInteger denominator1 = content1.getFractionDenominator();
+		BigInteger denominator2 = content2.getFractionDenominator();
+		BigInteger denominatorLcm = denominator1.divide( denominator1.gcd( denominator2 ) ).multiply( denominator2 );
+		return new Fraction( environment , numeratorGcd , denominatorLcm );
+	}
+
+	/**
+	 * @param numerator			a <code>PolynomialTerm</code>
+	 * @param divisor			a nonzero <code>PolynomialTerm</code>
+	 * @return					the exact quotient of the numerators, or <code>null</code> if
+	 * 							the divisor does not divide the numerator exactly or the
+	 * 							modular method cannot be used on them
+	 * @throws ArithmeticException	if the divisor is zero
+	 */
+	static PolynomialTerm divideExactly( PolynomialTerm numerator , PolynomialTerm divisor ) {
+		Conversion conversion = Conversion.of( numerator , divisor );
+		if ( conversion == null ) {
+			return null;
+		}
+		if ( conversion.m_polynomials[ 1 ].isEmpty() ) {
+			throw new ArithmeticException( "division by zero" );
+		}
+		if ( conversion.m_polynomials[ 0 ].isEmpty() ) {
+			return Numerical.ZERO;
+		}
+
+		//by Gauss's lemma, the quotient of the primitive parts is an integer polynomial
+		Map < Exponents , BigInteger > quotient = integerQuotient( conversion.m_polynomials[ 0 ] , conversion.m_polynomials[ 1 ] );
+		if ( quotient == null ) {
+			return null;
+		}
+		Fraction factor = ( Fraction ) conversion.m_contents[ 0 ].divide( conversion.m_contents[ 1 ] );
+		return conversion.toPolynomialTerm( quotient , factor );
+	}
+
+	/**
+	 * @return					the greatest common divisor of two integer polynomials,
+	 * 							at least one of which has a single term
+	 */
+	private static Map < Exponents , BigInteger > monomialGcd( Map < Exponents , BigInteger > polynomial1 , Map < Exponents , BigInteger > polynomial2 , int numVariables ) {
+
+		//the divisor is the smallest power of each variable in any term
+		int[] exponents = null;
+		for ( Map < Exponents , BigInteger > aPolynomial : Arrays.asList( polynomial1 , polynomial2 ) ) {
+			for ( Exponents termExponents : aPolynomial.keySet() ) {
+				if ( exponents == null ) {
+					exponents = termExponents.m_values.clone();
+				} else {
+					for ( int idx = 0 ; idx < numVariables ; idx++ ) {
+						exponents[ idx ] = Math.min( exponents[ idx ] , termExponents.m_values[ idx ] );
+					}
+				}
+			}
+		}
+		Map < Exponents , BigInteger > rtn = new HashMap < Exponents , BigInteger > ();
+		rtn.put( new Exponents( exponents ) , BigInteger.ONE );
+		return rtn;
+	}
+
+	/**
+	 * @param polynomial1		a nonzero primitive integer polynomial
+	 * @param polynomial2		another nonzero primitive integer polynomial
+	 * @param numVariables		number of variables in both polynomials
+	 * @param maxIterations		maximum number of primes to use
+	 * @return					the primitive greatest common divisor of both polynomials,
+	 * 							or <code>null</code> if it could not be found using the
+	 * 							given number of primes
+	 */
+	private static Map < Exponents , BigInteger > integerGcd( Map < Exponents , BigInteger > polynomial1 , Map < Exponents , BigInteger > polynomial2 , int numVariables , int maxIterations ) {
+		BigInteger leadingCoefficient1 = polynomial1.get( leadingExponents( polynomial1.keySet() ) );
+		BigInteger leadingCoefficient2 = polynomial2.get( leadingExponents( polynomial2.keySet() ) );
+
+		//the leading coefficient of the divisor must divide this, so scaling
+		//every image to have it as its leading coefficient keeps the images consistent
+		BigInteger leadingGcd = leadingCoefficient1.gcd( leadingCoefficient2 );
+
+		Map < Exponents , BigInteger > combined = null;
+		Exponents combinedLeadingExponents = null;
+		BigInteger modulus = BigInteger.ONE;
+		BigInteger prime = BigInteger.valueOf( LARGEST_PRIME + 2 );
+		for ( int iteration = 0 ; iteration < maxIterations ; iteration++ ) {
+			EvaluationBudget.checkCurrent();
+			do {
+				prime = prime.subtract( BigInteger.valueOf( 2 ) );
+			} while ( !prime.isProbablePrime( PRIME_CERTAINTY ) );
+			long p = prime.longValue();
+
+			//primes that divide a leading coefficient lose degree and are skipped
+			if ( leadingCoefficient1.mod( prime ).signum() == 0 || leadingCoefficient2.mod( prime ).signum() == 0 ) {
+				continue;
+			}
+			Map < Exponents , Long > image = modularGcd( reduce( polynomial1 , p ) , reduce( polynomial2 , p ) , numVariables , p , maxIterations );
+			if ( image == null ) {
+				continue;
+			}
+
+			//the image is never of lower degree than the true divisor,
+			//so a constant image means the polynomials are coprime
+			Exponents imageLeadingExponents = leadingExponents( image.keySet() );
+			if ( imageLeadingExponents.isZero() ) {
+				Map < Exponents , BigInteger > rtn = new HashMap < Exponents , BigInteger > ();
+				rtn.put( imageLeadingExponents , BigInteger.ONE );
+				return rtn;
+			}
+			image = multiplyByConstant( image , leadingGcd.mod( prime ).longValue() , p );
+
+			//an image of higher degree comes from an unlucky prime. an image of
+			//lower degree means all the earlier primes were unlucky
+			if ( combined != null ) {
+				int comparison = imageLeadingExponents.compareTo( combinedLeadingExponents );
+				if ( comparison > 0 ) {
+					continue;
+				} else if ( comparison < 0 ) {
+					combined = null;
+				}
+			}
+			if ( combined == null ) {
+				combined = new HashMap < Exponents , BigInteger > ();
+				for ( Map.Entry < Exponents , Long > entry : image.entrySet() ) {
+					combined.put( entry.getKey() , BigInteger.valueOf( entry.getValue() ) );
+				}
+				combinedLeadingExponents = imageLeadingExponents;
+				modulus = prime;
+			} else {
+				combined = chineseRemainder( combined , modulus , image , prime );
+				modulus = modulus.multiply( prime );
+			}
+
+			//the candidate is correct once it divides both polynomials
+			Map < Exponents , BigInteger > candidate = symmetricRemainder( combined , modulus );
+			candidate = divideCoefficients( candidate , integerContent( candidate ) );
+			if ( integerQuotient( polynomial1 , candidate ) != null && integerQuotient( polynomial2 , candidate ) != null ) {
+				return candidate;
+			}
+
+			//the lifted images are the divisor times a factor of the leading gcd, so
+			//a divisor that is still wrong must have coefficients about as large as
+			//the modulus divided by the leading gcd
+			EvaluationBudget.checkCurrentCoefficient( modulus.bitLength() - leadingGcd.bitLength() - 1 );
+		}
+		return null;
+	}
+
+	/**
+	 * Brown's algorithm for the greatest common divisor of two polynomials modulo
+	 * a prime. the last variable is eliminated by evaluating it at enough points
+	 * for the divisor's degree in that variable, and the divisors of the evaluated
+	 * polynomials are found recursively and interpolated back together
+	 *
+	 * @param polynomial1		a nonzero polynomial in variables 0 to numVariables-1
+	 * @param polynomial2		another nonzero polynomial in the same variables
+	 * @param numVariables		number of variables that may appear in the polynomials
+	 * @param p					the prime
+	 * @param maxIterations		maximum number of extra evaluation points to try
+	 * @return					the monic greatest common divisor, or <code>null</code>
+	 * 							if it could not be found using the given number of points
+	 */
+	private static Map < Exponents , Long > modularGcd( Map < Exponents , Long > polynomial1 , Map < Exponents , Long > polynomial2 , int numVariables , long p , int maxIterations ) {
+		if ( numVariables == 0 ) {
+			return constant( polynomial1.keySet().iterator().next().m_values.length , 1 );
+		}
+		int variable = numVariables - 1;
+
+		//take out the contents, which are polynomials in the last variable alone
+		long[] content1 = content( polynomial1 , variable , p );
+		long[] content2 = content( polynomial2 , variable , p );
+		long[] contentGcd = univariateGcd( content1 , content2 , p );
+		polynomial1 = divideByUnivariate( polynomial1 , content1 , variable , p );
+		polynomial2 = divideByUnivariate( polynomial2 , content2 , variable , p );
+
+		//the leading coefficient of the divisor divides this
+		long[] leadingCoefficient1 = leadingCoefficient( polynomial1 , variable );
+		long[] leadingCoefficient2 = leadingCoefficient( polynomial2 , variable );
+		long[] leadingGcd = univariateGcd( leadingCoefficient1 , leadingCoefficient2 , p );
+
+		//the number of points needed to interpolate the divisor
+		int degreeBound = Math.min( degree( polynomial1 , variable ) , degree( polynomial2 , variable ) ) + leadingGcd.length - 1;
+
+		Random points = new Random( p * 31 + numVariables );
+		Map < Exponents , Long > interpolated = null;
+		Exponents interpolatedLeadingExponents = null;
+		long[] interpolatedPoints = null;
+		int numPoints = 0;
+		int extraPoints = 0;
+		while ( extraPoints < maxIterations ) {
+			EvaluationBudget.checkCurrent();
+			long point = ( long ) ( points.nextDouble() * p );
+
+			//the point must keep the leading coefficients and must not be used twice
+			if ( univariateEvaluate( leadingCoefficient1 , point , p ) == 0 || univariateEvaluate( leadingCoefficient2 , point , p ) == 0 ) {
+				continue;
+			} else if ( interpolatedPoints != null && univariateEvaluate( interpolatedPoints , point , p ) == 0 ) {
+				continue;
+			}
+
+			Map < Exponents , Long > image = modularGcd( evaluate( polynomial1 , variable , point , p ) , evaluate( polynomial2 , variable , point , p ) , variable , p , maxIterations );
+			if ( image == null ) {
+				return null;
+			}
+			image = multiplyByConstant( image , univariateEvaluate( leadingGcd , point , p ) , p );
+			Exponents imageLeadingExponents = leadingExponents( image.keySet() );
+
+			//as with primes, images of higher degree come from unlucky points
+			if ( interpolated != null ) {
+				int comparison = imageLeadingExponents.compareTo( interpolatedLeadingExponents );
+				if ( comparison > 0 ) {
+					extraPoints++;
+					continue;
+				} else if ( comparison < 0 ) {
+					interpolated = null;
+				}
+			}
+			if ( interpolated == null ) {
+				interpolated = image;
+				interpolatedLeadingExponents = imageLeadingExponents;
+				interpolatedPoints = new long[] { p - point , 1 };
+				numPoints = 1;
+			} else {
+				interpolated = interpolate( interpolated , interpolatedPoints , image , point , variable , p );
+				interpolatedPoints = univariateMultiply( interpolatedPoints , new long[] { p - point , 1 } , p );
+				numPoints++;
+			}
+
+			if ( numPoints > degreeBound ) {
+				Map < Exponents , Long > candidate = divideByUnivariate( interpolated , content( interpolated , variable , p ) , variable , p );
+				if ( isDivisible( polynomial1 , candidate , p ) && isDivisible( polynomial2 , candidate , p ) ) {
+					return toMonic( multiplyByUnivariate( candidate , contentGcd , variable , p ) , p );
+				}
+				extraPoints++;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Newton interpolation. adds a new point to a polynomial that has already been
+	 * interpolated at the roots of <code>interpolatedPoints</code>
+	 *
+	 * @param interpolated			the polynomial interpolated so far
+	 * @param interpolatedPoints	product of (x - a) over the points a used so far
+	 * @param image					the value of the polynomial at the new point
+	 * @param point					the new point
+	 * @param variable				the variable being interpolated
+	 * @param p						the prime
+	 * @return						a polynomial agreeing with the old one at all old points
+	 * 								and with the image at the new point
+	 */
+	private static Map < Exponents , Long > interpolate( Map < Exponents , Long > interpolated , long[] interpolatedPoints , Map < Exponents , Long > image , long point , int variable , long p ) {
+		Map < Exponents , Long > difference = new HashMap < Exponents , Long > ( image );
+		for ( Map.Entry < Exponents , Long > entry : evaluate( interpolated , variable , point , p ).entrySet() ) {
+			addTo( difference , entry.getKey() , p - entry.getValue() , p );
+		}
+		long scale = inverse( univariateEvaluate( interpolatedPoints , point , p ) , p );
+
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ( interpolated );
+		for ( Map.Entry < Exponents , Long > entry : difference.entrySet() ) {
+			long coefficient = entry.getValue() * scale % p;
+			for ( int power = 0 ; power < interpolatedPoints.length ; power++ ) {
+				if ( interpolatedPoints[ power ] != 0 ) {
+					addTo( rtn , entry.getKey().with( variable , power ) , coefficient * interpolatedPoints[ power ] % p , p );
+				}
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the coefficients of the polynomial when it is viewed as a
+	 * 							polynomial in all other variables, with coefficients that are
+	 * 							polynomials in the given variable. each coefficient is keyed by
+	 * 							the exponents of the other variables
+	 */
+	private static Map < Exponents , long[] > coefficientsIn( Map < Exponents , Long > polynomial , int variable ) {
+		Map < Exponents , long[] > rtn = new HashMap < Exponents , long[] > ();
+		for ( Map.Entry < Exponents , Long > entry : polynomial.entrySet() ) {
+			int power = entry.getKey().m_values[ variable ];
+			Exponents key = entry.getKey().with( variable , 0 );
+			long[] coefficient = rtn.get( key );
+			if ( coefficient == null || coefficient.length <= power ) {
+				long[] grown = new long[ power + 1 ];
+				if ( coefficient != null ) {
+					System.arraycopy( coefficient , 0 , grown , 0 , coefficient.length );
+				}
+				coefficient = grown;
+				rtn.put( key , coefficient );
+			}
+			coefficient[ power ] = entry.getValue();
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the monic greatest common divisor of the coefficients
+	 * 							returned by <code>coefficientsIn</code>
+	 */
+	private static long[] content( Map < Exponents , Long > polynomial , int variable , long p ) {
+		long[] rtn = new long[ 0 ];
+		for ( long[] coefficient : coefficientsIn( polynomial , variable ).values() ) {
+			rtn = univariateGcd( rtn , coefficient , p );
+			if ( rtn.length == 1 ) {
+				break;
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the coefficient of the lexicographically largest term
+	 * 							in all other variables, as a polynomial in the given variable
+	 */
+	private static long[] leadingCoefficient( Map < Exponents , Long > polynomial , int variable ) {
+		Map < Exponents , long[] > coefficients = coefficientsIn( polynomial , variable );
+		return coefficients.get( leadingExponents( coefficients.keySet() ) );
+	}
+
+	private static Map < Exponents , Long > divideByUnivariate( Map < Exponents , Long > polynomial , long[] divisor , int variable , long p ) {
+		if ( divisor.length == 1 && divisor[ 0 ] == 1 ) {
+			return polynomial;
+		}
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		for ( Map.Entry < Exponents , long[] > entry : coefficientsIn( polynomial , variable ).entrySet() ) {
+			long[] quotient = univariateDivide( entry.getValue() , divisor , p )[ 0 ];
+			for ( int power = 0 ; power < quotient.length ; power++ ) {
+				if ( quotient[ power ] != 0 ) {
+					rtn.put( entry.getKey().with( variable , power ) , quotient[ power ] );
+				}
+			}
+		}
+		return rtn;
+	}
+
+	private static Map < Exponents , Long > multiplyByUnivariate( Map < Exponents , Long > polynomial , long[] multiplicand , int variable , long p ) {
+		if ( multiplicand.length == 1 && multiplicand[ 0 ] == 1 ) {
+			return polynomial;
+		}
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		for ( Map.Entry < Exponents , Long > entry : polynomial.entrySet() ) {
+			int power = entry.getKey().m_values[ variable ];
+			for ( int idx = 0 ; idx < multiplicand.length ; idx++ ) {
+				if ( multiplicand[ idx ] != 0 ) {
+					addTo( rtn , entry.getKey().with( variable , power + idx ) , entry.getValue() * multiplicand[ idx ] % p , p );
+				}
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the polynomial with the given variable replaced by the point
+	 */
+	private static Map < Exponents , Long > evaluate( Map < Exponents , Long > polynomial , int variable , long point , long p ) {
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		for ( Map.Entry < Exponents , Long > entry : polynomial.entrySet() ) {
+			long value = entry.getValue() * power( point , entry.getKey().m_values[ variable ] , p ) % p;
+			addTo( rtn , entry.getKey().with( variable , 0 ) , value , p );
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the largest power of the given variable in the polynomial
+	 */
+	private static int degree( Map < Exponents , Long > polynomial , int variable ) {
+		int rtn = 0;
+		for ( Exponents exponents : polynomial.keySet() ) {
+			rtn = Math.max( rtn , exponents.m_values[ variable ] );
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					if the divisor divides the polynomial exactly modulo p
+	 */
+	private static boolean isDivisible( Map < Exponents , Long > polynomial , Map < Exponents , Long > divisor , long p ) {
+		int[] degreeBound = degreeBound( polynomial.keySet() );
+		TreeMap < Exponents , Long > remainder = new TreeMap < Exponents , Long > ( DESCENDING );
+		remainder.putAll( polynomial );
+		Exponents divisorLeadingExponents = leadingExponents( divisor.keySet() );
+		long divisorLeadingInverse = inverse( divisor.get( divisorLeadingExponents ) , p );
+		while ( !remainder.isEmpty() ) {
+			Map.Entry < Exponents , Long > leadingTerm = remainder.firstEntry();
+			Exponents quotientExponents = leadingTerm.getKey().divide( divisorLeadingExponents );
+			if ( quotientExponents == null || leadingTerm.getKey().exceeds( degreeBound ) ) {
+				return false;
+			}
+			long quotientCoefficient = leadingTerm.getValue() * divisorLeadingInverse % p;
+			for ( Map.Entry < Exponents , Long > entry : divisor.entrySet() ) {
+				addTo( remainder , entry.getKey().multiply( quotientExponents ) , p - entry.getValue() * quotientCoefficient % p , p );
+			}
+		}
+		return true;
+	}
+
+	private static Map < Exponents , Long > toMonic( Map < Exponents , Long > polynomial , long p ) {
+		return multiplyByConstant( polynomial , inverse( polynomial.get( leadingExponents( polynomial.keySet() ) ) , p ) , p );
+	}
+
+	private static Map < Exponents , Long > multiplyByConstant( Map < Exponents , Long > polynomial , long multiplicand , long p ) {
+		if ( multiplicand == 1 ) {
+			return polynomial;
+		}
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		for ( Map.Entry < Exponents , Long > entry : polynomial.entrySet() ) {
+			rtn.put( entry.getKey() , entry.getValue() * multiplicand % p );
+		}
+		return rtn;
+	}
+
+	private static Map < Exponents , Long > constant( int numVariables , long value ) {
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		rtn.put( new Exponents( new int[ numVariables ] ) , value );
+		return rtn;
+	}
+
+	/**
+	 * adds a value to a coefficient modulo p, removing the term if it becomes zero
+	 */
+	private static void addTo( Map < Exponents , Long > polynomial , Exponents exponents , long value , long p ) {
+		Long previous = polynomial.get( exponents );
+		long sum = ( previous == null ? value : previous + value ) % p;
+		if ( sum == 0 ) {
+			polynomial.remove( exponents );
+		} else {
+			polynomial.put( exponents , sum );
+		}
+	}
+
+	/**
+	 * adds a value to an integer coefficient, removing the term if it becomes zero
+	 */
+	private static void addTo( Map < Exponents , BigInteger > polynomial , Exponents exponents , BigInteger value ) {
+		BigInteger previous = polynomial.get( exponents );
+		BigInteger sum = previous == null ? value : previous.add( value );
+		if ( sum.signum() == 0 ) {
+			polynomial.remove( exponents );
+		} else {
+			polynomial.put( exponents , sum );
+		}
+	}
+
+	/**
+	 * @return					the lexicographically largest exponents
+	 */
+	private static Exponents leadingExponents( Iterable < Exponents > allExponents ) {
+		Exponents rtn = null;
+		for ( Exponents exponents : allExponents ) {
+			if ( rtn == null || exponents.compareTo( rtn ) > 0 ) {
+				rtn = exponents;
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the largest exponent of each variable
+	 */
+	private static int[] degreeBound( Iterable < Exponents > allExponents ) {
+		int[] rtn = null;
+		for ( Exponents exponents : allExponents ) {
+			if ( rtn == null ) {
+				rtn = exponents.m_values.clone();
+			} else {
+				for ( int idx = 0 ; idx < rtn.length ; idx++ ) {
+					rtn[ idx ] = Math.max( rtn[ idx ] , exponents.m_values[ idx ] );
+				}
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the greatest common divisor of the coefficients, which is positive
+	 */
+	private static BigInteger integerContent( Map < Exponents , BigInteger > polynomial ) {
+		BigInteger rtn = BigInteger.ZERO;
+		for ( BigInteger coefficient : polynomial.values() ) {
+			rtn = rtn.gcd( coefficient );
+			if ( rtn.equals( BigInteger.ONE ) ) {
+				break;
+			}
+		}
+		return rtn.signum() == 0 ? BigInteger.ONE : rtn;
+	}
+
+	private static Map < Exponents , BigInteger > divideCoefficients( Map < Exponents , BigInteger > polynomial , BigInteger divisor ) {
+		if ( divisor.equals( BigInteger.ONE ) ) {
+			return polynomial;
+		}
+		Map < Exponents , BigInteger > rtn = new HashMap < Exponents , BigInteger > ();
+		for ( Map.Entry < Exponents , BigInteger > entry : polynomial.entrySet() ) {
+			rtn.put( entry.getKey() , entry.getValue().divide( divisor ) );
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the exact quotient of two integer polynomials, or
+	 * 							<code>null</code> if the divisor does not divide the
+	 * 							polynomial with integer coefficients
+	 */
+	private static Map < Exponents , BigInteger > integerQuotient( Map < Exponents , BigInteger > polynomial , Map < Exponents , BigInteger > divisor ) {
+
+		//no term of the remainder can have a larger power of any variable than
+		//the polynomial does if the division is exact
+		int[] degreeBound = degreeBound( polynomial.keySet() );
+		TreeMap < Exponents , BigInteger > remainder = new TreeMap < Exponents , BigInteger > ( DESCENDING );
+		remainder.putAll( polynomial );
+		Exponents divisorLeadingExponents = leadingExponents( divisor.keySet() );
+		BigInteger divisorLeadingCoefficient = divisor.get( divisorLeadingExponents );
+		Map < Exponents , BigInteger > quotient = new HashMap < Exponents , BigInteger > ();
+		while ( !remainder.isEmpty() ) {
+			Map.Entry < Exponents , BigInteger > leadingTerm = remainder.firstEntry();
+			Exponents quotientExponents = leadingTerm.getKey().divide( divisorLeadingExponents );
+			if ( quotientExponents == null || leadingTerm.getKey().exceeds( degreeBound ) ) {
+				return null;
+			}
+			BigInteger[] quotientCoefficient = leadingTerm.getValue().divideAndRemainder( divisorLeadingCoefficient );
+			if ( quotientCoefficient[ 1 ].signum() != 0 ) {
+				return null;
+			}
+			quotient.put( quotientExponents , quotientCoefficient[ 0 ] );
+			for ( Map.Entry < Exponents , BigInteger > entry : divisor.entrySet() ) {
+				addTo( remainder , entry.getKey().multiply( quotientExponents ) , entry.getValue().multiply( quotientCoefficient[ 0 ] ).negate() );
+			}
+		}
+		return quotient;
+	}
+
+	/**
+	 * @return					the integer polynomial reduced modulo p
+	 */
+	private static Map < Exponents , Long > reduce( Map < Exponents , BigInteger > polynomial , long p ) {
+		BigInteger prime = BigInteger.valueOf( p );
+		Map < Exponents , Long > rtn = new HashMap < Exponents , Long > ();
+		for ( Map.Entry < Exponents , BigInteger > entry : polynomial.entrySet() ) {
+			long value = entry.getValue().mod( prime ).longValue();
+			if ( value != 0 ) {
+				rtn.put( entry.getKey() , value );
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the polynomial that is congruent to <code>combined</code> modulo
+	 * 							<code>modulus</code> and to <code>image</code> modulo <code>prime</code>,
+	 * 							with coefficients between 0 and their product
+	 */
+	private static Map < Exponents , BigInteger > chineseRemainder( Map < Exponents , BigInteger > combined , BigInteger modulus , Map < Exponents , Long > image , BigInteger prime ) {
+		long p = prime.longValue();
+		long modulusInverse = inverse( modulus.mod( prime ).longValue() , p );
+		ArrayList < Exponents > allExponents = new ArrayList < Exponents > ( combined.keySet() );
+		for ( Exponents exponents : image.keySet() ) {
+			if ( !combined.containsKey( exponents ) ) {
+				allExponents.add( exponents );
+			}
+		}
+
+		Map < Exponents , BigInteger > rtn = new HashMap < Exponents , BigInteger > ();
+		for ( Exponents exponents : allExponents ) {
+			BigInteger oldValue = combined.containsKey( exponents ) ? combined.get( exponents ) : BigInteger.ZERO;
+			long imageValue = image.containsKey( exponents ) ? image.get( exponents ) : 0;
+			long correction = ( imageValue - oldValue.mod( prime ).longValue() + p ) % p * modulusInverse % p;
+			BigInteger newValue = oldValue.add( modulus.multiply( BigInteger.valueOf( correction ) ) );
+			if ( newValue.signum() != 0 ) {
+				rtn.put( exponents , newValue );
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the polynomial with every coefficient moved into the range
+	 * 							-modulus/2 to modulus/2
+	 */
+	private static Map < Exponents , BigInteger > symmetricRemainder( Map < Exponents , BigInteger > polynomial , BigInteger modulus ) {
+		BigInteger halfModulus = modulus.shiftRight( 1 );
+		Map < Exponents , BigInteger > rtn = new HashMap < Exponents , BigInteger > ();
+		for ( Map.Entry < Exponents , BigInteger > entry : polynomial.entrySet() ) {
+			BigInteger value = entry.getValue();
+			rtn.put( entry.getKey() , value.compareTo( halfModulus ) > 0 ? value.subtract( modulus ) : value );
+		}
+		return rtn;
+	}
+
+	//univariate polynomials modulo p are stored as arrays of coefficients,
+	//lowest power first, with no trailing zeros. zero is the empty array
+
+	private static long[] trim( long[] polynomial ) {
+		int length = polynomial.length;
+		while ( length > 0 && polynomial[ length - 1 ] == 0 ) {
+			length--;
+		}
+		return length == polynomial.length ? polynomial : Arrays.copyOf( polynomial , length );
+	}
+
+	private static long univariateEvaluate( long[] polynomial , long point , long p ) {
+		long rtn = 0;
+		for ( int power = polynomial.length - 1 ; power >= 0 ; power-- ) {
+			rtn = ( rtn * point + polynomial[ power ] ) % p;
+		}
+		return rtn;
+	}
+
+	private static long[] univariateMultiply( long[] polynomial1 , long[] polynomial2 , long p ) {
+		if ( polynomial1.length == 0 || polynomial2.length == 0 ) {
+			return new long[ 0 ];
+		}
+		long[] rtn = new long[ polynomial1.length + polynomial2.length - 1 ];
+		for ( int idx1 = 0 ; idx1 < polynomial1.length ; idx1++ ) {
+			for ( int idx2 = 0 ; idx2 < polynomial2.length ; idx2++ ) {
+				rtn[ idx1 + idx2 ] = ( rtn[ idx1 + idx2 ] + polynomial1[ idx1 ] * polynomial2[ idx2 ] ) % p;
+			}
+		}
+		return trim( rtn );
+	}
+
+	/**
+	 * @return					the quotient in index 0 and the remainder in index 1
+	 */
+	private static long[][] univariateDivide( long[] polynomial , long[] divisor , long p ) {
+		long[] remainder = polynomial.clone();
+		if ( remainder.length < divisor.length ) {
+			return new long[][] { new long[ 0 ] , remainder };
+		}
+		long[] quotient = new long[ remainder.length - divisor.length + 1 ];
+		long leadingInverse = inverse( divisor[ divisor.length - 1 ] , p );
+		for ( int power = quotient.length - 1 ; power >= 0 ; power-- ) {
+			long coefficient = remainder[ power + divisor.length - 1 ] * leadingInverse % p;
+			quotient[ power ] = coefficient;
+			if ( coefficient != 0 ) {
+				for ( int idx = 0 ; idx < divisor.length ; idx++ ) {
+					remainder[ power + idx ] = ( remainder[ power + idx ] + ( p - coefficient ) * divisor[ idx ] ) % p;
+				}
+			}
+		}
+		return new long[][] { trim( quotient ) , trim( remainder ) };
+	}
+
+	/**
+	 * @return					the monic greatest common divisor of both polynomials
+	 */
+	private static long[] univariateGcd( long[] polynomial1 , long[] polynomial2 , long p ) {
+		while ( polynomial2.length != 0 ) {
+			long[] remainder = univariateDivide( polynomial1 , polynomial2 , p )[ 1 ];
+			polynomial1 = polynomial2;
+			polynomial2 = remainder;
+		}
+		if ( polynomial1.length == 0 ) {
+			return polynomial1;
+		}
+		long leadingInverse = inverse( polynomial1[ polynomial1.length - 1 ] , p );
+		long[] rtn = new long[ polynomial1.length ];
+		for ( int power = 0 ; power < rtn.length ; power++ ) {
+			rtn[ power ] = polynomial1[ power ] * leadingInverse % p;
+		}
+		return rtn;
+	}
+
+	private static long power( long base , int exponent , long p ) {
+		long rtn = 1;
+		long square = base % p;
+		while ( exponent > 0 ) {
+			if ( ( exponent & 1 ) != 0 ) {
+				rtn = rtn * square % p;
+			}
+			square = square * square % p;
+			exponent >>= 1;
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					the inverse of a nonzero value modulo p
+	 */
+	private static long inverse( long value , long p ) {
+		return power( value , ( int ) ( p - 2 ) , p );
+	}
+}
@@ -1,5 +1,8 @@
 package calculate.structures.polynomial;
 
+
+import java.util.Iterator;
+
 import _library.LinkedList;
 import calculate.Calculator;
 import calculate.operators.MultiplyOperator;
@@ -9,14 +12,42 @@ import calculate.structures.Combinable;
 public class Monomial extends PolynomialTerm {
 
 	/**
-	 * the terms that are multiplied together to form this <code>Monomial</code>
+	 * the terms that are multiplied together to form this <code>Monomial</code>.
+	 * <code>null</code> until it is needed if the terms are packed, e.g. for a
+	 * <code>Numerical</code>, which has no terms. volatile so that a list unpacked
+	 * by one thread is seen complete by others
 	 */
-	private LinkedList < MonomialTerm > m_terms = new LinkedList < MonomialTerm > ();
+	private volatile LinkedList < MonomialTerm > m_terms = null;
 	
 	/**
 	 * the numerical coefficient of this <code>Monomial</code>
 	 */
-	private Numerical m_coefficient;
+	final private Numerical m_coefficient;
+	
+	/**
+	 * packed form of the terms in this <code>Monomial</code>. <code>null</code>
+	 * if the terms cannot be packed, e.g. because an exponent is symbolic
+	 */
+	private ExponentVector m_exponentVector = null;
+	
+	/**
+	 * if <code>m_exponentVector</code> has been determined yet. it is set after
+	 * <code>m_exponentVector</code> and is volatile, so a thread that sees it set
+	 * also sees the exponent vector
+	 */
+	private volatile boolean m_exponentVectorDetermined = false;
+	
+	/**
+	 * structural hash code of this <code>Monomial</code>. 0 if it has not been
+	 * calculated yet
+	 */
+	private int m_hashCode = 0;
+	
+	/**
+	 * LaTeX representation of this <code>Monomial</code>. <code>null</code> until
+	 * it is first needed
+	 */
+	private String m_latexRepresentation = null;
 	
 	/**
 	 * <code>Monomial</code> constructor for a <code>Numerical</code>
@@ -27,6 +58,10 @@ public class Monomial extends PolynomialTerm {
 	public Monomial( Calculator environment ) {
 		super( environment );
 		this.m_coefficient = ( Numerical ) this;
+		
+		//a number has no variables, so there is no need for a list of terms
+		this.m_exponentVector = ExponentVector.EMPTY;
+		this.m_exponentVectorDetermined = true;
 	}
 	
 	/**
@@ -39,6 +74,7 @@ public class Monomial extends PolynomialTerm {
 	 */
 	public Monomial( Calculator environment , Numerical coefficient ) {
 		super( environment );
+		this.m_terms = new LinkedList < MonomialTerm > ();
 		this.m_terms.add( ( MonomialTerm ) this );
 		this.m_coefficient = coefficient;
 	}
@@ -71,7 +107,77 @@ public class Monomial extends PolynomialTerm {
 			}
 		}
 		this.m_coefficient = coefficient;
-		determineRepresentation();
+		invalidateRepresentation();
+	}
+	
+	/**
+	 * creates a <code>Monomial</code> with the same terms as another <code>Monomial</code>
+	 * but a different coefficient. <code>Monomial</code> objects are never modified, so
+	 * the terms are shared instead of copied
+	 * 
+	 * @param terms						the <code>Monomial</code> whose terms to use
+	 * @param coefficient				the coefficient of the new <code>Monomial</code>
+	 */
+	private Monomial( Monomial terms , Numerical coefficient ) {
+		super( terms.getEnvironment() );
+		this.m_terms = terms.m_terms;
+		this.m_exponentVector = terms.m_exponentVector;
+		this.m_exponentVectorDetermined = terms.m_exponentVectorDetermined;
+		this.m_coefficient = coefficient;
+		invalidateRepresentation();
+	}
+	
+	/**
+	 * <code>Monomial</code> constructor for a packed <code>Monomial</code>. the
+	 * <code>MonomialTerm</code> objects are only created if they are needed
+	 * 
+	 * @param environment
+	 * @param exponentVector			the packed terms of the <code>Monomial</code>
+	 * @param coefficient
+	 */
+	Monomial( Calculator environment , ExponentVector exponentVector , Numerical coefficient ) {
+		super( environment );
+		this.m_terms = null;
+		this.m_exponentVector = exponentVector;
+		this.m_exponentVectorDetermined = true;
+		this.m_coefficient = coefficient;
+		invalidateRepresentation();
+	}
+	
+	/**
+	 * @return			the terms in this <code>Monomial</code>, created from the
+	 * 					packed terms if necessary
+	 */
+	private LinkedList < MonomialTerm > getTermList() {
+		LinkedList < MonomialTerm > rtn = this.m_terms;
+		if ( rtn == null ) {
+			rtn = this.m_exponentVector.toTerms();
+			this.m_terms = rtn;
+		}
+		return rtn;
+	}
+	
+	/**
+	 * @return			the packed form of the terms in this <code>Monomial</code>,
+	 * 					or <code>null</code> if they cannot be packed
+	 */
+	ExponentVector getExponentVector() {
+		if ( !this.m_exponentVectorDetermined ) {
+			this.m_exponentVector = ExponentVector.pack( getTermList() );
+			this.m_exponentVectorDetermined = true;
+		}
+		return this.m_exponentVector;
+	}
+	
+	/**
+	 * @param other			another <code>Monomial</code>
+	 * @return				if both <code>Monomial</code> objects have packed terms that
+	 * 						can be compared directly
+	 */
+	private boolean hasCompatibleExponentVector( Monomial other ) {
+		ExponentVector thisVector = this.getExponentVector();
+		ExponentVector otherVector = other.getExponentVector();
+		return thisVector != null && otherVector != null && thisVector.isCompatibleWith( otherVector );
 	}
 	
 	/**
@@ -79,9 +185,19 @@ public class Monomial extends PolynomialTerm {
 	 * 					multiplied together to obtain an overall <code>Monomial</code>
 	 */
 	public LinkedList < MonomialTerm > getMultipliedTerms() {
-		return this.m_terms.clone();
+		return getTermList().clone();
+	}
+	
+	/**
+	 * @return			a read-only view of the terms in this <code>Monomial</code> that
+	 * 					are multiplied together, in the same order as
+	 * 					<code>getMultipliedTerms()</code> but without copying them
+	 */
+	public Iterable < MonomialTerm > getMultipliedTermsView() {
+		return getTermList().readOnlyView();
 	}
 	
+	
 	/**
 	 * @return			the coefficient of this <code>Monomial</code>
 	 */
@@ -90,30 +206,47 @@ public class Monomial extends PolynomialTerm {
 	}
 	
 	/**
-	 * sets the coefficient of this <code>Monomial</code>
-	 * 
-	 * @param newCoefficient			the new coefficient for this <code>Monomial</code>
+	 * @param newCoefficient			a coefficient
+	 * @return							a <code>Monomial</code> with the same terms as this
+	 * 									one, but with the given coefficient
 	 */
-	public void setCoefficient( Numerical newCoefficient ) {
-		this.m_coefficient = newCoefficient;
-		
-		//update the representation
-		determineRepresentation();
+	public Monomial withCoefficient( Numerical newCoefficient ) {
+		return new Monomial( this , newCoefficient );
 	}
 	
 	/**
-	 * determines the representation of this monomial and updates it
+	 * determines the representation of this monomial
 	 */
-	private void determineRepresentation() {
-		
-		//start building the representation from scratch
-		String representation = "";
+	@Override
+	protected String determineRepresentation() {
+		StringBuilder representation = new StringBuilder();
+		buildRepresentation( representation );
+		return representation.toString();
+	}
+	
+	@Override
+	protected void appendRepresentation( StringBuilder representation ) {
+		if ( isRepresentationDetermined() ) {
+			representation.append( getRepresentation() );
+		} else {
+			buildRepresentation( representation );
+		}
+	}
+	
+	/**
+	 * writes the representation of this <code>Monomial</code> into a representation
+	 * that is being built
+	 * 
+	 * @param representation		the representation being built
+	 */
+	private void buildRepresentation( StringBuilder representation ) {
+		int start = representation.length();
 		
 		//apply the coefficient
 		
 		//if the coefficient is zero, then this whole Monomial evaluates to 0
 		if ( this.m_coefficient.equals( Numerical.ZERO ) ) {
-			setRepresentation("0");
+			representation.append( "0" );
 			return;
 			
 		//if coefficient is one, there is no need to display it
@@ -123,64 +256,91 @@ public class Monomial extends PolynomialTerm {
 			
 		//if the coefficient is negative one, just a negative sign is needed
 		} else if ( this.m_coefficient.equals( Numerical.NEGATIVE_ONE ) ) {
-			representation += SubtractOperator.REPRESENTATION;
+			representation.append( SubtractOperator.REPRESENTATION );
 		//if the coefficient is not one, then add it to the beginning of the representation
 		} else {
-			representation += this.m_coefficient.getRepresentation();
+			this.m_coefficient.appendRepresentation( representation );
 		}
 		
 		//apply the terms in this Monomial
 		
 		//go through each term in the variable part of the monomial and each
 		//term in the exponent part
-		for ( MonomialTerm term : this.m_terms ) {
-			representation += term.getRepresentation();
+		for ( MonomialTerm term : getTermList().readOnlyView() ) {
+			
+			//a power of a number would run into the coefficient or term
+			//before it, e.g. 2*2^(1/2) would read as 22^(1/2)
+			if ( term.getBase() instanceof Numerical && representation.length() > start && !endsWithSign( representation , start ) ) {
+				representation.append( MultiplyOperator.REPRESENTATION );
+			}
+			term.appendRepresentation( representation );
 		}
 		
 		//if everything was one, then this Monomial's representation should be 1
-		if ( representation.equals( "" ) ) {
-			representation = "1";
+		if ( representation.length() == start ) {
+			representation.append( "1" );
 		}
-		//update the representation
-		setRepresentation( representation );
+	}
+	
+	/**
+	 * @param representation		a representation that is being built
+	 * @param start					where this <code>Monomial</code> starts in the representation
+	 * @return						if this <code>Monomial</code> so far is only a negative sign
+	 */
+	private static boolean endsWithSign( StringBuilder representation , int start ) {
+		return representation.length() == start + SubtractOperator.REPRESENTATION.length() && representation.indexOf( SubtractOperator.REPRESENTATION , start ) == start;
 	}
 	
 	/**
 	 * @return		the representation of the base of this <code>Monomial</code>
 	 */
 	public int compareBaseRepresentation( Monomial toCompare ) {
-		LinkedList < MonomialTerm > thisTerms = this.getMultipliedTerms();
-		LinkedList < MonomialTerm > toCompareTerms = toCompare.getMultipliedTerms();
-		
-		thisTerms.moveToStart();
-		toCompareTerms.moveToStart();
+		LinkedList < MonomialTerm > thisTerms = this.getTermList();
+		LinkedList < MonomialTerm > toCompareTerms = toCompare.getTermList();
+		if ( thisTerms.size() == 0 || toCompareTerms.size() == 0 ) {
+			return 0;
+		}
 		
 		//compare term by term
-		while ( thisTerms.hasCurrent() && toCompareTerms.hasCurrent() ) {
-			MonomialTerm thisTerm = thisTerms.get();
-			MonomialTerm toCompareTerm = toCompareTerms.get();
+		Iterator < MonomialTerm > toCompareIterator = toCompareTerms.readOnlyView().iterator();
+		for ( MonomialTerm thisTerm : thisTerms.readOnlyView() ) {
+			if ( !toCompareIterator.hasNext() ) {
+				break;
+			}
+			MonomialTerm toCompareTerm = toCompareIterator.next();
 
 			//first compare alphabetically by base
-			int compareBase = thisTerm.getBase().compareTo( toCompareTerm.getBase() );
-			if ( compareBase == 0 ) {
-				
-				//if bases are equal, continue
-				
-			} else {
+			int compareBase = thisTerm.getRawBase().compareTo( toCompareTerm.getRawBase() );
+			if ( compareBase != 0 ) {
 				return compareBase;
 			}
-			
-			//keep moving through list if there are more terms to compare
-			if ( thisTerms.hasNext() && toCompareTerms.hasNext() ) {
-				thisTerms.advance();
-				toCompareTerms.advance();
-			} else {
-				
-				//if run out of terms, whichever has more terms is bigger
-				return new Integer( thisTerms.size() ).compareTo( new Integer( toCompareTerms.size() ) );
+		}
+		
+		//if run out of terms, whichever has more terms is bigger
+		return thisTerms.size() < toCompareTerms.size() ? -1 : ( thisTerms.size() == toCompareTerms.size() ? 0 : 1 );
+	}
+	
+	/**
+	 * @param other			another <code>Monomial</code>
+	 * @return				if both <code>Monomial</code> objects have equal multiplied terms
+	 * 						in the same order
+	 */
+	private boolean hasSameTerms( Monomial other ) {
+		LinkedList < MonomialTerm > thisTerms = this.getTermList();
+		LinkedList < MonomialTerm > otherTerms = other.getTermList();
+		if ( thisTerms == otherTerms ) {
+			return true;
+		}
+		if ( thisTerms.size() != otherTerms.size() ) {
+			return false;
+		}
+		Iterator < MonomialTerm > otherIterator = otherTerms.readOnlyView().iterator();
+		for ( MonomialTerm aTerm : thisTerms.readOnlyView() ) {
+			if ( !aTerm.equals( otherIterator.next() ) ) {
+				return false;
 			}
 		}
-		return 0;
+		return true;
 	}
 	
 	/**
@@ -194,8 +354,13 @@ public class Monomial extends PolynomialTerm {
 	 */
 	public boolean isAddableWith( Monomial augend ) {
 		
+		//if both Monomials are packed, just compare their exponent vectors
+		if ( hasCompatibleExponentVector( augend ) ) {
+			return this.getExponentVector().equals( augend.getExponentVector() );
+		}
+		
 		//make sure the bases (the multiplied terms) are the same
-		if ( this.getMultipliedTerms().equals( augend.getMultipliedTerms() ) ) {
+		if ( hasSameTerms( augend ) ) {
 			
 			//continue
 			
@@ -232,7 +397,10 @@ public class Monomial extends PolynomialTerm {
 				
 				//just combine the coefficients
 				Numerical newCoefficient = ( Numerical ) this.m_coefficient.add( monomialAugend.getCoefficient() );
-				return new Monomial( getEnvironment() , getMultipliedTerms() , newCoefficient );
+				if ( this.getExponentVector() != null ) {
+					return new Monomial( getEnvironment() , this.getExponentVector() , newCoefficient );
+				}
+				return new Monomial( this , newCoefficient );
 			} else {
 				
 				//create a polynomial term
@@ -285,7 +453,10 @@ public class Monomial extends PolynomialTerm {
 				
 				//just subtract the coefficients
 				Numerical newCoefficient = ( Numerical ) this.m_coefficient.subtract( ((Monomial) subtrahend).getCoefficient() );
-				return new Monomial( getEnvironment() , getMultipliedTerms() , newCoefficient );
+				if ( this.getExponentVector() != null ) {
+					return new Monomial( getEnvironment() , this.getExponentVector() , newCoefficient );
+				}
+				return new Monomial( this , newCoefficient );
 			} else {
 				
 				// create a polynomial term
@@ -312,50 +483,27 @@ public class Monomial extends PolynomialTerm {
 		if ( multiplicand instanceof Monomial ) {
 			Monomial monomialMultiplicand = ( Monomial ) multiplicand;
 			
-			
-			LinkedList < MonomialTerm > thisTerms = this.getMultipliedTerms();
-			//initially, start with empty result
-			LinkedList < MonomialTerm > resultTerms = new LinkedList < MonomialTerm > ();
-			
-			//go through each term in the multiplicand
-			LinkedList < MonomialTerm > multiplicandTerms = monomialMultiplicand.getMultipliedTerms();
-			for ( MonomialTerm multiplicandMultiplier : multiplicandTerms ) {
-				
-				//see if any term in this Monomial has the same base
-				boolean multiplied = false;
-				for ( MonomialTerm thisMultiplier : thisTerms ) {
-					
-					//if there exists a term in this Monomial with the same
-					//base as the multiplier
-					if ( thisMultiplier.getBase().equals( multiplicandMultiplier.getBase() ) ) {
-						
-						//just add their exponents and update the result
-						MonomialTerm newTerm = thisMultiplier.addToExponent( multiplicandMultiplier.getMonomialTermExponent() );
-						insertMultipliedTerm( resultTerms , newTerm );
-						multiplied = true;
-						thisTerms.remove();
-						break;
-					}
-				}
-				
-				//if there does not exist a term in this Monomial with the same base
-				//as the multiplier, then add the term to the list of multiplied terms
-				if ( multiplied == false ) {
-					insertMultipliedTerm( resultTerms , multiplicandMultiplier );
+			//if both Monomials are packed, just add their exponent vectors
+			if ( hasCompatibleExponentVector( monomialMultiplicand ) ) {
+				ExponentVector productVector = this.getExponentVector().multiply( monomialMultiplicand.getExponentVector() );
+				if ( productVector != null ) {
+					Numerical newCoefficient = ( Numerical ) this.m_coefficient.multiply( monomialMultiplicand.getCoefficient() );
+					return new Monomial( getEnvironment() , productVector , newCoefficient );
 				}
 			}
 			
-			//finally, insert any of the original terms in this Monomial that
-			//were not used in multiplying with the multiplicand terms
-			for ( MonomialTerm aTerm : thisTerms ) {
-				insertMultipliedTerm( resultTerms , aTerm );
+			//start with the terms in this Monomial and multiply in
+			//each term of the multiplicand
+			Builder product = new Builder( this );
+			for ( MonomialTerm multiplicandMultiplier : monomialMultiplicand.getMultipliedTermsView() ) {
+				product.multiplyBy( multiplicandMultiplier );
 			}
 			
 			//multiply the coefficients
-			Numerical newCoefficient = ( Numerical ) this.m_coefficient.multiply( monomialMultiplicand.getCoefficient() );
+			product.setCoefficient( ( Numerical ) this.m_coefficient.multiply( monomialMultiplicand.getCoefficient() ) );
 			
 			//return the result
-			return new Monomial( getEnvironment() , resultTerms , newCoefficient );
+			return product.build();
 		} else {
 			return super.multiply( multiplicand );
 		}
@@ -372,7 +520,7 @@ public class Monomial extends PolynomialTerm {
 	 * @param terms						a list of terms
 	 * @param termToInsert				the term to insert
 	 */
-	private static void insertMultipliedTerm( LinkedList < MonomialTerm > terms , MonomialTerm termToInsert ) {
+	static void insertMultipliedTerm( LinkedList < MonomialTerm > terms , MonomialTerm termToInsert ) {
 		
 		boolean inserted = false;
 		//go through the list of terms
@@ -438,26 +586,26 @@ public class Monomial extends PolynomialTerm {
 		if ( dividend instanceof Monomial ) {
 			Monomial monomialDividend = ( Monomial ) dividend;
 			
-			LinkedList < MonomialTerm > termsInDividend = monomialDividend.getMultipliedTerms();
+			//if both Monomials are packed, just subtract their exponent vectors
+			if ( hasCompatibleExponentVector( monomialDividend ) ) {
+				ExponentVector quotientVector = this.getExponentVector().divide( monomialDividend.getExponentVector() );
+				if ( quotientVector != null ) {
+					Numerical quotientCoefficient = ( Numerical ) this.getCoefficient().divide( monomialDividend.getCoefficient() );
+					return new Monomial( getEnvironment() , quotientVector , quotientCoefficient );
+				}
+			}
 			
-			//replace every term in the dividend by its reciprocol
-			for ( MonomialTerm dividendTerm : termsInDividend ) {
-				MonomialTerm reciprocolTerm = dividendTerm.multiplyExponentBy( Numerical.NEGATIVE_ONE );
-				termsInDividend.replace( reciprocolTerm );
+			//multiply this Monomial by the reciprocol of every term in the dividend
+			Builder quotient = new Builder( this );
+			for ( MonomialTerm dividendTerm : monomialDividend.getMultipliedTermsView() ) {
+				quotient.multiplyBy( dividendTerm.multiplyExponentBy( Numerical.NEGATIVE_ONE ) );
 			}
 		
 			//determine the quotient's coefficient
-			Numerical quotientCoefficient = ( Numerical ) this.getCoefficient().divide( monomialDividend.getCoefficient() );
-			
-			//then multiply just the terms
-			Monomial multiplicand = new Monomial( dividend.getEnvironment() , termsInDividend , Numerical.ONE );
-			Monomial rtn = ( Monomial ) this.multiply( multiplicand );
-			
-			//finally update the quotient's coefficient
-			rtn.setCoefficient( quotientCoefficient );
+			quotient.setCoefficient( ( Numerical ) this.getCoefficient().divide( monomialDividend.getCoefficient() ) );
 			
 			//return the result
-			return rtn;
+			return quotient.build();
 			
 		//if the dividend is not a Monomial, don't deal with it
 		} else {
@@ -480,9 +628,19 @@ public class Monomial extends PolynomialTerm {
 		if ( exponent instanceof Monomial ) {
 			Monomial monomialExponent = ( Monomial ) exponent;
 			
+			//if this Monomial is packed and the exponent is a small integer,
+			//just multiply the exponent vector
+			if ( exponent instanceof Fraction && ( ( Fraction ) exponent ).isSmallInteger() && this.getExponentVector() != null ) {
+				ExponentVector powerVector = this.getExponentVector().power( ( ( Fraction ) exponent ).intValue() );
+				if ( powerVector != null ) {
+					Numerical newCoefficient = ( Numerical ) this.m_coefficient.exponentiate( ( Numerical ) exponent );
+					return new Monomial( getEnvironment() , powerVector , newCoefficient );
+				}
+			}
+			
 			//go through every term and exponentiate it ( multiply its exponent by the exponent given )
 			LinkedList < MonomialTerm > resultTerms = new LinkedList < MonomialTerm > ();
-			for ( MonomialTerm aTerm : this.m_terms ) {
+			for ( MonomialTerm aTerm : getTermList().readOnlyView() ) {
 				MonomialTerm exponentiatedTerm = aTerm.multiplyExponentBy( monomialExponent );
 				insertMultipliedTerm( resultTerms , exponentiatedTerm );
 			}
@@ -490,13 +648,15 @@ public class Monomial extends PolynomialTerm {
 			//exponentiate the coefficient
 			
 			//if the exponent is a number, we can just modify the coefficient
+			Combinable coefficientPower = null;
 			if ( exponent instanceof Numerical ) {
-				Numerical numericalExponent = ( Numerical ) exponent;
-				Numerical newCoefficient = ( Numerical ) this.m_coefficient.exponentiate( numericalExponent );
-				return new Monomial( getEnvironment() , resultTerms , newCoefficient );
+				coefficientPower = this.m_coefficient.exponentiate( exponent );
+			}
+			if ( coefficientPower instanceof Numerical ) {
+				return new Monomial( getEnvironment() , resultTerms , ( Numerical ) coefficientPower );
 				
-			//if the exponent is not a number, we have to add it to the list of
-			//multiplied terms
+			//if the exponent is not a number or the power of the coefficient
+			//is irrational, we have to add it to the list of multiplied terms
 			} else {
 				
 				//if the current coefficient is not 1, then we need to exponentiate it
@@ -524,8 +684,12 @@ public class Monomial extends PolynomialTerm {
 
 		//the degree of a Monomial is the sum of all the exponents of
 		//its terms
+		ExponentVector exponentVector = this.getExponentVector();
+		if ( exponentVector != null ) {
+			return new Fraction( getEnvironment() , exponentVector.getTotalDegree() , 1 );
+		}
 		Combinable degree = Numerical.ZERO;
-		for ( MonomialTerm aTerm : this.m_terms ) {
+		for ( MonomialTerm aTerm : getTermList().readOnlyView() ) {
 
 			if ( !( aTerm.getBase() instanceof Constant ) ) {
 				degree = degree.add( aTerm.getMonomialTermExponent() );
@@ -537,6 +701,11 @@ public class Monomial extends PolynomialTerm {
 	@Override
 	public boolean equals( Object toCompare ) {
 		
+		//interned Monomials are equal only if they are the same object
+		if ( this == toCompare ) {
+			return true;
+		}
+		
 		//only deal with checking if a Monomial equals another Monomial
 		if ( toCompare instanceof Monomial ) {
 			Monomial monomialToCompare = ( Monomial ) toCompare;
@@ -547,7 +716,7 @@ public class Monomial extends PolynomialTerm {
 				//check if the value with which to compare is zero 
 				Numerical numericalToCompare = ( Numerical ) monomialToCompare;
 				if ( numericalToCompare.equals( Numerical.ZERO ) ) {
-					for ( MonomialTerm aTerm : this.m_terms ) {
+					for ( MonomialTerm aTerm : getTermList().readOnlyView() ) {
 						if ( aTerm.equals( Numerical.ZERO ) ) {
 							return true;
 						}
@@ -560,10 +729,16 @@ public class Monomial extends PolynomialTerm {
 				return toCompare.equals( Numerical.ZERO );
 			}
 			
+			//if both Monomials are packed, compare the exponent vectors
+			if ( hasCompatibleExponentVector( monomialToCompare ) ) {
+				return this.getExponentVector().equals( monomialToCompare.getExponentVector() ) &&
+						this.getCoefficient().equals( monomialToCompare.getCoefficient() );
+			}
+			
 			//if this is not comparison with zero then
 			return 
 					/* check that their variables terms are the same */
-					this.getMultipliedTerms().equals( monomialToCompare.getMultipliedTerms() ) &&
+					hasSameTerms( monomialToCompare ) &&
 					
 					/* check that their coefficients are the same */
 					this.getCoefficient().equals( monomialToCompare.getCoefficient() );
@@ -574,6 +749,55 @@ public class Monomial extends PolynomialTerm {
 		}
 	}
 	
+	/**
+	 * hash code consistent with <code>equals(...)</code>. it is calculated from the
+	 * coefficient and the bases and exponents of the multiplied terms, so it does
+	 * not depend on how the terms are stored, and is cached until this
+	 * <code>Monomial</code> is modified
+	 */
+	@Override
+	public int hashCode() {
+		if ( this.m_hashCode == 0 ) {
+			ExponentVector exponentVector = this.getExponentVector();
+			int hashCode;
+			if ( exponentVector != null ) {
+				
+				//packed terms never have a zero base
+				if ( this.m_coefficient.equals( Numerical.ZERO ) ) {
+					hashCode = Numerical.ZERO.hashCode();
+				} else {
+					hashCode = this.m_coefficient.hashCode() + exponentVector.getTermHashCode();
+				}
+			} else if ( this.equals( Numerical.ZERO ) ) {
+				hashCode = Numerical.ZERO.hashCode();
+			} else {
+				
+				//the order of the terms does not matter
+				hashCode = this.m_coefficient.hashCode();
+				for ( MonomialTerm aTerm : getTermList().readOnlyView() ) {
+					Combinable exponent = aTerm.getRawExponent();
+					hashCode += hashCode( aTerm.getRawBase() , exponent == null ? Numerical.ONE.hashCode() : exponent.hashCode() );
+				}
+			}
+			this.m_hashCode = hashCode;
+		}
+		return this.m_hashCode;
+	}
+	
+	/**
+	 * @param base				base of a multiplied term
+	 * @param exponentHashCode	hash code of the exponent of the term
+	 * @return					the contribution of the term to the hash code of a <code>Monomial</code>
+	 */
+	static int hashCode( Variable base , int exponentHashCode ) {
+		int rtn = 31 * ( base == null ? 0 : base.getRepresentation().hashCode() ) + exponentHashCode;
+		
+		//the contributions are summed, so scramble them. otherwise, terms
+		//such as x^2y and xy^2 would always hash the same
+		rtn *= 0x9E3779B1;
+		return rtn ^ ( rtn >>> 16 );
+	}
+	
 	@Override
 	public int compareTo( Combinable toCompare ) {
 		
@@ -619,12 +843,17 @@ public class Monomial extends PolynomialTerm {
 	 */
 	@Override
 	public int countNumTerms() {
+		
+		//avoid creating the terms just to count them
+		if ( this.m_terms == null ) {
+			return this.m_exponentVector.size();
+		}
 		return this.m_terms.size();
 	}
 	
 	@Override
 	public Monomial copy( int indexInInput ) {
-		Monomial rtn = new Monomial( getEnvironment() , getMultipliedTerms() , getCoefficient() );
+		Monomial rtn = new Monomial( this , this.m_coefficient );
 		rtn.setIndexInInput( indexInInput ) ;
 		return rtn;
 	}
@@ -636,6 +865,16 @@ public class Monomial extends PolynomialTerm {
 	
 	@Override
 	public String toLatexString() {
+		if ( this.m_latexRepresentation == null ) {
+			this.m_latexRepresentation = determineLatexRepresentation();
+		}
+		return this.m_latexRepresentation;
+	}
+	
+	/**
+	 * @return			the LaTeX representation of this <code>Monomial</code>
+	 */
+	private String determineLatexRepresentation() {
 
 		String rtn = "";
 		
@@ -667,9 +906,10 @@ public class Monomial extends PolynomialTerm {
 		//determine if the first term in the numerator is a numerical or not
 		//because if it is a numerical, we will need a * between the coefficient
 		//and the monomial representation
-		this.m_terms.moveToStart();
-		if ( this.m_terms.hasCurrent() ) {
-			if ( this.m_terms.get().getBase() instanceof Numerical ) {
+		LinkedList < MonomialTerm > terms = getTermList();
+		Iterator < MonomialTerm > firstTerm = terms.readOnlyView().iterator();
+		if ( firstTerm.hasNext() ) {
+			if ( firstTerm.next().getBase() instanceof Numerical ) {
 				if ( !coefficient.equals("") ) {
 					coefficient += MultiplyOperator.LATEX_REPRESENTATION;
 				}
@@ -680,19 +920,20 @@ public class Monomial extends PolynomialTerm {
 		
 		//first get the numerator in LaTeX
 		
-		String numerator = "";
-		for ( MonomialTerm aTerm : this.m_terms ) {
+		StringBuilder numeratorBuilder = new StringBuilder();
+		for ( MonomialTerm aTerm : terms.readOnlyView() ) {
 			
 			//create the numerator of the Monomial by adding all the terms
 			//that have exponent greater than zero
 			if ( aTerm.getMonomialTermExponent().compareTo( Numerical.ZERO ) >= 0 ) {
-				numerator += aTerm.toLatexString();
+				numeratorBuilder.append( aTerm.toLatexString() );
 			}
 		}
+		String numerator = numeratorBuilder.toString();
 		
 		//next determine the denominator in LaTeX
-		String denominator = "";
-		for ( MonomialTerm aTerm : this.m_terms ) {
+		StringBuilder denominatorBuilder = new StringBuilder();
+		for ( MonomialTerm aTerm : terms.readOnlyView() ) {
 			
 			//create the denominator by adding all the terms
 			//that have exponent less than zero
@@ -702,9 +943,10 @@ public class Monomial extends PolynomialTerm {
 				MonomialTerm denominatorTerm = aTerm.multiplyExponentBy( Numerical.NEGATIVE_ONE );
 				
 				//and add the positive exponent term to the denominator
-				denominator += denominatorTerm.toLatexString();
+				denominatorBuilder.append( denominatorTerm.toLatexString() );
 			}
 		}
+		String denominator = denominatorBuilder.toString();
 		
 		//if the denominator does not exist, i.e. it is 1, then
 		//just add the numerator
@@ -731,4 +973,78 @@ public class Monomial extends PolynomialTerm {
 		}
 		return rtn;
 	}
+	
+	/**
+	 * builds a <code>Monomial</code> one multiplied term at a time. <code>Monomial</code>
+	 * objects are never modified after they are created, so this is used
+	 * to put together a <code>Monomial</code> step by step instead
+	 */
+	public static class Builder {
+		
+		final private Calculator m_environment;
+		
+		/**
+		 * the terms multiplied together so far, in proper order
+		 */
+		final private LinkedList < MonomialTerm > m_terms;
+		
+		private Numerical m_coefficient = Numerical.ONE;
+		
+		/**
+		 * starts building a <code>Monomial</code> equal to 1
+		 * 
+		 * @param environment			environment in which calculations occur
+		 */
+		public Builder( Calculator environment ) {
+			this.m_environment = environment;
+			this.m_terms = new LinkedList < MonomialTerm > ();
+		}
+		
+		/**
+		 * starts building a <code>Monomial</code> equal to the given one
+		 * 
+		 * @param initial				the <code>Monomial</code> to start with
+		 */
+		public Builder( Monomial initial ) {
+			this.m_environment = initial.getEnvironment();
+			this.m_terms = initial.getMultipliedTerms();
+			this.m_coefficient = initial.getCoefficient();
+		}
+		
+		/**
+		 * multiplies a term into the <code>Monomial</code> being built, adding
+		 * to the exponent of a term with the same base if there is one
+		 * 
+		 * @param term					the term by which to multiply
+		 * @return						this <code>Builder</code>
+		 */
+		public Builder multiplyBy( MonomialTerm term ) {
+			for ( MonomialTerm aTerm : this.m_terms ) {
+				if ( aTerm.getRawBase().equals( term.getRawBase() ) ) {
+					this.m_terms.remove();
+					insertMultipliedTerm( this.m_terms , aTerm.addToExponent( term.getRawExponent() ) );
+					return this;
+				}
+			}
+			insertMultipliedTerm( this.m_terms , term );
+			return this;
+		}
+		
+		/**
+		 * @param coefficient			the coefficient of the <code>Monomial</code> being built
+		 * @return						this <code>Builder</code>
+		 */
+		public Builder setCoefficient( Numerical coefficient ) {
+			this.m_coefficient = coefficient;
+			return this;
+		}
+		
+		/**
+		 * @return						the <code>Monomial</code> with the terms and coefficient
+		 * 								given so far
+		 */
+		public Monomial build() {
+			return new Monomial( this.m_environment , this.m_terms.clone() , this.m_coefficient );
+		}
+	}
 }
@@ -0,0 +1,206 @@
+package calculate.structures.polynomial;
+
+import java.util.Comparator;
+
+/**
+ * total ordering of the terms of a polynomial. the orders compare the packed
+ * exponent vectors of <code>Monomial</code> objects, whose exponents and total
+ * degrees are stored as primitives, so comparing two terms does not create any
+ * objects. <code>Monomial</code> objects that cannot be packed, such as x^y, are
+ * compared with <code>MonomialSum.compareAddedTerms</code> instead.
+ * <p>
+ * in the lexicographic orders, variables are ranked by the order in which their
+ * environment first assigned them ids, so x > y if x was used before y.
+ * <p>
+ * orders compare in the usual mathematical sense: a positive result means
+ * the first term is larger and so comes earlier in a sorted sum.
+ */
+public abstract class MonomialOrder implements Comparator < Monomial > {
+
+	/**
+	 * the order in which terms of a sum are displayed: higher total degree
+	 * first, then alphabetical order of the bases, then larger exponents first
+	 */
+	final public static MonomialOrder DISPLAY = new MonomialOrder( "display" ) {
+		@Override
+		int compareVectors( ExponentVector vector1 , ExponentVector vector2 ) {
+			if ( vector1.getTotalDegree() != vector2.getTotalDegree() ) {
+				return vector1.getTotalDegree() > vector2.getTotalDegree() ? 1 : -1;
+			}
+			int size1 = vector1.size();
+			int size2 = vector2.size();
+			if ( size1 == 0 || size2 == 0 ) {
+				return size1 - size2;
+			}
+
+			//go by alphabetical order of the bases. two bases with
+			//the same id are the same variable
+			int common = Math.min( size1 , size2 );
+			for ( int idx = 0 ; idx < common ; idx++ ) {
+				int position1 = vector1.getDisplayPosition( idx );
+				int position2 = vector2.getDisplayPosition( idx );
+				if ( vector1.getVariableId( position1 ) != vector2.getVariableId( position2 ) ) {
+					return -vector1.getBase( position1 ).compareTo( vector2.getBase( position2 ) );
+				}
+			}
+			if ( size1 != size2 ) {
+				return size1 < size2 ? 1 : -1;
+			}
+
+			//if the bases are the same, the term with larger exponents goes first
+			for ( int idx = 0 ; idx < common ; idx++ ) {
+				int exponent1 = vector1.getExponent( vector1.getDisplayPosition( idx ) );
+				int exponent2 = vector2.getExponent( vector2.getDisplayPosition( idx ) );
+				if ( exponent1 != exponent2 ) {
+					return exponent1 > exponent2 ? 1 : -1;
+				}
+			}
+			return 0;
+		}
+	};
+
+	/**
+	 * lexicographic order: the term with the larger exponent of the first
+	 * variable in which the terms differ is larger
+	 */
+	final public static MonomialOrder LEX = new MonomialOrder( "lex" ) {
+		@Override
+		int compareVectors( ExponentVector vector1 , ExponentVector vector2 ) {
+			return compareLexicographically( vector1 , vector2 );
+		}
+	};
+
+	/**
+	 * graded lexicographic order: the term with the higher total degree is
+	 * larger. ties are broken lexicographically
+	 */
+	final public static MonomialOrder GRLEX = new MonomialOrder( "grlex" ) {
+		@Override
+		int compareVectors( ExponentVector vector1 , ExponentVector vector2 ) {
+			if ( vector1.getTotalDegree() != vector2.getTotalDegree() ) {
+				return vector1.getTotalDegree() > vector2.getTotalDegree() ? 1 : -1;
+			}
+			return compareLexicographically( vector1 , vector2 );
+		}
+	};
+
+	/**
+	 * graded reverse lexicographic order: the term with the higher total degree
+	 * is larger. ties are broken by the term with the smaller exponent of the
+	 * last variable in which the terms differ being larger
+	 */
+	final public static MonomialOrder GREVLEX = new MonomialOrder( "grevlex" ) {
+		@Override
+		int compareVectors( ExponentVector vector1 , ExponentVector vector2 ) {
+			if ( vector1.getTotalDegree() != vector2.getTotalDegree() ) {
+				return vector1.getTotalDegree() > vector2.getTotalDegree() ? 1 : -1;
+			}
+
+			//walk both sparse vectors backwards from the last variable
+			int idx1 = vector1.size() - 1;
+			int idx2 = vector2.size() - 1;
+			while ( idx1 >= 0 || idx2 >= 0 ) {
+				int id1 = idx1 >= 0 ? vector1.getVariableId( idx1 ) : -1;
+				int id2 = idx2 >= 0 ? vector2.getVariableId( idx2 ) : -1;
+				int exponent1 = 0;
+				int exponent2 = 0;
+				if ( id1 >= id2 ) {
+					exponent1 = vector1.getExponent( idx1 );
+				}
+				if ( id2 >= id1 ) {
+					exponent2 = vector2.getExponent( idx2 );
+				}
+				if ( exponent1 != exponent2 ) {
+					return exponent1 < exponent2 ? 1 : -1;
+				}
+				if ( id1 >= id2 ) {
+					idx1--;
+				}
+				if ( id2 >= id1 ) {
+					idx2--;
+				}
+			}
+			return 0;
+		}
+	};
+
+	final private String m_name;
+
+	private MonomialOrder( String name ) {
+		this.m_name = name;
+	}
+
+	/**
+	 * compares two packed exponent vectors from the same environment
+	 *
+	 * @return					positive if the first vector is larger, negative if
+	 * 							the second is larger, and 0 if they are equal
+	 */
+	abstract int compareVectors( ExponentVector vector1 , ExponentVector vector2 );
+
+	/**
+	 * @param term1				a term in a sum
+	 * @param term2				another term in a sum
+	 * @return					positive if term1 is larger in this order, negative if term2
+	 * 							is larger, and 0 if they have the same variable part
+	 */
+	@Override
+	public int compare( Monomial term1 , Monomial term2 ) {
+		ExponentVector vector1 = term1.getExponentVector();
+		ExponentVector vector2 = term2.getExponentVector();
+		if ( vector1 != null && vector2 != null && vector1.isCompatibleWith( vector2 ) ) {
+			return compareVectors( vector1 , vector2 );
+		}
+		return -MonomialSum.compareAddedTerms( term1 , term2 );
+	}
+
+	/**
+	 * the display order does not respect multiplication: x^2z comes after xy^2 even
+	 * though xz comes before y^2. algorithms that need x > y to imply xz > yz use
+	 * graded lexicographic order in its place, which agrees with it on total degree
+	 *
+	 * @return					a graded order that respects multiplication and agrees with
+	 * 							this order on total degree, or <code>null</code> if there is none
+	 */
+	MonomialOrder getGradedOrder() {
+		if ( this == DISPLAY ) {
+			return GRLEX;
+		} else if ( this == LEX ) {
+			return null;
+		}
+		return this;
+	}
+
+	/**
+	 * compares two sparse vectors, whose ids are in increasing order, one variable at a time
+	 */
+	static int compareLexicographically( ExponentVector vector1 , ExponentVector vector2 ) {
+		int size1 = vector1.size();
+		int size2 = vector2.size();
+		int idx1 = 0;
+		int idx2 = 0;
+		while ( idx1 < size1 || idx2 < size2 ) {
+			int id1 = idx1 < size1 ? vector1.getVariableId( idx1 ) : Integer.MAX_VALUE;
+			int id2 = idx2 < size2 ? vector2.getVariableId( idx2 ) : Integer.MAX_VALUE;
+
+			//a variable missing from one vector has exponent 0 there
+			int exponent1 = 0;
+			int exponent2 = 0;
+			if ( id1 <= id2 ) {
+				exponent1 = vector1.getExponent( idx1++ );
+			}
+			if ( id2 <= id1 ) {
+				exponent2 = vector2.getExponent( idx2++ );
+			}
+			if ( exponent1 != exponent2 ) {
+				return exponent1 > exponent2 ? 1 : -1;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return this.m_name;
+	}
+}
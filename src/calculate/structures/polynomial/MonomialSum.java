@@ -0,0 +1,373 @@
+package calculate.structures.polynomial;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import _library.LinkedList;
+import calculate.structures.Combinable;
+
+/**
+ * a sum of <code>Monomial</code> objects, such as the numerator or denominator
+ * of a <code>PolynomialTerm</code>. like terms are stored under the same key, so
+ * adding a term that can be combined with one already in the sum takes constant time.
+ * <p>
+ * the terms are only put in proper mathematical order when something needs that
+ * order, e.g. displaying the sum or finding its leading term.
+ * <p>
+ * the terms are interned, so they may be shared with other sums.
+ */
+final class MonomialSum implements Iterable < Monomial > {
+
+	/**
+	 * map by like-term key to the term in this sum with that key
+	 */
+	final private LinkedHashMap < Object , Monomial > m_terms;
+
+	/**
+	 * the terms in proper mathematical order. <code>null</code> if the terms
+	 * have changed since they were last ordered. volatile so that an array
+	 * sorted by one thread is seen complete by others
+	 */
+	private volatile Monomial[] m_sortedTerms = null;
+
+	MonomialSum() {
+		this.m_terms = new LinkedHashMap < Object , Monomial > ();
+	}
+
+	/**
+	 * creates a sum of the given terms, combining any like terms
+	 *
+	 * @param terms				the terms to add together
+	 */
+	MonomialSum( LinkedList < Monomial > terms ) {
+		this();
+		for ( Monomial aTerm : terms.readOnlyView() ) {
+			add( aTerm );
+		}
+	}
+
+	/**
+	 * @param term				a <code>Monomial</code>
+	 * @return					a sum with just the given term in it
+	 */
+	static MonomialSum of( Monomial term ) {
+		MonomialSum rtn = new MonomialSum();
+		rtn.add( term );
+		return rtn;
+	}
+
+	/**
+	 * @param term				a <code>Monomial</code>
+	 * @return					key that is the same for two <code>Monomial</code> objects
+	 * 							if and only if they can be added together to form a <code>Monomial</code>
+	 */
+	static Object getLikeTermKey( Monomial term ) {
+
+		//packed Monomials are identified by their exponent vector
+		ExponentVector exponentVector = term.getExponentVector();
+		if ( exponentVector != null ) {
+			return exponentVector;
+		}
+
+		//otherwise, fall back to the representation of the multiplied terms
+		StringBuilder key = new StringBuilder();
+		for ( MonomialTerm aTerm : term.getMultipliedTermsView() ) {
+			key.append( aTerm.getRepresentation() ).append( ' ' );
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @param term				a <code>Monomial</code>
+	 * @return					if the term contributes nothing to a sum
+	 */
+	private static boolean isZero( Monomial term ) {
+		return term == null || term.equals( Numerical.ZERO );
+	}
+
+	/**
+	 * adds a term to this sum, combining it with a like term if there is one
+	 *
+	 * @param termToAdd			the term to add
+	 */
+	void add( Monomial termToAdd ) {
+		if ( isZero( termToAdd ) ) {
+			return;
+		}
+		Object key = getLikeTermKey( termToAdd );
+		Monomial likeTerm = this.m_terms.get( key );
+		if ( likeTerm == null ) {
+			this.m_terms.put( key , InternTable.intern( termToAdd ) );
+		} else {
+			Monomial sum = ( Monomial ) likeTerm.add( termToAdd );
+			if ( isZero( sum ) ) {
+				this.m_terms.remove( key );
+			} else {
+				this.m_terms.put( key , InternTable.intern( sum ) );
+			}
+		}
+		this.m_sortedTerms = null;
+	}
+
+	/**
+	 * subtracts a term from this sum, combining it with a like term if there is one
+	 *
+	 * @param termToSubtract	the term to subtract
+	 */
+	void subtract( Monomial termToSubtract ) {
+		if ( isZero( termToSubtract ) ) {
+			return;
+		}
+		add( termToSubtract.multiplyByNegativeOne() );
+	}
+
+	/**
+	 * adds every term of another sum to this sum
+	 *
+	 * @param augend			the sum to add
+	 */
+	void addAll( MonomialSum augend ) {
+		for ( Monomial aTerm : augend ) {
+			add( aTerm );
+		}
+	}
+
+	/**
+	 * subtracts every term of another sum from this sum
+	 *
+	 * @param subtrahend		the sum to subtract
+	 */
+	void subtractAll( MonomialSum subtrahend ) {
+		for ( Monomial aTerm : subtrahend ) {
+			subtract( aTerm );
+		}
+	}
+
+	/**
+	 * @return					the number of terms in this sum
+	 */
+	int size() {
+		return this.m_terms.size();
+	}
+
+	/**
+	 * @return					if this sum has no terms, i.e. it is zero
+	 */
+	boolean isEmpty() {
+		return this.m_terms.isEmpty();
+	}
+
+	/**
+	 * @return					a copy of this sum that may be modified independently
+	 */
+	MonomialSum copy() {
+		MonomialSum rtn = new MonomialSum();
+		rtn.m_terms.putAll( this.m_terms );
+		rtn.m_sortedTerms = this.m_sortedTerms;
+		return rtn;
+	}
+
+	/**
+	 * @return					the terms of this sum in proper mathematical order. the
+	 * 							array is shared and must not be modified
+	 */
+	Monomial[] getSortedArray() {
+		Monomial[] rtn = this.m_sortedTerms;
+		if ( rtn == null ) {
+			rtn = sortTerms( MonomialOrder.DISPLAY );
+			this.m_sortedTerms = rtn;
+		}
+		return rtn;
+	}
+
+	/**
+	 * @param order				order in which to put the terms
+	 * @return					the terms of this sum from largest to smallest in the given
+	 * 							order. the array must not be modified
+	 */
+	Monomial[] getSortedArray( MonomialOrder order ) {
+		if ( order == MonomialOrder.DISPLAY ) {
+			return getSortedArray();
+		}
+		return sortTerms( order );
+	}
+
+	/**
+	 * @return					a new list of the terms of this sum in proper mathematical order
+	 */
+	LinkedList < Monomial > getSortedTerms() {
+		return new LinkedList < Monomial > ( getSortedArray() );
+	}
+
+	/**
+	 * @return					a read-only view of the terms of this sum in proper
+	 * 							mathematical order
+	 */
+	Iterable < Monomial > getSortedView() {
+		return Collections.unmodifiableList( Arrays.asList( getSortedArray() ) );
+	}
+
+	/**
+	 * @return					the first term of this sum in proper mathematical order,
+	 * 							or <code>null</code> if there are no terms
+	 */
+	Monomial getLeadingTerm() {
+		if ( this.m_terms.isEmpty() ) {
+			return null;
+		}
+		if ( this.m_terms.size() == 1 ) {
+			return this.m_terms.values().iterator().next();
+		}
+		return getSortedArray()[ 0 ];
+	}
+
+	/**
+	 * @param order				order in which to compare the terms
+	 * @return					the largest term of this sum in the given order, or
+	 * 							<code>null</code> if there are no terms
+	 */
+	Monomial getLeadingTerm( MonomialOrder order ) {
+		if ( order == MonomialOrder.DISPLAY ) {
+			return getLeadingTerm();
+		}
+
+		//a single pass finds the largest term without sorting the rest
+		Monomial rtn = null;
+		for ( Monomial aTerm : this.m_terms.values() ) {
+			if ( rtn == null || order.compare( aTerm , rtn ) > 0 ) {
+				rtn = aTerm;
+			}
+		}
+		return rtn;
+	}
+
+	/**
+	 * @return					a new array of the terms of this sum from largest to smallest
+	 */
+	private Monomial[] sortTerms( MonomialOrder order ) {
+		Monomial[] terms = this.m_terms.values().toArray( new Monomial[ this.m_terms.size() ] );
+		sort( terms , new Monomial[ terms.length ] , 0 , terms.length , order );
+		return terms;
+	}
+
+	/**
+	 * stable merge sort of the terms from largest to smallest
+	 */
+	private static void sort( Monomial[] terms , Monomial[] buffer , int start , int end , MonomialOrder order ) {
+		if ( end - start < 2 ) {
+			return;
+		}
+		int middle = ( start + end ) >>> 1;
+		sort( terms , buffer , start , middle , order );
+		sort( terms , buffer , middle , end , order );
+
+		int left = start;
+		int right = middle;
+		for ( int idx = start ; idx < end ; idx++ ) {
+			if ( right >= end || ( left < middle && order.compare( terms[ left ] , terms[ right ] ) >= 0 ) ) {
+				buffer[ idx ] = terms[ left++ ];
+			} else {
+				buffer[ idx ] = terms[ right++ ];
+			}
+		}
+		System.arraycopy( buffer , start , terms , start , end - start );
+	}
+
+	/**
+	 * determines which of two added terms should be displayed first. in a sum of
+	 * <code>Monomial</code> objects, higher degree terms go first. terms with the same
+	 * degree go in alphabetical order of their bases, and then in decreasing order
+	 * of their exponents.
+	 *
+	 * @param term1				a term in a sum
+	 * @param term2				another term in a sum
+	 * @return					negative if term1 should come first, positive if term2 should
+	 * 							come first, and 0 if it does not matter
+	 */
+	static int compareAddedTerms( Monomial term1 , Monomial term2 ) {
+
+		//first check degree
+		ExponentVector vector1 = term1.getExponentVector();
+		ExponentVector vector2 = term2.getExponentVector();
+		if ( vector1 != null && vector2 != null ) {
+			if ( vector1.getTotalDegree() != vector2.getTotalDegree() ) {
+				return vector1.getTotalDegree() > vector2.getTotalDegree() ? -1 : 1;
+			}
+		} else {
+			int degreeComparison = term1.getDegree().compareTo( term2.getDegree() );
+			if ( degreeComparison != 0 ) {
+				return -degreeComparison;
+			}
+		}
+
+		//if degrees are same, go by alphabetical order
+		int baseComparison = term1.compareBaseRepresentation( term2 );
+		if ( baseComparison != 0 ) {
+			return baseComparison;
+		}
+
+		//if the bases are the same, the term with larger exponents goes first
+		Iterator < MonomialTerm > terms1 = term1.getMultipliedTermsView().iterator();
+		Iterator < MonomialTerm > terms2 = term2.getMultipliedTermsView().iterator();
+		while ( terms1.hasNext() && terms2.hasNext() ) {
+			Combinable exponent1 = terms1.next().getRawExponent();
+			Combinable exponent2 = terms2.next().getRawExponent();
+			if ( exponent1 instanceof Numerical && exponent2 instanceof Numerical ) {
+				int exponentComparison = exponent1.compareTo( exponent2 );
+				if ( exponentComparison != 0 ) {
+					return -exponentComparison;
+				}
+			}
+		}
+
+		//if one term runs out of bases, the term with more bases goes first
+		return term2.countNumTerms() - term1.countNumTerms();
+	}
+
+	/**
+	 * iterates through the terms of this sum in no particular order.
+	 * this does not move the cursor of any list
+	 */
+	@Override
+	public Iterator < Monomial > iterator() {
+		return this.m_terms.values().iterator();
+	}
+
+	@Override
+	public boolean equals( Object toCompare ) {
+		if ( this == toCompare ) {
+			return true;
+		}
+		if ( toCompare instanceof MonomialSum ) {
+			MonomialSum sumToCompare = ( MonomialSum ) toCompare;
+			if ( this.m_terms.size() != sumToCompare.m_terms.size() ) {
+				return false;
+			}
+
+			//every term must have an equal like term in the other sum
+			for ( Map.Entry < Object , Monomial > anEntry : this.m_terms.entrySet() ) {
+				Monomial likeTerm = sumToCompare.m_terms.get( anEntry.getKey() );
+				if ( likeTerm == null || !anEntry.getValue().equals( likeTerm ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * the sum of the hash codes of the terms, so that it does not depend on their order
+	 */
+	@Override
+	public int hashCode() {
+		int rtn = 0;
+		for ( Monomial aTerm : this.m_terms.values() ) {
+			rtn += aTerm.hashCode();
+		}
+		return rtn;
+	}
+}
@@ -17,8 +17,8 @@ import calculate.structures.Combinable;
 public class MonomialTerm extends Monomial {
 
 	
-	private Variable m_base;
-	private Combinable m_exponent;
+	final private Variable m_base;
+	final private Combinable m_exponent;
 	
 	/**
      * <code>MonomialTerm</code> constructor for a <code>Numerical</code>
@@ -44,7 +44,7 @@ public class MonomialTerm extends Monomial {
 		super( environment , Numerical.ONE );
 		this.m_base = ( Variable ) this;
 		this.m_exponent = exponent;
-		determineRepresentation();
+		invalidateRepresentation();
 	}
 	
 	/**
@@ -58,7 +58,7 @@ public class MonomialTerm extends Monomial {
 		super( environment , Numerical.ONE );
 		this.m_base = base;
 		this.m_exponent = exponent;
-		determineRepresentation();
+		invalidateRepresentation();
 	}
 	
 	/**
@@ -66,35 +66,30 @@ public class MonomialTerm extends Monomial {
 	 * 					this <code>MonomialTerm</code>
 	 */
 	public Variable getBase() {
-		if ( this.m_base == null ) {
-			return null;
-		}
-		return this.m_base.clone();
+		
+		//MonomialTerms are never modified, so the base can be shared
+		return this.m_base;
 	}
 	
 	/**
-	 * sets the base to a new base
-	 * 
-	 * @param newBase	the new base for this <code>MonomialTerm</code>
+	 * @return			the base of this <code>MonomialTerm</code> without copying it
 	 */
-	public void setBase( Variable newBase ) {
-		this.m_base = newBase;
+	Variable getRawBase() {
+		return this.m_base;
 	}
 	
 	/**
 	 * @return			the exponent part of this <code>MonomialTerm</code>
 	 */
 	public Combinable getMonomialTermExponent() {
-		return this.m_exponent.clone();
+		return this.m_exponent;
 	}
 	
 	/**
-	 * sets the exponent to a new value
-	 * 
-	 * @param newExponent		the new exponent for this <code>MonomialTerm</code>
+	 * @return			the exponent of this <code>MonomialTerm</code> without copying it
 	 */
-	public void setExponent( Combinable newExponent ) {
-		this.m_exponent = newExponent;
+	Combinable getRawExponent() {
+		return this.m_exponent;
 	}
 	
 	/**
@@ -137,11 +132,31 @@ public class MonomialTerm extends Monomial {
 	}
 	
 	/**
-	 * determines the representation of this <code>MonomialTerm</code> and
-	 * updates it
+	 * determines the representation of this <code>MonomialTerm</code>
 	 */
-	private void determineRepresentation() {
-		String representation = "";
+	@Override
+	protected String determineRepresentation() {
+		StringBuilder representation = new StringBuilder();
+		buildRepresentation( representation );
+		return representation.toString();
+	}
+	
+	@Override
+	protected void appendRepresentation( StringBuilder representation ) {
+		if ( isRepresentationDetermined() ) {
+			representation.append( getRepresentation() );
+		} else {
+			buildRepresentation( representation );
+		}
+	}
+	
+	/**
+	 * writes the representation of this <code>MonomialTerm</code> into a representation
+	 * that is being built
+	 * 
+	 * @param representation		the representation being built
+	 */
+	private void buildRepresentation( StringBuilder representation ) {
 		
 		//if the exponent is zero, then there is no need to add this term at all
 		if ( this.m_exponent.equals( Numerical.ZERO ) ) {
@@ -150,23 +165,42 @@ public class MonomialTerm extends Monomial {
 			
 		//if the exponent is one, then just add the base
 		} else if ( this.m_exponent.equals( Numerical.ONE ) ) {
-			representation += this.m_base.getRepresentation();
+			this.m_base.appendRepresentation( representation );
 			
 		//if the exponent is not zero or one, then add the base and the exponent
 		} else {
 			
-			representation += this.m_base.getRepresentation();
+			//negative and fractional bases need parentheses so that the
+			//exponent applies to the whole number
+			if ( isBaseParenthesized() ) {
+				representation.append( OpenParenthesis.REPRESENTATION );
+				this.m_base.appendRepresentation( representation );
+				representation.append( CloseParenthesis.REPRESENTATION );
+			} else {
+				this.m_base.appendRepresentation( representation );
+			}
 			//if the exponent has only one term, then no parentheses are required
 			if ( this.m_exponent.countNumTerms() == 1 ) {
-				representation += ExponentiateOperator.REPRESENTATION + this.m_exponent;
+				representation.append( ExponentiateOperator.REPRESENTATION ).append( this.m_exponent.getRepresentation() );
 				
 			//if the exponent has more than 1 term, then parentheses are needed
 			} else {
-				representation += ExponentiateOperator.REPRESENTATION + OpenParenthesis.REPRESENTATION +
-						this.m_exponent.getRepresentation() + CloseParenthesis.REPRESENTATION;
+				representation.append( ExponentiateOperator.REPRESENTATION ).append( OpenParenthesis.REPRESENTATION )
+						.append( this.m_exponent.getRepresentation() ).append( CloseParenthesis.REPRESENTATION );
 			}
 		}
-		setRepresentation( representation );
+	}
+	
+	/**
+	 * @return			if the base is a number that must be parenthesized before
+	 * 					an exponent, i.e. a negative number or one that is not an integer
+	 */
+	private boolean isBaseParenthesized() {
+		if ( this.m_base instanceof Numerical ) {
+			Numerical numericalBase = ( Numerical ) this.m_base;
+			return numericalBase.compareTo( Numerical.ZERO ) < 0 || !numericalBase.isInteger();
+		}
+		return false;
 	}
 	
 	@Override
@@ -231,6 +265,9 @@ public class MonomialTerm extends Monomial {
 	public String toLatexString() {
 		String rtn = getBase().toLatexString();
 		if ( !getMonomialTermExponent().equals( Numerical.ONE ) ) {
+			if ( isBaseParenthesized() ) {
+				rtn = OpenParenthesis.LATEX_REPRESENTATION + rtn + CloseParenthesis.LATEX_REPRESENTATION;
+			}
 			rtn += "^{" + getMonomialTermExponent().toLatexString() + "}";
 		}
 		return rtn;
@@ -0,0 +1,483 @@
+package calculate.structures.polynomial;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import calculate.structures.Combinable;
+
+/**
+ * a result of a calculation compiled for evaluating with <code>double</code>
+ * arithmetic at many points. compiling goes through the exact form once: every
+ * coefficient and constant becomes a <code>double</code>, and every sum of packed
+ * <code>Monomial</code> objects is rearranged into Horner form, e.g.
+ * <p>
+ * <pre>     3x^4y+2x^4+5x^2y^3-7 = ((3y+2)x^2+5y^3)x^2-7</pre>
+ * <p>
+ * so that each variable is raised only to the gaps between its exponents.
+ * evaluating then only walks a small tree of final objects with primitive
+ * fields, which the JIT compiles into straight-line arithmetic.
+ * <p>
+ * variables are bound by position: the value of the i-th variable given to
+ * <code>compile</code> is at index i of the array given to <code>evaluate</code>.
+ * constants are replaced by their values. <code>NumericEvaluator</code>
+ * objects are immutable and may be used from multiple threads at once.
+ */
+final public class NumericEvaluator {
+
+	final private Node m_root;
+	final private String[] m_variables;
+
+	private NumericEvaluator( Node root , String[] variables ) {
+		this.m_root = root;
+		this.m_variables = variables;
+	}
+
+	/**
+	 * @param expression		a simplified result, such as the result of an <code>Expression</code>
+	 * @param variables			names of the variables, in the order in which their values
+	 * 							will be given
+	 * @return					the compiled expression
+	 * @throws IllegalArgumentException		if the expression has a variable that is not
+	 * 							listed, or a part that cannot be evaluated numerically
+	 */
+	public static NumericEvaluator compile( Combinable expression , String... variables ) {
+		HashMap < String , Integer > indices = new HashMap < String , Integer > ();
+		for ( int idx = 0 ; idx < variables.length ; idx++ ) {
+			indices.put( variables[ idx ] , idx );
+		}
+		return new NumericEvaluator( new Compiler( indices ).compile( expression ) , variables.clone() );
+	}
+
+	/**
+	 * @param values			value of each variable, in the order given to <code>compile</code>
+	 * @return					the value of the expression
+	 */
+	public double evaluate( double[] values ) {
+		if ( values.length < this.m_variables.length ) {
+			throw new IllegalArgumentException( "expected " + this.m_variables.length + " values but got " + values.length );
+		}
+		return this.m_root.evaluate( values );
+	}
+
+	/**
+	 * @return					names of the variables, in the order in which their values are given
+	 */
+	public String[] getVariables() {
+		return this.m_variables.clone();
+	}
+
+	/**
+	 * x^n by repeated squaring
+	 */
+	static double power( double x , int n ) {
+		if ( n < 0 ) {
+			return 1 / power( x , -n );
+		}
+		double rtn = 1;
+		while ( n > 0 ) {
+			if ( ( n & 1 ) != 0 ) {
+				rtn *= x;
+			}
+			x *= x;
+			n >>= 1;
+		}
+		return rtn;
+	}
+
+	/**
+	 * part of a compiled expression
+	 */
+	private static abstract class Node {
+		abstract double evaluate( double[] values );
+	}
+
+	final private static class Value extends Node {
+
+		final private double m_value;
+
+		Value( double value ) {
+			this.m_value = value;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			return this.m_value;
+		}
+	}
+
+	/**
+	 * a polynomial in Horner form with respect to one variable, whose
+	 * coefficients are polynomials in later variables
+	 */
+	final private static class Horner extends Node {
+
+		/**
+		 * index of the variable's value
+		 */
+		final private int m_variable;
+
+		/**
+		 * exponents of the variable, from highest to lowest
+		 */
+		final private int[] m_exponents;
+
+		/**
+		 * coefficient of each exponent
+		 */
+		final private Node[] m_coefficients;
+
+		Horner( int variable , int[] exponents , Node[] coefficients ) {
+			this.m_variable = variable;
+			this.m_exponents = exponents;
+			this.m_coefficients = coefficients;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			double x = values[ this.m_variable ];
+			int[] exponents = this.m_exponents;
+			double rtn = this.m_coefficients[ 0 ].evaluate( values );
+			for ( int idx = 1 ; idx < exponents.length ; idx++ ) {
+				int gap = exponents[ idx - 1 ] - exponents[ idx ];
+				rtn = rtn * ( gap == 1 ? x : power( x , gap ) ) + this.m_coefficients[ idx ].evaluate( values );
+			}
+			int lowest = exponents[ exponents.length - 1 ];
+			return lowest == 0 ? rtn : rtn * power( x , lowest );
+		}
+	}
+
+	/**
+	 * a polynomial in Horner form with respect to one variable, whose
+	 * coefficients are numbers
+	 */
+	final private static class NumericalHorner extends Node {
+
+		final private int m_variable;
+		final private int[] m_exponents;
+		final private double[] m_coefficients;
+
+		NumericalHorner( int variable , int[] exponents , double[] coefficients ) {
+			this.m_variable = variable;
+			this.m_exponents = exponents;
+			this.m_coefficients = coefficients;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			double x = values[ this.m_variable ];
+			int[] exponents = this.m_exponents;
+			double[] coefficients = this.m_coefficients;
+			double rtn = coefficients[ 0 ];
+			for ( int idx = 1 ; idx < exponents.length ; idx++ ) {
+				int gap = exponents[ idx - 1 ] - exponents[ idx ];
+				rtn = rtn * ( gap == 1 ? x : power( x , gap ) ) + coefficients[ idx ];
+			}
+			int lowest = exponents[ exponents.length - 1 ];
+			return lowest == 0 ? rtn : rtn * power( x , lowest );
+		}
+	}
+
+	final private static class Sum extends Node {
+
+		final private Node[] m_terms;
+
+		Sum( Node[] terms ) {
+			this.m_terms = terms;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			double rtn = 0;
+			for ( Node aTerm : this.m_terms ) {
+				rtn += aTerm.evaluate( values );
+			}
+			return rtn;
+		}
+	}
+
+	final private static class Product extends Node {
+
+		final private double m_coefficient;
+		final private Node[] m_factors;
+
+		Product( double coefficient , Node[] factors ) {
+			this.m_coefficient = coefficient;
+			this.m_factors = factors;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			double rtn = this.m_coefficient;
+			for ( Node aFactor : this.m_factors ) {
+				rtn *= aFactor.evaluate( values );
+			}
+			return rtn;
+		}
+	}
+
+	final private static class Quotient extends Node {
+
+		final private Node m_numerator;
+		final private Node m_denominator;
+
+		Quotient( Node numerator , Node denominator ) {
+			this.m_numerator = numerator;
+			this.m_denominator = denominator;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			return this.m_numerator.evaluate( values ) / this.m_denominator.evaluate( values );
+		}
+	}
+
+	final private static class IntegerPower extends Node {
+
+		final private Node m_base;
+		final private int m_exponent;
+
+		IntegerPower( Node base , int exponent ) {
+			this.m_base = base;
+			this.m_exponent = exponent;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			return power( this.m_base.evaluate( values ) , this.m_exponent );
+		}
+	}
+
+	final private static class Power extends Node {
+
+		final private Node m_base;
+		final private Node m_exponent;
+
+		Power( Node base , Node exponent ) {
+			this.m_base = base;
+			this.m_exponent = exponent;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			return Math.pow( this.m_base.evaluate( values ) , this.m_exponent.evaluate( values ) );
+		}
+	}
+
+	final private static class VariableValue extends Node {
+
+		final private int m_variable;
+
+		VariableValue( int variable ) {
+			this.m_variable = variable;
+		}
+
+		@Override
+		double evaluate( double[] values ) {
+			return values[ this.m_variable ];
+		}
+	}
+
+	/**
+	 * turns the exact structures into nodes
+	 */
+	final private static class Compiler {
+
+		final private Map < String , Integer > m_indices;
+
+		Compiler( Map < String , Integer > indices ) {
+			this.m_indices = indices;
+		}
+
+		Node compile( Combinable expression ) {
+			if ( expression instanceof Numerical ) {
+				return new Value( valueOf( ( Numerical ) expression ) );
+			} else if ( expression instanceof Constant ) {
+				return new Value( valueOf( ( Constant ) expression ) );
+			} else if ( expression instanceof Variable ) {
+				return new VariableValue( indexOf( ( Variable ) expression ) );
+			} else if ( expression instanceof MonomialTerm ) {
+				MonomialTerm term = ( MonomialTerm ) expression;
+				return power( compile( term.getRawBase() ) , term.getRawExponent() );
+			} else if ( expression instanceof PolynomialTerm ) {
+				PolynomialTerm term = ( PolynomialTerm ) expression;
+				Node rtn = compileSum( term.getNumeratorSum() );
+				MonomialSum denominator = term.getDenominatorSum();
+				if ( !( denominator.size() == 1 && denominator.getLeadingTerm().equals( Numerical.ONE ) ) ) {
+					rtn = new Quotient( rtn , compileSum( denominator ) );
+				}
+				return power( rtn , term.getPolynomialTermExponent() );
+			} else if ( expression instanceof Polynomial ) {
+				Polynomial product = ( Polynomial ) expression;
+				ArrayList < Node > factors = new ArrayList < Node > ();
+				for ( PolynomialTerm aFactor : product.getPolynomialMultipliedTerms() ) {
+					factors.add( compile( aFactor ) );
+				}
+				double coefficient = product.getCoefficient() == null ? 1 : valueOf( product.getCoefficient() );
+				return new Product( coefficient , factors.toArray( new Node[ factors.size() ] ) );
+			}
+			throw new IllegalArgumentException( "cannot evaluate " + expression.getRepresentation() + " numerically" );
+		}
+
+		/**
+		 * @return					the base raised to the exponent
+		 */
+		private Node power( Node base , Combinable exponent ) {
+			if ( exponent == null || exponent.equals( Numerical.ONE ) ) {
+				return base;
+			}
+			if ( exponent instanceof Fraction && ( ( Fraction ) exponent ).isSmallInteger() ) {
+				return new IntegerPower( base , ( ( Fraction ) exponent ).intValue() );
+			}
+			return new Power( base , compile( exponent ) );
+		}
+
+		/**
+		 * packed terms are collected into a polynomial in Horner form. other terms are
+		 * compiled one at a time and added on
+		 */
+		private Node compileSum( MonomialSum sum ) {
+			int numVariables = this.m_indices.size();
+			ArrayList < int[] > exponents = new ArrayList < int[] > ();
+			ArrayList < Double > coefficients = new ArrayList < Double > ();
+			ArrayList < Node > otherTerms = new ArrayList < Node > ();
+			for ( Monomial aTerm : sum ) {
+				ExponentVector vector = aTerm.getExponentVector();
+				if ( vector == null ) {
+					otherTerms.add( compileTerm( aTerm ) );
+					continue;
+				}
+				int[] termExponents = new int[ numVariables ];
+				double coefficient = valueOf( aTerm.getCoefficient() );
+				for ( int idx = 0 ; idx < vector.size() ; idx++ ) {
+					Variable base = vector.getBase( idx );
+					if ( base instanceof Constant ) {
+						coefficient *= NumericEvaluator.power( valueOf( ( Constant ) base ) , vector.getExponent( idx ) );
+					} else {
+						termExponents[ indexOf( base ) ] += vector.getExponent( idx );
+					}
+				}
+				exponents.add( termExponents );
+				coefficients.add( coefficient );
+			}
+			if ( !exponents.isEmpty() ) {
+				double[] values = new double[ coefficients.size() ];
+				for ( int idx = 0 ; idx < values.length ; idx++ ) {
+					values[ idx ] = coefficients.get( idx );
+				}
+				otherTerms.add( 0 , horner( exponents , values , 0 ) );
+			}
+			if ( otherTerms.size() == 1 ) {
+				return otherTerms.get( 0 );
+			} else if ( otherTerms.isEmpty() ) {
+				return new Value( 0 );
+			}
+			return new Sum( otherTerms.toArray( new Node[ otherTerms.size() ] ) );
+		}
+
+		/**
+		 * @param exponents			exponents of each term, indexed by variable
+		 * @param coefficients		coefficient of each term
+		 * @param variable			first variable whose exponents may be nonzero
+		 * @return					the sum of the terms in Horner form, taking the variables in order
+		 */
+		private Node horner( ArrayList < int[] > exponents , double[] coefficients , int variable ) {
+
+			//skip variables that no term has
+			int numVariables = this.m_indices.size();
+			while ( variable < numVariables && !hasVariable( exponents , variable ) ) {
+				variable++;
+			}
+			if ( variable == numVariables ) {
+				double rtn = 0;
+				for ( double aCoefficient : coefficients ) {
+					rtn += aCoefficient;
+				}
+				return new Value( rtn );
+			}
+
+			//group the terms by the exponent of this variable, highest first
+			TreeMap < Integer , ArrayList < Integer > > groups = new TreeMap < Integer , ArrayList < Integer > > ();
+			for ( int termIdx = 0 ; termIdx < exponents.size() ; termIdx++ ) {
+				int exponent = -exponents.get( termIdx )[ variable ];
+				ArrayList < Integer > group = groups.get( exponent );
+				if ( group == null ) {
+					group = new ArrayList < Integer > ();
+					groups.put( exponent , group );
+				}
+				group.add( termIdx );
+			}
+			int[] groupExponents = new int[ groups.size() ];
+			Node[] groupCoefficients = new Node[ groups.size() ];
+			boolean allNumbers = true;
+			int groupIdx = 0;
+			for ( Map.Entry < Integer , ArrayList < Integer > > entry : groups.entrySet() ) {
+				ArrayList < int[] > groupTerms = new ArrayList < int[] > ();
+				double[] groupValues = new double[ entry.getValue().size() ];
+				for ( int idx = 0 ; idx < groupValues.length ; idx++ ) {
+					groupTerms.add( exponents.get( entry.getValue().get( idx ) ) );
+					groupValues[ idx ] = coefficients[ entry.getValue().get( idx ) ];
+				}
+				groupExponents[ groupIdx ] = -entry.getKey();
+				groupCoefficients[ groupIdx ] = horner( groupTerms , groupValues , variable + 1 );
+				allNumbers &= groupCoefficients[ groupIdx ] instanceof Value;
+				groupIdx++;
+			}
+			if ( allNumbers ) {
+				double[] numbers = new double[ groupCoefficients.length ];
+				for ( int idx = 0 ; idx < numbers.length ; idx++ ) {
+					numbers[ idx ] = ( ( Value ) groupCoefficients[ idx ] ).m_value;
+				}
+				return new NumericalHorner( variable , groupExponents , numbers );
+			}
+			return new Horner( variable , groupExponents , groupCoefficients );
+		}
+
+		private static boolean hasVariable( ArrayList < int[] > exponents , int variable ) {
+			for ( int[] termExponents : exponents ) {
+				if ( termExponents[ variable ] != 0 ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return					a term that cannot be packed, as a product of powers
+		 */
+		private Node compileTerm( Monomial term ) {
+			ArrayList < Node > factors = new ArrayList < Node > ();
+			for ( MonomialTerm aFactor : term.getMultipliedTermsView() ) {
+				factors.add( power( compile( aFactor.getRawBase() ) , aFactor.getRawExponent() ) );
+			}
+			return new Product( valueOf( term.getCoefficient() ) , factors.toArray( new Node[ factors.size() ] ) );
+		}
+
+		private int indexOf( Variable variable ) {
+			Integer rtn = this.m_indices.get( variable.getRepresentation() );
+			if ( rtn == null ) {
+				throw new IllegalArgumentException( "no value given for " + variable.getRepresentation() );
+			}
+			return rtn;
+		}
+
+		private static double valueOf( Numerical number ) {
+			if ( number instanceof Fraction ) {
+				return ( ( Fraction ) number ).doubleValue();
+			}
+			return number.getNumericalValue().doubleValue();
+		}
+
+		private double valueOf( Constant constant ) {
+			if ( constant instanceof Numerical ) {
+				return valueOf( ( Numerical ) constant );
+			}
+			Combinable value = constant.getValue();
+			if ( value instanceof Numerical ) {
+				return valueOf( ( Numerical ) value );
+			}
+			throw new IllegalArgumentException( "constant " + constant.getRepresentation() + " has no numerical value" );
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package calculate.structures.polynomial;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
 
 import calculate.Calculator;
@@ -18,7 +19,18 @@ public class Numerical extends Constant {
 	public Numerical( Calculator environment , BigDecimal value ) {
 		super ( environment , value.toString() );
 		this.m_value = value;
-		this.setDenominatorAndExponentAsOne();
+	}
+	
+	/**
+	 * creates a <code>Numerical</code> whose decimal value is only calculated
+	 * when it is needed. subclasses using this constructor must override
+	 * {@link #getNumericalValue()} and set their own representation
+	 * 
+	 * @param environment
+	 */
+	protected Numerical( Calculator environment ) {
+		super ( environment , "" );
+		this.m_value = null;
 	}
 	
 	public static Fraction ONE( Calculator environment ) {
@@ -59,7 +71,7 @@ public class Numerical extends Constant {
 			
 			//add the numerical value
 			Numerical numericalAugend = ( Numerical ) augend;
-			BigDecimal newValue = this.m_value.add( numericalAugend.getNumericalValue() );
+			BigDecimal newValue = this.getNumericalValue().add( numericalAugend.getNumericalValue() );
 			return new Numerical( getEnvironment() , newValue );
 		} else {
 			return super.add( augend );
@@ -74,7 +86,7 @@ public class Numerical extends Constant {
 			
 			//subtract the numerical value
 			Numerical numericalSubtrahend = ( Numerical ) subtrahend;
-			BigDecimal newValue = this.m_value.subtract( numericalSubtrahend.getNumericalValue() );
+			BigDecimal newValue = this.getNumericalValue().subtract( numericalSubtrahend.getNumericalValue() );
 			return new Numerical( getEnvironment() , newValue );
 		} else { 
 			return super.subtract( subtrahend );
@@ -89,7 +101,7 @@ public class Numerical extends Constant {
 			
 			//multiply the numerical values
 			Numerical numericalMultiplicand = ( Numerical ) multiplicand;
-			BigDecimal newValue = this.m_value.multiply( numericalMultiplicand.getNumericalValue() );
+			BigDecimal newValue = this.getNumericalValue().multiply( numericalMultiplicand.getNumericalValue() );
 			return new Numerical( getEnvironment() , newValue );
 		} else {
 			return super.multiply( multiplicand );
@@ -106,14 +118,14 @@ public class Numerical extends Constant {
 			Numerical numericalDividend = ( Numerical ) dividend;
 			BigDecimal newValue;
 			try {
-				newValue = this.m_value.divide( numericalDividend.getNumericalValue() );
+				newValue = this.getNumericalValue().divide( numericalDividend.getNumericalValue() );
 			} catch ( ArithmeticException nonTerminating ) {
 				Calculator divisionEnvironment = getEnvironment();
 				if ( divisionEnvironment == null ) {
 					divisionEnvironment = dividend.getEnvironment();
 				}
 				int scale = divisionEnvironment.getScale();
-				newValue = this.m_value.divide( numericalDividend.getNumericalValue(), scale , RoundingMode.HALF_UP );
+				newValue = this.getNumericalValue().divide( numericalDividend.getNumericalValue(), scale , RoundingMode.HALF_UP );
 			}
 			return new Numerical( getEnvironment() , newValue );
 		} else {
@@ -128,7 +140,7 @@ public class Numerical extends Constant {
 	 * @return						the quotient truncated, e.g. 5/4 yields 1 and 3/4 yields 0
 	 */
 	public Numerical truncationDivide( Numerical dividend ) {
-		BigDecimal truncatedQuotient = this.m_value.divideAndRemainder( dividend.getNumericalValue() )[ 0 ];
+		BigDecimal truncatedQuotient = this.getNumericalValue().divideAndRemainder( dividend.getNumericalValue() )[ 0 ];
 		return new Numerical( getEnvironment() , truncatedQuotient );
 	}
 	
@@ -137,11 +149,10 @@ public class Numerical extends Constant {
 		
 		//only deal with numerical exponentiation
 		if ( exponent instanceof Numerical ) {
-			Numerical numericalExponent = ( Numerical ) exponent;
-			double thisDoubleValue = this.m_value.doubleValue();
-			double exponentDoubleValue = numericalExponent.getNumericalValue().doubleValue();
-			double exponentiateResult = Math.pow( thisDoubleValue , exponentDoubleValue );
-			return new Numerical( getEnvironment() , new BigDecimal( exponentiateResult ) );
+			
+			//decimals are exact fractions, so the power can be calculated exactly
+			Fraction thisFraction = new Fraction( getEnvironment() , this.getNumericalValue() , BigDecimal.ONE );
+			return thisFraction.exponentiate( exponent );
 		} else {
 			return super.exponentiate( exponent );
 		}
@@ -167,7 +178,7 @@ public class Numerical extends Constant {
 	 * @return				if this <code>Numerical</code> is an integer
 	 */
 	public boolean isInteger() {
-		return this.m_value.intValue() == this.m_value.doubleValue();
+		return this.getNumericalValue().intValue() == this.getNumericalValue().doubleValue();
 	}
 	
 	@Override
@@ -176,16 +187,35 @@ public class Numerical extends Constant {
 			return this.getValue().equals( BigDecimal.ZERO );
 		}
 		if ( toCompare instanceof Numerical ) {
-			return ( ( Numerical ) toCompare ).getNumericalValue().equals( this.m_value );
+			return ( ( Numerical ) toCompare ).getNumericalValue().equals( this.getNumericalValue() );
 		} else {
 			return super.equals( toCompare );
 		}
 	}
 	
+	@Override
+	public int hashCode() {
+		
+		//hash by exact value so that equal Fraction objects have the same hash code.
+		//the value is unscaled * 10^-scale, which is reduced the way a Fraction reduces it
+		BigDecimal value = this.getNumericalValue();
+		BigInteger numerator = value.unscaledValue();
+		BigInteger denominator = BigInteger.ONE;
+		if ( value.scale() < 0 ) {
+			numerator = numerator.multiply( BigInteger.TEN.pow( -value.scale() ) );
+		} else if ( value.scale() > 0 ) {
+			denominator = BigInteger.TEN.pow( value.scale() );
+			BigInteger gcd = numerator.gcd( denominator );
+			numerator = numerator.divide( gcd );
+			denominator = denominator.divide( gcd );
+		}
+		return Fraction.hashCode( numerator , denominator );
+	}
+	
 	@Override
 	public int compareTo( Combinable toCompare ) {
 		if ( toCompare instanceof Numerical ) {
-			return this.m_value.compareTo( ( ( Numerical ) toCompare).getNumericalValue() );
+			return this.getNumericalValue().compareTo( ( ( Numerical ) toCompare).getNumericalValue() );
 		} else {
 			return super.compareTo( toCompare );
 		}
@@ -193,7 +223,7 @@ public class Numerical extends Constant {
 	
 	@Override
 	public Numerical copy( int indexInInput ) {
-		Numerical rtn = new Numerical( getEnvironment() , this.m_value );
+		Numerical rtn = new Numerical( getEnvironment() , this.getNumericalValue() );
 		rtn.setIndexInInput( indexInInput );
 		return rtn;
 	}
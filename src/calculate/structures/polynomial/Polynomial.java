@@ -15,9 +15,12 @@ import calculate.structures.Combinable;
 public class Polynomial extends Combinable {
 	
 	/**
-	 * the terms in this <code>Polynomial</code> that are multiplied together
+	 * the terms in this <code>Polynomial</code> that are multiplied together.
+	 * <code>null</code> until it is needed if this is a <code>PolynomialTerm</code>,
+	 * whose only multiplied term is itself. volatile so that a list created by
+	 * one thread is seen complete by others
 	 */
-	private LinkedList< PolynomialTerm > m_terms = new LinkedList< PolynomialTerm > ();
+	private volatile LinkedList< PolynomialTerm > m_terms = null;
 	
 	/**
 	 * the numerical coefficient of this <code>Polynomial</code>
@@ -30,8 +33,6 @@ public class Polynomial extends Combinable {
 	 */
 	public Polynomial( Calculator environment ) {
 		super( environment );
-		this.m_terms.add( ( PolynomialTerm ) this );
-		
 	}
 	
 	/**
@@ -42,7 +43,6 @@ public class Polynomial extends Combinable {
 	 */
 	public Polynomial( Calculator environment , String representation ) {
 		super( representation , environment );
-		this.m_terms.add( ( PolynomialTerm ) this );
 	}
 	
 	public Polynomial( Calculator environment , LinkedList < PolynomialTerm > multipliedTerms , Numerical coefficient) {
@@ -53,9 +53,9 @@ public class Polynomial extends Combinable {
 	
 	public Polynomial( Calculator environment , PolynomialTerm term1 , PolynomialTerm term2 ) {
 		super( environment );
-		if ( term1.getNumerator().equals( term2.getNumerator() ) && term1.getDenominator().equals( term2.getDenominator() ) ) {
-			PolynomialTerm termToAdd = term1.clone();
-			termToAdd.setPolynomialTermExponent( termToAdd.getPolynomialTermExponent().add( term2.getPolynomialTermExponent() ) );
+		this.m_terms = new LinkedList< PolynomialTerm > ();
+		if ( term1.getNumeratorSum().equals( term2.getNumeratorSum() ) && term1.getDenominatorSum().equals( term2.getDenominatorSum() ) ) {
+			PolynomialTerm termToAdd = term1.withPolynomialTermExponent( term1.getPolynomialTermExponent().add( term2.getPolynomialTermExponent() ) );
 			insertMultipliedTerm( this.m_terms , termToAdd );
 			this.m_coefficient = Numerical.ONE;
 		} else {
@@ -65,24 +65,34 @@ public class Polynomial extends Combinable {
 		}
 	}
 	
-	private void determineRepresentation() {
-		//TODO
-	}
-	
 	private static void insertMultipliedTerm( LinkedList < PolynomialTerm > terms , PolynomialTerm termToInsert ) {
 		terms.add( termToInsert );
 	}
 	
-	public LinkedList< PolynomialTerm > getPolynomialMultipliedTerms() {
-		return this.m_terms;
+	/**
+	 * @return			the terms in this <code>Polynomial</code> that are multiplied together.
+	 * 					the list is shared and must not be modified
+	 */
+	private LinkedList< PolynomialTerm > getTermList() {
+		LinkedList< PolynomialTerm > rtn = this.m_terms;
+		if ( rtn == null ) {
+			rtn = new LinkedList< PolynomialTerm > ();
+			rtn.add( ( PolynomialTerm ) this );
+			this.m_terms = rtn;
+		}
+		return rtn;
 	}
 	
-	public Numerical getCoefficient() {
-		return this.m_coefficient.clone();
+	/**
+	 * @return			a read-only view of the terms in this <code>Polynomial</code>
+	 * 					that are multiplied together
+	 */
+	public Iterable< PolynomialTerm > getPolynomialMultipliedTerms() {
+		return getTermList().readOnlyView();
 	}
 	
-	public void setCoefficient( Numerical newCoefficient ) {
-		this.m_coefficient = newCoefficient;
+	public Numerical getCoefficient() {
+		return this.m_coefficient;
 	}
 	
 	/**
@@ -91,7 +101,7 @@ public class Polynomial extends Combinable {
 	 */
 	public Combinable getDegree() {
 		Combinable rtn = Numerical.ZERO;
-		for ( PolynomialTerm aTerm : this.m_terms ) {
+		for ( PolynomialTerm aTerm : this.getPolynomialMultipliedTerms() ) {
 			rtn = rtn.add( aTerm.getDegree() );
 		}
 		return rtn;
@@ -104,8 +114,8 @@ public class Polynomial extends Combinable {
 			
 			Polynomial polynomialMultiplicand = ( Polynomial ) multiplicand;
 
-			LinkedList < PolynomialTerm > thisMultipliedTerms = this.getPolynomialMultipliedTerms();
-			LinkedList < PolynomialTerm > multiplicandMultipliedTerms = polynomialMultiplicand.getPolynomialMultipliedTerms();
+			LinkedList < PolynomialTerm > thisMultipliedTerms = this.getTermList().clone();
+			Iterable < PolynomialTerm > multiplicandMultipliedTerms = polynomialMultiplicand.getPolynomialMultipliedTerms();
 			LinkedList < PolynomialTerm > resultingMultipliedTerms = new LinkedList < PolynomialTerm > ();
 			
 			//go through all the terms in the multiplicand
@@ -118,12 +128,11 @@ public class Polynomial extends Combinable {
 					//if a term in this Polynomial and a term in the multiplicand
 					//have the same numerator and denominator
 					//we can just multiply them together by adding exponents
-					if ( multiplicandTerm.getNumerator().equals( thisTerm.getNumerator() ) &&
-							multiplicandTerm.getDenominator().equals( thisTerm.getDenominator() ) ) {
+					if ( multiplicandTerm.getNumeratorSum().equals( thisTerm.getNumeratorSum() ) &&
+							multiplicandTerm.getDenominatorSum().equals( thisTerm.getDenominatorSum() ) ) {
 						
-						//modify the exponent
-						PolynomialTerm product = thisTerm.clone();
-						product.setPolynomialTermExponent( product.getPolynomialTermExponent().add( multiplicandTerm.getPolynomialTermExponent() ) );
+						//add the exponents
+						PolynomialTerm product = thisTerm.withPolynomialTermExponent( thisTerm.getPolynomialTermExponent().add( multiplicandTerm.getPolynomialTermExponent() ) );
 						
 						//add the term to the list of multiplied terms
 						insertMultipliedTerm( resultingMultipliedTerms , product );
@@ -155,9 +164,7 @@ public class Polynomial extends Combinable {
 	}
 
 	public Polynomial multiplyByNegativeOne() {
-		Polynomial rtn = this.clone();
-		rtn.setCoefficient( ( Numerical ) this.getCoefficient().multiplyByNegativeOne() );
-		return rtn;
+		return new Polynomial( getEnvironment() , this.getTermList() , ( Numerical ) this.getCoefficient().multiplyByNegativeOne() );
 	}
 	
 	@Override
@@ -170,13 +177,11 @@ public class Polynomial extends Combinable {
 		
 		if ( exponent instanceof Polynomial ) {
 			Polynomial polynomialExponent = ( Polynomial ) exponent;
-			LinkedList < PolynomialTerm > thisTerms = this.m_terms.clone();
-			LinkedList < PolynomialTerm > resultingMultipliedTerms = this.m_terms.clone();
+			LinkedList < PolynomialTerm > resultingMultipliedTerms = new LinkedList < PolynomialTerm > ();
 			
 			//exponentiate the terms
-			for ( PolynomialTerm aTerm : thisTerms ) {
-				aTerm.setPolynomialTermExponent( aTerm.getPolynomialTermExponent().multiply( polynomialExponent ) );
-				thisTerms.replace( aTerm );
+			for ( PolynomialTerm aTerm : this.getPolynomialMultipliedTerms() ) {
+				insertMultipliedTerm( resultingMultipliedTerms , aTerm.withPolynomialTermExponent( aTerm.getPolynomialTermExponent().multiply( polynomialExponent ) ) );
 			}
 		
 			//exponentiate the coefficient
@@ -194,7 +199,7 @@ public class Polynomial extends Combinable {
 				return new Polynomial( getEnvironment() , resultingMultipliedTerms , Numerical.ONE );
 			} else {
 				System.out.println( "correct");
-				LinkedList < PolynomialTerm > coefficientTerms = newCoefficient.getPolynomialMultipliedTerms();
+				Iterable < PolynomialTerm > coefficientTerms = newCoefficient.getPolynomialMultipliedTerms();
 				for ( PolynomialTerm aTerm : coefficientTerms ) {
 					insertMultipliedTerm( resultingMultipliedTerms , aTerm );
 				}
@@ -212,12 +217,27 @@ public class Polynomial extends Combinable {
 			
 			Polynomial polynomialToCompare = ( Polynomial ) toCompare;
 			//if the terms are the same, then the polynomials are equal
-			return this.m_terms.equals( polynomialToCompare.getPolynomialMultipliedTerms() );
+			LinkedList < PolynomialTerm > thisTerms = this.getTermList();
+			LinkedList < PolynomialTerm > termsToCompare = polynomialToCompare.getTermList();
+			return thisTerms == termsToCompare || thisTerms.equals( termsToCompare );
 		} else {
 			return super.equals( toCompare );
 		}
 	}
 	
+	/**
+	 * the sum of the hash codes of the multiplied terms, so that a <code>Polynomial</code>
+	 * with one multiplied term hashes the same as that term
+	 */
+	@Override
+	public int hashCode() {
+		int rtn = 0;
+		for ( PolynomialTerm aTerm : this.getPolynomialMultipliedTerms() ) {
+			rtn += aTerm.hashCode();
+		}
+		return rtn;
+	}
+	
 	@Override
 	public int compareTo( Combinable toCompare ) {
 		
@@ -235,12 +255,15 @@ public class Polynomial extends Combinable {
 	
 	@Override
 	public int countNumTerms() {
+		if ( this.m_terms == null ) {
+			return 1;
+		}
 		return this.m_terms.size();
 	}
 	
 	@Override
 	public Polynomial clone() {
-		return new Polynomial( getEnvironment() , this.getPolynomialMultipliedTerms() , this.getCoefficient() );
+		return new Polynomial( getEnvironment() , this.getTermList() , this.getCoefficient() );
 	}
 	
 	@Override
@@ -268,7 +291,7 @@ public class Polynomial extends Combinable {
 		}
 		
 		int numNonOneTerms = 0;
-		for ( PolynomialTerm aTerm : this.m_terms ) {
+		for ( PolynomialTerm aTerm : this.getPolynomialMultipliedTerms() ) {
 			if ( !aTerm.equals( Numerical.ONE ) ) {
 				numNonOneTerms++;
 			}
@@ -276,10 +299,9 @@ public class Polynomial extends Combinable {
 		
 		//add each term to the representation
 		if ( numNonOneTerms == 1 ) {
-			this.m_terms.moveToStart();
-			rtn += this.m_terms.get().toLatexString();
+			rtn += this.getPolynomialMultipliedTerms().iterator().next().toLatexString();
 		} else {
-			for ( PolynomialTerm aTerm : this.m_terms ) {
+			for ( PolynomialTerm aTerm : this.getPolynomialMultipliedTerms() ) {
 				boolean addedATerm = false;
 				
 				//if a term is zero, then the whole Polynomial is zero
@@ -1,7 +1,10 @@
 package calculate.structures.polynomial;
 
+import java.math.BigInteger;
+
 import _library.LinkedList;
 import calculate.Calculator;
+import calculate.EvaluationBudget;
 import calculate.misc.CloseParenthesis;
 import calculate.misc.OpenParenthesis;
 import calculate.operators.AddOperator;
@@ -21,10 +24,25 @@ import calculate.structures.Combinable;
  */
 public class PolynomialTerm extends Polynomial {
 
-	private LinkedList < Monomial > m_numerator = new LinkedList < Monomial > ();
-	private LinkedList < Monomial > m_denominator = new LinkedList < Monomial > ();
+	/**
+	 * the sum of <code>Monomial</code> objects in the numerator. <code>null</code> if
+	 * this is a <code>Monomial</code>, which is its own numerator
+	 */
+	private MonomialSum m_numerator = null;
+	
+	/**
+	 * the sum of <code>Monomial</code> objects in the denominator. <code>null</code>
+	 * if the denominator is 1
+	 */
+	private MonomialSum m_denominator = null;
 	private Combinable m_exponent = Numerical.ONE;
 	
+	/**
+	 * LaTeX representation of this <code>PolynomialTerm</code>. <code>null</code> until
+	 * it is first needed
+	 */
+	private String m_latexRepresentation = null;
+	
 	/**
 	 * <code>PolynomialTerm</code> constructor for a <code>Monomial</code>
 	 * 
@@ -33,14 +51,6 @@ public class PolynomialTerm extends Polynomial {
 	 */
 	public PolynomialTerm( Calculator environment ) {
 		super( environment );
-		insertAddedTerm( this.m_numerator , ( Monomial ) this );
-		insertAddedTerm( this.m_denominator , Numerical.ONE );
-		this.m_exponent = Numerical.ONE;
-	}
-	
-	public void setDenominatorAndExponentAsOne() {
-		this.m_denominator = new LinkedList < Monomial > ();
-		insertAddedTerm( this.m_denominator , Numerical.ONE );
 		this.m_exponent = Numerical.ONE;
 	}
 	
@@ -51,14 +61,7 @@ public class PolynomialTerm extends Polynomial {
 	 * @param initialTerm			the initial term in this <code>PolynomialTerm</code>
 	 */
 	public PolynomialTerm( Calculator environment , Monomial initialTerm ) {
-		super( environment );
-		insertAddedTerm( this.m_numerator , initialTerm );
-		insertAddedTerm( this.m_denominator , Numerical.ONE );
-		
-		this.m_exponent = Numerical.ONE;
-		
-		//update the representation
-		determineRepresentation();
+		this( environment , MonomialSum.of( initialTerm ) , null , Numerical.ONE );
 	}
 	
 	/**
@@ -71,233 +74,137 @@ public class PolynomialTerm extends Polynomial {
 	 */	
 	public PolynomialTerm( Calculator environment , Monomial addedTerm1 , Monomial addedTerm2 ) {
 		super( environment );
-		insertAddedTerm( this.m_numerator , addedTerm1 );
-		insertAddedTerm( this.m_numerator , addedTerm2 );
-		
-		//remove any zeroes from numerator
-		removeZeroes( this.m_numerator );
 		
-		insertAddedTerm( this.m_denominator , Numerical.ONE );
+		//zeroes are never stored in the numerator
+		this.m_numerator = new MonomialSum();
+		this.m_numerator.add( addedTerm1 );
+		this.m_numerator.add( addedTerm2 );
 		
 		this.m_exponent = Numerical.ONE;
 		//update the representation
-		determineRepresentation();
+		invalidateRepresentation();
 	}
 	
 	public PolynomialTerm( Calculator environment , LinkedList < Monomial > numerator , Combinable exponent ) {
-		super( environment );
-		this.m_numerator = numerator;
-		removeZeroes( this.m_numerator );
-		insertAddedTerm( this.m_denominator , Numerical.ONE );
-		this.m_exponent = exponent;
-		determineRepresentation();
+		this( environment , new MonomialSum( numerator ) , null , exponent );
 	}
 	
 	public PolynomialTerm( Calculator environment , LinkedList < Monomial > numerator , LinkedList < Monomial > denominator , Combinable exponent ) {
+		this( environment , new MonomialSum( numerator ) , new MonomialSum( denominator ) , exponent );
+	}
+	
+	/**
+	 * creates a <code>PolynomialTerm</code> from sums that have already been
+	 * calculated. the sums are not copied, so they must not be modified afterwards
+	 * 
+	 * @param environment			environment in which calculations occur
+	 * @param numerator				sum of the terms in the numerator
+	 * @param denominator			sum of the terms in the denominator, or <code>null</code>
+	 * 								if the denominator is 1
+	 * @param exponent				the exponent of this <code>PolynomialTerm</code>
+	 */
+	PolynomialTerm( Calculator environment , MonomialSum numerator , MonomialSum denominator , Combinable exponent ) {
 		super( environment );
 		this.m_numerator = numerator;
 		this.m_denominator = denominator;
 		this.m_exponent = exponent;
 		
-		//remove zeroes from numerator
-		removeZeroes( numerator);
-		
-		//remove zeroes from denominator
-		removeZeroes( denominator );
-		
 		//update representation
-		determineRepresentation();
+		invalidateRepresentation();
 	}
 	
-	private static void removeZeroes( LinkedList < Monomial > terms ) {
-		
-		//go through all terms
-		terms.moveToStart();
-		while ( terms.hasCurrent() ) {
-			
-			//remove any zeroes
-			if ( terms.get() == null || terms.get().equals( Numerical.ZERO ) ) {
-				terms.remove();
-			
-			//if the current term is not a zero
-			} else {
-				
-				//advance
-				if ( terms.hasNext() ) {
-					terms.advance();
-					
-				//but stop if there are no more terms left to check
-				} else {
-					break;
-				}
-			}
+	/**
+	 * @return			the sum of the terms in the numerator. the sum is shared
+	 * 					and must not be modified
+	 */
+	MonomialSum getNumeratorSum() {
+		if ( this.m_numerator == null ) {
+			return MonomialSum.of( ( Monomial ) this );
 		}
+		return this.m_numerator;
 	}
 	
 	/**
-	 * inserts a given term into a list of added terms applying proper mathematical
-	 * ordering
-	 * 
-	 * @param terms					the list of added terms
-	 * @param termToInsert			the term to insert
+	 * @return			the sum of the terms in the denominator. the sum is shared
+	 * 					and must not be modified
 	 */
-	private static void insertAddedTerm( LinkedList < Monomial > terms , Monomial termToInsert ) {
-		terms.moveToStart();
-		boolean inserted = false;
-		
-		//in a sum of monomials, the higher order terms go first
-		
-		//first check if the term to insert should be inserted at the start
-		if ( terms.hasCurrent() ) {
-			Monomial firstTerm = terms.get();
-			
-			//first check degree
-			int degreeComparison = termToInsert.getDegree().compareTo( firstTerm.getDegree() );
-			if ( degreeComparison > 0 ) {
-				terms.insertHead( termToInsert );
-				inserted = true;
-				
-			//if degrees are same, go by alphabetical order
-			} else if ( degreeComparison == 0 ){
-				
-				int baseComparison = termToInsert.compareBaseRepresentation( firstTerm );
-				if ( baseComparison < 0 ) {
-					terms.insertHead( termToInsert );
-					inserted = true;
-				}
-			}
-		}
-		
-		//if the term was not inserted at the head
-		if ( inserted == false ) {
-			
-			//go through the rest of the list
-			while ( terms.hasCurrent() && inserted == false ) {
-				
-				//check if the term to insert should be placed
-				//between the current term and the next term
-				if ( terms.hasNext() ) {
-					Monomial nextTerm = terms.peek();
-					
-					//first compare degrees
-					int degreeComparison = termToInsert.getDegree().compareTo( nextTerm.getDegree() );
-					
-					//if degree is greater, then
-					if ( degreeComparison > 0 ) {
-						
-						//insert the term
-						terms.insert( termToInsert );
-						inserted = true;
-						
-					//if degrees are equal, then 
-					} else if ( degreeComparison == 0 ) {
-						
-						//go by alphabetical order
-						int baseComparison = termToInsert.compareBaseRepresentation( nextTerm );
-						if ( baseComparison < 0 ) {
-							terms.insert ( termToInsert );
-							inserted = true;
-						}
-					}
-					
-					//move forward in the terms list
-					terms.advance();
-					
-				//if we've reached the end of the list, i.e. there are no more terms
-				//in the list, then we should stop
-				} else {
-					break;
-				}
-			}
-		}
-		
-		//if the term was no inserted while moving through the list, then
-		//append it to the end of the list
-		if ( inserted == false ) {
-			terms.add( termToInsert );
-			inserted = true;
+	MonomialSum getDenominatorSum() {
+		if ( this.m_denominator == null ) {
+			return MonomialSum.of( Numerical.ONE );
 		}
+		return this.m_denominator;
 	}
 	
-	private void determineRepresentation() {
+	@Override
+	protected String determineRepresentation() {
+		Monomial[] numeratorTerms = getNumeratorSum().getSortedArray();
+		Monomial[] denominatorTerms = getDenominatorSum().getSortedArray();
+		StringBuilder representation = new StringBuilder();
 		
-		//determine the numerator
-		String numerator = "";
-		int numeratorTerms = 0;
-		for ( Monomial aTerm : this.m_numerator ) {
-			
-			//if the numerator already has some terms in it, then 
-			//we need a plus sign before we add another term
-			if ( numerator.length() > 0 ) {
-				numerator += AddOperator.REPRESENTATION;
-			}
-			numerator += aTerm.getRepresentation();
-			numeratorTerms++;
+		//if there is a denominator, then the representation is the numerator
+		//divided by the denominator, and the numerator needs parentheses
+		//if it has more than one term
+		boolean hasDenominator = denominatorTerms.length > 0;
+		appendSum( representation , numeratorTerms , hasDenominator && numeratorTerms.length > 1 );
+		if ( hasDenominator ) {
+			representation.append( DivideOperator.REPRESENTATION );
+			appendSum( representation , denominatorTerms , denominatorTerms.length > 1 );
 		}
 		
-		//determine the denominator
-		String denominator = "";
-		int denominatorTerms = 0;
-		for ( Monomial aTerm : this.m_denominator ) {
-			
-			//if the denominator already has some terms in it, then
-			//we need a plus sign before we add another term
-			if ( denominator.length() > 0 ) {
-				denominator += AddOperator.REPRESENTATION;
-			}
-			denominator += aTerm.getRepresentation();
-			denominatorTerms++;
+		//if every term was zero and removed from the numerator and denominator,
+		//then this PolynomialTerm is also 0
+		if ( representation.length() == 0 ) {
+			return "0";
 		}
-		
-		//add parenthesis around the denominator if necessary
-		if ( denominatorTerms > 1 ) {
-			denominator = OpenParenthesis.REPRESENTATION + denominator + CloseParenthesis.REPRESENTATION;
+		return representation.toString();
+	}
+	
+	/**
+	 * writes a sum of terms into a representation that is being built
+	 * 
+	 * @param representation		the representation being built
+	 * @param terms					the terms that are added together
+	 * @param needsParentheses		if the sum should be put in parentheses
+	 */
+	private static void appendSum( StringBuilder representation , Monomial[] terms , boolean needsParentheses ) {
+		if ( needsParentheses ) {
+			representation.append( OpenParenthesis.REPRESENTATION );
 		}
-		
-		String representation;
-		
-		//if there is no denominator, then
-		if ( denominatorTerms == 0 ) {
-			
-			//the representation of this polynomial term is just the numerator
-			representation = numerator;
+		for ( int termIdx = 0 ; termIdx < terms.length ; termIdx++ ) {
 			
-		//if there is a denominator then
-		} else {
-			
-			//determine if the numerator needs parentheses
-			if ( numeratorTerms > 1 ) {
-				numerator = OpenParenthesis.REPRESENTATION + numerator + CloseParenthesis.REPRESENTATION;
+			//we need a plus sign before every term but the first
+			if ( termIdx > 0 ) {
+				representation.append( AddOperator.REPRESENTATION );
 			}
-			
-			//the representation is the numerator divided by the denominator
-			representation = numerator + DivideOperator.REPRESENTATION + denominator;	
+			terms[ termIdx ].appendRepresentation( representation );
 		}
-		
-		//if every term was zero and removed from the numerator and denominator,
-		//then this PolynomialTerm is also 0
-		if ( representation.equals( "" ) ) {
-			representation = "0";
+		if ( needsParentheses ) {
+			representation.append( CloseParenthesis.REPRESENTATION );
 		}
-		
-		//update the representation
-		setRepresentation( representation );
 	}
 	
 	/**
 	 * @return			a deep copy of the numerator of this <code>PolynomialTerm</code>
 	 */
 	public LinkedList < Monomial > getNumerator() {
-		return this.m_numerator.clone();
+		return getNumeratorSum().getSortedTerms();
+	}
+	
+	/**
+	 * @return			a read-only view of the terms in the numerator of this
+	 * 					<code>PolynomialTerm</code> in proper order, without copying them
+	 */
+	public Iterable < Monomial > getNumeratorView() {
+		return getNumeratorSum().getSortedView();
 	}
 	
 	/**
 	 * @return			if the numerator is equal to 1
 	 */
 	public boolean hasNumerator() {
-		this.m_numerator.moveToStart();
-		if ( this.m_numerator.hasCurrent() ) {
-			return this.m_numerator.get().equals( Numerical.ONE );
+		Monomial leadingTerm = getNumeratorSum().getLeadingTerm();
+		if ( leadingTerm != null ) {
+			return leadingTerm.equals( Numerical.ONE );
 		} else {
 			return true;
 		}
@@ -307,16 +214,24 @@ public class PolynomialTerm extends Polynomial {
 	 * @return			a deep copy of the denominator of this <code>PolynomialTerm</code>
 	 */
 	public LinkedList < Monomial > getDenominator() {
-		return this.m_denominator.clone();
+		return getDenominatorSum().getSortedTerms();
+	}
+	
+	/**
+	 * @return			a read-only view of the terms in the denominator of this
+	 * 					<code>PolynomialTerm</code> in proper order, without copying them
+	 */
+	public Iterable < Monomial > getDenominatorView() {
+		return getDenominatorSum().getSortedView();
 	}
 	
 	/**
 	 * @return			if the denominator is equal to 1
 	 */
 	public boolean hasDenominator() {
-		this.m_denominator.moveToStart();
-		if ( this.m_denominator.hasCurrent() ) {
-			return this.m_denominator.get().equals( Numerical.ONE );
+		Monomial leadingTerm = getDenominatorSum().getLeadingTerm();
+		if ( leadingTerm != null ) {
+			return leadingTerm.equals( Numerical.ONE );
 		} else {
 			return true;
 		}
@@ -326,30 +241,35 @@ public class PolynomialTerm extends Polynomial {
 		if ( this.m_exponent == null ) {
 			return Numerical.ONE;
 		}
-		return this.m_exponent.clone();
+		return this.m_exponent;
 	}
 	
-	public void setPolynomialTermExponent( Combinable newExponent ) {
-		this.m_exponent = newExponent;
+	/**
+	 * @param newExponent		an exponent
+	 * @return					a <code>PolynomialTerm</code> with the same numerator and
+	 * 							denominator as this one, but with the given exponent
+	 */
+	public PolynomialTerm withPolynomialTermExponent( Combinable newExponent ) {
+		return new PolynomialTerm( getEnvironment() , getNumeratorSum() , this.m_denominator , newExponent );
 	}
 	
 	@Override
 	public Combinable getDegree() {
-		this.m_numerator.moveToStart();
-		this.m_denominator.moveToStart();
+		Monomial numeratorLeadingTerm = getNumeratorSum().getLeadingTerm();
+		Monomial denominatorLeadingTerm = getDenominatorSum().getLeadingTerm();
 		
 		//get numerator's degree
 		Combinable numeratorDegree;
-		if ( this.m_numerator.hasCurrent() ) {
-			numeratorDegree = this.m_numerator.get().getDegree();
+		if ( numeratorLeadingTerm != null ) {
+			numeratorDegree = numeratorLeadingTerm.getDegree();
 		} else {
 			numeratorDegree = Numerical.ZERO;
 		}
 		
 		//get denominator's degree
 		Combinable denominatorDegree;
-		if ( this.m_denominator.hasCurrent() ) {
-			denominatorDegree = this.m_denominator.get().getDegree();
+		if ( denominatorLeadingTerm != null ) {
+			denominatorDegree = denominatorLeadingTerm.getDegree();
 		} else {
 			denominatorDegree = Numerical.ZERO;
 		}
@@ -360,7 +280,7 @@ public class PolynomialTerm extends Polynomial {
 	
 	@Override
 	public int countNumTerms() {
-		return this.m_numerator.size();
+		return getNumeratorSum().size();
 	}
 	
 	/**
@@ -372,7 +292,7 @@ public class PolynomialTerm extends Polynomial {
 	public boolean isAddableWith( PolynomialTerm augend ) {
 		
 		//make sure the denominators are the same
-		if ( this.getDenominator().equals( augend.getDenominator() ) ) {
+		if ( this.getDenominatorSum().equals( augend.getDenominatorSum() ) ) {
 			
 			//continue
 			
@@ -405,58 +325,14 @@ public class PolynomialTerm extends Polynomial {
 		if ( augend instanceof PolynomialTerm ) {
 			PolynomialTerm polynomialAugend = ( PolynomialTerm ) augend;
 			if ( this.isAddableWith( polynomialAugend ) ) {
-				LinkedList < Monomial > thisNumeratorTerms = this.getNumerator();
-				LinkedList < Monomial > augendNumeratorTerms = polynomialAugend.getNumerator();
-				LinkedList < Monomial > resultNumeratorTerms = new LinkedList < Monomial > ();
-				//attempt to add the augend terms to this PolynomialTerm's terms
-				
-				//go through the augend's terms
-				for ( Monomial augendTerm : augendNumeratorTerms ) {
-					
-					boolean added = false;
-					
-					//go through the terms in this
-					for ( Monomial thisTerm : thisNumeratorTerms ) {
-						
-						//if the two terms can be added, then
-						if ( thisTerm.isAddableWith( augendTerm ) ) {
-							
-							//add the two terms
-							Monomial sum = ( Monomial ) thisTerm.add( augendTerm );
-							
-							//put the sum in the result
-							insertAddedTerm( resultNumeratorTerms , sum );
-							
-							//remove the term in this numerator that was just added
-							thisNumeratorTerms.remove();
-							
-							//that way, after we have added all the augend terms, 
-							//all the terms left in the list of terms in this
-							//numerator will be the ones that were never added
-							//so we can just insert those into the result terms list
-							
-							//don't add the augend term more than once
-							added = true;
-							break;
-						}
-					}
-					
-					//if we could not find a term in this numerator with which
-					//to add the augend term, insert the augend term into the results
-					//list
-					if ( added == false ) {
-						insertAddedTerm( resultNumeratorTerms , augendTerm );
-					}
-				}
 				
-				//lastly, add any of the terms in this numerator that were
-				//not added with an augend
-				for ( Monomial thisTerm : thisNumeratorTerms ) {
-					insertAddedTerm( resultNumeratorTerms , thisTerm );
-				}
+				//like terms are found by their key in the sum, so each
+				//augend term is added in constant time
+				MonomialSum resultNumeratorTerms = this.getNumeratorSum().copy();
+				resultNumeratorTerms.addAll( polynomialAugend.getNumeratorSum() );
 				
 				//the denominator stays the same
-				LinkedList < Monomial > resultDenominator = this.getDenominator();
+				MonomialSum resultDenominator = this.m_denominator;
 				
 				//exponent stays the same
 				Combinable resultExponent = this.getPolynomialTermExponent();
@@ -494,52 +370,13 @@ public class PolynomialTerm extends Polynomial {
 		if ( subtrahend instanceof PolynomialTerm ) {
 			PolynomialTerm polynomialSubtrahend = ( PolynomialTerm ) subtrahend;
 			if ( this.isSubtractableWith( polynomialSubtrahend ) ) {
-				LinkedList < Monomial > thisNumeratorTerms = this.getNumerator();
-				LinkedList < Monomial > subtrahendNumeratorTerms = polynomialSubtrahend.getNumerator();
-				LinkedList < Monomial > resultNumeratorTerms = new LinkedList < Monomial > ();
 				
-				//go through the subtrahend's terms
-				for ( Monomial subtrahendTerm : subtrahendNumeratorTerms ) {
-					
-					//see if there is a term in this PolynomialTerm
-					//from which the subtrahend term can be subtracted
-					boolean subtracted = false;
-					for ( Monomial thisTerm : thisNumeratorTerms ) {
-						
-						//if there is such a term, then
-						if ( thisTerm.isSubtractableWith( subtrahendTerm ) ) {
-							
-							//subtract them
-							Monomial difference = ( Monomial ) thisTerm.subtract( subtrahendTerm );
-							
-							//add the difference to the result
-							insertAddedTerm( resultNumeratorTerms , difference );
-							
-							//make sure we do not subtract from the term in this
-							//PolynomialTerm again
-							thisNumeratorTerms.remove();
-							
-							//don't subtract the subtrahend term more than twice
-							subtracted = true;
-						}
-					}
-					
-					//if we could not find a term from which to subtract
-					//the subtrahend term, add the opposite of that term
-					//to the result terms
-					if ( subtracted == false ) {
-						insertAddedTerm( resultNumeratorTerms , subtrahendTerm.multiplyByNegativeOne() );
-					}
-				}
-				
-				//lastly, insert any of the terms in this polynomial from which
-				//we did not subtract anything
-				for ( Monomial aTerm : thisNumeratorTerms ) {
-					insertAddedTerm( resultNumeratorTerms , aTerm );
-				}
+				//subtract each subtrahend term from its like term, if there is one
+				MonomialSum resultNumeratorTerms = this.getNumeratorSum().copy();
+				resultNumeratorTerms.subtractAll( polynomialSubtrahend.getNumeratorSum() );
 				
 				//the denominator does not change
-				LinkedList < Monomial > resultDenominatorTerms = this.getDenominator();
+				MonomialSum resultDenominatorTerms = this.m_denominator;
 				
 				//the exponent does not change
 				Combinable resultExponent = this.getPolynomialTermExponent();
@@ -603,49 +440,19 @@ public class PolynomialTerm extends Polynomial {
 			if ( this.isMultipliableWith( polynomialMultiplicand ) ) {
 				
 				//distribute numerator
-				LinkedList < Monomial > thisNumeratorTerms = this.getNumerator();
-				LinkedList < Monomial > multiplicandNumeratorTerms = polynomialMultiplicand.getNumerator();
-				PolynomialTerm resultNumerator = Numerical.ZERO;
+				MonomialSum resultNumerator = distribute( this.getNumeratorSum() , polynomialMultiplicand.getNumeratorSum() );
 				
-				//go through each term in this PolynomialTerm's numerator
-				for ( Monomial thisTerm : thisNumeratorTerms ) {
-					
-					//and go through each term in the multiplicand's numerator 
-					for ( Monomial multiplicandTerm : multiplicandNumeratorTerms ) {
-						
-						//and multiply them together and add it to the product numerator
-						Monomial termProduct = ( Monomial ) thisTerm.multiply( multiplicandTerm );
-						resultNumerator = ( PolynomialTerm ) resultNumerator.add( termProduct );
-					}
-				}
-				
-				//distribute denominator
-				LinkedList < Monomial > thisDenominatorTerms = this.getDenominator();
-				LinkedList < Monomial > multiplicandDenominatorTerms = polynomialMultiplicand.getDenominator();
-				PolynomialTerm resultDenominator = Numerical.ZERO;
-				
-				//go through each term in this PolynomialTerm's denominator
-				for ( Monomial thisTerm : thisDenominatorTerms ) {
-					
-					//and go through each term in the multiplicand's denominator
-					for ( Monomial multiplicandTerm : multiplicandDenominatorTerms ) {
-						
-						//and multiply them together and add it to the product denominator terms
-						Monomial termProduct;
-						if ( thisTerm == null ) {
-							termProduct = ( Monomial ) Numerical.ONE.multiply( multiplicandTerm );
-						} else {
-							termProduct = ( Monomial ) thisTerm.multiply( multiplicandTerm );
-						}
-						resultDenominator = ( PolynomialTerm ) resultDenominator.add( termProduct );
-					}
+				//distribute denominator. if both denominators are 1, so is the product
+				MonomialSum resultDenominator = null;
+				if ( this.m_denominator != null || polynomialMultiplicand.m_denominator != null ) {
+					resultDenominator = distribute( this.getDenominatorSum() , polynomialMultiplicand.getDenominatorSum() );
 				}
 				
 				//exponent stays the same
 				Combinable resultExponent = this.getPolynomialTermExponent();
 				
 				//return the product
-				PolynomialTerm product = new PolynomialTerm( getEnvironment() , resultNumerator.getNumerator() , resultDenominator.getNumerator() , resultExponent );
+				PolynomialTerm product = new PolynomialTerm( getEnvironment() , resultNumerator , resultDenominator , resultExponent );
 				return product;
 			} else {
 				
@@ -656,6 +463,40 @@ public class PolynomialTerm extends Polynomial {
 		}
 	}
 	
+	/**
+	 * @param sum1			a sum of <code>Monomial</code> objects
+	 * @param sum2			another sum of <code>Monomial</code> objects
+	 * @return				the product of both sums
+	 */
+	private MonomialSum distribute( MonomialSum sum1 , MonomialSum sum2 ) {
+		
+		//large dense sums are multiplied all at once
+		MonomialSum rtn = FastMultiplication.multiply( sum1 , sum2 , getEnvironment() );
+		if ( rtn != null ) {
+			return rtn;
+		}
+		
+		//sparse sums are multiplied by merging the products of their terms in order
+		rtn = HeapArithmetic.multiply( sum1 , sum2 , getEnvironment() );
+		if ( rtn != null ) {
+			return rtn;
+		}
+		
+		//otherwise, go through each term in the first sum
+		rtn = new MonomialSum();
+		for ( Monomial term1 : sum1 ) {
+			
+			//and go through each term in the second sum
+			for ( Monomial term2 : sum2 ) {
+				
+				//and multiply them together and add it to the product
+				rtn.add( ( Monomial ) term1.multiply( term2 ) );
+			}
+			EvaluationBudget.checkCurrentTerms( rtn.size() );
+		}
+		return rtn;
+	}
+	
 	public boolean isDividableBy( PolynomialTerm dividend ) {
 		return this.getPolynomialTermExponent().equals( Numerical.ONE ) && dividend.getPolynomialTermExponent().equals( Numerical.ONE );
 	}
@@ -666,14 +507,17 @@ public class PolynomialTerm extends Polynomial {
 		//only deal with PolynomialTerm division
 		if ( dividend instanceof PolynomialTerm ) {
 			PolynomialTerm polynomialDividend = ( PolynomialTerm ) dividend;
+			if ( polynomialDividend.equals( Numerical.ZERO ) ) {
+				throw new ArithmeticException( "division by zero" );
+			}
 			if ( this.equals( Numerical.ZERO ) ) {
 				return Numerical.ZERO;
 			}
 			if ( this.isDividableBy( polynomialDividend ) ) {
 				
 				//divide this numerator by the dividend numerator
-				PolynomialTerm thisNumerator = new PolynomialTerm( getEnvironment() , this.getNumerator() , this.getPolynomialTermExponent() );
-				PolynomialTerm dividendNumerator = new PolynomialTerm( polynomialDividend.getEnvironment() , polynomialDividend.getNumerator() , polynomialDividend.getPolynomialTermExponent() );
+				PolynomialTerm thisNumerator = new PolynomialTerm( getEnvironment() , this.getNumeratorSum() , null , this.getPolynomialTermExponent() );
+				PolynomialTerm dividendNumerator = new PolynomialTerm( polynomialDividend.getEnvironment() , polynomialDividend.getNumeratorSum() , null , polynomialDividend.getPolynomialTermExponent() );
 				PolynomialTerm numeratorGcd = thisNumerator.gcd( dividendNumerator );
 				
 				//keep dividing out the greatest common divisor until it is one
@@ -684,8 +528,8 @@ public class PolynomialTerm extends Polynomial {
 				}
 
 				//divide the dividend denominator by this denominator
-				PolynomialTerm dividendDenominator = new PolynomialTerm( polynomialDividend.getEnvironment() , polynomialDividend.getDenominator() , polynomialDividend.getPolynomialTermExponent() );
-				PolynomialTerm thisDenominator = new PolynomialTerm( getEnvironment() , this.getDenominator() , this.getPolynomialTermExponent() );
+				PolynomialTerm dividendDenominator = new PolynomialTerm( polynomialDividend.getEnvironment() , polynomialDividend.getDenominatorSum() , null , polynomialDividend.getPolynomialTermExponent() );
+				PolynomialTerm thisDenominator = new PolynomialTerm( getEnvironment() , this.getDenominatorSum() , null , this.getPolynomialTermExponent() );
 				PolynomialTerm denominatorGcd = dividendDenominator.gcd( thisDenominator );
 				
 				//keep dividing out the greatest common divisor until it is one
@@ -703,13 +547,13 @@ public class PolynomialTerm extends Polynomial {
 				Combinable newExponent = this.getPolynomialTermExponent();
 				
 				//return the new result
-				return new PolynomialTerm( getEnvironment() , newNumerator.getNumerator() , newDenominator.getNumerator() , newExponent );
+				return new PolynomialTerm( getEnvironment() , newNumerator.getNumeratorSum() , newDenominator.getNumeratorSum() , newExponent );
 			
 			} else {
 				
 				//create a polynomial that is this/dividend
-				LinkedList < Monomial > inverseDividendNumerator = polynomialDividend.getDenominator();
-				LinkedList < Monomial > inverseDividendDenominator = polynomialDividend.getNumerator();
+				MonomialSum inverseDividendNumerator = polynomialDividend.getDenominatorSum();
+				MonomialSum inverseDividendDenominator = polynomialDividend.getNumeratorSum();
 				PolynomialTerm inverseDividend = new PolynomialTerm( getEnvironment() , inverseDividendNumerator , inverseDividendDenominator , this.getPolynomialTermExponent() );
 				return new Polynomial( getEnvironment() , this.clone() , inverseDividend );
 			}//*/
@@ -733,7 +577,13 @@ public class PolynomialTerm extends Polynomial {
 	 */
 	private PolynomialTerm gcd( PolynomialTerm dividend ) {
 
-		//use the euclidean algorithm
+		//use the modular algorithm if both numerators can be packed
+		PolynomialTerm modularGcd = ModularGcd.gcd( this , dividend );
+		if ( modularGcd != null ) {
+			return modularGcd.toMonic();
+		}
+		
+		//otherwise, use the euclidean algorithm
 		
 		//determine the larger and smaller degree PolynomialTerm
 		PolynomialTerm largerDegree = this;
@@ -797,13 +647,11 @@ public class PolynomialTerm extends Polynomial {
 				return this.getLeadingTerm().clone();
 				//return Numerical.ONE;
 			} else {
-				Monomial rtn = this.getLeadingTerm().clone();
-				rtn.setCoefficient( Numerical.ONE );
-				return rtn;
+				return this.getLeadingTerm().withCoefficient( Numerical.ONE );
 			}
 		} else {
 			Fraction gcd = ( Fraction ) this.getLeadingTerm().getCoefficient();
-			for ( Monomial aTerm : this.m_numerator ) {
+			for ( Monomial aTerm : this.getNumeratorSum() ) {
 				gcd = Fraction.gcd( gcd , ( Fraction ) aTerm.getCoefficient() );
 			}
 			
@@ -812,20 +660,40 @@ public class PolynomialTerm extends Polynomial {
 			if ( this.getLeadingTerm().getCoefficient().compareTo(Numerical.ZERO ) < 0 ) {
 				gcd = gcd.multiplyByNegativeOne();
 			}
-			LinkedList < Monomial > monicTerms = new LinkedList < Monomial > ();
-			for ( Monomial aTerm : this.m_numerator ) {
+			MonomialSum monicTerms = new MonomialSum();
+			for ( Monomial aTerm : this.getNumeratorSum() ) {
 				monicTerms.add( ( Monomial ) aTerm.divide( gcd ) );
 			}
-			return new PolynomialTerm( getEnvironment() , monicTerms , getDenominator() , getPolynomialTermExponent() );
+			return new PolynomialTerm( getEnvironment() , monicTerms , getDenominatorSum() , getPolynomialTermExponent() );
 		}
 	}
 	
 	
+	/**
+	 * factors a polynomial in one variable over the rationals, e.g. 2x^3-2x becomes
+	 * 2, x, x+1 and x-1
+	 * 
+	 * @return				the number in front of the factors, if it is not 1, followed by
+	 * 						each irreducible factor raised to its multiplicity, or
+	 * 						<code>null</code> if this is not a polynomial in one variable
+	 * 						with numerical coefficients
+	 */
+	public LinkedList < PolynomialTerm > factor() {
+		return Factorization.factor( this );
+	}
+	
 	/**
 	 * @param dividend		value by which to divide
 	 * @return				the quotient of the division without a remainder
 	 */
 	public PolynomialTerm divideAndTruncate( PolynomialTerm dividend ) {
+		
+		//exact divisions, such as by a greatest common divisor, do not
+		//need to go through the limited euclidean division
+		PolynomialTerm quotient = ModularGcd.divideExactly( this , dividend );
+		if ( quotient != null ) {
+			return quotient;
+		}
 		return divideAndRemainder( dividend ) [ 0 ];
 	}
 	
@@ -845,11 +713,30 @@ public class PolynomialTerm extends Polynomial {
 		//keep dividing until either the remainder is zero
 		//or the remainder has gotten smaller than the dividend
 		int iterations = 0;
+		int maxIterations = getEnvironment() == null ? Calculator.DEFAULT_DIVISION_ITERATIONS : getEnvironment().getMaxDivisionIterations();
+		MonomialOrder order = getEnvironment() == null ? MonomialOrder.DISPLAY : getEnvironment().getMonomialOrder();
+		
+		//polynomials divide without building every intermediate remainder
+		//if their terms can be merged in a graded order
+		if ( this.m_denominator == null && dividend.m_denominator == null && this.m_exponent.equals( Numerical.ONE ) &&
+				dividend.m_exponent.equals( Numerical.ONE ) && order.getGradedOrder() != null ) {
+			MonomialSum numerator = this.getNumeratorSum();
+			MonomialSum[] results = HeapArithmetic.divide( numerator , dividend.getNumeratorSum() , order.getGradedOrder() , maxIterations , getEnvironment() );
+			if ( results != null && results[ 1 ] == numerator ) {
+				PolynomialTerm[] rtn = { Numerical.ZERO , this };
+				return rtn;
+			} else if ( results != null ) {
+				PolynomialTerm[] rtn = { toPolynomialTerm( results[ 0 ] ) , toPolynomialTerm( results[ 1 ] ) };
+				return rtn;
+			}
+		}
+		Monomial divisorLeadingTerm = dividend.getNumeratorSum().getLeadingTerm( order );
 		while ( !remainder.equals( Numerical.ZERO ) && remainder.getDegree().compareTo( dividend.getDegree() ) >= 0 ) {
 			iterations++;
+			EvaluationBudget.checkCurrentTerms( remainder.getNumeratorSum().size() );
 			
 			//divide leading terms
-			Monomial partialQuotient = ( Monomial ) remainder.getLeadingTerm().divide( dividend.getLeadingTerm() );
+			Monomial partialQuotient = ( Monomial ) remainder.getNumeratorSum().getLeadingTerm( order ).divide( divisorLeadingTerm );
 			/*if ( !partialQuotient.getCoefficient().isInteger() ) {
 				break;
 			}*/
@@ -858,7 +745,7 @@ public class PolynomialTerm extends Polynomial {
 			quotient = ( PolynomialTerm ) quotient.add( partialQuotient );
 			remainder = ( PolynomialTerm ) remainder.subtract( partialQuotient.multiply( dividend ) );
 			
-			if ( iterations > Calculator.DEFAULT_DIVISION_ITERATIONS ) {
+			if ( iterations > maxIterations ) {
 				PolynomialTerm[] rtn = { Numerical.ZERO , this };
 				return rtn;
 			}
@@ -869,6 +756,95 @@ public class PolynomialTerm extends Polynomial {
 		return rtn;
 	}
 	
+	/**
+	 * @param sum				a sum of <code>Monomial</code> objects
+	 * @return					the sum in its simplest form
+	 */
+	private PolynomialTerm toPolynomialTerm( MonomialSum sum ) {
+		if ( sum.isEmpty() ) {
+			return Numerical.ZERO;
+		} else if ( sum.size() == 1 ) {
+			return sum.getLeadingTerm();
+		}
+		return new PolynomialTerm( getEnvironment() , sum , null , Numerical.ONE );
+	}
+	
+	/**
+	 * expands a sum raised to a power with the multinomial theorem:
+	 * (t1+...+tm)^n is the sum over all k1+...+km = n of n!/(k1!...km!)*t1^k1*...*tm^km.
+	 * each term is added straight to the result, so no intermediate powers of
+	 * the sum are created. with two terms, this is the binomial theorem
+	 * 
+	 * @param sum			a sum of <code>Monomial</code> objects
+	 * @param power			a positive integer
+	 * @return				the sum raised to the power
+	 */
+	private MonomialSum expand( MonomialSum sum , int power ) {
+		
+		//find the powers of each term. null stands for 1
+		Monomial[][] termPowers = new Monomial[ sum.size() ][ power + 1 ];
+		int termIdx = 0;
+		for ( Monomial aTerm : sum ) {
+			termPowers[ termIdx ][ 1 ] = aTerm;
+			for ( int k = 2 ; k <= power ; k++ ) {
+				termPowers[ termIdx ][ k ] = ( Monomial ) termPowers[ termIdx ][ k - 1 ].multiply( aTerm );
+			}
+			termIdx++;
+		}
+		
+		MonomialSum rtn = new MonomialSum();
+		expand( termPowers , 0 , power , null , BigInteger.ONE , rtn );
+		return rtn;
+	}
+	
+	/**
+	 * chooses the power of one term of the sum and recurses on the rest
+	 * 
+	 * @param termPowers		powers of each term of the sum
+	 * @param termIdx			the term whose power to choose
+	 * @param remainingPower	power left to distribute among the remaining terms
+	 * @param partialProduct	product of the powers chosen for the previous terms,
+	 * 							or <code>null</code> if it is 1
+	 * @param coefficient		multinomial coefficient of the powers chosen so far,
+	 * 							which is a product of binomial coefficients
+	 * @param rtn				sum to which to add the terms of the expansion
+	 */
+	private void expand( Monomial[][] termPowers , int termIdx , int remainingPower , Monomial partialProduct , BigInteger coefficient , MonomialSum rtn ) {
+		
+		//the last term takes whatever power is left
+		if ( termIdx == termPowers.length - 1 ) {
+			EvaluationBudget.checkCurrentTerms( rtn.size() + 1 );
+			EvaluationBudget.checkCurrentCoefficient( coefficient.bitLength() );
+			Monomial product = multiplyPowers( partialProduct , termPowers[ termIdx ][ remainingPower ] );
+			if ( product == null ) {
+				rtn.add( new Fraction( getEnvironment() , coefficient , BigInteger.ONE ) );
+			} else if ( coefficient.equals( BigInteger.ONE ) ) {
+				rtn.add( product );
+			} else {
+				rtn.add( ( Monomial ) product.multiply( new Fraction( getEnvironment() , coefficient , BigInteger.ONE ) ) );
+			}
+			return;
+		}
+		
+		BigInteger[] binomials = BinomialTable.getRow( remainingPower );
+		for ( int k = remainingPower ; k >= 0 ; k-- ) {
+			expand( termPowers , termIdx + 1 , remainingPower - k , multiplyPowers( partialProduct , termPowers[ termIdx ][ k ] ) , coefficient.multiply( binomials[ k ] ) , rtn );
+		}
+	}
+	
+	/**
+	 * @return				the product of two powers, either of which may be
+	 * 						<code>null</code> to stand for 1
+	 */
+	private static Monomial multiplyPowers( Monomial power1 , Monomial power2 ) {
+		if ( power1 == null ) {
+			return power2;
+		} else if ( power2 == null ) {
+			return power1;
+		}
+		return ( Monomial ) power1.multiply( power2 );
+	}
+	
 	@Override
 	public Combinable exponentiate( Combinable exponent ) {
 		
@@ -882,7 +858,19 @@ public class PolynomialTerm extends Polynomial {
 				//can be multiplied by itself
 				if ( numericalExponent.isInteger() && this.isMultipliableWith( this.clone() )) {
 					
-					//then we can exponentiate by repeatedly multiplying
+					//sums raised to a positive power can be expanded directly
+					if ( ( this.getNumeratorSum().size() > 1 || this.getDenominatorSum().size() > 1 ) && numericalExponent instanceof Fraction &&
+							( ( Fraction ) numericalExponent ).isSmallInteger() && ( ( Fraction ) numericalExponent ).intValue() > 0 ) {
+						int power = ( ( Fraction ) numericalExponent ).intValue();
+						MonomialSum resultNumerator = expand( this.getNumeratorSum() , power );
+						MonomialSum resultDenominator = null;
+						if ( this.m_denominator != null ) {
+							resultDenominator = expand( this.getDenominatorSum() , power );
+						}
+						return new PolynomialTerm( getEnvironment() , resultNumerator , resultDenominator , this.getPolynomialTermExponent() );
+					}
+					
+					//otherwise, we can exponentiate by repeatedly multiplying
 					Numerical timesMultiplied = Numerical.ONE;
 					PolynomialTerm result = this;
 					
@@ -890,6 +878,7 @@ public class PolynomialTerm extends Polynomial {
 					while ( timesMultiplied.multiply( Numerical.TWO ).compareTo( numericalExponent ) <= 0 ) {
 						//keep squaring the result
 						result = ( PolynomialTerm ) result.multiply( result.clone() );
+						EvaluationBudget.checkCurrentTerms( result.getNumeratorSum().size() );
 						
 						//update number of times multiplied
 						timesMultiplied = ( Numerical ) timesMultiplied.multiply( Numerical.TWO );
@@ -898,6 +887,7 @@ public class PolynomialTerm extends Polynomial {
 					//once squaring will go over the limit, keep multiplying by this
 					while ( timesMultiplied.add( Numerical.ONE ).compareTo( numericalExponent ) <= 0 ) {
 						result = ( PolynomialTerm ) result.multiply( this.clone() );
+						EvaluationBudget.checkCurrentTerms( result.getNumeratorSum().size() );
 						
 						//update number of times multipled
 						timesMultiplied = ( Numerical ) timesMultiplied.add( Numerical.ONE );
@@ -911,9 +901,9 @@ public class PolynomialTerm extends Polynomial {
 			//if the exponent is not an integer, we can only display the exponent
 			PolynomialTerm rtn;
 			if ( this.getPolynomialTermExponent() instanceof Numerical ) {
-				rtn = new PolynomialTerm( getEnvironment() , this.getNumerator() , this.getDenominator() , polynomialExponent.multiply( this.getPolynomialTermExponent() ) );
+				rtn = new PolynomialTerm( getEnvironment() , this.getNumeratorSum() , this.getDenominatorSum() , polynomialExponent.multiply( this.getPolynomialTermExponent() ) );
 			} else {
-				rtn = new PolynomialTerm( getEnvironment() , this.getNumerator() , this.getDenominator() , this.getPolynomialTermExponent().multiply( polynomialExponent ) );
+				rtn = new PolynomialTerm( getEnvironment() , this.getNumeratorSum() , this.getDenominatorSum() , this.getPolynomialTermExponent().multiply( polynomialExponent ) );
 			}
 			return rtn;
 		} else {
@@ -925,9 +915,9 @@ public class PolynomialTerm extends Polynomial {
 	 * @return			the first term in the numerator of this <code>PolynomialTerm</code>
 	 */
 	public Monomial getLeadingTerm() {
-		this.m_numerator.moveToStart();
-		if ( this.m_numerator.hasCurrent() ) {
-			return this.m_numerator.get();
+		Monomial leadingTerm = getNumeratorSum().getLeadingTerm();
+		if ( leadingTerm != null ) {
+			return leadingTerm;
 		} else {
 			return Numerical.ZERO;
 		}
@@ -936,28 +926,29 @@ public class PolynomialTerm extends Polynomial {
 	@Override
 	public boolean equals( Object toCompare ) {
 		
+		if ( this == toCompare ) {
+			return true;
+		}
+		
 		//only deal with PolynomialTerm comparison
 		if ( toCompare instanceof PolynomialTerm ) {
 			
 			//check for equaling to zero
 			if ( toCompare instanceof Numerical ) {
 				if ( toCompare.equals( Numerical.ZERO ) ) {
-					for ( Monomial aTerm : this.m_numerator ) {
-						if ( aTerm.equals( Numerical.ZERO ) ) {
-							return true;
-						}
-					}
-					return this.m_numerator.size() == 0;
+					
+					//zeroes are never stored in a sum
+					return getNumeratorSum().isEmpty();
 				}
 				if ( toCompare.equals( Numerical.ONE ) ) {
-					return this.m_numerator.equals( Numerical.ONE.getNumerator() );
+					return getNumeratorSum().equals( Numerical.ONE.getNumeratorSum() );
 				}
 			}
 			
 			PolynomialTerm polynomialToCompare = ( PolynomialTerm ) toCompare;
 			
 			//make sure numerators are the same
-			if ( this.getNumerator().equals( polynomialToCompare.getNumerator() ) ) {
+			if ( this.getNumeratorSum().equals( polynomialToCompare.getNumeratorSum() ) ) {
 				
 				//continue
 				
@@ -966,7 +957,7 @@ public class PolynomialTerm extends Polynomial {
 			}
 			
 			//make sure denominators are the same
-			if ( this.getDenominator().equals( polynomialToCompare.getDenominator() ) ) {
+			if ( this.getDenominatorSum().equals( polynomialToCompare.getDenominatorSum() ) ) {
 				
 				//continue
 				
@@ -990,6 +981,32 @@ public class PolynomialTerm extends Polynomial {
 		}
 	}
 	
+	/**
+	 * hash code consistent with <code>equals(...)</code>. a <code>PolynomialTerm</code>
+	 * with a denominator and exponent of 1 has the same hash code as the sum of its
+	 * numerator terms, so it hashes the same as an equal <code>Monomial</code>
+	 */
+	@Override
+	public int hashCode() {
+		MonomialSum numerator = getNumeratorSum();
+		
+		//zero and one are only compared by numerator
+		if ( numerator.isEmpty() ) {
+			return Numerical.ZERO.hashCode();
+		}
+		if ( numerator.equals( Numerical.ONE.getNumeratorSum() ) ) {
+			return Numerical.ONE.hashCode();
+		}
+		int rtn = numerator.hashCode();
+		if ( this.m_denominator != null ) {
+			rtn += 31 * ( this.m_denominator.hashCode() - Numerical.ONE.hashCode() );
+		}
+		if ( this.m_exponent != null ) {
+			rtn += 961 * ( this.m_exponent.hashCode() - Numerical.ONE.hashCode() );
+		}
+		return rtn;
+	}
+	
 	@Override
 	public int compareTo( Combinable toCompare ) {
 		
@@ -1016,16 +1033,20 @@ public class PolynomialTerm extends Polynomial {
 	/**
 	 * reduces the numerator and denominator of this fraction as much as possible
 	 * before displaying a result
+	 * 
+	 * @return			an equal <code>PolynomialTerm</code> in lowest terms
 	 */
-	public void reduce() {
+	public PolynomialTerm reduce() {
+		MonomialSum reducedNumerator = this.getNumeratorSum();
+		MonomialSum reducedDenominator = this.getDenominatorSum();
 		
 		//divide out common terms in the numerator and denominator
 		try {
-			PolynomialTerm numerator = new PolynomialTerm( getEnvironment() , this.getNumerator() , this.getPolynomialTermExponent() );
-			PolynomialTerm denominator = new PolynomialTerm( getEnvironment() , this.getDenominator() , this.getPolynomialTermExponent() );
+			PolynomialTerm numerator = new PolynomialTerm( getEnvironment() , reducedNumerator , null , this.getPolynomialTermExponent() );
+			PolynomialTerm denominator = new PolynomialTerm( getEnvironment() , reducedDenominator , null , this.getPolynomialTermExponent() );
 			PolynomialTerm reducedPolynomial = ( PolynomialTerm ) numerator.divide( denominator );
-			this.m_numerator = reducedPolynomial.getNumerator();
-			this.m_denominator = reducedPolynomial.getDenominator();
+			reducedNumerator = reducedPolynomial.getNumeratorSum();
+			reducedDenominator = reducedPolynomial.getDenominatorSum();
 		} catch ( ClassCastException unsimplifiable ) {
 			//can't simplify
 		}
@@ -1034,71 +1055,51 @@ public class PolynomialTerm extends Polynomial {
 		Fraction fractionalCoefficient;
 		do {
 			fractionalCoefficient = Numerical.ONE;
-			for ( Monomial aTerm : this.m_numerator ) {
+			for ( Monomial aTerm : reducedNumerator ) {
 				if ( aTerm != null ) {
 					if ( !aTerm.getCoefficient().isInteger() ) {
 						fractionalCoefficient = ( Fraction ) aTerm.getCoefficient();
 					}
 				}
 			}
-			for ( Monomial aTerm : this.m_denominator ) {
+			for ( Monomial aTerm : reducedDenominator ) {
 				if ( aTerm != null ) {
 					if ( !aTerm.getCoefficient().isInteger() ) {
 						fractionalCoefficient = ( Fraction ) aTerm.getCoefficient();
 					}
 				}
 			}
-			PolynomialTerm numerator = new PolynomialTerm( getEnvironment() , this.getNumerator() , this.getPolynomialTermExponent() );
-			PolynomialTerm denominator = new PolynomialTerm( getEnvironment() , this.getDenominator() , this.getPolynomialTermExponent() );
+			PolynomialTerm numerator = new PolynomialTerm( getEnvironment() , reducedNumerator , null , this.getPolynomialTermExponent() );
+			PolynomialTerm denominator = new PolynomialTerm( getEnvironment() , reducedDenominator , null , this.getPolynomialTermExponent() );
 			numerator = ( PolynomialTerm ) numerator.multiply( fractionalCoefficient.getDenominatorAsFraction() );
 			denominator = ( PolynomialTerm ) denominator.multiply( fractionalCoefficient.getDenominatorAsFraction() );
-			this.m_numerator = numerator.getNumerator();
-			this.m_denominator = denominator.getNumerator();
+			reducedNumerator = numerator.getNumeratorSum();
+			reducedDenominator = denominator.getNumeratorSum();
 		} while ( !fractionalCoefficient.equals( Numerical.ONE ) );
+		
+		return new PolynomialTerm( getEnvironment() , reducedNumerator , reducedDenominator , this.m_exponent );
 	}
 	
 	
 	@Override
 	public String toLatexString() {
+		if ( this.m_latexRepresentation == null ) {
+			this.m_latexRepresentation = determineLatexRepresentation();
+		}
+		return this.m_latexRepresentation;
+	}
+	
+	/**
+	 * @return			the LaTeX representation of this <code>PolynomialTerm</code>
+	 * 					in lowest terms
+	 */
+	private String determineLatexRepresentation() {
 
-		this.reduce();
+		PolynomialTerm reduced = this.reduce();
 		
 		//determine the numerator
-		String numerator = "";
-		for ( Monomial numeratorTerm : this.m_numerator ) {
-			
-			//if terms have been added to the numerator, 
-			if ( numerator.length() > 0 ) {
-				
-				//a plus sign is required before adding another term
-				if ( numeratorTerm.getCoefficient().compareTo( Numerical.ZERO ) > 0 ) {
-					numerator += AddOperator.LATEX_REPRESENTATION;
-				}
-			}
-			numerator += numeratorTerm.toLatexString();
-		}
-		
-		if ( numerator.equals( "" ) ) {
-			numerator = "0";	
-		}
-		
-		String denominator = "";
-		for ( Monomial denominatorTerm : this.m_denominator ) {
-			
-			//if terms have been added to the denominator
-			if ( denominator.length() > 0 ) {
-				
-				//a plus sign is required before adding another term
-				if ( denominatorTerm.getCoefficient().compareTo( Numerical.ZERO ) > 0 ) {
-					denominator += AddOperator.LATEX_REPRESENTATION;
-				}
-			}
-			denominator += denominatorTerm.toLatexString();
-		}
-		
-		if ( denominator.equals( "" ) ) {
-			denominator = "0";
-		}
+		String numerator = toLatexSum( reduced.getNumeratorSum().getSortedArray() );
+		String denominator = toLatexSum( reduced.getDenominatorSum().getSortedArray() );
 		
 		String rtn;
 		
@@ -1132,9 +1133,31 @@ public class PolynomialTerm extends Polynomial {
 		return rtn;
 	}
 	
+	/**
+	 * @param terms			terms that are added together
+	 * @return				the LaTeX representation of the sum of the terms, or 0 if there
+	 * 						are no terms
+	 */
+	private static String toLatexSum( Monomial[] terms ) {
+		StringBuilder rtn = new StringBuilder();
+		for ( int termIdx = 0 ; termIdx < terms.length ; termIdx++ ) {
+			String termLatex = terms[ termIdx ].toLatexString();
+			
+			//a plus sign is required before adding another positive term
+			if ( rtn.length() > 0 && terms[ termIdx ].getCoefficient().compareTo( Numerical.ZERO ) > 0 ) {
+				rtn.append( AddOperator.LATEX_REPRESENTATION );
+			}
+			rtn.append( termLatex );
+		}
+		if ( rtn.length() == 0 ) {
+			return "0";
+		}
+		return rtn.toString();
+	}
+	
 	@Override
 	public PolynomialTerm clone() {
-		return new PolynomialTerm( getEnvironment() , getNumerator() , getDenominator() , getPolynomialTermExponent() );
+		return new PolynomialTerm( getEnvironment() , getNumeratorSum() , this.m_denominator , getPolynomialTermExponent() );
 	}
 	
 }
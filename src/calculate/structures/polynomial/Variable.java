@@ -6,7 +6,11 @@ import calculate.structures.Combinable;
 public class Variable extends MonomialTerm {
 	
 	private Combinable m_value = null;
-
+	
+	/**
+	 * id assigned to this variable by its environment. -1 until it is first needed
+	 */
+	private int m_variableId = -1;
 	
 	/**
 	 * <code>Variable</code> constructor for a <code>Numerical</code>
@@ -51,6 +55,16 @@ public class Variable extends MonomialTerm {
 		return this.m_value;
 	}
 	
+	/**
+	 * @return			the integer id the environment assigned to this variable's name
+	 */
+	public int getVariableId() {
+		if ( this.m_variableId < 0 ) {
+			this.m_variableId = getEnvironment().getVariableId( getRepresentation() );
+		}
+		return this.m_variableId;
+	}
+	
 	public boolean equals( Variable anotherVariable ) {
 		if ( anotherVariable == null ) {
 			return false;
@@ -106,4 +120,13 @@ public class Variable extends MonomialTerm {
 	public String toLatexString() {
 		return getRepresentation();
 	}
+	
+	/**
+	 * a <code>Variable</code> always knows its representation, so it does not
+	 * build it the way other <code>MonomialTerm</code> objects do
+	 */
+	@Override
+	protected void appendRepresentation( StringBuilder representation ) {
+		representation.append( getRepresentation() );
+	}
 }
@@ -0,0 +1,55 @@
+package calculate.structures.tree;
+
+/**
+ * a node of the tree that the parser builds from the tokens of an input
+ * expression. trees are immutable, so they may be kept around, inspected or
+ * evaluated by any number of <code>ExpressionVisitor</code> objects, e.g. the
+ * simplifier that calculates the result of the input.
+ */
+abstract public class ExpressionNode {
+
+	/**
+	 * location in input at which this part of the expression appeared
+	 */
+	final private int m_indexInInput;
+
+	/**
+	 * @param indexInInput			location in input at which this part of the expression appeared
+	 */
+	protected ExpressionNode( int indexInInput ) {
+		this.m_indexInInput = indexInInput;
+	}
+
+	/**
+	 * @return			location in input at which this part of the expression appeared
+	 */
+	final public int getIndexInInput() {
+		return this.m_indexInInput;
+	}
+
+	/**
+	 * passes this node to the method of the visitor that handles its kind of node
+	 *
+	 * @param visitor				the visitor
+	 * @return						whatever the visitor returns for this node
+	 */
+	abstract public < T > T accept( ExpressionVisitor < T > visitor );
+
+	/**
+	 * appends a fully parenthesized representation of this node
+	 *
+	 * @param representation		the representation being built
+	 */
+	abstract void appendRepresentation( StringBuilder representation );
+
+	/**
+	 * @return			a fully parenthesized representation of the expression, which
+	 * 					shows how the input was parsed
+	 */
+	@Override
+	public String toString() {
+		StringBuilder rtn = new StringBuilder();
+		appendRepresentation( rtn );
+		return rtn.toString();
+	}
+}
@@ -0,0 +1,19 @@
+package calculate.structures.tree;
+
+/**
+ * computes something from an expression tree, one kind of node at a time
+ *
+ * @param <T>			the type of value computed for each node
+ */
+public interface ExpressionVisitor < T > {
+
+	public T visitValue( ValueNode node );
+
+	public T visitSum( SumNode node );
+
+	public T visitOperation( OperationNode node );
+
+	public T visitNegation( NegationNode node );
+
+	public T visitFunction( FunctionNode node );
+}
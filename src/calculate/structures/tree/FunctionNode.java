@@ -0,0 +1,69 @@
+package calculate.structures.tree;
+
+import calculate.misc.CloseParenthesis;
+import calculate.misc.Comma;
+import calculate.misc.OpenParenthesis;
+import calculate.structures.functional.Function;
+
+/**
+ * a function applied to its arguments, e.g. sin(x)
+ */
+final public class FunctionNode extends ExpressionNode {
+
+	/**
+	 * the function as it was read from the input, without any arguments applied
+	 */
+	final private Function m_function;
+
+	final private ExpressionNode[] m_arguments;
+
+	/**
+	 * @param function				the function as it was read from the input
+	 * @param arguments				the arguments in the order in which they appeared
+	 */
+	public FunctionNode( Function function , ExpressionNode[] arguments ) {
+		super( function.getIndexInInput() );
+		this.m_function = function;
+		this.m_arguments = arguments.clone();
+	}
+
+	/**
+	 * @return			the function as it was read from the input. it must be copied
+	 * 					before arguments are applied to it
+	 */
+	public Function getFunction() {
+		return this.m_function;
+	}
+
+	/**
+	 * @return			the number of arguments given to the function
+	 */
+	public int getNumArguments() {
+		return this.m_arguments.length;
+	}
+
+	/**
+	 * @param index		position of an argument
+	 * @return			the argument at that position
+	 */
+	public ExpressionNode getArgument( int index ) {
+		return this.m_arguments[ index ];
+	}
+
+	@Override
+	public < T > T accept( ExpressionVisitor < T > visitor ) {
+		return visitor.visitFunction( this );
+	}
+
+	@Override
+	void appendRepresentation( StringBuilder representation ) {
+		representation.append( this.m_function.getRepresentation() ).append( OpenParenthesis.REPRESENTATION );
+		for ( int idx = 0 ; idx < this.m_arguments.length ; idx++ ) {
+			if ( idx > 0 ) {
+				representation.append( Comma.REPRESENTATION );
+			}
+			this.m_arguments[ idx ].appendRepresentation( representation );
+		}
+		representation.append( CloseParenthesis.REPRESENTATION );
+	}
+}
@@ -0,0 +1,39 @@
+package calculate.structures.tree;
+
+import calculate.operators.SubtractOperator;
+
+/**
+ * the opposite of an operand, e.g. -x
+ */
+final public class NegationNode extends ExpressionNode {
+
+	final private ExpressionNode m_operand;
+
+	/**
+	 * @param indexInInput			location in input of the negative sign
+	 * @param operand				the operand to negate
+	 */
+	public NegationNode( int indexInInput , ExpressionNode operand ) {
+		super( indexInInput );
+		this.m_operand = operand;
+	}
+
+	/**
+	 * @return			the operand to negate
+	 */
+	public ExpressionNode getOperand() {
+		return this.m_operand;
+	}
+
+	@Override
+	public < T > T accept( ExpressionVisitor < T > visitor ) {
+		return visitor.visitNegation( this );
+	}
+
+	@Override
+	void appendRepresentation( StringBuilder representation ) {
+		representation.append( '(' ).append( SubtractOperator.REPRESENTATION );
+		this.m_operand.appendRepresentation( representation );
+		representation.append( ')' );
+	}
+}
@@ -0,0 +1,61 @@
+package calculate.structures.tree;
+
+import calculate.structures.Operator;
+
+/**
+ * a multiplication, division or exponentiation of two operands. implicit
+ * multiplications, such as 2x, are also represented by multiplication nodes
+ */
+final public class OperationNode extends ExpressionNode {
+
+	final private Operator m_operator;
+	final private ExpressionNode m_leftOperand;
+	final private ExpressionNode m_rightOperand;
+
+	/**
+	 * @param operator				the operation to apply
+	 * @param leftOperand			the operand on the left of the operator
+	 * @param rightOperand			the operand on the right of the operator
+	 */
+	public OperationNode( Operator operator , ExpressionNode leftOperand , ExpressionNode rightOperand ) {
+		super( operator.getIndexInInput() );
+		this.m_operator = operator;
+		this.m_leftOperand = leftOperand;
+		this.m_rightOperand = rightOperand;
+	}
+
+	/**
+	 * @return			the operation to apply
+	 */
+	public Operator getOperator() {
+		return this.m_operator;
+	}
+
+	/**
+	 * @return			the operand on the left of the operator
+	 */
+	public ExpressionNode getLeftOperand() {
+		return this.m_leftOperand;
+	}
+
+	/**
+	 * @return			the operand on the right of the operator
+	 */
+	public ExpressionNode getRightOperand() {
+		return this.m_rightOperand;
+	}
+
+	@Override
+	public < T > T accept( ExpressionVisitor < T > visitor ) {
+		return visitor.visitOperation( this );
+	}
+
+	@Override
+	void appendRepresentation( StringBuilder representation ) {
+		representation.append( '(' );
+		this.m_leftOperand.appendRepresentation( representation );
+		representation.append( this.m_operator.getRepresentation() );
+		this.m_rightOperand.appendRepresentation( representation );
+		representation.append( ')' );
+	}
+}
@@ -0,0 +1,76 @@
+package calculate.structures.tree;
+
+import calculate.operators.AddOperator;
+import calculate.operators.SubtractOperator;
+
+/**
+ * a chain of additions and subtractions, such as a+b-c. the whole chain is one
+ * node so that its terms can be added up together instead of one pair at a time
+ */
+final public class SumNode extends ExpressionNode {
+
+	/**
+	 * the added and subtracted terms, in the order in which they appeared
+	 */
+	final private ExpressionNode[] m_terms;
+
+	/**
+	 * if each term is subtracted instead of added. the first term is always added
+	 */
+	final private boolean[] m_subtracted;
+
+	/**
+	 * @param terms					the terms in the order in which they appeared
+	 * @param subtracted			if each term is subtracted instead of added
+	 */
+	public SumNode( ExpressionNode[] terms , boolean[] subtracted ) {
+		super( terms[ 0 ].getIndexInInput() );
+		if ( terms.length != subtracted.length ) {
+			throw new IllegalArgumentException( "every term must be either added or subtracted" );
+		}
+		this.m_terms = terms.clone();
+		this.m_subtracted = subtracted.clone();
+	}
+
+	/**
+	 * @return			the number of terms in the chain
+	 */
+	public int getNumTerms() {
+		return this.m_terms.length;
+	}
+
+	/**
+	 * @param index		position of a term in the chain
+	 * @return			the term at that position
+	 */
+	public ExpressionNode getTerm( int index ) {
+		return this.m_terms[ index ];
+	}
+
+	/**
+	 * @param index		position of a term in the chain
+	 * @return			if the term at that position is subtracted
+	 */
+	public boolean isSubtracted( int index ) {
+		return this.m_subtracted[ index ];
+	}
+
+	@Override
+	public < T > T accept( ExpressionVisitor < T > visitor ) {
+		return visitor.visitSum( this );
+	}
+
+	@Override
+	void appendRepresentation( StringBuilder representation ) {
+		representation.append( '(' );
+		for ( int idx = 0 ; idx < this.m_terms.length ; idx++ ) {
+			if ( this.m_subtracted[ idx ] ) {
+				representation.append( SubtractOperator.REPRESENTATION );
+			} else if ( idx > 0 ) {
+				representation.append( AddOperator.REPRESENTATION );
+			}
+			this.m_terms[ idx ].appendRepresentation( representation );
+		}
+		representation.append( ')' );
+	}
+}
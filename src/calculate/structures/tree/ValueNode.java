@@ -0,0 +1,36 @@
+package calculate.structures.tree;
+
+import calculate.structures.Combinable;
+
+/**
+ * a number, variable or constant read from the input
+ */
+final public class ValueNode extends ExpressionNode {
+
+	final private Combinable m_value;
+
+	/**
+	 * @param value					the number, variable or constant
+	 */
+	public ValueNode( Combinable value ) {
+		super( value.getIndexInInput() );
+		this.m_value = value;
+	}
+
+	/**
+	 * @return			the number, variable or constant
+	 */
+	public Combinable getValue() {
+		return this.m_value;
+	}
+
+	@Override
+	public < T > T accept( ExpressionVisitor < T > visitor ) {
+		return visitor.visitValue( this );
+	}
+
+	@Override
+	void appendRepresentation( StringBuilder representation ) {
+		representation.append( this.m_value.getRepresentation() );
+	}
+}
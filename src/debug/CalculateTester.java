@@ -2,10 +2,13 @@ package debug;
 
 import _library.LinkedList;
 import calculate.Calculator;
+import calculate.SyntaxException;
+import calculate.structures.Combinable;
 import calculate.structures.polynomial.Fraction;
 import calculate.structures.polynomial.Monomial;
 import calculate.structures.polynomial.MonomialTerm;
 import calculate.structures.polynomial.Numerical;
+import calculate.structures.polynomial.NumericEvaluator;
 import calculate.structures.polynomial.PolynomialTerm;
 import calculate.structures.polynomial.Variable;
 
@@ -22,6 +25,10 @@ public class CalculateTester {
 		//test.evaluate("xspisint");
 		//testMonomial();
 		testFraction();
+		testPolynomialGcd();
+		testFunctions();
+		testNumericalPowers();
+		testNumericEvaluator();
 	}
 	
 	public static void testFraction() {
@@ -65,6 +72,141 @@ public class CalculateTester {
 		System.out.println( one.add( one.clone() ).add( one.clone() ));
 	}
 	
+	/**
+	 * checks that the numeric content of a polynomial gcd is cancelled
+	 * along with its variable part
+	 */
+	public static void testPolynomialGcd() {
+		Calculator exact = test.fork();
+		exact.setOutputMode( Calculator.OUTPUT_EXACT );
+		check( exact , "(6x^2+4x)/(2x)" , "(3x+2)/1" );
+		check( exact , "(2x+2)/2" , "(x+1)/1" );
+		check( exact , "(3x+3)/(6x+6)" , "1/2" );
+		checkDivisionByZero( exact , "(x+1)/0" );
+		checkDivisionByZero( exact , "(x+1)/(x-x)" );
+		checkDivisionByZero( exact , "(x^2+1)/(x-x)" );
+	}
+	
+	/**
+	 * checks that functions, which cannot be evaluated yet, are reported
+	 * as syntax errors instead of being printed as their names
+	 */
+	public static void testFunctions() {
+		checkSyntaxError( test , "sin(x)" );
+		checkSyntaxError( test , "cos(0)" );
+		checkSyntaxError( test , "sin(x)+sin(x)" );
+	}
+	
+	/**
+	 * checks that powers of numbers that cannot be calculated exactly are
+	 * displayed so that they read back as the same value
+	 */
+	public static void testNumericalPowers() {
+		Calculator exact = test.fork();
+		exact.setOutputMode( Calculator.OUTPUT_EXACT );
+		check( exact , "2^(1/2)+2^(1/2)" , "2*2^(1/2)" );
+		check( exact , "3*2^(1/2)" , "3*2^(1/2)" );
+		check( exact , "(-1)^(1/2)" , "(-1)^(1/2)" );
+		check( exact , "(12/5)^(1/2)" , "(12/5)^(1/2)" );
+	}
+	
+	/**
+	 * checks that compiled results give the same values as the exact results.
+	 * the values are chosen so that the <code>double</code> arithmetic is exact
+	 */
+	public static void testNumericEvaluator() {
+		Calculator exact = test.fork();
+		exact.setOutputMode( Calculator.OUTPUT_EXACT );
+		String[] noVariables = new String[ 0 ];
+		String[] variables = new String[] { "x" , "s" };
+		double[] values = new double[] { 2.5 , 0.5 };
+		checkCompiled( exact , "1/3" , "1/3" , noVariables , new double[ 0 ] );
+		checkCompiled( exact , "-2/3" , "-2/3" , noVariables , new double[ 0 ] );
+		checkCompiled( exact , "2^60/3" , "2^60/3" , noVariables , new double[ 0 ] );
+		checkCompiled( exact , "(x+1)^3*(s-2)/4" , "(5/2+1)^3*(1/2-2)/4" , variables , values );
+		checkCompiled( exact , "x^3s+xs^2-7" , "(5/2)^3*(1/2)+(5/2)*(1/2)^2-7" , variables , values );
+		checkCompiled( exact , "(x^2+1)/(x-s)" , "((5/2)^2+1)/(5/2-1/2)" , variables , values );
+	}
+	
+	/**
+	 * compiles the result of an input and prints it if its value differs from the
+	 * exact result of the same input with the values written in
+	 * 
+	 * @param environment			the calculator used to evaluate the inputs
+	 * @param input					the expression to compile
+	 * @param substituted			the same expression with the values in place of the variables
+	 * @param variables				names of the variables
+	 * @param values				value of each variable
+	 */
+	private static void checkCompiled( Calculator environment , String input , String substituted , String[] variables , double[] values ) {
+		String actual;
+		String expected;
+		try {
+			actual = Double.toString( NumericEvaluator.compile( environment.evaluate( input ).getResult() , variables ).evaluate( values ) );
+			Combinable exactResult = environment.evaluate( substituted ).getResult();
+			expected = exactResult instanceof Numerical ? Double.toString( ( ( Numerical ) exactResult ).getNumericalValue().doubleValue() ) : exactResult.toString();
+		}
+		catch ( RuntimeException e ) {
+			actual = e.getClass().getSimpleName() + ": " + e.getMessage();
+			expected = substituted;
+		}
+		if ( !actual.equals( expected ) ) {
+			System.out.println( input + " compiled to " + actual + ", expected " + expected );
+		}
+	}
+	
+	/**
+	 * evaluates an input and prints it if the result is not what was expected
+	 * 
+	 * @param environment			the calculator used to evaluate the input
+	 * @param input					the expression to evaluate
+	 * @param expected				the expected string form of the result
+	 */
+	private static void check( Calculator environment , String input , String expected ) {
+		String actual;
+		try {
+			actual = environment.evaluate( input ).getResult().toString();
+		}
+		catch ( RuntimeException e ) {
+			actual = e.getClass().getSimpleName() + ": " + e.getMessage();
+		}
+		if ( !actual.equals( expected ) ) {
+			System.out.println( input + " gave " + actual + ", expected " + expected );
+		}
+	}
+	
+	/**
+	 * evaluates an input and prints it if it does not cause a <code>SyntaxException</code>
+	 * 
+	 * @param environment			the calculator used to evaluate the input
+	 * @param input					the invalid expression
+	 */
+	private static void checkSyntaxError( Calculator environment , String input ) {
+		try {
+			Combinable result = environment.evaluate( input ).getResult();
+			System.out.println( input + " gave " + result + ", expected a syntax error" );
+		}
+		catch ( SyntaxException e ) {
+			//expected
+		}
+	}
+	
+	/**
+	 * evaluates an input and prints it if it does not cause a division by zero
+	 * 
+	 * @param environment			the calculator used to evaluate the input
+	 * @param input					an expression that divides by zero
+	 */
+	private static void checkDivisionByZero( Calculator environment , String input ) {
+		try {
+			Combinable result = environment.evaluate( input ).getResult();
+			System.out.println( input + " gave " + result + ", expected a division by zero" );
+		}
+		catch ( ArithmeticException e ) {
+			//expected
+		}
+	}
+	
 	//implicit multiplication tests:
 	/*
 	 xpispispispispispis         x*pi*s*pi*s*pi*s*pi*s*pi*s*pi*s
@@ -140,6 +282,9 @@ public class CalculateTester {
 			5x^4s^3/(4s^3x^4)			1.25
 			
 			8^xx^x+8^xx^x				2*8^xx^x
+			2^(1/2)+2^(1/2)				2*2^(1/2)
+			(-1)^(1/2)					(-1)^(1/2)
+			(12/5)^(1/2)				(12/5)^(1/2)
 			8^2^x						8^(2^x)
 			(8^2)^x						64^x
 			8^x*8^x						8^(2x)
@@ -173,6 +318,9 @@ public class CalculateTester {
 			(x+1)(x+1)(x+1)/(x+1)			x^2+2x+1
 			(x+sint-x-sint)/(x+sint-x-sint) 0
 			((x+5)/(2x+6))*(x+3)			(x+5)/2
+			(6x^2+4x)/(2x)					3x+2
+			(2x+2)/2						x+1
+			(3x+3)/(6x+6)					1/2
 			
 	//Bad inputs
 	 */
@@ -40,6 +40,11 @@ public class Shell extends JFrame {
 	
 	final private InputField pnlInput = new InputField();
 	
+	/**
+	 * the default variables and constants, which are defined only once
+	 */
+	final private Calculator m_defaultEnvironment = createDefaultEnvironment();
+	
 	public Shell() {
 		
 		this.menu.addShellMenuListener( new ShellMenuListener ( this ) );
@@ -92,7 +97,11 @@ public class Shell extends JFrame {
 		);
 	}
 	
-	public void processInput( InputField inputField ) {
+	/**
+	 * creates the environment with the default variables and constants, which
+	 * every input starts from
+	 */
+	private static Calculator createDefaultEnvironment() {
 		
 		//TODO
 		Calculator test = new Calculator();
@@ -125,6 +134,14 @@ public class Shell extends JFrame {
 		test.defineVariable("s", "6");
 		test.defineVariable("sint", "10");
 		test.defineConstant( "e" , new Fraction( test , "2.71828" ) );
+		return test;
+	}
+	
+	public void processInput( InputField inputField ) {
+		
+		//each input is evaluated in its own session, so that definitions made
+		//while evaluating it do not carry over to the next input
+		Calculator test = this.m_defaultEnvironment.fork();
 		try {
 			Expression result = test.evaluate( inputField.getInput() );
 			String latexInput = result.getLatexInput();
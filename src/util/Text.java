@@ -37,6 +37,7 @@ final public class Text {
 			final public static String MISSING_OPEN_PARENTHESIS = "Missing \"(\"";
 			final public static String MISSING_CLOSE_PARENTHESIS = "Missing \")\"";
 			final public static String EXTRA_PRENTHESIS = "Extra Parenthesis ";
+			final public static String MISSING_OPERAND = "Missing operand";
 			
 			final public static String getInsufficientOperandsMessage( String operator ) {
 				return "Too few operands for operator \"" + operator + "\"";
@@ -49,6 +50,14 @@ final public class Text {
 			final public static String getTooManyOperandsMessage( String extraOperand ) {
 				return "Too many operands/arguments. Extra operand/argument detected: " + extraOperand;
 			}
+			
+			final public static String getUnsupportedOperationMessage( String operator ) {
+				return "Operator \"" + operator + "\" cannot be applied to its operands";
+			}
+			
+			final public static String getUnsupportedFunctionMessage( String function ) {
+				return "Function \"" + function + "\" cannot be evaluated";
+			}
 		}
 	}
 }